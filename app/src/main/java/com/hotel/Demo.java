@@ -10,7 +10,7 @@ import java.util.Date;
 /**
  * Test Case from Technical Requirements PDF
  */
-public class Main {
+public class Demo {
 
     public static final String RESET = "\u001B[0m";
     public static final String RED = "\u001B[31m";
@@ -21,7 +21,10 @@ public class Main {
     public static final String CYAN = "\u001B[36m";
     public static final String BOLD = "\u001B[1m";
 
-    public static void main(String[] args) throws InterruptedException {
+    private Demo() {
+    }
+
+    public static void run() throws InterruptedException {
         Service service = new Service();
 
         showLoadingAnimation();
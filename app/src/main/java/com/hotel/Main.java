@@ -0,0 +1,67 @@
+package com.hotel;
+
+import com.hotel.http.HotelHttpServer;
+import com.hotel.persistence.BulkImport;
+import com.hotel.service.Service;
+import com.hotel.simulation.Simulation;
+import com.hotel.simulation.SimulationConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Command line entry point:
+ * <pre>
+ * Main [simulate] [name=value ...]   runs a simulated workload and prints its report as one JSON line,
+ *                                    options as in {@link SimulationConfig#parse(String...)}
+ * Main serve [port]                  serves an empty service over HTTP
+ * Main import rooms users bookings   bulk-imports CSV exports into a new service and prints the import report
+ * Main import snapshot               does the same from a persistence snapshot file
+ * Main demo                          walks through the test case of the technical requirements
+ * </pre>
+ */
+public class Main {
+
+    private static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Serves an empty service over HTTP until the process is stopped.
+     */
+    private static void serve(int port) throws IOException, InterruptedException {
+        HotelHttpServer server = HotelHttpServer.start(new Service(), new InetSocketAddress(port));
+        System.out.println("Serving on http://localhost:" + server.getAddress().getPort()
+                + (server.isUsingVirtualThreads() ? " (virtual threads)" : " (thread pool)"));
+        Thread.currentThread().join();
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String command = args.length == 0 || args[0].contains("=") ? "simulate" : args[0];
+        String[] options = args.length > 0 && args[0].equals(command) ? Arrays.copyOfRange(args, 1, args.length) : args;
+        switch (command) {
+            case "simulate":
+                System.out.println(Simulation.run(SimulationConfig.parse(options)).toJson());
+                break;
+            case "serve":
+                serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+                break;
+            case "import":
+                BulkImport bulkImport = options.length == 1 ? BulkImport.snapshot(Paths.get(options[0]))
+                        : options.length == 3 ? BulkImport.csv(Paths.get(options[0]), Paths.get(options[1]),
+                                Paths.get(options[2])) : null;
+                if (bulkImport == null) {
+                    System.err.println("Usage: Main import rooms.csv users.csv bookings.csv | import snapshot.bin");
+                    System.exit(2);
+                }
+                System.out.println(bulkImport.into(new Service()).toJson());
+                break;
+            case "demo":
+                Demo.run();
+                break;
+            default:
+                System.err.println("Usage: Main [simulate] [name=value ...] | serve [port] | import files... | demo");
+                System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotel.analytics;
+
+import com.hotel.entities.RoomType;
+
+/**
+ * Room nights sold and their revenue per room type and night, in primitive arrays indexed by epoch day.
+ * The covered days grow in either direction as stays are added. Not thread-safe.
+ */
+final class DayRollup {
+
+    static final int TYPES = RoomType.values().length;
+
+    private int firstDay;
+    private int capacity;
+    private final int[][] nightsSold = new int[TYPES][];
+    private final long[][] revenue = new long[TYPES][];
+
+    DayRollup() {
+        for (int type = 0; type < TYPES; type++) {
+            nightsSold[type] = new int[0];
+            revenue[type] = new long[0];
+        }
+    }
+
+    /**
+     * Adds every night of the stay [checkInDay, checkOutDay) at the given price.
+     */
+    void add(int type, int checkInDay, int checkOutDay, int pricePerNight) {
+        addNights(type, checkInDay, checkOutDay, 1, pricePerNight);
+    }
+
+    /**
+     * Takes back every night of a stay that was added before, as when it is cancelled.
+     */
+    void remove(int type, int checkInDay, int checkOutDay, int pricePerNight) {
+        addNights(type, checkInDay, checkOutDay, -1, -pricePerNight);
+    }
+
+    private void addNights(int type, int checkInDay, int checkOutDay, int count, int pricePerNight) {
+        if (checkInDay >= checkOutDay) {
+            return;
+        }
+        cover(checkInDay, checkOutDay);
+
+        int[] nights = nightsSold[type];
+        long[] amounts = revenue[type];
+        for (int index = checkInDay - firstDay; index < checkOutDay - firstDay; index++) {
+            nights[index] += count;
+            amounts[index] += pricePerNight;
+        }
+    }
+
+    void addAll(DayRollup other) {
+        if (other.capacity == 0) {
+            return;
+        }
+        cover(other.firstDay, other.firstDay + other.capacity);
+
+        int offset = other.firstDay - firstDay;
+        for (int type = 0; type < TYPES; type++) {
+            for (int index = 0; index < other.capacity; index++) {
+                nightsSold[type][offset + index] += other.nightsSold[type][index];
+                revenue[type][offset + index] += other.revenue[type][index];
+            }
+        }
+    }
+
+    int nightsSold(int type, int day) {
+        int index = day - firstDay;
+        return index >= 0 && index < capacity ? nightsSold[type][index] : 0;
+    }
+
+    long revenue(int type, int day) {
+        int index = day - firstDay;
+        return index >= 0 && index < capacity ? revenue[type][index] : 0;
+    }
+
+    /**
+     * Copies the nights in [fromDay, toDay) into a rollup covering exactly that range.
+     */
+    DayRollup slice(int fromDay, int toDay) {
+        DayRollup slice = new DayRollup();
+        slice.cover(fromDay, toDay);
+        for (int type = 0; type < TYPES; type++) {
+            for (int day = fromDay; day < toDay; day++) {
+                slice.nightsSold[type][day - fromDay] = nightsSold(type, day);
+                slice.revenue[type][day - fromDay] = revenue(type, day);
+            }
+        }
+        return slice;
+    }
+
+    // Grows the arrays to cover [fromDay, toDay), leaving slack on the side that grew.
+    private void cover(int fromDay, int toDay) {
+        if (capacity == 0) {
+            firstDay = fromDay;
+            resize(fromDay, toDay - fromDay);
+            return;
+        }
+        int endDay = firstDay + capacity;
+        if (fromDay >= firstDay && toDay <= endDay) {
+            return;
+        }
+
+        int newFirstDay = Math.min(firstDay, fromDay);
+        int newEndDay = Math.max(endDay, toDay);
+        int newCapacity = Math.max(newEndDay - newFirstDay, capacity * 2);
+        if (fromDay < firstDay) {
+            newFirstDay = newEndDay - newCapacity;
+        }
+        resize(newFirstDay, newCapacity);
+    }
+
+    private void resize(int newFirstDay, int newCapacity) {
+        int offset = firstDay - newFirstDay;
+        for (int type = 0; type < TYPES; type++) {
+            int[] nights = new int[newCapacity];
+            long[] amounts = new long[newCapacity];
+            System.arraycopy(nightsSold[type], 0, nights, offset, capacity);
+            System.arraycopy(revenue[type], 0, amounts, offset, capacity);
+            nightsSold[type] = nights;
+            revenue[type] = amounts;
+        }
+        firstDay = newFirstDay;
+        capacity = newCapacity;
+    }
+}
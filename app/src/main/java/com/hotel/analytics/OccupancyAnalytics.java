@@ -0,0 +1,168 @@
+package com.hotel.analytics;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.service.Service;
+import com.hotel.service.ServiceListener;
+import com.hotel.service.ServiceSnapshot;
+import com.hotel.util.IntLinkedMap;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Occupancy rate, average daily rate and revenue per room type and night.
+ * Attached to a service, it keeps day × room type rollups that every booking updates as it is recorded, so reports
+ * over any range cost only the nights and types they cover. {@link #compute} recomputes the same figures from a
+ * snapshot by scanning the booking store in parallel on the fork-join pool.
+ * <p>
+ * Attach after recovery: restored rooms and bookings are not reported to listeners.
+ */
+public final class OccupancyAnalytics implements AutoCloseable {
+
+    private final Service service;
+    private final DayRollup rollup = new DayRollup();
+    private final IntLinkedMap<RoomType> roomTypes = new IntLinkedMap<>();
+    private final int[] roomsByType = new int[DayRollup.TYPES];
+
+    private final ServiceListener listener = new ServiceListener() {
+        @Override
+        public void roomSet(Room room) {
+            synchronized (OccupancyAnalytics.this) {
+                countRoom(room);
+            }
+        }
+
+        @Override
+        public void userSet(User user) {
+        }
+
+        @Override
+        public void bookingCreated(Booking booking) {
+            synchronized (OccupancyAnalytics.this) {
+                rollup.add(booking.getBookedRoomType().ordinal(), booking.getCheckInDay(), booking.getCheckOutDay(),
+                        booking.getBookedPricePerNight());
+            }
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking) {
+            synchronized (OccupancyAnalytics.this) {
+                rollup.remove(booking.getBookedRoomType().ordinal(), booking.getCheckInDay(),
+                        booking.getCheckOutDay(), booking.getBookedPricePerNight());
+            }
+        }
+    };
+
+    private OccupancyAnalytics(Service service) {
+        this.service = service;
+    }
+
+    /**
+     * Starts maintaining rollups for the service, seeded with a parallel scan of its current bookings.
+     * Changes are paused only while the listener is registered and a snapshot is taken.
+     */
+    public static OccupancyAnalytics attach(Service service) {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+
+        OccupancyAnalytics analytics = new OccupancyAnalytics(service);
+        ServiceSnapshot[] seed = new ServiceSnapshot[1];
+        service.runExclusively(() -> {
+            service.addListener(analytics.listener);
+            seed[0] = service.snapshot();
+            synchronized (analytics) {
+                for (Room room : seed[0].getRooms()) {
+                    analytics.countRoom(room);
+                }
+            }
+        });
+
+        // Bookings recorded or cancelled since the snapshot are already in the rollups; adding and taking back
+        // nights is order-independent.
+        DayRollup existing = rollUp(seed[0], Integer.MIN_VALUE, Integer.MAX_VALUE);
+        synchronized (analytics) {
+            analytics.rollup.addAll(existing);
+        }
+        return analytics;
+    }
+
+    /**
+     * Recomputes the report for the nights [from, to) from the snapshot alone, in parallel.
+     */
+    public static OccupancyReport compute(ServiceSnapshot snapshot, LocalDate from, LocalDate to) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        int fromDay = epochDay(from);
+        int toDay = epochDay(to);
+        requireRange(fromDay, toDay);
+
+        int[] rooms = new int[DayRollup.TYPES];
+        for (Room room : snapshot.getRooms()) {
+            rooms[room.getRoomType().ordinal()]++;
+        }
+        return new OccupancyReport(fromDay, toDay, rooms, rollUp(snapshot, fromDay, toDay).slice(fromDay, toDay));
+    }
+
+    /**
+     * The report for the nights [from, to), read from the rollups.
+     */
+    public synchronized OccupancyReport report(LocalDate from, LocalDate to) {
+        int fromDay = epochDay(from);
+        int toDay = epochDay(to);
+        requireRange(fromDay, toDay);
+        return new OccupancyReport(fromDay, toDay, roomsByType.clone(), rollup.slice(fromDay, toDay));
+    }
+
+    /**
+     * One night of one room type, read from the rollups.
+     */
+    public synchronized OccupancyStats getDay(RoomType roomType, LocalDate day) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        int epochDay = epochDay(day);
+        int type = roomType.ordinal();
+        return new OccupancyStats(roomType, day, day.plusDays(1), roomsByType[type],
+                rollup.nightsSold(type, epochDay), rollup.revenue(type, epochDay));
+    }
+
+    /**
+     * Stops following the service; reports keep returning the figures reached so far.
+     */
+    @Override
+    public void close() {
+        service.removeListener(listener);
+    }
+
+    private static DayRollup rollUp(ServiceSnapshot snapshot, int fromDay, int toDay) {
+        return ForkJoinPool.commonPool().invoke(new RollupTask(snapshot.getBookingStore(), 0,
+                snapshot.getBookingRowCount(), snapshot.getBookingCancellations(), fromDay, toDay));
+    }
+
+    // Must be called while holding this object's monitor.
+    private void countRoom(Room room) {
+        RoomType previous = roomTypes.put(room.getRoomNumber(), room.getRoomType());
+        if (previous != null) {
+            roomsByType[previous.ordinal()]--;
+        }
+        roomsByType[room.getRoomType().ordinal()]++;
+    }
+
+    private static int epochDay(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        return (int) date.toEpochDay();
+    }
+
+    private static void requireRange(int fromDay, int toDay) {
+        if (fromDay >= toDay) {
+            throw new IllegalArgumentException("The range must cover at least one night");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotel.analytics;
+
+import com.hotel.entities.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Occupancy and revenue per room type and night over the nights [from, to). Immutable.
+ */
+public final class OccupancyReport {
+
+    private final int fromDay;
+    private final int toDay;
+    private final int[] roomsByType;
+    private final DayRollup nights;
+
+    OccupancyReport(int fromDay, int toDay, int[] roomsByType, DayRollup nights) {
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.roomsByType = roomsByType;
+        this.nights = nights;
+    }
+
+    public LocalDate getFrom() {
+        return LocalDate.ofEpochDay(fromDay);
+    }
+
+    public LocalDate getTo() {
+        return LocalDate.ofEpochDay(toDay);
+    }
+
+    public int getRoomCount(RoomType roomType) {
+        return roomsByType[roomType.ordinal()];
+    }
+
+    public OccupancyStats getDay(RoomType roomType, LocalDate day) {
+        if (roomType == null || day == null) {
+            throw new IllegalArgumentException("Room type and day cannot be null");
+        }
+        int epochDay = (int) day.toEpochDay();
+        if (epochDay < fromDay || epochDay >= toDay) {
+            throw new IllegalArgumentException("Day " + day + " is outside the report");
+        }
+        return stats(roomType, epochDay, epochDay + 1);
+    }
+
+    /**
+     * One entry per night of the report, in date order.
+     */
+    public List<OccupancyStats> getDays(RoomType roomType) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        List<OccupancyStats> days = new ArrayList<>(toDay - fromDay);
+        for (int day = fromDay; day < toDay; day++) {
+            days.add(stats(roomType, day, day + 1));
+        }
+        return days;
+    }
+
+    public OccupancyStats getTotal(RoomType roomType) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        return stats(roomType, fromDay, toDay);
+    }
+
+    private OccupancyStats stats(RoomType roomType, int firstDay, int endDay) {
+        int type = roomType.ordinal();
+        long sold = 0;
+        long revenue = 0;
+        for (int day = firstDay; day < endDay; day++) {
+            sold += nights.nightsSold(type, day);
+            revenue += nights.revenue(type, day);
+        }
+        return new OccupancyStats(roomType, LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(endDay),
+                (long) roomsByType[type] * (endDay - firstDay), sold, revenue);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        OccupancyReport report = (OccupancyReport) obj;
+        if (fromDay != report.fromDay || toDay != report.toDay || !Arrays.equals(roomsByType, report.roomsByType)) {
+            return false;
+        }
+        for (int type = 0; type < DayRollup.TYPES; type++) {
+            for (int day = fromDay; day < toDay; day++) {
+                if (nights.nightsSold(type, day) != report.nights.nightsSold(type, day)
+                        || nights.revenue(type, day) != report.nights.revenue(type, day)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * fromDay + toDay;
+        for (int type = 0; type < DayRollup.TYPES; type++) {
+            for (int day = fromDay; day < toDay; day++) {
+                hash = 31 * hash + nights.nightsSold(type, day);
+                hash = 31 * hash + Long.hashCode(nights.revenue(type, day));
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("OccupancyReport{from=").append(getFrom()).append(", to=").append(getTo());
+        for (RoomType roomType : RoomType.values()) {
+            text.append(", ").append(getTotal(roomType));
+        }
+        return text.append('}').toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotel.analytics;
+
+import com.hotel.entities.RoomType;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Occupancy and revenue of one room type over the nights [from, to).
+ * Room nights available are the rooms of the type times the nights of the period.
+ */
+public final class OccupancyStats {
+
+    private final RoomType roomType;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long roomNightsAvailable;
+    private final long roomNightsSold;
+    private final long revenue;
+
+    public OccupancyStats(RoomType roomType, LocalDate from, LocalDate to,
+            long roomNightsAvailable, long roomNightsSold, long revenue) {
+        this.roomType = roomType;
+        this.from = from;
+        this.to = to;
+        this.roomNightsAvailable = roomNightsAvailable;
+        this.roomNightsSold = roomNightsSold;
+        this.revenue = revenue;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public long getRoomNightsAvailable() {
+        return roomNightsAvailable;
+    }
+
+    public long getRoomNightsSold() {
+        return roomNightsSold;
+    }
+
+    public long getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Share of available room nights that were sold, or 0 if none were available.
+     */
+    public double getOccupancyRate() {
+        return roomNightsAvailable == 0 ? 0 : (double) roomNightsSold / roomNightsAvailable;
+    }
+
+    /**
+     * Average daily rate: revenue per room night sold, or 0 if none were sold.
+     */
+    public double getAverageDailyRate() {
+        return roomNightsSold == 0 ? 0 : (double) revenue / roomNightsSold;
+    }
+
+    /**
+     * Revenue per available room night, or 0 if none were available.
+     */
+    public double getRevenuePerAvailableRoom() {
+        return roomNightsAvailable == 0 ? 0 : (double) revenue / roomNightsAvailable;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        OccupancyStats stats = (OccupancyStats) obj;
+        return roomType == stats.roomType && from.equals(stats.from) && to.equals(stats.to)
+                && roomNightsAvailable == stats.roomNightsAvailable && roomNightsSold == stats.roomNightsSold
+                && revenue == stats.revenue;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(roomType, from, to, roomNightsAvailable, roomNightsSold, revenue);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OccupancyStats{type=%s, from=%s, to=%s, occupancy=%.3f, adr=%.2f, revenue=%d}",
+                roomType, from, to, getOccupancyRate(), getAverageDailyRate(), revenue);
+    }
+}
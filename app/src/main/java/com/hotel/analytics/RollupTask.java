@@ -0,0 +1,53 @@
+package com.hotel.analytics;
+
+import com.hotel.entities.BookingStore;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Rolls up the nights within [fromDay, toDay) of a range of booking store rows, splitting the rows in halves
+ * across the fork-join pool until a range is small enough to scan directly. Rows cancelled within the first
+ * {@code cancellations} cancellations are skipped.
+ */
+final class RollupTask extends RecursiveTask<DayRollup> {
+
+    static final int SEQUENTIAL_ROWS = 1 << 14;
+
+    private final BookingStore store;
+    private final int firstRow;
+    private final int endRow;
+    private final int cancellations;
+    private final int fromDay;
+    private final int toDay;
+
+    RollupTask(BookingStore store, int firstRow, int endRow, int cancellations, int fromDay, int toDay) {
+        this.store = store;
+        this.firstRow = firstRow;
+        this.endRow = endRow;
+        this.cancellations = cancellations;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+    }
+
+    @Override
+    protected DayRollup compute() {
+        if (endRow - firstRow <= SEQUENTIAL_ROWS) {
+            DayRollup rollup = new DayRollup();
+            for (int row = firstRow; row < endRow; row++) {
+                if (!store.isLiveAfter(row, cancellations)) {
+                    continue;
+                }
+                rollup.add(store.getRoomType(row).ordinal(), Math.max(fromDay, store.getCheckInDay(row)),
+                        Math.min(toDay, store.getCheckOutDay(row)), store.getPricePerNight(row));
+            }
+            return rollup;
+        }
+
+        int middleRow = (firstRow + endRow) >>> 1;
+        RollupTask left = new RollupTask(store, firstRow, middleRow, cancellations, fromDay, toDay);
+        left.fork();
+        DayRollup rollup = new RollupTask(store, middleRow, endRow, cancellations, fromDay, toDay).compute();
+        rollup.addAll(left.join());
+        return rollup;
+    }
+}
@@ -0,0 +1,187 @@
+package com.hotel.engine;
+
+import com.hotel.entities.RoomType;
+import com.hotel.service.Service;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer front end for {@link Service}.
+ * Producers publish commands into a preallocated ring buffer; one writer thread drains it in batches,
+ * applies the commands in sequence order and completes each command's future.
+ * Commands submitted here never contend with each other for a room, and the sequence order can be logged and
+ * replayed. They are still applied through the service's public methods, so the writer takes the service's locks
+ * like any other caller; those locks are only contended by callers using the service directly.
+ * Futures complete on the writer thread, so dependent actions should be attached with the async variants.
+ */
+public class BookingEngine implements AutoCloseable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 50_000;
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final Service service;
+    private final CommandLog commandLog;
+
+    private final int mask;
+    private final Command[] commands;
+    private final CompletableFuture<?>[] futures;
+    // Sequence published in each slot; a slot is readable once it holds the sequence being consumed.
+    private final AtomicLongArray published;
+
+    // Next sequence to claim; the sign bit is set once the engine is closed.
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+
+    private final Thread writer;
+
+    public BookingEngine(Service service) {
+        this(service, DEFAULT_BUFFER_SIZE, null);
+    }
+
+    public BookingEngine(Service service, int bufferSize, CommandLog commandLog) {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a positive power of two");
+        }
+
+        this.service = service;
+        this.commandLog = commandLog;
+        this.mask = bufferSize - 1;
+        this.commands = new Command[bufferSize];
+        this.futures = new CompletableFuture<?>[bufferSize];
+        this.published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+
+        this.writer = new Thread(this::runWriter, "booking-engine-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public CompletableFuture<Void> setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
+        return submit(Command.setRoom(roomNumber, roomType, roomPricePerNight));
+    }
+
+    public CompletableFuture<Void> setUser(int userId, int balance) {
+        return submit(Command.setUser(userId, balance));
+    }
+
+    public CompletableFuture<Void> bookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        return submit(Command.bookRoom(userId, roomNumber, checkIn, checkOut));
+    }
+
+    /**
+     * Publishes a command, waiting for free space if the ring buffer is full.
+     * The future completes exceptionally with the exception the service threw, if any.
+     */
+    public CompletableFuture<Void> submit(Command command) {
+        if (command == null) {
+            throw new IllegalArgumentException("Command cannot be null");
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if ((sequence & CLOSED) != 0) {
+                throw new IllegalStateException("Booking engine is closed");
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int spins = 0;
+        while (sequence - commands.length >= consumed.get()) {
+            spins = idle(spins);
+        }
+
+        int index = (int) sequence & mask;
+        commands[index] = command;
+        futures[index] = future;
+        published.set(index, sequence);
+        return future;
+    }
+
+    /**
+     * Number of commands applied so far; also the sequence of the next command to apply.
+     */
+    public long getAppliedCount() {
+        return consumed.get();
+    }
+
+    /**
+     * Stops accepting commands and waits until every published command has been applied.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        long sequence;
+        do {
+            sequence = claimed.get();
+        } while ((sequence & CLOSED) == 0 && !claimed.compareAndSet(sequence, sequence | CLOSED));
+        writer.join();
+    }
+
+    private void runWriter() {
+        long next = 0;
+        int spins = 0;
+        while (true) {
+            long end = next;
+            while (end - next < MAX_BATCH_SIZE && published.get((int) end & mask) == end) {
+                end++;
+            }
+
+            if (end == next) {
+                if (claimed.get() == (next | CLOSED)) {
+                    return;
+                }
+                spins = idle(spins);
+                continue;
+            }
+
+            spins = 0;
+            for (long sequence = next; sequence < end; sequence++) {
+                apply(sequence);
+            }
+            next = end;
+            consumed.set(end);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(long sequence) {
+        int index = (int) sequence & mask;
+        Command command = commands[index];
+        CompletableFuture<Void> future = (CompletableFuture<Void>) futures[index];
+        commands[index] = null;
+        futures[index] = null;
+
+        // Whatever the log or the command throws fails only this command; the writer must keep going, or every
+        // pending and later submit would wait forever. A command the log rejects is not applied.
+        try {
+            if (commandLog != null) {
+                commandLog.append(sequence, command);
+            }
+            command.applyTo(service);
+            future.complete(null);
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static int idle(int spins) {
+        if (spins < SPINS_BEFORE_PARK) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return spins + 1;
+    }
+}
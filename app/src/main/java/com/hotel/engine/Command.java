@@ -0,0 +1,113 @@
+package com.hotel.engine;
+
+import com.hotel.entities.RoomType;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.service.Service;
+
+import java.util.Date;
+
+/**
+ * Immutable description of one state-changing call on {@link Service}.
+ * Applying the same commands in the same order to an empty service rebuilds the same state.
+ */
+public final class Command {
+
+    public enum Type {
+        SET_ROOM,
+        SET_USER,
+        BOOK_ROOM
+    }
+
+    private final Type type;
+    private final int userId;
+    private final int roomNumber;
+    private final RoomType roomType;
+    private final int amount;
+    private final Date checkIn;
+    private final Date checkOut;
+
+    private Command(Type type, int userId, int roomNumber, RoomType roomType, int amount,
+            Date checkIn, Date checkOut) {
+        this.type = type;
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.amount = amount;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    public static Command setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
+        return new Command(Type.SET_ROOM, 0, roomNumber, roomType, roomPricePerNight, null, null);
+    }
+
+    public static Command setUser(int userId, int balance) {
+        return new Command(Type.SET_USER, userId, 0, null, balance, null, null);
+    }
+
+    public static Command bookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        return new Command(Type.BOOK_ROOM, userId, roomNumber, null, 0,
+                checkIn == null ? null : new Date(checkIn.getTime()),
+                checkOut == null ? null : new Date(checkOut.getTime()));
+    }
+
+    public void applyTo(Service service) throws HotelReservationException {
+        switch (type) {
+            case SET_ROOM:
+                service.setRoom(roomNumber, roomType, amount);
+                break;
+            case SET_USER:
+                service.setUser(userId, amount);
+                break;
+            case BOOK_ROOM:
+                service.bookRoom(userId, roomNumber, checkIn, checkOut);
+                break;
+            default:
+                throw new IllegalStateException("Unknown command type: " + type);
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    /**
+     * The price per night of a SET_ROOM command, or the balance of a SET_USER command; 0 for BOOK_ROOM.
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    public Date getCheckIn() {
+        return checkIn == null ? null : new Date(checkIn.getTime());
+    }
+
+    public Date getCheckOut() {
+        return checkOut == null ? null : new Date(checkOut.getTime());
+    }
+
+    @Override
+    public String toString() {
+        return "Command{" +
+                "type=" + type +
+                ", userId=" + userId +
+                ", roomNumber=" + roomNumber +
+                ", roomType=" + roomType +
+                ", amount=" + amount +
+                ", checkIn=" + checkIn +
+                ", checkOut=" + checkOut +
+                '}';
+    }
+}
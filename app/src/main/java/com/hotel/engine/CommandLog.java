@@ -0,0 +1,11 @@
+package com.hotel.engine;
+
+/**
+ * Receives every command in the order the engine applied it, for auditing or replay.
+ * Called on the writer thread, so implementations must be fast and must not block. If it throws, the command is
+ * not applied and its future completes with the exception.
+ */
+public interface CommandLog {
+
+    void append(long sequence, Command command);
+}
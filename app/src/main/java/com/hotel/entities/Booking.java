@@ -0,0 +1,180 @@
+package com.hotel.entities;
+
+import com.hotel.util.EpochDays;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * A booking, stored as one row of a {@link BookingStore}. Instances are lightweight views of that row.
+ * The stay is a whole number of nights between two epoch days; the {@code Date} accessors return
+ * midnight of those days in the system time zone.
+ */
+public class Booking {
+
+    private final BookingStore store;
+    private final int row;
+
+    public Booking(int bookingId, User user, Room room,
+            Date checkInDate, Date checkOutDate) {
+        this(bookingId, user, room, checkInDate, checkOutDate, user == null ? 0 : user.getBalance());
+    }
+
+    public Booking(int bookingId, User user, Room room,
+            Date checkInDate, Date checkOutDate, int userBalanceAtBooking) {
+        this(singleRow(bookingId, user, room, checkInDate, checkOutDate, userBalanceAtBooking), 0);
+    }
+
+    /**
+     * Rebuilds a booking from stored fields, e.g. when restoring persisted state.
+     */
+    public Booking(int bookingId, int userId, int roomNumber, RoomType bookedRoomType, int bookedPricePerNight,
+            int userBalanceAtBooking, Date checkInDate, Date checkOutDate, Date bookingDate) {
+        this(bookingId, userId, roomNumber, bookedRoomType, bookedPricePerNight, userBalanceAtBooking,
+                epochDay(checkInDate), epochDay(checkOutDate), epochMillis(bookingDate));
+    }
+
+    /**
+     * Rebuilds a booking from stored fields with the stay given in epoch days.
+     */
+    public Booking(int bookingId, int userId, int roomNumber, RoomType bookedRoomType, int bookedPricePerNight,
+            int userBalanceAtBooking, int checkInDay, int checkOutDay, long bookingDate) {
+        this(singleRow(bookingId, userId, roomNumber, bookedRoomType, bookedPricePerNight,
+                userBalanceAtBooking, checkInDay, checkOutDay, bookingDate), 0);
+    }
+
+    Booking(BookingStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    private static BookingStore singleRow(int bookingId, User user, Room room,
+            Date checkIn, Date checkOut, int userBalanceAtBooking) {
+        if (user == null || room == null) {
+            throw new IllegalArgumentException("User and Room cannot be null");
+        }
+
+        return singleRow(bookingId, user.getUserId(), room.getRoomNumber(), room.getRoomType(),
+                room.getPricePerNight(), userBalanceAtBooking, epochDay(checkIn), epochDay(checkOut),
+                System.currentTimeMillis());
+    }
+
+    private static BookingStore singleRow(int bookingId, int userId, int roomNumber, RoomType bookedRoomType,
+            int bookedPricePerNight, int userBalanceAtBooking, int checkInDay, int checkOutDay, long bookingDate) {
+        if (bookedRoomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in must be before check-out");
+        }
+
+        BookingStore store = new BookingStore(1);
+        store.append(bookingId, userId, roomNumber, bookedRoomType, bookedPricePerNight, userBalanceAtBooking,
+                checkInDay, checkOutDay, bookingDate);
+        return store;
+    }
+
+    private static int epochDay(Date date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        return EpochDays.of(date);
+    }
+
+    private static long epochMillis(Date date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        return date.getTime();
+    }
+
+    public int getBookingId() {
+        return store.getBookingId(row);
+    }
+
+    public int getUserId() {
+        return store.getUserId(row);
+    }
+
+    public int getRoomNumber() {
+        return store.getRoomNumber(row);
+    }
+
+    public RoomType getBookedRoomType() {
+        return store.getRoomType(row);
+    }
+
+    public int getBookedPricePerNight() {
+        return store.getPricePerNight(row);
+    }
+
+    /**
+     * The version of the room the booking was made at.
+     */
+    public Room getBookedRoom() {
+        return store.getCatalog().getRoom(store.getRoomVersion(row));
+    }
+
+    public int getUserBalanceAtBooking() {
+        return store.getBalanceAtBooking(row);
+    }
+
+    public Date getCheckInDate() {
+        return EpochDays.toDate(store.getCheckInDay(row));
+    }
+
+    public Date getCheckOutDate() {
+        return EpochDays.toDate(store.getCheckOutDay(row));
+    }
+
+    public LocalDate getCheckIn() {
+        return LocalDate.ofEpochDay(store.getCheckInDay(row));
+    }
+
+    public LocalDate getCheckOut() {
+        return LocalDate.ofEpochDay(store.getCheckOutDay(row));
+    }
+
+    public int getCheckInDay() {
+        return store.getCheckInDay(row);
+    }
+
+    public int getCheckOutDay() {
+        return store.getCheckOutDay(row);
+    }
+
+    public int getTotalPrice() {
+        return store.getTotalPrice(row);
+    }
+
+    public int getNumberOfNights() {
+        return store.getNights(row);
+    }
+
+    public Date getBookingDate() {
+        return new Date(store.getBookingDate(row));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        Booking booking = (Booking) obj;
+        return getBookingId() == booking.getBookingId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(getBookingId());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Booking{id=%d, userId=%d, roomNumber=%d, type=%s, price=%d, nights=%d, total=%d, userBalanceSnapshot=%d}",
+                getBookingId(), getUserId(), getRoomNumber(), getBookedRoomType(), getBookedPricePerNight(),
+                getNumberOfNights(), getTotalPrice(), getUserBalanceAtBooking());
+    }
+}
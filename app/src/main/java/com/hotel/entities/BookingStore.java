@@ -0,0 +1,327 @@
+package com.hotel.entities;
+
+import java.util.Arrays;
+
+/**
+ * Column-oriented storage for bookings: every field lives in its own primitive array, indexed by row.
+ * Stay dates are epoch days, and the booked room type and price are a reference to the {@link RoomCatalog}
+ * version the booking was made at, so a row costs about 44 bytes instead of a {@link Booking} object graph with
+ * three {@code Date}s, and scans over a column allocate nothing.
+ * {@link Booking} instances are lightweight views of one row.
+ * <p>
+ * A cancelled row stays in place as a tombstone numbered by its cancellation, so a reader that remembers how many
+ * cancellations it has seen can still tell which rows were live at that point. {@link #appendCopy} lets a caller
+ * copy the live rows into a fresh store to reclaim tombstones; copies keep their sequence, the row's position in
+ * append order across such copies.
+ * <p>
+ * Appends and cancellations must be serialized by the caller. Rows are otherwise immutable once appended and may
+ * be read concurrently; readers see every row appended before the size they observe.
+ */
+public final class BookingStore {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Cancellation number of a row that is not cancelled.
+     */
+    public static final int LIVE = Integer.MAX_VALUE;
+
+    private static final class Columns {
+        private final int[] bookingIds;
+        private final int[] userIds;
+        private final int[] roomNumbers;
+        private final int[] roomVersions;
+        private final int[] balancesAtBooking;
+        private final int[] checkInDays;
+        private final int[] checkOutDays;
+        private final long[] bookingDates;
+        private final int[] sequences;
+        private final int[] cancellations;
+
+        private Columns(int capacity) {
+            bookingIds = new int[capacity];
+            userIds = new int[capacity];
+            roomNumbers = new int[capacity];
+            roomVersions = new int[capacity];
+            balancesAtBooking = new int[capacity];
+            checkInDays = new int[capacity];
+            checkOutDays = new int[capacity];
+            bookingDates = new long[capacity];
+            sequences = new int[capacity];
+            cancellations = new int[capacity];
+        }
+
+        private Columns(Columns source, int capacity) {
+            bookingIds = Arrays.copyOf(source.bookingIds, capacity);
+            userIds = Arrays.copyOf(source.userIds, capacity);
+            roomNumbers = Arrays.copyOf(source.roomNumbers, capacity);
+            roomVersions = Arrays.copyOf(source.roomVersions, capacity);
+            balancesAtBooking = Arrays.copyOf(source.balancesAtBooking, capacity);
+            checkInDays = Arrays.copyOf(source.checkInDays, capacity);
+            checkOutDays = Arrays.copyOf(source.checkOutDays, capacity);
+            bookingDates = Arrays.copyOf(source.bookingDates, capacity);
+            sequences = Arrays.copyOf(source.sequences, capacity);
+            cancellations = Arrays.copyOf(source.cancellations, capacity);
+        }
+
+        private int capacity() {
+            return bookingIds.length;
+        }
+    }
+
+    private final RoomCatalog catalog;
+    private volatile Columns columns;
+    private volatile int size;
+    private volatile int cancelled;
+    private int nextSequence;
+    // Row of each cancellation, indexed by cancellation number - 1; read under the same serialization as writes.
+    private int[] cancelledRows = new int[16];
+
+    /**
+     * Creates a store with a catalog of its own, for bookings that carry their own terms.
+     */
+    public BookingStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BookingStore(int initialCapacity) {
+        this(new RoomCatalog(1), initialCapacity);
+    }
+
+    public BookingStore(RoomCatalog catalog, int initialCapacity) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
+        columns = new Columns(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Appends a booking of the given catalog version and returns its row.
+     */
+    public int append(int bookingId, int userId, int roomVersion, int balanceAtBooking, int checkInDay,
+            int checkOutDay, long bookingDate) {
+        return append(bookingId, userId, catalog.getRoomNumber(roomVersion), roomVersion, balanceAtBooking,
+                checkInDay, checkOutDay, bookingDate, nextSequence);
+    }
+
+    /**
+     * Appends a booking on the given terms, recorded as a detached version of the catalog, and returns its row.
+     */
+    public int append(int bookingId, int userId, int roomNumber, RoomType roomType, int pricePerNight,
+            int balanceAtBooking, int checkInDay, int checkOutDay, long bookingDate) {
+        int roomVersion = catalog.putDetached(roomNumber, roomType, pricePerNight, bookingDate);
+        return append(bookingId, userId, roomNumber, roomVersion, balanceAtBooking, checkInDay, checkOutDay,
+                bookingDate, nextSequence);
+    }
+
+    /**
+     * Appends a copy of a row of another store over the same catalog, keeping its sequence, and returns the new
+     * row. Rows must be copied in sequence order, and before any row is appended with {@link #append}.
+     */
+    public int appendCopy(BookingStore source, int sourceRow) {
+        source.checkRow(sourceRow);
+        if (source.catalog != catalog) {
+            throw new IllegalArgumentException("Rows can only be copied between stores of the same catalog");
+        }
+        Columns from = source.columns;
+        if (from.sequences[sourceRow] < nextSequence) {
+            throw new IllegalArgumentException("Rows must be copied in sequence order");
+        }
+        return append(from.bookingIds[sourceRow], from.userIds[sourceRow], from.roomNumbers[sourceRow],
+                from.roomVersions[sourceRow], from.balancesAtBooking[sourceRow], from.checkInDays[sourceRow],
+                from.checkOutDays[sourceRow], from.bookingDates[sourceRow], from.sequences[sourceRow]);
+    }
+
+    private int append(int bookingId, int userId, int roomNumber, int roomVersion, int balanceAtBooking,
+            int checkInDay, int checkOutDay, long bookingDate, int sequence) {
+        int row = size;
+        Columns target = columns;
+        if (row == target.capacity()) {
+            target = new Columns(target, target.capacity() * 2);
+            columns = target;
+        }
+
+        target.bookingIds[row] = bookingId;
+        target.userIds[row] = userId;
+        target.roomNumbers[row] = roomNumber;
+        target.roomVersions[row] = roomVersion;
+        target.balancesAtBooking[row] = balanceAtBooking;
+        target.checkInDays[row] = checkInDay;
+        target.checkOutDays[row] = checkOutDay;
+        target.bookingDates[row] = bookingDate;
+        target.sequences[row] = sequence;
+        target.cancellations[row] = LIVE;
+        nextSequence = sequence + 1;
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Turns the row into a tombstone and returns its cancellation number; the first cancellation is number 1.
+     *
+     * @throws IllegalStateException if the row is already cancelled
+     */
+    public int cancel(int row) {
+        checkRow(row);
+        Columns target = columns;
+        if (target.cancellations[row] != LIVE) {
+            throw new IllegalStateException("Row " + row + " is already cancelled");
+        }
+        int cancellation = cancelled + 1;
+        if (cancellation > cancelledRows.length) {
+            cancelledRows = Arrays.copyOf(cancelledRows, cancelledRows.length * 2);
+        }
+        cancelledRows[cancellation - 1] = row;
+        target.cancellations[row] = cancellation;
+        cancelled = cancellation;
+        return cancellation;
+    }
+
+    /**
+     * Number of rows, tombstones included.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of tombstones, which is also the number of the latest cancellation.
+     */
+    public int cancelledCount() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the row of the given cancellation, numbered from 1. Must be serialized with cancellations.
+     */
+    public int getCancelledRow(int cancellation) {
+        if (cancellation < 1 || cancellation > cancelled) {
+            throw new IndexOutOfBoundsException("No cancellation " + cancellation);
+        }
+        return cancelledRows[cancellation - 1];
+    }
+
+    /**
+     * Number of rows that are not cancelled.
+     */
+    public int liveCount() {
+        int cancellations = cancelled;
+        return size - cancellations;
+    }
+
+    /**
+     * Returns a view of the row; the view allocates nothing beyond itself.
+     */
+    public Booking get(int row) {
+        checkRow(row);
+        return new Booking(this, row);
+    }
+
+    public int getBookingId(int row) {
+        return columns.bookingIds[row];
+    }
+
+    public int getUserId(int row) {
+        return columns.userIds[row];
+    }
+
+    public int getRoomNumber(int row) {
+        return columns.roomNumbers[row];
+    }
+
+    /**
+     * The catalog version the booking was made at.
+     */
+    public int getRoomVersion(int row) {
+        return columns.roomVersions[row];
+    }
+
+    public RoomCatalog getCatalog() {
+        return catalog;
+    }
+
+    public RoomType getRoomType(int row) {
+        return catalog.getRoomType(columns.roomVersions[row]);
+    }
+
+    public int getPricePerNight(int row) {
+        return catalog.getPricePerNight(columns.roomVersions[row]);
+    }
+
+    public int getBalanceAtBooking(int row) {
+        return columns.balancesAtBooking[row];
+    }
+
+    public int getNights(int row) {
+        Columns current = columns;
+        return current.checkOutDays[row] - current.checkInDays[row];
+    }
+
+    public int getTotalPrice(int row) {
+        Columns current = columns;
+        return (current.checkOutDays[row] - current.checkInDays[row])
+                * catalog.getPricePerNight(current.roomVersions[row]);
+    }
+
+    public int getCheckInDay(int row) {
+        return columns.checkInDays[row];
+    }
+
+    public int getCheckOutDay(int row) {
+        return columns.checkOutDays[row];
+    }
+
+    public long getBookingDate(int row) {
+        return columns.bookingDates[row];
+    }
+
+    public int getSequence(int row) {
+        return columns.sequences[row];
+    }
+
+    public boolean isCancelled(int row) {
+        return columns.cancellations[row] != LIVE;
+    }
+
+    /**
+     * Whether the row was still live once the first {@code cancellations} cancellations had been applied.
+     */
+    public boolean isLiveAfter(int row, int cancellations) {
+        return columns.cancellations[row] > cancellations;
+    }
+
+    /**
+     * Returns the last row below {@code endRow} whose sequence is below the given one, or -1 if there is none.
+     * Sequences increase with rows, so this is a binary search.
+     */
+    public int lastRowBefore(int sequence, int endRow) {
+        int[] sequences = columns.sequences;
+        int low = 0;
+        int high = Math.min(endRow, size) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (sequences[middle] < sequence) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Bytes held by the column arrays, including unused capacity; the catalog is not included.
+     */
+    public long footprintBytes() {
+        Columns current = columns;
+        long capacity = current.capacity();
+        return capacity * (9L * Integer.BYTES + Long.BYTES);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+}
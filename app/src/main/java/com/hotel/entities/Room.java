@@ -2,18 +2,32 @@ package com.hotel.entities;
 
 import java.util.Date;
 
+/**
+ * One version of a room: its type and price from {@link #getValidFrom()} until the room's next version.
+ * The creation date is when the room was first registered and is shared by all its versions.
+ */
 public class Room {
 
     private final int roomNumber;
     private final RoomType roomType;
     private final int pricePerNight;
     private final Date creationDate;
+    private final long validFrom;
 
     public Room(int roomNumber , RoomType roomType , int pricePerNight ) {
+        this(roomNumber, roomType, pricePerNight, new Date());
+    }
+
+    public Room(int roomNumber, RoomType roomType, int pricePerNight, Date creationDate) {
+        this(roomNumber, roomType, pricePerNight, creationDate, creationDate);
+    }
+
+    public Room(int roomNumber, RoomType roomType, int pricePerNight, Date creationDate, Date validFrom) {
         this.roomNumber = roomNumber;
         this.roomType = roomType;
         this.pricePerNight = pricePerNight;
-        this.creationDate = new Date();
+        this.creationDate = new Date(creationDate.getTime());
+        this.validFrom = validFrom.getTime();
     }
 
     public RoomType getRoomType() {
@@ -32,6 +46,21 @@ public class Room {
         return new Date(creationDate.getTime());
     }
 
+    public long getCreationTime() {
+        return creationDate.getTime();
+    }
+
+    /**
+     * When this version of the room took effect.
+     */
+    public Date getValidFrom() {
+        return new Date(validFrom);
+    }
+
+    public long getValidFromTime() {
+        return validFrom;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
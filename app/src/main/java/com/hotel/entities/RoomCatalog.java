@@ -0,0 +1,300 @@
+package com.hotel.entities;
+
+import com.hotel.util.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Append-only history of room versions. Every change to a room appends a version in amortized constant time;
+ * a version never changes once appended, so bookings refer to the version they were made at instead of copying
+ * its type and price, and "room N as of time T" is a binary search over that room's versions.
+ * <p>
+ * Versions are numbered in append order and stored column by column like {@link BookingStore} rows. Rooms keep
+ * the slot of their first registration, so updates do not reorder them. A detached version carries a room's
+ * terms without entering its history, for bookings made on terms the history does not hold.
+ * <p>
+ * Appends must be serialized by the caller, and lookups by room number must not run concurrently with them.
+ * Reads by version or slot, below counts read earlier, are safe from any thread.
+ */
+public final class RoomCatalog {
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final class Columns {
+        private final int[] roomNumbers;
+        private final byte[] roomTypes;
+        private final int[] pricesPerNight;
+        private final long[] creationTimes;
+        private final long[] validFromTimes;
+
+        private Columns(int capacity) {
+            roomNumbers = new int[capacity];
+            roomTypes = new byte[capacity];
+            pricesPerNight = new int[capacity];
+            creationTimes = new long[capacity];
+            validFromTimes = new long[capacity];
+        }
+
+        private Columns(Columns source, int capacity) {
+            roomNumbers = Arrays.copyOf(source.roomNumbers, capacity);
+            roomTypes = Arrays.copyOf(source.roomTypes, capacity);
+            pricesPerNight = Arrays.copyOf(source.pricesPerNight, capacity);
+            creationTimes = Arrays.copyOf(source.creationTimes, capacity);
+            validFromTimes = Arrays.copyOf(source.validFromTimes, capacity);
+        }
+
+        private int capacity() {
+            return roomNumbers.length;
+        }
+    }
+
+    // Versions of one room, oldest first. The count is written after the array, so a reader that reads the
+    // count first sees an array holding at least that many versions.
+    private static final class History {
+        private volatile int[] versions = new int[4];
+        private volatile int count;
+
+        private void add(int version) {
+            int[] current = versions;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                versions = current;
+            }
+            current[count] = version;
+            count++;
+        }
+    }
+
+    private final IntIntMap slotsByRoom = new IntIntMap();
+    private volatile History[] histories = new History[16];
+    private volatile int rooms;
+    private volatile Columns columns;
+    private volatile int size;
+    // Latest detached version of each room, reused while its terms repeat.
+    private final IntIntMap detachedByRoom = new IntIntMap();
+
+    public RoomCatalog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RoomCatalog(int initialCapacity) {
+        columns = new Columns(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Appends the room as the latest version of its room number, registering the number on its first version.
+     *
+     * @return the new version
+     * @throws IllegalArgumentException if the room takes effect before the room's latest version
+     */
+    public int put(Room room) {
+        if (room == null || room.getRoomType() == null) {
+            throw new IllegalArgumentException("Room and room type cannot be null");
+        }
+        int slot = slotsByRoom.get(room.getRoomNumber());
+        if (slot != IntIntMap.ABSENT && room.getValidFromTime() < getValidFromTime(latest(slot))) {
+            throw new IllegalArgumentException("Room " + room.getRoomNumber() + " cannot take effect before "
+                    + new Date(getValidFromTime(latest(slot))));
+        }
+
+        int version = append(room.getRoomNumber(), room.getRoomType(), room.getPricePerNight(),
+                room.getCreationTime(), room.getValidFromTime());
+        if (slot == IntIntMap.ABSENT) {
+            slot = rooms;
+            History[] current = histories;
+            if (slot == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                histories = current;
+            }
+            current[slot] = new History();
+            slotsByRoom.put(room.getRoomNumber(), slot);
+            current[slot].add(version);
+            rooms = slot + 1;
+        } else {
+            histories[slot].add(version);
+        }
+        return version;
+    }
+
+    /**
+     * Returns a version with the given terms that is not part of the room's history, reusing the previous one
+     * while the terms repeat.
+     */
+    public int putDetached(int roomNumber, RoomType roomType, int pricePerNight, long validFrom) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        int previous = detachedByRoom.get(roomNumber);
+        if (previous != IntIntMap.ABSENT && getRoomType(previous) == roomType
+                && getPricePerNight(previous) == pricePerNight) {
+            return previous;
+        }
+        int version = append(roomNumber, roomType, pricePerNight, validFrom, validFrom);
+        detachedByRoom.put(roomNumber, version);
+        return version;
+    }
+
+    private int append(int roomNumber, RoomType roomType, int pricePerNight, long creationTime, long validFrom) {
+        int version = size;
+        Columns target = columns;
+        if (version == target.capacity()) {
+            target = new Columns(target, target.capacity() * 2);
+            columns = target;
+        }
+        target.roomNumbers[version] = roomNumber;
+        target.roomTypes[version] = (byte) roomType.ordinal();
+        target.pricesPerNight[version] = pricePerNight;
+        target.creationTimes[version] = creationTime;
+        target.validFromTimes[version] = validFrom;
+        size = version + 1;
+        return version;
+    }
+
+    /**
+     * The latest version of the room, or -1 if it is not registered.
+     */
+    public int currentVersion(int roomNumber) {
+        int slot = slotsByRoom.get(roomNumber);
+        return slot == IntIntMap.ABSENT ? -1 : latest(slot);
+    }
+
+    /**
+     * The version of the room in effect at the given time, or -1 if the room had no version yet.
+     */
+    public int versionAt(int roomNumber, long time) {
+        int slot = slotsByRoom.get(roomNumber);
+        if (slot == IntIntMap.ABSENT) {
+            return -1;
+        }
+        History history = histories[slot];
+        int count = history.count;
+        int[] versions = history.versions;
+        long[] validFromTimes = columns.validFromTimes;
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (validFromTimes[versions[middle]] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high < 0 ? -1 : versions[high];
+    }
+
+    /**
+     * Versions of the room, oldest first; empty if it is not registered.
+     */
+    public List<Room> history(int roomNumber) {
+        int slot = slotsByRoom.get(roomNumber);
+        if (slot == IntIntMap.ABSENT) {
+            return new ArrayList<>();
+        }
+        History history = histories[slot];
+        int count = history.count;
+        int[] versions = history.versions;
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rooms.add(getRoom(versions[i]));
+        }
+        return rooms;
+    }
+
+    /**
+     * The latest version of the room in the given slot among the first {@code versionCount} versions,
+     * or -1 if there is none. Slots number rooms in registration order.
+     */
+    public int versionOf(int slot, int versionCount) {
+        int count = historySize(slot, versionCount);
+        return count == 0 ? -1 : historyVersion(slot, count - 1);
+    }
+
+    /**
+     * Number of versions of the room in the given slot among the first {@code versionCount} versions.
+     */
+    public int historySize(int slot, int versionCount) {
+        History history = histories[slot];
+        int count = history.count;
+        int[] versions = history.versions;
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (versions[middle] < versionCount) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The version at the given position of the history of the room in the given slot, oldest first.
+     */
+    public int historyVersion(int slot, int index) {
+        History history = histories[slot];
+        int count = history.count;
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for history of " + count);
+        }
+        return history.versions[index];
+    }
+
+    private int latest(int slot) {
+        History history = histories[slot];
+        return history.versions[history.count - 1];
+    }
+
+    /**
+     * Number of registered rooms.
+     */
+    public int roomCount() {
+        return rooms;
+    }
+
+    /**
+     * Number of versions, detached ones included.
+     */
+    public int versionCount() {
+        return size;
+    }
+
+    /**
+     * Returns a new {@link Room} holding the version.
+     */
+    public Room getRoom(int version) {
+        checkVersion(version);
+        Columns current = columns;
+        return new Room(current.roomNumbers[version], ROOM_TYPES[current.roomTypes[version]],
+                current.pricesPerNight[version], new Date(current.creationTimes[version]),
+                new Date(current.validFromTimes[version]));
+    }
+
+    public int getRoomNumber(int version) {
+        return columns.roomNumbers[version];
+    }
+
+    public RoomType getRoomType(int version) {
+        return ROOM_TYPES[columns.roomTypes[version]];
+    }
+
+    public int getPricePerNight(int version) {
+        return columns.pricesPerNight[version];
+    }
+
+    public long getValidFromTime(int version) {
+        return columns.validFromTimes[version];
+    }
+
+    private void checkVersion(int version) {
+        if (version < 0 || version >= size) {
+            throw new IndexOutOfBoundsException("Version " + version + " out of bounds for size " + size);
+        }
+    }
+}
@@ -5,8 +5,10 @@ public enum RoomType {
     JUNIOR_SUITE,
     MASTER_SUITE;
 
+    private final String label = name().toLowerCase().replace("_", " ");
+
     @Override
     public String toString() {
-        return name().toLowerCase().replace("_", " ");
+        return label;
     }
 }
@@ -1,24 +1,33 @@
 package com.hotel.entities;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 public class User {
+    private static final AtomicIntegerFieldUpdater<User> BALANCE =
+            AtomicIntegerFieldUpdater.newUpdater(User.class, "balance");
+
     private final int userId;
-    private int balance;
+    private volatile int balance;
     private final Date creationDate;
 
     public User(int userId, int balance) {
+        this(userId, balance, new Date());
+    }
+
+    public User(int userId, int balance, Date creationDate) {
         if (balance < 0) {
             throw new IllegalArgumentException("Balance cannot be negative");
         }
         this.userId = userId;
         this.balance = balance;
-        this.creationDate = new Date();
+        this.creationDate = new Date(creationDate.getTime());
     }
 
     public int getUserId() { return userId; }
     public int getBalance() { return balance; }
     public Date getCreationDate() { return new Date(creationDate.getTime()); }
+    public long getCreationTime() { return creationDate.getTime(); }
 
     public void setBalance(int balance) {
         if (balance < 0) {
@@ -31,6 +40,27 @@ public class User {
         return balance >= amount;
     }
 
+    /**
+     * Atomically subtracts the amount if the balance covers it.
+     *
+     * @return the balance before the debit, or -1 if the balance is insufficient
+     */
+    public int tryDebit(int amount) {
+        while (true) {
+            int current = balance;
+            if (current < amount) {
+                return -1;
+            }
+            if (BALANCE.compareAndSet(this, current, current - amount)) {
+                return current;
+            }
+        }
+    }
+
+    public void credit(int amount) {
+        BALANCE.addAndGet(this, amount);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
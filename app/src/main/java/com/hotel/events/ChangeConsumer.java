@@ -0,0 +1,13 @@
+package com.hotel.events;
+
+import java.util.List;
+
+/**
+ * Receives the events of a {@link ChangeStream} in sequence order, a batch at a time, on the stream's delivery
+ * thread. The batch belongs to the consumer.
+ */
+@FunctionalInterface
+public interface ChangeConsumer {
+
+    void accept(List<ChangeEvent> batch);
+}
@@ -0,0 +1,100 @@
+package com.hotel.events;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+
+/**
+ * One change published by a {@link ChangeStream}. Sequence numbers start at 1 and grow by one per change the
+ * stream saw, so a consumer that finds a number skipped knows events were dropped under backpressure.
+ */
+public final class ChangeEvent {
+
+    public enum Type {
+        ROOM_SET,
+        USER_SET,
+        BOOKING_CREATED,
+        BOOKING_CANCELLED,
+        /** A booking, cancellation or confirmed hold charged or refunded a user. */
+        BALANCE_CHANGED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final long timestamp;
+    private final Room room;
+    private final Booking booking;
+    private final int userId;
+    private final int balance;
+
+    ChangeEvent(long sequence, Type type, long timestamp, Room room, Booking booking, int userId, int balance) {
+        this.sequence = sequence;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.room = room;
+        this.booking = booking;
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * When the change took effect, in epoch milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The room as set, for {@link Type#ROOM_SET}; null otherwise.
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     * The booking created or cancelled; null for other types.
+     */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    /**
+     * The user the change is about; 0 for {@link Type#ROOM_SET}.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * The user's balance right after the change, for {@link Type#USER_SET} and {@link Type#BALANCE_CHANGED};
+     * 0 otherwise.
+     */
+    public int getBalance() {
+        return balance;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("ChangeEvent{sequence=").append(sequence)
+                .append(", type=").append(type);
+        switch (type) {
+            case ROOM_SET:
+                result.append(", room=").append(room);
+                break;
+            case BOOKING_CREATED:
+            case BOOKING_CANCELLED:
+                result.append(", bookingId=").append(booking.getBookingId());
+                break;
+            default:
+                result.append(", userId=").append(userId).append(", balance=").append(balance);
+        }
+        return result.append('}').toString();
+    }
+}
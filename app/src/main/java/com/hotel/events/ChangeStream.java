@@ -0,0 +1,195 @@
+package com.hotel.events;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+import com.hotel.service.Service;
+import com.hotel.service.ServiceListener;
+import com.hotel.util.RingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Change data capture for a {@link Service}: every room set, user set, booking, cancellation and balance change
+ * becomes a {@link ChangeEvent}, published into a bounded lock-free {@link RingBuffer} while the change commits
+ * and delivered to a {@link ChangeConsumer} in batches on a thread of its own. Publishing is a few stores and
+ * never waits: a consumer that falls a full buffer behind loses events, as the backpressure policy says, rather
+ * than slowing {@code bookRoom} down.
+ * <p>
+ * The service reports changes one at a time in the order they take effect, so events are numbered and queued in
+ * that order with no further synchronization. Restores and imports are not reported; attach after recovery.
+ * Balances change only through the service, which hands out copies of its users to callers and listeners alike,
+ * so none is missed.
+ */
+public final class ChangeStream implements AutoCloseable {
+
+    /**
+     * What publishing does when the consumer has fallen a full buffer behind.
+     */
+    public enum Backpressure {
+        /** Drops the new event. */
+        DROP_NEWEST,
+        /** Drops the oldest queued event to make room. */
+        DROP_OLDEST
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+
+    // Delivery does not spin for new events: waking up every interval lets batches build up instead of taking
+    // the processor from the threads making changes once per event.
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final Service service;
+    private final ChangeConsumer consumer;
+    private final RingBuffer<ChangeEvent> buffer;
+    private final int maxBatchSize;
+    private final Backpressure backpressure;
+    private final Thread deliverer;
+
+    // Written only while the service reports a change, which it does one change at a time.
+    private volatile long lastSequence;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile boolean closed;
+
+    private final ServiceListener listener = new ServiceListener() {
+        @Override
+        public void roomSet(Room room) {
+            publish(ChangeEvent.Type.ROOM_SET, room, null, 0, 0);
+        }
+
+        @Override
+        public void userSet(User user) {
+            publish(ChangeEvent.Type.USER_SET, null, null, user.getUserId(), user.getBalance());
+        }
+
+        @Override
+        public void bookingCreated(Booking booking) {
+            publish(ChangeEvent.Type.BOOKING_CREATED, null, booking, booking.getUserId(), 0);
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking) {
+            publish(ChangeEvent.Type.BOOKING_CANCELLED, null, booking, booking.getUserId(), 0);
+        }
+
+        @Override
+        public void balanceChanged(int userId, int balance) {
+            publish(ChangeEvent.Type.BALANCE_CHANGED, null, null, userId, balance);
+        }
+    };
+
+    /**
+     * Streams with a buffer of {@value #DEFAULT_CAPACITY} events, batches of up to {@value #DEFAULT_MAX_BATCH_SIZE}
+     * and {@link Backpressure#DROP_OLDEST}.
+     */
+    public ChangeStream(Service service, ChangeConsumer consumer) {
+        this(service, consumer, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, Backpressure.DROP_OLDEST);
+    }
+
+    /**
+     * Events are published while the change commits, under the service's locks, so publishing never waits for
+     * room in the buffer; size it for the bursts the consumer has to absorb.
+     */
+    public ChangeStream(Service service, ChangeConsumer consumer, int capacity, int maxBatchSize,
+            Backpressure backpressure) {
+        if (service == null || consumer == null || backpressure == null) {
+            throw new IllegalArgumentException("Service, consumer and backpressure cannot be null");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+
+        this.service = service;
+        this.consumer = consumer;
+        this.buffer = new RingBuffer<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.backpressure = backpressure;
+        this.deliverer = new Thread(this::runDeliverer, "change-stream");
+        this.deliverer.setDaemon(true);
+        this.deliverer.start();
+        service.addListener(listener);
+    }
+
+    /**
+     * Sequence number of the latest event published or dropped.
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Batches the consumer threw on; their events count as delivered.
+     */
+    public long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    /**
+     * Events published and not yet handed to the consumer.
+     */
+    public int getBacklog() {
+        return buffer.size();
+    }
+
+    /**
+     * Stops capturing changes and waits until every event published so far has been delivered.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        // Once the listener is removed exclusively, no change is still being published.
+        service.runExclusively(() -> service.removeListener(listener));
+        closed = true;
+        deliverer.join();
+    }
+
+    private void publish(ChangeEvent.Type type, Room room, Booking booking, int userId, int balance) {
+        long sequence = lastSequence + 1;
+        lastSequence = sequence;
+        ChangeEvent event = new ChangeEvent(sequence, type, System.currentTimeMillis(), room, booking, userId,
+                balance);
+        if (backpressure == Backpressure.DROP_NEWEST ? !buffer.offer(event) : buffer.offerEvicting(event) != null) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void runDeliverer() {
+        List<ChangeEvent> batch = newBatch();
+        while (true) {
+            // Read before draining, so a close seen here comes after the last event was published.
+            boolean last = closed;
+            if (buffer.drainTo(batch, maxBatchSize) == 0) {
+                if (last) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            try {
+                consumer.accept(batch);
+            } catch (RuntimeException e) {
+                failedBatches.incrementAndGet();
+            }
+            delivered.addAndGet(batch.size());
+            batch = newBatch();
+        }
+    }
+
+    private List<ChangeEvent> newBatch() {
+        return new ArrayList<>(Math.min(maxBatchSize, buffer.capacity()));
+    }
+}
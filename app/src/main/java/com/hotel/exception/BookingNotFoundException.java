@@ -0,0 +1,7 @@
+package com.hotel.exception;
+
+public class BookingNotFoundException extends HotelReservationException {
+    public BookingNotFoundException(int bookingId) {
+        super("Booking not found: " + bookingId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.hotel.exception;
+
+/**
+ * The hold does not exist, or it was already confirmed, released or expired.
+ */
+public class HoldNotFoundException extends HotelReservationException {
+    public HoldNotFoundException(int holdId) {
+        super("Hold not found or expired: " + holdId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.hotel.exception;
+
+/**
+ * Base class of the checked booking errors.
+ * In stackless mode new instances skip capturing a stack trace, which otherwise dominates the cost of a
+ * rejected booking. The mode starts from the {@code hotel.exceptions.stackless} system property.
+ */
+public abstract class HotelReservationException extends Exception {
+
+    private static volatile boolean stackless = Boolean.getBoolean("hotel.exceptions.stackless");
+
+    public HotelReservationException(String message) {
+        super(message, null, true, !stackless);
+    }
+
+    public static boolean isStackless() {
+        return stackless;
+    }
+
+    public static void setStackless(boolean stackless) {
+        HotelReservationException.stackless = stackless;
+    }
+}
@@ -1,7 +1,21 @@
 package com.hotel.exception;
 
 public class InsufficientBalanceException extends HotelReservationException {
+
+    private final int required;
+    private final int available;
+
     public InsufficientBalanceException(int required, int available) {
         super("Insufficient balance. Required: " + required + ", Available: " + available);
+        this.required = required;
+        this.available = available;
+    }
+
+    public int getRequired() {
+        return required;
+    }
+
+    public int getAvailable() {
+        return available;
     }
 }
@@ -0,0 +1,148 @@
+package com.hotel.export;
+
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+import java.io.IOException;
+
+/**
+ * How exported entities are rendered, one line per entity.
+ */
+public enum ExportFormat {
+
+    /**
+     * Comma-separated values with a header line; timestamps in UTC.
+     */
+    CSV {
+        @Override
+        public void writeHeader(ExportWriter out, ExportQuery.Entity entity) throws IOException {
+            switch (entity) {
+                case ROOMS:
+                    out.write("room_number,room_type,price_per_night,created_at\n");
+                    break;
+                case USERS:
+                    out.write("user_id,balance,created_at\n");
+                    break;
+                default:
+                    out.write("booking_id,user_id,room_number,room_type,price_per_night,check_in,check_out,nights,"
+                            + "total_price,balance_at_booking,booked_at\n");
+            }
+        }
+
+        @Override
+        public void writeRoom(ExportWriter out, Room room) throws IOException {
+            out.write(room.getRoomNumber()).write(',').write(room.getRoomType().name()).write(',')
+                    .write(room.getPricePerNight()).write(',').writeTimestamp(room.getCreationTime()).write('\n');
+        }
+
+        @Override
+        public void writeUser(ExportWriter out, User user) throws IOException {
+            out.write(user.getUserId()).write(',').write(user.getBalance()).write(',')
+                    .writeTimestamp(user.getCreationTime()).write('\n');
+        }
+
+        @Override
+        public void writeBooking(ExportWriter out, BookingStore store, int row) throws IOException {
+            out.write(store.getBookingId(row)).write(',')
+                    .write(store.getUserId(row)).write(',')
+                    .write(store.getRoomNumber(row)).write(',')
+                    .write(store.getRoomType(row).name()).write(',')
+                    .write(store.getPricePerNight(row)).write(',')
+                    .writeDate(store.getCheckInDay(row)).write(',')
+                    .writeDate(store.getCheckOutDay(row)).write(',')
+                    .write(store.getNights(row)).write(',')
+                    .write(store.getTotalPrice(row)).write(',')
+                    .write(store.getBalanceAtBooking(row)).write(',')
+                    .writeTimestamp(store.getBookingDate(row)).write('\n');
+        }
+    },
+
+    /**
+     * One JSON object per line, without a header; timestamps in UTC.
+     */
+    JSON_LINES {
+        @Override
+        public void writeHeader(ExportWriter out, ExportQuery.Entity entity) {
+        }
+
+        @Override
+        public void writeRoom(ExportWriter out, Room room) throws IOException {
+            out.write("{\"roomNumber\":").write(room.getRoomNumber())
+                    .write(",\"roomType\":\"").write(room.getRoomType().name())
+                    .write("\",\"pricePerNight\":").write(room.getPricePerNight())
+                    .write(",\"createdAt\":\"").writeTimestamp(room.getCreationTime())
+                    .write("\"}\n");
+        }
+
+        @Override
+        public void writeUser(ExportWriter out, User user) throws IOException {
+            out.write("{\"userId\":").write(user.getUserId())
+                    .write(",\"balance\":").write(user.getBalance())
+                    .write(",\"createdAt\":\"").writeTimestamp(user.getCreationTime())
+                    .write("\"}\n");
+        }
+
+        @Override
+        public void writeBooking(ExportWriter out, BookingStore store, int row) throws IOException {
+            out.write("{\"bookingId\":").write(store.getBookingId(row))
+                    .write(",\"userId\":").write(store.getUserId(row))
+                    .write(",\"roomNumber\":").write(store.getRoomNumber(row))
+                    .write(",\"roomType\":\"").write(store.getRoomType(row).name())
+                    .write("\",\"pricePerNight\":").write(store.getPricePerNight(row))
+                    .write(",\"checkIn\":\"").writeDate(store.getCheckInDay(row))
+                    .write("\",\"checkOut\":\"").writeDate(store.getCheckOutDay(row))
+                    .write("\",\"nights\":").write(store.getNights(row))
+                    .write(",\"totalPrice\":").write(store.getTotalPrice(row))
+                    .write(",\"balanceAtBooking\":").write(store.getBalanceAtBooking(row))
+                    .write(",\"bookedAt\":\"").writeTimestamp(store.getBookingDate(row))
+                    .write("\"}\n");
+        }
+    },
+
+    /**
+     * The console layout of {@code printAll}: a banner, then each entity as its {@code toString()}.
+     */
+    TEXT {
+        @Override
+        public void writeHeader(ExportWriter out, ExportQuery.Entity entity) throws IOException {
+            out.write("========== ").write(entity.name()).write(" (newest to oldest) ==========\n");
+        }
+
+        @Override
+        public void writeRoom(ExportWriter out, Room room) throws IOException {
+            out.write("Room{number=").write(room.getRoomNumber())
+                    .write(", type=").write(room.getRoomType().toString())
+                    .write(", price=").write(room.getPricePerNight())
+                    .write("}\n");
+        }
+
+        @Override
+        public void writeUser(ExportWriter out, User user) throws IOException {
+            out.write("User{id=").write(user.getUserId())
+                    .write(", balance=").write(user.getBalance())
+                    .write("}\n");
+        }
+
+        @Override
+        public void writeBooking(ExportWriter out, BookingStore store, int row) throws IOException {
+            out.write("Booking{id=").write(store.getBookingId(row))
+                    .write(", userId=").write(store.getUserId(row))
+                    .write(", roomNumber=").write(store.getRoomNumber(row))
+                    .write(", type=").write(store.getRoomType(row).toString())
+                    .write(", price=").write(store.getPricePerNight(row))
+                    .write(", nights=").write(store.getNights(row))
+                    .write(", total=").write(store.getTotalPrice(row))
+                    .write(", userBalanceSnapshot=").write(store.getBalanceAtBooking(row))
+                    .write("}\n");
+        }
+    };
+
+    public abstract void writeHeader(ExportWriter out, ExportQuery.Entity entity) throws IOException;
+
+    public abstract void writeRoom(ExportWriter out, Room room) throws IOException;
+
+    public abstract void writeUser(ExportWriter out, User user) throws IOException;
+
+    public abstract void writeBooking(ExportWriter out, BookingStore store, int row) throws IOException;
+}
@@ -0,0 +1,169 @@
+package com.hotel.export;
+
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.util.EpochDays;
+
+import java.time.LocalDate;
+
+/**
+ * Which entities to export, newest first: the entity kind, optional filters and the page to return.
+ * Queries are immutable; each refinement returns a new query.
+ * <p>
+ * Paging is cursor based. An export returns the cursor of the last entity it wrote when the page is full,
+ * and {@link #END} when nothing is left; passing the cursor to {@link #after(long)} continues with the next
+ * older entity, unaffected by entities added in the meantime.
+ */
+public final class ExportQuery {
+
+    public enum Entity {
+        ROOMS,
+        USERS,
+        BOOKINGS
+    }
+
+    public static final long FIRST_PAGE = Long.MAX_VALUE;
+    public static final long END = 0;
+
+    private final Entity entity;
+    private final RoomType roomType;
+    private final boolean byUser;
+    private final int userId;
+    private final boolean byRoom;
+    private final int roomNumber;
+    private final int fromDay;
+    private final int toDay;
+    private final long cursor;
+    private final int limit;
+
+    private ExportQuery(Entity entity, RoomType roomType, boolean byUser, int userId, boolean byRoom,
+            int roomNumber, int fromDay, int toDay, long cursor, int limit) {
+        this.entity = entity;
+        this.roomType = roomType;
+        this.byUser = byUser;
+        this.userId = userId;
+        this.byRoom = byRoom;
+        this.roomNumber = roomNumber;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    private static ExportQuery of(Entity entity) {
+        return new ExportQuery(entity, null, false, 0, false, 0, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                FIRST_PAGE, Integer.MAX_VALUE);
+    }
+
+    public static ExportQuery rooms() {
+        return of(Entity.ROOMS);
+    }
+
+    public static ExportQuery users() {
+        return of(Entity.USERS);
+    }
+
+    public static ExportQuery bookings() {
+        return of(Entity.BOOKINGS);
+    }
+
+    /**
+     * Rooms, or bookings of rooms, of the given type.
+     */
+    public ExportQuery roomType(RoomType roomType) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        return new ExportQuery(entity, roomType, byUser, userId, byRoom, roomNumber, fromDay, toDay, cursor, limit);
+    }
+
+    /**
+     * The user, or the user's bookings.
+     */
+    public ExportQuery userId(int userId) {
+        return new ExportQuery(entity, roomType, true, userId, byRoom, roomNumber, fromDay, toDay, cursor, limit);
+    }
+
+    /**
+     * The room, or the room's bookings.
+     */
+    public ExportQuery roomNumber(int roomNumber) {
+        return new ExportQuery(entity, roomType, byUser, userId, true, roomNumber, fromDay, toDay, cursor, limit);
+    }
+
+    /**
+     * Bookings with at least one night between the two dates, check-out exclusive.
+     */
+    public ExportQuery staying(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Stay range must be non-empty");
+        }
+        return new ExportQuery(entity, roomType, byUser, userId, byRoom, roomNumber,
+                EpochDays.of(from), EpochDays.of(to), cursor, limit);
+    }
+
+    /**
+     * Continues after the entity the given cursor points at.
+     */
+    public ExportQuery after(long cursor) {
+        if (cursor <= END) {
+            throw new IllegalArgumentException("Cursor must be positive");
+        }
+        return new ExportQuery(entity, roomType, byUser, userId, byRoom, roomNumber, fromDay, toDay, cursor, limit);
+    }
+
+    /**
+     * Writes at most the given number of entities.
+     */
+    public ExportQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return new ExportQuery(entity, roomType, byUser, userId, byRoom, roomNumber, fromDay, toDay, cursor, limit);
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Whether the query is limited to the user {@link #getUserId()}.
+     */
+    public boolean isByUser() {
+        return byUser;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public boolean isFirstPage() {
+        return cursor == FIRST_PAGE;
+    }
+
+    public boolean matches(Room room) {
+        return (roomType == null || room.getRoomType() == roomType)
+                && (!byRoom || room.getRoomNumber() == roomNumber);
+    }
+
+    public boolean matches(User user) {
+        return !byUser || user.getUserId() == userId;
+    }
+
+    public boolean matches(BookingStore store, int row) {
+        return (roomType == null || store.getRoomType(row) == roomType)
+                && (!byUser || store.getUserId(row) == userId)
+                && (!byRoom || store.getRoomNumber(row) == roomNumber)
+                && store.getCheckInDay(row) < toDay && fromDay < store.getCheckOutDay(row);
+    }
+}
@@ -0,0 +1,131 @@
+package com.hotel.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Buffered character output with allocation-free number and date formatting.
+ * Dates are ISO-8601: epoch days as {@code yyyy-MM-dd}, epoch millis as UTC {@code yyyy-MM-ddTHH:mm:ss.SSSZ}.
+ * Not thread-safe; {@link #flush()} must be called to push buffered output to the target.
+ */
+public final class ExportWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private final Writer target;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] digits = new char[20];
+    private int position;
+
+    public ExportWriter(Writer target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        this.target = target;
+    }
+
+    public ExportWriter write(char c) throws IOException {
+        if (position == BUFFER_SIZE) {
+            drain();
+        }
+        buffer[position++] = c;
+        return this;
+    }
+
+    public ExportWriter write(String s) throws IOException {
+        int length = s.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == BUFFER_SIZE) {
+                drain();
+            }
+            int count = Math.min(length - offset, BUFFER_SIZE - position);
+            s.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+        return this;
+    }
+
+    public ExportWriter write(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return write(Long.toString(value));
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            write(digits[--count]);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the epoch day as {@code yyyy-MM-dd}.
+     */
+    public ExportWriter writeDate(long epochDay) throws IOException {
+        // Civil-from-days over 400-year eras of 146097 days, with years starting in March.
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year >= 0 && year <= 9999) {
+            writePadded(year, 4);
+        } else {
+            write(year);
+        }
+        write('-');
+        writePadded(month, 2);
+        write('-');
+        return writePadded(day, 2);
+    }
+
+    /**
+     * Writes the epoch millis as a UTC timestamp {@code yyyy-MM-ddTHH:mm:ss.SSSZ}.
+     */
+    public ExportWriter writeTimestamp(long epochMillis) throws IOException {
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        writeDate(Math.floorDiv(epochMillis, MILLIS_PER_DAY));
+        write('T');
+        writePadded(millisOfDay / 3_600_000, 2);
+        write(':');
+        writePadded(millisOfDay / 60_000 % 60, 2);
+        write(':');
+        writePadded(millisOfDay / 1000 % 60, 2);
+        write('.');
+        writePadded(millisOfDay % 1000, 3);
+        return write('Z');
+    }
+
+    public void flush() throws IOException {
+        drain();
+        target.flush();
+    }
+
+    private ExportWriter writePadded(long value, int width) throws IOException {
+        for (long limit = 10; width > 1; width--, limit *= 10) {
+            if (value < limit) {
+                write('0');
+            }
+        }
+        return write(value);
+    }
+
+    private void drain() throws IOException {
+        target.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,459 @@
+package com.hotel.http;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.exception.BookingNotFoundException;
+import com.hotel.exception.HoldNotFoundException;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.exception.InsufficientBalanceException;
+import com.hotel.exception.InvalidDateException;
+import com.hotel.exception.RoomNotAvailableException;
+import com.hotel.exception.RoomNotFoundException;
+import com.hotel.exception.UserNotFoundException;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.export.ExportWriter;
+import com.hotel.service.AvailableStay;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Hold;
+import com.hotel.service.Service;
+import com.hotel.util.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/JSON front end for a {@link Service}, built on the JDK's {@code com.sun.net.httpserver}.
+ * One selector thread holds every connection; each request runs on its own virtual thread when the JDK has them
+ * (21+), and on a fixed pool otherwise, so idle and slow connections never tie up platform threads.
+ * <p>
+ * Routes:
+ * <pre>
+ * PUT  /rooms/{number}          {"roomType": "JUNIOR_SUITE", "pricePerNight": 2000}   -&gt; 204
+ * PUT  /users/{id}              {"balance": 5000}                                     -&gt; 204
+ * POST /bookings                {"userId": 1, "roomNumber": 2, "checkIn": "2026-06-30", "checkOut": "2026-07-07"}
+ *                                                                                      -&gt; 201 {"bookingId", "totalPrice"}
+ * DELETE /bookings/{id}                                                                -&gt; 200 {"bookingId", "refund"}
+ * POST /holds                   {"userId": 1, "roomNumber": 2, "checkIn": "2026-06-30", "checkOut": "2026-07-07",
+ *                                "ttlSeconds": 300}                   -&gt; 201 {"holdId", "totalPrice", "expiresAt"}
+ * POST /holds/{id}/confirm                                                             -&gt; 201 {"bookingId", "totalPrice"}
+ * DELETE /holds/{id}                                                                   -&gt; 204
+ * GET  /rooms, /users, /bookings   newest first as JSON lines; filters roomType, userId, roomNumber, from and to,
+ *                                  paging with limit and after, next cursor in the X-Next-Cursor header
+ * GET  /rooms/{number}, /users/{id}
+ * GET  /users/{id}/bookings
+ * GET  /rooms/available?roomType=&amp;checkIn=&amp;checkOut=
+ * GET  /rooms/earliest?roomType=&amp;from=&amp;nights=&amp;limit=   JSON lines of {"roomNumber", "checkIn", "checkOut",
+ *                                                           "totalPrice"}
+ * </pre>
+ * Errors are {@code {"error": ..., "message": ...}} with the status of {@link #statusOf(HotelReservationException)},
+ * 400 for malformed requests, or 500 for anything else that goes wrong.
+ */
+public final class HotelHttpServer implements AutoCloseable {
+
+    public static final int BAD_REQUEST = 400;
+    public static final int PAYMENT_REQUIRED = 402;
+    public static final int NOT_FOUND = 404;
+    public static final int METHOD_NOT_ALLOWED = 405;
+    public static final int CONFLICT = 409;
+    public static final int PAYLOAD_TOO_LARGE = 413;
+    public static final int INTERNAL_SERVER_ERROR = 500;
+
+    private static final int CREATED = 201;
+    private static final int OK = 200;
+    private static final int NO_CONTENT = 204;
+    private static final int BACKLOG = 4096;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int FALLBACK_THREADS = Math.max(32, 8 * Runtime.getRuntime().availableProcessors());
+
+    private static final String JSON = "application/json";
+    private static final String JSON_LINES = "application/x-ndjson";
+
+    // A request that cannot be routed: unknown path, wrong method or oversized body.
+    private static final class RouteException extends RuntimeException {
+        private final int status;
+
+        private RouteException(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+    }
+
+    private final Service service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    private HotelHttpServer(Service service, HttpServer server, ExecutorService executor, boolean virtualThreads) {
+        this.service = service;
+        this.server = server;
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Starts serving the service on the address; port 0 picks a free port, see {@link #getAddress()}.
+     */
+    public static HotelHttpServer start(Service service, InetSocketAddress address) throws IOException {
+        if (service == null || address == null) {
+            throw new IllegalArgumentException("Service and address cannot be null");
+        }
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutorOrNull();
+        boolean virtualThreads = executor != null;
+        if (executor == null) {
+            executor = newFallbackExecutor();
+        }
+
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        HotelHttpServer httpServer = new HotelHttpServer(service, server, executor, virtualThreads);
+        server.createContext("/", httpServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        return httpServer;
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting connections, closes open ones and stops the request threads.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * The status code reported for each kind of rejection.
+     */
+    public static int statusOf(HotelReservationException e) {
+        if (e instanceof UserNotFoundException || e instanceof RoomNotFoundException
+                || e instanceof BookingNotFoundException || e instanceof HoldNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (e instanceof RoomNotAvailableException) {
+            return CONFLICT;
+        }
+        if (e instanceof InsufficientBalanceException) {
+            return PAYMENT_REQUIRED;
+        }
+        // InvalidDateException and anything more general are the client's to fix.
+        return BAD_REQUEST;
+    }
+
+    private static ExecutorService newFallbackExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(FALLBACK_THREADS, task -> {
+            Thread thread = new Thread(task, "hotel-http-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Package-private so tests can drive it with their own exchange.
+    void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (HotelReservationException e) {
+            sendError(exchange, statusOf(e), e.getClass().getSimpleName(), e.getMessage());
+        } catch (RouteException e) {
+            sendError(exchange, e.status, "RouteError", e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            sendError(exchange, BAD_REQUEST, "BadRequest", e.getMessage());
+        } catch (RuntimeException e) {
+            // A bug or a failure below the service; the client still gets an answer instead of a dropped connection.
+            sendError(exchange, INTERNAL_SERVER_ERROR, "InternalError", e.getClass().getSimpleName());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, HotelReservationException {
+        String[] path = segments(exchange.getRequestURI().getRawPath());
+        Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+        String method = exchange.getRequestMethod();
+        String collection = path.length == 0 ? "" : path[0];
+
+        if (collection.equals("rooms") && path.length == 1) {
+            requireMethod(method, "GET");
+            sendPage(exchange, filtered(ExportQuery.rooms(), parameters));
+        } else if (collection.equals("rooms") && path.length == 2 && path[1].equals("available")) {
+            requireMethod(method, "GET");
+            sendAvailableRooms(exchange, parameters);
+        } else if (collection.equals("rooms") && path.length == 2 && path[1].equals("earliest")) {
+            requireMethod(method, "GET");
+            sendEarliestStays(exchange, parameters);
+        } else if (collection.equals("rooms") && path.length == 2 && method.equals("PUT")) {
+            Map<String, String> body = body(exchange);
+            service.setRoom(number(path[1]), RoomType.valueOf(field(body, "roomType")),
+                    Integer.parseInt(field(body, "pricePerNight")));
+            send(exchange, NO_CONTENT, null, (byte[]) null);
+        } else if (collection.equals("rooms") && path.length == 2) {
+            requireMethod(method, "GET");
+            int roomNumber = number(path[1]);
+            Room room = service.findRoom(roomNumber);
+            if (room == null) {
+                throw new RoomNotFoundException(roomNumber);
+            }
+            sendRoom(exchange, room);
+        } else if (collection.equals("users") && path.length == 1) {
+            requireMethod(method, "GET");
+            sendPage(exchange, filtered(ExportQuery.users(), parameters));
+        } else if (collection.equals("users") && path.length == 2 && method.equals("PUT")) {
+            service.setUser(number(path[1]), Integer.parseInt(field(body(exchange), "balance")));
+            send(exchange, NO_CONTENT, null, (byte[]) null);
+        } else if (collection.equals("users") && path.length == 2) {
+            requireMethod(method, "GET");
+            int userId = number(path[1]);
+            if (!sendOne(exchange, ExportQuery.users().userId(userId))) {
+                throw new UserNotFoundException(userId);
+            }
+        } else if (collection.equals("users") && path.length == 3 && path[2].equals("bookings")) {
+            requireMethod(method, "GET");
+            sendPage(exchange, filtered(ExportQuery.bookings().userId(number(path[1])), parameters));
+        } else if (collection.equals("bookings") && path.length == 1 && method.equals("POST")) {
+            book(exchange);
+        } else if (collection.equals("bookings") && path.length == 1) {
+            requireMethod(method, "GET");
+            sendPage(exchange, filtered(ExportQuery.bookings(), parameters));
+        } else if (collection.equals("bookings") && path.length == 2) {
+            requireMethod(method, "DELETE");
+            Booking cancelled = service.cancelBooking(number(path[1]));
+            send(exchange, OK, JSON, "{\"bookingId\":" + cancelled.getBookingId()
+                    + ",\"refund\":" + cancelled.getTotalPrice() + "}");
+        } else if (collection.equals("holds") && path.length == 1) {
+            requireMethod(method, "POST");
+            hold(exchange);
+        } else if (collection.equals("holds") && path.length == 3 && path[2].equals("confirm")) {
+            requireMethod(method, "POST");
+            Booking booking = service.confirmHold(number(path[1]));
+            send(exchange, CREATED, JSON, "{\"bookingId\":" + booking.getBookingId()
+                    + ",\"totalPrice\":" + booking.getTotalPrice() + "}");
+        } else if (collection.equals("holds") && path.length == 2) {
+            requireMethod(method, "DELETE");
+            int holdId = number(path[1]);
+            if (!service.releaseHold(holdId)) {
+                throw new HoldNotFoundException(holdId);
+            }
+            send(exchange, NO_CONTENT, null, (byte[]) null);
+        } else {
+            throw new RouteException(NOT_FOUND, "No route for " + method + " " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private void book(HttpExchange exchange) throws IOException, HotelReservationException {
+        Map<String, String> body = body(exchange);
+        BookingResult result = service.tryBookRoom(Integer.parseInt(field(body, "userId")),
+                Integer.parseInt(field(body, "roomNumber")),
+                LocalDate.parse(field(body, "checkIn")), LocalDate.parse(field(body, "checkOut")));
+        if (!result.isBooked()) {
+            throw result.toException();
+        }
+        send(exchange, CREATED, JSON, "{\"bookingId\":" + result.getBookingId()
+                + ",\"totalPrice\":" + result.getRequired() + "}");
+    }
+
+    private void hold(HttpExchange exchange) throws IOException, HotelReservationException {
+        Map<String, String> body = body(exchange);
+        Hold hold = service.holdRoom(Integer.parseInt(field(body, "userId")),
+                Integer.parseInt(field(body, "roomNumber")),
+                LocalDate.parse(field(body, "checkIn")), LocalDate.parse(field(body, "checkOut")),
+                Duration.ofSeconds(Long.parseLong(field(body, "ttlSeconds"))));
+        send(exchange, CREATED, JSON, "{\"holdId\":" + hold.getHoldId() + ",\"totalPrice\":" + hold.getTotalPrice()
+                + ",\"expiresAt\":" + Json.quote(hold.getExpiryDate().toInstant().toString()) + "}");
+    }
+
+    private void sendAvailableRooms(HttpExchange exchange, Map<String, String> parameters)
+            throws IOException, InvalidDateException {
+        RoomType roomType = RoomType.valueOf(field(parameters, "roomType"));
+        LocalDate checkIn = LocalDate.parse(field(parameters, "checkIn"));
+        LocalDate checkOut = LocalDate.parse(field(parameters, "checkOut"));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+        for (Room room : service.findAvailableRooms(roomType, checkIn, checkOut)) {
+            ExportFormat.JSON_LINES.writeRoom(writer, room);
+        }
+        writer.flush();
+        send(exchange, OK, JSON_LINES, body.toByteArray());
+    }
+
+    private void sendEarliestStays(HttpExchange exchange, Map<String, String> parameters)
+            throws IOException, InvalidDateException {
+        RoomType roomType = RoomType.valueOf(field(parameters, "roomType"));
+        LocalDate from = LocalDate.parse(field(parameters, "from"));
+        int nights = Integer.parseInt(field(parameters, "nights"));
+        int limit = parameters.containsKey("limit") ? Integer.parseInt(parameters.get("limit")) : 1;
+        if (limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit cannot exceed " + MAX_PAGE_SIZE);
+        }
+
+        StringBuilder body = new StringBuilder();
+        for (AvailableStay stay : service.findEarliestStays(roomType, from, nights, limit)) {
+            body.append("{\"roomNumber\":").append(stay.getRoomNumber())
+                    .append(",\"checkIn\":").append(Json.quote(stay.getCheckIn().toString()))
+                    .append(",\"checkOut\":").append(Json.quote(stay.getCheckOut().toString()))
+                    .append(",\"totalPrice\":").append(stay.getTotalPrice()).append("}\n");
+        }
+        send(exchange, OK, JSON_LINES, body.toString());
+    }
+
+    private void sendPage(HttpExchange exchange, ExportQuery query) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        long next = service.export(query, ExportFormat.JSON_LINES, body);
+        if (next != ExportQuery.END) {
+            exchange.getResponseHeaders().set("X-Next-Cursor", Long.toString(next));
+        }
+        send(exchange, OK, JSON_LINES, body.toByteArray());
+    }
+
+    private static void sendRoom(HttpExchange exchange, Room room) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+        ExportFormat.JSON_LINES.writeRoom(writer, room);
+        writer.flush();
+        byte[] line = body.toByteArray();
+        send(exchange, OK, JSON, Arrays.copyOf(line, line.length - 1));
+    }
+
+    private boolean sendOne(HttpExchange exchange, ExportQuery query) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (service.export(query.limit(1), ExportFormat.JSON_LINES, body) == ExportQuery.END) {
+            return false;
+        }
+        byte[] line = body.toByteArray();
+        send(exchange, OK, JSON, Arrays.copyOf(line, line.length - 1));
+        return true;
+    }
+
+    private static ExportQuery filtered(ExportQuery query, Map<String, String> parameters) {
+        int limit = parameters.containsKey("limit") ? Integer.parseInt(parameters.get("limit")) : DEFAULT_PAGE_SIZE;
+        if (limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit cannot exceed " + MAX_PAGE_SIZE);
+        }
+        query = query.limit(limit);
+        if (parameters.containsKey("after")) {
+            query = query.after(Long.parseLong(parameters.get("after")));
+        }
+        if (parameters.containsKey("roomType")) {
+            query = query.roomType(RoomType.valueOf(parameters.get("roomType")));
+        }
+        if (parameters.containsKey("userId")) {
+            query = query.userId(Integer.parseInt(parameters.get("userId")));
+        }
+        if (parameters.containsKey("roomNumber")) {
+            query = query.roomNumber(Integer.parseInt(parameters.get("roomNumber")));
+        }
+        if (parameters.containsKey("from") || parameters.containsKey("to")) {
+            query = query.staying(LocalDate.parse(field(parameters, "from")), LocalDate.parse(field(parameters, "to")));
+        }
+        return query;
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new RouteException(METHOD_NOT_ALLOWED, "Method " + method + " is not allowed here");
+        }
+    }
+
+    private static String field(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static int number(String segment) {
+        return Integer.parseInt(segment);
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path == null ? "" : path.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static Map<String, String> parameters(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return parameters;
+    }
+
+    private static Map<String, String> body(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new RouteException(PAYLOAD_TOO_LARGE, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+                }
+            }
+        }
+        return Json.parseObject(new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String error, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            // The status line is already out, so the failure can only cut the response short; closing does that.
+            return;
+        }
+        send(exchange, status, JSON, "{\"error\":" + Json.quote(error)
+                + ",\"message\":" + Json.quote(message == null ? "" : message) + "}");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        send(exchange, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
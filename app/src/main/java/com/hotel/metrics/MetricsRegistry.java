@@ -0,0 +1,26 @@
+package com.hotel.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Where instrumented components get their counters and histograms.
+ * Components look their metrics up once, when they are created, and record into them directly afterwards,
+ * so a registry may do any amount of work per lookup, e.g. bind each metric to an external monitoring system.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     */
+    Counter counter(String name);
+
+    /**
+     * Returns the histogram with the given name, creating it if needed.
+     */
+    LatencyHistogram histogram(String name);
+
+    /**
+     * Registers a value that is computed whenever it is read.
+     */
+    void gauge(String name, LongSupplier value);
+}
@@ -0,0 +1,286 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.service.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Loads rooms, users and historical bookings from files into an empty {@link Service}, for migrations and
+ * disaster recovery, without going through {@code setRoom}, {@code setUser} and {@code bookRoom} one at a time.
+ * <p>
+ * The input is either CSV files in the layout of {@link ExportFormat#CSV}, or a snapshot file written by
+ * {@link Persistence}. Files are memory-mapped and cut into chunks that are parsed in parallel, each into lists of
+ * rooms and users and a {@link BookingStore}: CSV chunks end at line breaks, snapshot chunks at record boundaries
+ * found by hopping over the record lengths. The parsed chunks then go to {@link Service#restoreAll}, which
+ * validates them in a separate pass and builds the service's stores and indexes in one shot, so a failed import
+ * loads nothing.
+ * <p>
+ * Records are loaded oldest first: snapshot records in file order, and CSV records, which exports list newest
+ * first, from the end of each file to its start, so an imported export keeps the exporting service's order.
+ * Bookings are not charged, balances are loaded as given, and listeners are not notified, so the import is not
+ * journaled; with {@link Persistence} attached, take a snapshot afterwards.
+ */
+public final class BulkImport {
+
+    public static final int DEFAULT_CHUNK_BYTES = 32 << 20;
+
+    // Snapshot boundaries are found through windows of this size; chunks are mapped one by one.
+    private static final long SCAN_WINDOW_BYTES = 1 << 30;
+
+    /**
+     * The records parsed from one chunk of input.
+     */
+    static final class Chunk {
+        final List<Room> rooms = new ArrayList<>();
+        final List<User> users = new ArrayList<>();
+        final BookingStore bookings;
+
+        Chunk(int bookingCapacity) {
+            bookings = new BookingStore(bookingCapacity);
+        }
+    }
+
+    private final Path rooms;
+    private final Path users;
+    private final Path bookings;
+    private final Path snapshot;
+    private final int threads;
+    private final int chunkBytes;
+
+    private BulkImport(Path rooms, Path users, Path bookings, Path snapshot, int threads, int chunkBytes) {
+        this.rooms = rooms;
+        this.users = users;
+        this.bookings = bookings;
+        this.snapshot = snapshot;
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Imports CSV files of rooms, users and bookings, each with its header line. Any of them may be null.
+     */
+    public static BulkImport csv(Path rooms, Path users, Path bookings) {
+        return new BulkImport(rooms, users, bookings, null, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Imports a snapshot file; later bookings get ids above those of the snapshot, as after recovery.
+     */
+    public static BulkImport snapshot(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        return new BulkImport(null, null, null, file, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Parses with the given number of threads; the default is one per available processor.
+     */
+    public BulkImport threads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+        return new BulkImport(rooms, users, bookings, snapshot, threads, chunkBytes);
+    }
+
+    /**
+     * Cuts files into chunks of about the given number of bytes; the default is {@value #DEFAULT_CHUNK_BYTES}.
+     */
+    public BulkImport chunkBytes(int chunkBytes) {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        return new BulkImport(rooms, users, bookings, snapshot, threads, chunkBytes);
+    }
+
+    /**
+     * Runs the import into an empty service.
+     *
+     * @throws IOException              if a file cannot be read or is malformed; the message gives the byte offset
+     * @throws IllegalArgumentException if the records do not validate, see {@link Service#restoreAll}
+     * @throws IllegalStateException    if the service is not empty
+     */
+    public ImportReport into(Service service) throws IOException {
+        if (service == null) {
+            throw new IllegalArgumentException("Service cannot be null");
+        }
+
+        long start = System.nanoTime();
+        List<Chunk> chunks = new ArrayList<>();
+        Persistence.SnapshotHeader header = null;
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<Chunk>> parsing = new ArrayList<>();
+            if (snapshot != null) {
+                header = Persistence.SnapshotHeader.read(snapshot);
+                if (header == null) {
+                    throw new IOException("Not a snapshot file: " + snapshot);
+                }
+                submitSnapshot(executor, header, parsing);
+            } else {
+                submitCsv(executor, rooms, ExportQuery.Entity.ROOMS, parsing);
+                submitCsv(executor, users, ExportQuery.Entity.USERS, parsing);
+                submitCsv(executor, bookings, ExportQuery.Entity.BOOKINGS, parsing);
+            }
+            for (Future<Chunk> chunk : parsing) {
+                chunks.add(await(chunk));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Room> allRooms = new ArrayList<>();
+        List<User> allUsers = new ArrayList<>();
+        List<BookingStore> allBookings = new ArrayList<>(chunks.size());
+        int bookingCount = 0;
+        for (Chunk chunk : chunks) {
+            allRooms.addAll(chunk.rooms);
+            allUsers.addAll(chunk.users);
+            allBookings.add(chunk.bookings);
+            bookingCount += chunk.bookings.size();
+        }
+        if (header != null && (allRooms.size() != header.rooms || allUsers.size() != header.users
+                || bookingCount != header.bookings)) {
+            throw new IOException("Snapshot " + snapshot + " does not hold the records its header counts");
+        }
+        long parsed = System.nanoTime();
+
+        service.restoreAll(allRooms, allUsers, allBookings);
+        if (header != null) {
+            service.reserveBookingIds(header.nextBookingId);
+        }
+        return new ImportReport(allRooms.size(), allUsers.size(), bookingCount, threads, parsed - start,
+                System.nanoTime() - parsed);
+    }
+
+    private void submitCsv(ExecutorService executor, Path file, ExportQuery.Entity entity,
+            List<Future<Chunk>> parsing) throws IOException {
+        if (file == null) {
+            return;
+        }
+        long size = Files.size(file);
+        // Bookings take about a hundred bytes per line.
+        int bookingCapacity = entity == ExportQuery.Entity.BOOKINGS ? (int) Math.min(chunkBytes, size) / 100 : 1;
+        List<Future<Chunk>> chunks = new ArrayList<>();
+        long from = 0;
+        do {
+            long chunkFrom = from;
+            long chunkTo = Math.min(size, from + chunkBytes);
+            chunks.add(executor.submit(() -> {
+                Chunk chunk = new Chunk(bookingCapacity);
+                CsvChunkParser.parse(file, entity, chunkFrom, chunkTo, chunk);
+                return chunk;
+            }));
+            from = chunkTo;
+        } while (from < size);
+        // The file holds the newest records first.
+        Collections.reverse(chunks);
+        parsing.addAll(chunks);
+    }
+
+    private void submitSnapshot(ExecutorService executor, Persistence.SnapshotHeader header,
+            List<Future<Chunk>> parsing) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer window = null;
+            long windowStart = 0;
+            long chunkFrom = header.size;
+            long position = header.size;
+            while (position < size) {
+                if (window == null || position + 4 > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(SCAN_WINDOW_BYTES, size - position));
+                }
+                int length = position + 4 > size ? -1 : window.getInt((int) (position - windowStart));
+                if (length <= 0 || length > RecordCodec.MAX_RECORD_SIZE || position + length + 8 > size) {
+                    throw new IOException("Corrupt snapshot " + snapshot + " at offset " + position);
+                }
+                position += length + 8;
+                if (position - chunkFrom >= chunkBytes || position == size) {
+                    parsing.add(executor.submit(snapshotChunk(chunkFrom, position)));
+                    chunkFrom = position;
+                }
+            }
+        }
+    }
+
+    private Callable<Chunk> snapshotChunk(long from, long to) {
+        return () -> {
+            // Snapshot bookings take 46 bytes each.
+            Chunk chunk = new Chunk((int) (to - from) / 46 + 1);
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+                while (buffer.hasRemaining()) {
+                    int position = buffer.position();
+                    Object record = RecordCodec.read(buffer, crc, chunk.bookings);
+                    if (record instanceof Room) {
+                        chunk.rooms.add((Room) record);
+                    } else if (record instanceof User) {
+                        chunk.users.add((User) record);
+                    } else if (record instanceof Booking) {
+                        Booking booking = (Booking) record;
+                        chunk.bookings.append(booking.getBookingId(), booking.getUserId(), booking.getRoomNumber(),
+                                booking.getBookedRoomType(), booking.getBookedPricePerNight(),
+                                booking.getUserBalanceAtBooking(), booking.getCheckInDay(), booking.getCheckOutDay(),
+                                booking.getBookingDate().getTime());
+                    } else if (record != chunk.bookings) {
+                        throw new IOException("Corrupt snapshot " + snapshot + " at offset " + (from + position));
+                    }
+                }
+            }
+            return chunk;
+        };
+    }
+
+    private static Chunk await(Future<Chunk> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Import failed", cause);
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "bulk-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,322 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.export.ExportWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Parses the lines of one chunk of a CSV file in the layout of {@link ExportFormat#CSV} without allocating per
+ * field. The chunk is copied out of its mapping in one bulk read, so parsing runs over a plain array instead of
+ * bounds-checked buffer reads. A chunk owns the lines that start within its byte range: it skips the
+ * partial line it starts in, which belongs to the previous chunk, and reads on past its end to finish its last
+ * line. The first chunk checks the header line instead.
+ * <p>
+ * Exports list the newest records first, so a chunk finds its lines front to back and parses them back to front,
+ * and {@link BulkImport} takes the chunks of a file last to first: records load oldest first.
+ */
+final class CsvChunkParser {
+
+    static final int MAX_LINE_BYTES = 4096;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final byte[][] ROOM_TYPE_NAMES = new byte[ROOM_TYPES.length][];
+
+    static {
+        for (int i = 0; i < ROOM_TYPES.length; i++) {
+            ROOM_TYPE_NAMES[i] = ROOM_TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final Path file;
+    private final ExportQuery.Entity entity;
+    private final byte[] bytes;
+    // File offset of bytes[0].
+    private final long base;
+    private final long end;
+    private final boolean mappedToEndOfFile;
+    private int lineStart;
+    private int lineEnd = -1;
+    private int position;
+
+    private CsvChunkParser(Path file, ExportQuery.Entity entity, byte[] bytes, long base, long end,
+            boolean mappedToEndOfFile) {
+        this.file = file;
+        this.entity = entity;
+        this.bytes = bytes;
+        this.base = base;
+        this.end = end;
+        this.mappedToEndOfFile = mappedToEndOfFile;
+    }
+
+    /**
+     * Parses the lines starting in [from, to) of the file into the chunk.
+     */
+    static void parse(Path file, ExportQuery.Entity entity, long from, long to, BulkImport.Chunk chunk)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long mapFrom = Math.max(0, from - 1);
+            long mapTo = Math.min(size, to + MAX_LINE_BYTES);
+            byte[] bytes = new byte[(int) (mapTo - mapFrom)];
+            channel.map(FileChannel.MapMode.READ_ONLY, mapFrom, bytes.length).get(bytes);
+            new CsvChunkParser(file, entity, bytes, mapFrom, to, mapTo == size).parse(from, chunk);
+        }
+    }
+
+    private void parse(long from, BulkImport.Chunk chunk) throws IOException {
+        if (from == 0) {
+            nextLine();
+            checkHeader();
+        } else {
+            // The byte before the range tells whether the range starts with a whole line.
+            while (lineEnd + 1 < bytes.length && bytes[lineEnd + 1] != '\n') {
+                lineEnd++;
+            }
+            lineEnd++;
+        }
+
+        int[] lineStarts = new int[64];
+        int[] lineEnds = new int[64];
+        int lines = 0;
+        while (lineEnd + 1 < bytes.length && base + lineEnd + 1 < end) {
+            nextLine();
+            if (contentEnd() == lineStart) {
+                continue;
+            }
+            if (lines == lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+                lineEnds = Arrays.copyOf(lineEnds, lines * 2);
+            }
+            lineStarts[lines] = lineStart;
+            lineEnds[lines] = lineEnd;
+            lines++;
+        }
+
+        for (int line = lines - 1; line >= 0; line--) {
+            lineStart = lineStarts[line];
+            lineEnd = lineEnds[line];
+            position = lineStart;
+            try {
+                switch (entity) {
+                    case ROOMS:
+                        chunk.rooms.add(parseRoom());
+                        break;
+                    case USERS:
+                        chunk.users.add(parseUser());
+                        break;
+                    default:
+                        parseBooking(chunk.bookings);
+                }
+            } catch (IllegalArgumentException e) {
+                throw malformed(e.getMessage());
+            }
+        }
+    }
+
+    // Moves to the line after the current one; it ends at its line break or at the end of the file.
+    private void nextLine() throws IOException {
+        lineStart = lineEnd + 1;
+        int limit = bytes.length;
+        int next = lineStart;
+        while (next < limit && bytes[next] != '\n') {
+            next++;
+        }
+        if (next == limit && !mappedToEndOfFile) {
+            throw malformed("line longer than " + MAX_LINE_BYTES + " bytes");
+        }
+        lineEnd = next;
+        position = lineStart;
+    }
+
+    private void checkHeader() throws IOException {
+        StringWriter expected = new StringWriter();
+        ExportWriter writer = new ExportWriter(expected);
+        ExportFormat.CSV.writeHeader(writer, entity);
+        writer.flush();
+        byte[] header = expected.toString().trim().getBytes(StandardCharsets.US_ASCII);
+
+        int length = contentEnd() - lineStart;
+        boolean matches = length == header.length;
+        for (int i = 0; matches && i < length; i++) {
+            matches = bytes[lineStart + i] == header[i];
+        }
+        if (!matches) {
+            throw malformed("expected the header " + new String(header, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private Room parseRoom() throws IOException {
+        int roomNumber = nextInt();
+        RoomType roomType = nextRoomType();
+        int pricePerNight = nextInt();
+        long createdAt = nextTimestamp();
+        endLine();
+        return new Room(roomNumber, roomType, pricePerNight, new Date(createdAt));
+    }
+
+    private User parseUser() throws IOException {
+        int userId = nextInt();
+        int balance = nextInt();
+        long createdAt = nextTimestamp();
+        endLine();
+        return new User(userId, balance, new Date(createdAt));
+    }
+
+    private void parseBooking(BookingStore bookings) throws IOException {
+        int bookingId = nextInt();
+        int userId = nextInt();
+        int roomNumber = nextInt();
+        RoomType roomType = nextRoomType();
+        int pricePerNight = nextInt();
+        int checkIn = nextDate();
+        int checkOut = nextDate();
+        int nights = nextInt();
+        int totalPrice = nextInt();
+        int balanceAtBooking = nextInt();
+        long bookedAt = nextTimestamp();
+        endLine();
+        if (nights != checkOut - checkIn || totalPrice != nights * pricePerNight) {
+            throw malformed("nights and total price do not match the stay and price");
+        }
+        bookings.append(bookingId, userId, roomNumber, roomType, pricePerNight, balanceAtBooking,
+                checkIn, checkOut, bookedAt);
+    }
+
+    private int nextInt() throws IOException {
+        int fieldEnd = fieldEnd();
+        boolean negative = position < fieldEnd && bytes[position] == '-';
+        long value = digits(negative ? position + 1 : position, fieldEnd);
+        if (value > Integer.MAX_VALUE + (negative ? 1L : 0L)) {
+            throw malformed("number out of range");
+        }
+        position = fieldEnd + 1;
+        return (int) (negative ? -value : value);
+    }
+
+    private RoomType nextRoomType() throws IOException {
+        int fieldEnd = fieldEnd();
+        for (int type = 0; type < ROOM_TYPES.length; type++) {
+            byte[] name = ROOM_TYPE_NAMES[type];
+            boolean matches = name.length == fieldEnd - position;
+            for (int i = 0; matches && i < name.length; i++) {
+                matches = bytes[position + i] == name[i];
+            }
+            if (matches) {
+                position = fieldEnd + 1;
+                return ROOM_TYPES[type];
+            }
+        }
+        throw malformed("unknown room type");
+    }
+
+    // yyyy-MM-dd as an epoch day.
+    private int nextDate() throws IOException {
+        int fieldEnd = fieldEnd();
+        long epochDay = date(position, fieldEnd);
+        position = fieldEnd + 1;
+        return (int) epochDay;
+    }
+
+    // yyyy-MM-ddTHH:mm:ss.SSSZ in UTC as epoch millis.
+    private long nextTimestamp() throws IOException {
+        int fieldEnd = fieldEnd();
+        int time = fieldEnd - 14;
+        if (time <= position || bytes[time] != 'T' || bytes[time + 3] != ':'
+                || bytes[time + 6] != ':' || bytes[time + 9] != '.' || bytes[fieldEnd - 1] != 'Z') {
+            throw malformed("expected a timestamp");
+        }
+        long hours = digits(time + 1, time + 3);
+        long minutes = digits(time + 4, time + 6);
+        long seconds = digits(time + 7, time + 9);
+        long millis = digits(time + 10, time + 13);
+        if (hours > 23 || minutes > 59 || seconds > 59) {
+            throw malformed("expected a timestamp");
+        }
+        long epochDay = date(position, time);
+        position = fieldEnd + 1;
+        return epochDay * MILLIS_PER_DAY + ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+    }
+
+    // Days-from-civil over 400-year eras with years starting in March, the inverse of ExportWriter.writeDate.
+    private long date(int from, int to) throws IOException {
+        if (to - from < 10 || bytes[to - 3] != '-' || bytes[to - 6] != '-') {
+            throw malformed("expected a date");
+        }
+        long year = digits(from, to - 6);
+        long month = digits(to - 5, to - 3);
+        long day = digits(to - 2, to);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw malformed("expected a date");
+        }
+
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static long lengthOfMonth(long year, long month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private long digits(int from, int to) throws IOException {
+        if (from == to || to - from > 10) {
+            throw malformed("expected a number");
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw malformed("expected a number");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int fieldEnd() throws IOException {
+        int contentEnd = contentEnd();
+        if (position > contentEnd) {
+            throw malformed("missing fields");
+        }
+        int fieldEnd = position;
+        while (fieldEnd < contentEnd && bytes[fieldEnd] != ',') {
+            fieldEnd++;
+        }
+        return fieldEnd;
+    }
+
+    private void endLine() throws IOException {
+        if (position != contentEnd() + 1) {
+            throw malformed("too many fields");
+        }
+    }
+
+    // End of the current line without a trailing carriage return.
+    private int contentEnd() {
+        return lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    private IOException malformed(String problem) {
+        return new IOException(file + " at byte " + (base + lineStart) + ": " + problem);
+    }
+}
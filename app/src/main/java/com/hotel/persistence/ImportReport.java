@@ -0,0 +1,83 @@
+package com.hotel.persistence;
+
+import java.util.Locale;
+
+/**
+ * Outcome of a {@link BulkImport}: how many records were loaded and how fast. Parsing covers mapping and decoding
+ * the files; loading covers validating the records and building the service's stores and indexes.
+ */
+public final class ImportReport {
+
+    private final int rooms;
+    private final int users;
+    private final int bookings;
+    private final int threads;
+    private final long parseNanos;
+    private final long loadNanos;
+
+    ImportReport(int rooms, int users, int bookings, int threads, long parseNanos, long loadNanos) {
+        this.rooms = rooms;
+        this.users = users;
+        this.bookings = bookings;
+        this.threads = threads;
+        this.parseNanos = parseNanos;
+        this.loadNanos = loadNanos;
+    }
+
+    /**
+     * Rooms loaded; every version counts.
+     */
+    public int getRooms() {
+        return rooms;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getBookings() {
+        return bookings;
+    }
+
+    public long getRecords() {
+        return (long) rooms + users + bookings;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public long getElapsedNanos() {
+        return parseNanos + loadNanos;
+    }
+
+    /**
+     * Records loaded per second of the whole import.
+     */
+    public double getRecordsPerSecond() {
+        return getRecords() * 1e9 / Math.max(1, getElapsedNanos());
+    }
+
+    /**
+     * One line of JSON with durations in milliseconds.
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"rooms\":%d,\"users\":%d,\"bookings\":%d,\"threads\":%d,"
+                        + "\"parseMs\":%.1f,\"loadMs\":%.1f,\"elapsedMs\":%.1f,\"recordsPerSecond\":%.1f}",
+                rooms, users, bookings, threads, parseNanos / 1e6, loadNanos / 1e6, getElapsedNanos() / 1e6,
+                getRecordsPerSecond());
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
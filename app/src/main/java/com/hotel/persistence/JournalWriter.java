@@ -0,0 +1,158 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Appends records to the current journal segment.
+ * Appends only encode into an in-memory buffer; {@link #sync()} writes the buffer and forces it to disk,
+ * so every record appended since the previous sync becomes durable with a single force (group commit).
+ * <p>
+ * Appends run inside the service's commits and never throw: once a write fails, the writer stops journaling,
+ * appends return false and {@link #sync()}, {@link #rotate()} and {@link #close()} report the failure.
+ */
+final class JournalWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private int segment;
+    // The first write that failed; the journal has a gap from there on.
+    private IOException failure;
+
+    JournalWriter(Path directory, int segment, long validLength) throws IOException {
+        this.directory = directory;
+        this.segment = segment;
+        this.channel = FileChannel.open(Persistence.segmentPath(directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.truncate(validLength);
+        this.channel.position(validLength);
+    }
+
+    synchronized boolean appendRoom(Room room) {
+        if (!ensureSpace()) {
+            return false;
+        }
+        RecordCodec.writeRoom(pending, room, crc);
+        return true;
+    }
+
+    synchronized boolean appendUser(User user) {
+        if (!ensureSpace()) {
+            return false;
+        }
+        RecordCodec.writeUser(pending, user, crc);
+        return true;
+    }
+
+    synchronized boolean appendBooking(Booking booking) {
+        if (!ensureSpace()) {
+            return false;
+        }
+        RecordCodec.writeBooking(pending, booking, crc);
+        return true;
+    }
+
+    synchronized boolean appendCancellation(int bookingId) {
+        if (!ensureSpace()) {
+            return false;
+        }
+        RecordCodec.writeCancellation(pending, bookingId, crc);
+        return true;
+    }
+
+    /**
+     * The first write that failed, or null.
+     */
+    synchronized IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Writes every appended record and forces it to disk. The force runs outside the writer's lock,
+     * so appends continue while the disk catches up.
+     */
+    void sync() throws IOException {
+        FileChannel synced;
+        synchronized (this) {
+            writePending();
+            synced = channel;
+        }
+        try {
+            synced.force(false);
+        } catch (ClosedChannelException e) {
+            // The segment was rotated, and rotation forces the segment it closes.
+        }
+    }
+
+    /**
+     * Closes the current segment and starts the next one.
+     *
+     * @return the number of the new segment
+     */
+    synchronized int rotate() throws IOException {
+        writePending();
+        channel.force(false);
+        channel.close();
+        segment++;
+        channel = FileChannel.open(Persistence.segmentPath(directory, segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return segment;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            writePending();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // False if the record cannot be journaled because a write failed.
+    private boolean ensureSpace() {
+        if (failure != null) {
+            return false;
+        }
+        if (pending.remaining() < RecordCodec.MAX_RECORD_SIZE + 8) {
+            try {
+                writePending();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writePending() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal segment " + segment + " failed to write earlier", failure);
+        }
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Back to appending, keeping whatever was not written.
+            pending.compact();
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+import com.hotel.service.Service;
+import com.hotel.service.ServiceListener;
+import com.hotel.service.ServiceSnapshot;
+import com.hotel.service.SnapshotView;
+import com.hotel.util.IntLinkedMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Durable storage for a {@link Service}: every change is appended to a binary journal, and periodic snapshots
+ * bound how much journal has to be replayed on startup.
+ * <p>
+ * The directory holds numbered journal segments and snapshots. Snapshot N holds the state before segment N,
+ * so recovery loads the newest valid snapshot and replays segment N onwards. A torn record at the end of the
+ * last segment, left by a crash, is truncated. Journal appends are buffered and forced to disk every
+ * flush interval, so a crash loses at most the changes of the last interval; call {@link #sync()} to make
+ * everything appended so far durable immediately.
+ * <p>
+ * Once a journal write fails, the service fails closed (see {@link Service#failClosed}) and refuses every
+ * further change instead of acknowledging changes that a restart would lose.
+ */
+public class Persistence implements AutoCloseable {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+    public static final long DEFAULT_SNAPSHOT_EVERY_RECORDS = 1_000_000;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x48525353;
+    // Version 2 adds the next booking id, which cancelled bookings no longer imply; version 1 is still readable.
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int SNAPSHOT_V1_HEADER_SIZE = 20;
+    private static final int SNAPSHOT_HEADER_SIZE = 24;
+
+    private final Path directory;
+    private final Service service;
+    private final JournalWriter journal;
+    private final long snapshotEveryRecords;
+    private final ServiceListener listener = new JournalListener();
+
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService snapshotter;
+    private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+    private volatile IOException backgroundFailure;
+
+    private Persistence(Path directory, Service service, JournalWriter journal,
+            long flushIntervalMillis, long snapshotEveryRecords) {
+        this.directory = directory;
+        this.service = service;
+        this.journal = journal;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemon("journal-flusher"));
+        this.snapshotter = Executors.newSingleThreadExecutor(daemon("snapshot-writer"));
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static Persistence open(Path directory, Service service) throws IOException {
+        return open(directory, service, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_EVERY_RECORDS);
+    }
+
+    /**
+     * Restores the state stored in the directory into an empty service and journals its changes from then on.
+     *
+     * @param flushIntervalMillis  how often buffered journal records are forced to disk
+     * @param snapshotEveryRecords journal records after which a background snapshot is taken
+     */
+    public static Persistence open(Path directory, Service service,
+            long flushIntervalMillis, long snapshotEveryRecords) throws IOException {
+        if (directory == null || service == null) {
+            throw new IllegalArgumentException("Directory and service cannot be null");
+        }
+        if (flushIntervalMillis <= 0 || snapshotEveryRecords <= 0) {
+            throw new IllegalArgumentException("Flush interval and snapshot threshold must be positive");
+        }
+        if (!service.getRooms().isEmpty() || !service.getUsers().isEmpty() || !service.getBookings().isEmpty()) {
+            throw new IllegalArgumentException("Service must be empty before recovery");
+        }
+        Files.createDirectories(directory);
+
+        Recovery recovery = new Recovery(service);
+        int firstSegment = 0;
+        for (int snapshot : list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, true)) {
+            if (recovery.loadSnapshot(snapshotPath(directory, snapshot))) {
+                firstSegment = snapshot;
+                break;
+            }
+        }
+
+        List<Integer> segments = new ArrayList<>();
+        for (int segment : list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX, false)) {
+            if (segment >= firstSegment) {
+                segments.add(segment);
+            }
+        }
+        int lastSegment = firstSegment;
+        long validLength = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            lastSegment = segments.get(i);
+            validLength = recovery.replaySegment(segmentPath(directory, lastSegment), i == segments.size() - 1);
+        }
+
+        Persistence persistence = new Persistence(directory, service,
+                new JournalWriter(directory, lastSegment, validLength), flushIntervalMillis, snapshotEveryRecords);
+        service.addListener(persistence.listener);
+        return persistence;
+    }
+
+    /**
+     * Forces every change journaled so far to disk.
+     */
+    public void sync() throws IOException {
+        rethrowBackgroundFailure();
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            service.failClosed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current state and deletes the journal segments and snapshots it supersedes.
+     * Changes are paused only while a service snapshot is taken and the journal moves to a new segment.
+     */
+    public synchronized void snapshot() throws IOException {
+        rethrowBackgroundFailure();
+        ServiceSnapshot[] state = new ServiceSnapshot[1];
+        int[] segment = new int[1];
+        IOException[] failure = new IOException[1];
+
+        service.runExclusively(() -> {
+            state[0] = service.snapshot();
+            try {
+                segment[0] = journal.rotate();
+                recordsSinceSnapshot.set(0);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        writeSnapshot(snapshotPath(directory, segment[0]), state[0]);
+        for (int older : list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX, false)) {
+            if (older < segment[0]) {
+                Files.deleteIfExists(segmentPath(directory, older));
+            }
+        }
+        for (int older : list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, false)) {
+            if (older < segment[0]) {
+                Files.deleteIfExists(snapshotPath(directory, older));
+            }
+        }
+    }
+
+    /**
+     * Stops journaling, waits for a running snapshot and forces the journal to disk.
+     */
+    @Override
+    public void close() throws IOException {
+        service.removeListener(listener);
+        flusher.shutdown();
+        snapshotter.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        rethrowBackgroundFailure();
+    }
+
+    static Path segmentPath(Path directory, int segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    static Path snapshotPath(Path directory, int segment) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+
+    private void recorded() {
+        if (recordsSinceSnapshot.incrementAndGet() >= snapshotEveryRecords && snapshotPending.compareAndSet(false, true)) {
+            snapshotter.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException e) {
+                    backgroundFailure = e;
+                } finally {
+                    snapshotPending.set(false);
+                }
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            backgroundFailure = e;
+            service.failClosed(e);
+        }
+    }
+
+    private void rethrowBackgroundFailure() throws IOException {
+        IOException failure = backgroundFailure;
+        if (failure != null) {
+            throw new IOException("Background journal write failed", failure);
+        }
+    }
+
+    private static void writeSnapshot(Path path, ServiceSnapshot snapshot) throws IOException {
+        // Every version of every room, so bookings keep referring to the versions they were made at.
+        SnapshotView<Room> rooms = snapshot.getRoomVersions();
+        SnapshotView<User> users = snapshot.getUsers();
+        SnapshotView<Booking> bookings = snapshot.getBookings();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(SNAPSHOT_MAGIC);
+            buffer.putInt(SNAPSHOT_VERSION);
+            buffer.putInt(rooms.size());
+            buffer.putInt(users.size());
+            buffer.putInt(bookings.size());
+            buffer.putInt(snapshot.getNextBookingId());
+            for (Room room : rooms) {
+                drainIfFull(channel, buffer);
+                RecordCodec.writeRoom(buffer, room, crc);
+            }
+            for (User user : users) {
+                drainIfFull(channel, buffer);
+                RecordCodec.writeUser(buffer, user, crc);
+            }
+            for (Booking booking : bookings) {
+                drainIfFull(channel, buffer);
+                RecordCodec.writeBooking(buffer, booking, crc);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void drainIfFull(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < RecordCodec.MAX_RECORD_SIZE + 8) {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static List<Integer> list(Path directory, String prefix, String suffix, boolean newestFirst)
+            throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Integer.parseInt(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours.
+                }
+            }
+        }
+        Collections.sort(numbers);
+        if (newestFirst) {
+            Collections.reverse(numbers);
+        }
+        return numbers;
+    }
+
+    /**
+     * The header of a snapshot file: its size, the number of records of each kind and the next booking id.
+     */
+    static final class SnapshotHeader {
+        final int size;
+        final int rooms;
+        final int users;
+        final int bookings;
+        final int nextBookingId;
+
+        private SnapshotHeader(int size, int rooms, int users, int bookings, int nextBookingId) {
+            this.size = size;
+            this.rooms = rooms;
+            this.users = users;
+            this.bookings = bookings;
+            this.nextBookingId = nextBookingId;
+        }
+
+        long records() {
+            return (long) rooms + users + bookings;
+        }
+
+        /**
+         * @return the header, or null if the file does not start with a valid one
+         */
+        static SnapshotHeader read(Path path) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                while (header.hasRemaining() && channel.read(header) >= 0) {
+                    // Keep reading until the header is complete or the file ends.
+                }
+            }
+            header.flip();
+            if (header.remaining() < SNAPSHOT_V1_HEADER_SIZE || header.getInt() != SNAPSHOT_MAGIC) {
+                return null;
+            }
+            int version = header.getInt();
+            int size = version == 1 ? SNAPSHOT_V1_HEADER_SIZE : SNAPSHOT_HEADER_SIZE;
+            if ((version != 1 && version != SNAPSHOT_VERSION) || header.limit() < size) {
+                return null;
+            }
+            return new SnapshotHeader(size, header.getInt(), header.getInt(), header.getInt(),
+                    version == 1 ? 0 : header.getInt());
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class JournalListener implements ServiceListener {
+
+        @Override
+        public void roomSet(Room room) {
+            recorded(journal.appendRoom(room));
+        }
+
+        @Override
+        public void userSet(User user) {
+            recorded(journal.appendUser(user));
+        }
+
+        @Override
+        public void bookingCreated(Booking booking) {
+            recorded(journal.appendBooking(booking));
+        }
+
+        @Override
+        public void bookingCancelled(Booking booking) {
+            recorded(journal.appendCancellation(booking.getBookingId()));
+        }
+
+        // The change itself has committed; the service refuses the next ones if it could not be journaled.
+        private void recorded(boolean journaled) {
+            if (journaled) {
+                Persistence.this.recorded();
+            } else {
+                service.failClosed(journal.getFailure());
+            }
+        }
+    }
+
+    /**
+     * Applies stored records to the service being recovered.
+     * Users are tracked here because booking records charge the booked user again on replay, and cancellation
+     * records refund them; balances are changed through {@link Service#restoreUser} so snapshots see them.
+     */
+    private static class Recovery {
+
+        private final Service service;
+        private final IntLinkedMap<User> users = new IntLinkedMap<>();
+        private int nextBookingId;
+
+        private Recovery(Service service) {
+            this.service = service;
+        }
+
+        private boolean loadSnapshot(Path path) throws IOException {
+            List<Object> records = new ArrayList<>();
+            SnapshotHeader header = SnapshotHeader.read(path);
+            if (header == null) {
+                return false;
+            }
+            nextBookingId = header.nextBookingId;
+            try (RecordReader reader = new RecordReader(path, header.size)) {
+                for (Object record = reader.next(); record != null; record = reader.next()) {
+                    records.add(record);
+                }
+                if (records.size() != header.records() || reader.validPosition() != reader.size()) {
+                    return false;
+                }
+            }
+
+            for (Object record : records) {
+                if (record instanceof Room) {
+                    service.restoreRoom((Room) record);
+                } else if (record instanceof User) {
+                    User user = (User) record;
+                    users.put(user.getUserId(), user);
+                    service.restoreUser(user);
+                } else {
+                    service.restoreBooking((Booking) record);
+                }
+            }
+            service.reserveBookingIds(nextBookingId);
+            return true;
+        }
+
+        /**
+         * @return the length of the valid prefix of the segment
+         */
+        private long replaySegment(Path path, boolean last) throws IOException {
+            try (RecordReader reader = new RecordReader(path, 0)) {
+                for (Object record = reader.next(); record != null; record = reader.next()) {
+                    apply(record);
+                }
+                if (reader.validPosition() != reader.size() && !last) {
+                    throw new IOException("Corrupt journal segment " + path + " at offset " + reader.validPosition());
+                }
+                return reader.validPosition();
+            }
+        }
+
+        private void apply(Object record) throws IOException {
+            if (record instanceof Room) {
+                service.restoreRoom((Room) record);
+            } else if (record instanceof User) {
+                User user = (User) record;
+                if (users.get(user.getUserId()) == null) {
+                    users.put(user.getUserId(), user);
+                }
+                service.restoreUser(user);
+            } else if (record instanceof RecordCodec.Cancellation) {
+                int bookingId = ((RecordCodec.Cancellation) record).bookingId;
+                Booking booking;
+                try {
+                    booking = service.restoreCancellation(bookingId);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Journal cancels unknown booking " + bookingId, e);
+                }
+                // Like the service, refund only users that exist.
+                User user = users.get(booking.getUserId());
+                if (user != null) {
+                    setBalance(user, user.getBalance() + booking.getTotalPrice());
+                }
+            } else {
+                Booking booking = (Booking) record;
+                service.restoreBooking(booking);
+                User user = users.get(booking.getUserId());
+                if (user == null) {
+                    throw new IOException("Journal books unknown user " + booking.getUserId());
+                }
+                setBalance(user, user.getBalance() - booking.getTotalPrice());
+            }
+        }
+
+        private void setBalance(User user, int balance) {
+            service.restoreUser(new User(user.getUserId(), balance, user.getCreationDate()));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.zip.CRC32;
+
+/**
+ * Binary encoding shared by journal segments and snapshots.
+ * Each record is framed as [payload length][payload][CRC32 of payload]; the payload starts with a type byte.
+ */
+final class RecordCodec {
+
+    static final int MAX_RECORD_SIZE = 64;
+
+    // Rooms written before rooms were versioned, taking effect when created; still readable.
+    private static final byte ROOM = 1;
+    private static final byte USER = 2;
+    // Bookings written before stays were stored as epoch days; still readable.
+    private static final byte BOOKING_MILLIS = 3;
+    private static final byte BOOKING = 4;
+    private static final byte CANCELLATION = 5;
+    private static final byte ROOM_VERSION = 6;
+    private static final int BOOKING_LENGTH = 38;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    /**
+     * A decoded cancellation record.
+     */
+    static final class Cancellation {
+        final int bookingId;
+
+        Cancellation(int bookingId) {
+            this.bookingId = bookingId;
+        }
+    }
+
+    private RecordCodec() {
+    }
+
+    static void writeRoom(ByteBuffer buffer, Room room, CRC32 crc) {
+        int start = beginFrame(buffer);
+        buffer.put(ROOM_VERSION);
+        buffer.putInt(room.getRoomNumber());
+        buffer.put((byte) room.getRoomType().ordinal());
+        buffer.putInt(room.getPricePerNight());
+        buffer.putLong(room.getCreationTime());
+        buffer.putLong(room.getValidFromTime());
+        endFrame(buffer, start, crc);
+    }
+
+    static void writeUser(ByteBuffer buffer, User user, CRC32 crc) {
+        int start = beginFrame(buffer);
+        buffer.put(USER);
+        buffer.putInt(user.getUserId());
+        buffer.putInt(user.getBalance());
+        buffer.putLong(user.getCreationDate().getTime());
+        endFrame(buffer, start, crc);
+    }
+
+    static void writeBooking(ByteBuffer buffer, Booking booking, CRC32 crc) {
+        int start = beginFrame(buffer);
+        buffer.put(BOOKING);
+        buffer.putInt(booking.getBookingId());
+        buffer.putInt(booking.getUserId());
+        buffer.putInt(booking.getRoomNumber());
+        buffer.put((byte) booking.getBookedRoomType().ordinal());
+        buffer.putInt(booking.getBookedPricePerNight());
+        buffer.putInt(booking.getUserBalanceAtBooking());
+        buffer.putInt(booking.getCheckInDay());
+        buffer.putInt(booking.getCheckOutDay());
+        buffer.putLong(booking.getBookingDate().getTime());
+        endFrame(buffer, start, crc);
+    }
+
+    static void writeCancellation(ByteBuffer buffer, int bookingId, CRC32 crc) {
+        int start = beginFrame(buffer);
+        buffer.put(CANCELLATION);
+        buffer.putInt(bookingId);
+        endFrame(buffer, start, crc);
+    }
+
+    /**
+     * Decodes the next record, advancing the buffer past it.
+     *
+     * @return the decoded Room, User, Booking or Cancellation, or null if the buffer holds no complete valid record,
+     *         in which case the buffer position is unchanged
+     */
+    static Object read(ByteBuffer buffer, CRC32 crc) {
+        return read(buffer, crc, null);
+    }
+
+    /**
+     * Decodes the next record like {@link #read(ByteBuffer, CRC32)}, except that a booking is appended to the
+     * given store, if there is one, and the store is returned in its place.
+     */
+    static Object read(ByteBuffer buffer, CRC32 crc, BookingStore bookings) {
+        int start = buffer.position();
+        if (buffer.remaining() < 8) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > MAX_RECORD_SIZE || buffer.remaining() < length + 8) {
+            return null;
+        }
+
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(start + 4 + length);
+        payload.position(start + 4);
+        crc.reset();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(start + 4 + length)) {
+            return null;
+        }
+
+        buffer.position(start + 4);
+        if (bookings != null && length == BOOKING_LENGTH && buffer.get(start + 4) == BOOKING) {
+            buffer.get();
+            bookings.append(buffer.getInt(), buffer.getInt(), buffer.getInt(), ROOM_TYPES[buffer.get()],
+                    buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+            buffer.position(start + 8 + length);
+            return bookings;
+        }
+        Object record = decode(buffer);
+        if (buffer.position() != start + 4 + length) {
+            buffer.position(start);
+            return null;
+        }
+        buffer.position(start + 8 + length);
+        return record;
+    }
+
+    private static Object decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case ROOM:
+                return new Room(buffer.getInt(), ROOM_TYPES[buffer.get()], buffer.getInt(),
+                        new Date(buffer.getLong()));
+            case ROOM_VERSION:
+                return new Room(buffer.getInt(), ROOM_TYPES[buffer.get()], buffer.getInt(),
+                        new Date(buffer.getLong()), new Date(buffer.getLong()));
+            case USER:
+                return new User(buffer.getInt(), buffer.getInt(), new Date(buffer.getLong()));
+            case BOOKING:
+                return new Booking(buffer.getInt(), buffer.getInt(), buffer.getInt(), ROOM_TYPES[buffer.get()],
+                        buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+            case BOOKING_MILLIS:
+                return new Booking(buffer.getInt(), buffer.getInt(), buffer.getInt(), ROOM_TYPES[buffer.get()],
+                        buffer.getInt(), buffer.getInt(), new Date(buffer.getLong()), new Date(buffer.getLong()),
+                        new Date(buffer.getLong()));
+            case CANCELLATION:
+                return new Cancellation(buffer.getInt());
+            default:
+                throw new IllegalStateException("Unknown record type: " + type);
+        }
+    }
+
+    private static int beginFrame(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        return start;
+    }
+
+    private static void endFrame(ByteBuffer buffer, int start, CRC32 crc) {
+        int length = buffer.position() - start - 4;
+        buffer.putInt(start, length);
+
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(start + 4 + length);
+        payload.position(start + 4);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotel.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Sequential reader of framed records from a journal segment or snapshot file.
+ * Reading stops at the end of the file or at the first incomplete or corrupt record.
+ */
+final class RecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 4 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32 crc = new CRC32();
+    private long validPosition;
+    private boolean endOfFile;
+
+    RecordReader(Path path, long startPosition) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.channel.position(startPosition);
+        this.validPosition = startPosition;
+        this.buffer.flip();
+    }
+
+    /**
+     * @return the next Room, User or Booking, or null once no further valid record can be read
+     */
+    Object next() throws IOException {
+        while (true) {
+            int start = buffer.position();
+            Object record = RecordCodec.read(buffer, crc);
+            if (record != null) {
+                validPosition += buffer.position() - start;
+                return record;
+            }
+            if (endOfFile) {
+                return null;
+            }
+
+            buffer.compact();
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+            }
+            buffer.flip();
+        }
+    }
+
+    /**
+     * File offset just past the last record returned by {@link #next()}.
+     */
+    long validPosition() {
+        return validPosition;
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
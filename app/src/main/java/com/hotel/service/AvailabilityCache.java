@@ -0,0 +1,204 @@
+package com.hotel.service;
+
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, approximately LRU cache of {@link Service#findAvailableRooms} results, keyed by room type and stay.
+ * <p>
+ * Invalidation is precise: a change to the nights of a room evicts only the cached stays of that room's type that
+ * overlap the change, found through a per-type index of the cached stays by check-in; a change to a room evicts
+ * the stays of its old and new type. Each type also counts its invalidations, and a result computed while one of
+ * its type's invalidations ran is not cached, so a result computed before a change can never be cached after it.
+ * <p>
+ * Lookups take no lock, so concurrent queries never wait for each other: entries live in a concurrent map and each
+ * records its last use itself. Puts, invalidations and evictions take the cache's monitor. Uses are ordered only
+ * by the puts between them, and a full cache evicts its least recently used sixteenth at once, so eviction sorts
+ * the entries once every capacity / 16 puts rather than on each one.
+ */
+final class AvailabilityCache {
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private static final class Key {
+        private final RoomType roomType;
+        private final int checkInDay;
+        private final int checkOutDay;
+
+        private Key(RoomType roomType, int checkInDay, int checkOutDay) {
+            this.roomType = roomType;
+            this.checkInDay = checkInDay;
+            this.checkOutDay = checkOutDay;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) obj;
+            return roomType == key.roomType && checkInDay == key.checkInDay && checkOutDay == key.checkOutDay;
+        }
+
+        @Override
+        public int hashCode() {
+            return (roomType.ordinal() * 31 + checkInDay) * 31 + checkOutDay;
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final Room[] rooms;
+        private volatile long lastUsed;
+
+        private Entry(Key key, Room[] rooms, long lastUsed) {
+            this.key = key;
+            this.rooms = rooms;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private static final Comparator<Entry> LEAST_RECENTLY_USED =
+            (first, second) -> Long.compare(first.lastUsed, second.lastUsed);
+
+    private final int capacity;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    // Advanced by each put; a lookup stamps its entry with the current value.
+    private volatile long clock;
+    // The cached stays of each type by check-in, then check-out.
+    private final TreeMap<Long, Key>[] staysByType;
+    // The longest cached stay of each type bounds how far before a change an overlapping stay can start.
+    private final int[] longestStay = new int[ROOM_TYPES.length];
+    private final AtomicLongArray invalidations = new AtomicLongArray(ROOM_TYPES.length);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long evictions;
+    private long invalidated;
+
+    @SuppressWarnings("unchecked")
+    AvailabilityCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity cannot be negative");
+        }
+        this.capacity = capacity;
+        staysByType = new TreeMap[ROOM_TYPES.length];
+        for (int type = 0; type < ROOM_TYPES.length; type++) {
+            staysByType[type] = new TreeMap<>();
+        }
+    }
+
+    /**
+     * Returns the cached rooms, or null on a miss.
+     */
+    Room[] get(RoomType roomType, int checkInDay, int checkOutDay) {
+        Entry entry = capacity == 0 ? null : entries.get(new Key(roomType, checkInDay, checkOutDay));
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        long now = clock;
+        // Hot entries are stamped once per tick rather than written by every reader.
+        if (entry.lastUsed != now) {
+            entry.lastUsed = now;
+        }
+        return entry.rooms;
+    }
+
+    /**
+     * The stamp to pass to {@link #put}, taken before computing the result.
+     */
+    long stamp(RoomType roomType) {
+        return invalidations.get(roomType.ordinal());
+    }
+
+    /**
+     * Caches the result unless an invalidation of its type ran since the stamp was taken.
+     */
+    synchronized void put(RoomType roomType, int checkInDay, int checkOutDay, Room[] rooms, long stamp) {
+        int type = roomType.ordinal();
+        if (capacity == 0 || invalidations.get(type) != stamp) {
+            return;
+        }
+        Key key = new Key(roomType, checkInDay, checkOutDay);
+        if (entries.put(key, new Entry(key, rooms, clock++)) == null) {
+            staysByType[type].put(stayKey(checkInDay, checkOutDay), key);
+            longestStay[type] = Math.max(longestStay[type], checkOutDay - checkInDay);
+        }
+        if (entries.size() > capacity) {
+            evictLeastRecentlyUsed(entries.size() - capacity + capacity / 16);
+        }
+    }
+
+    private void evictLeastRecentlyUsed(int count) {
+        List<Entry> byLastUse = new ArrayList<>(entries.values());
+        byLastUse.sort(LEAST_RECENTLY_USED);
+        for (int i = 0; i < count; i++) {
+            Key evicted = byLastUse.get(i).key;
+            entries.remove(evicted);
+            staysByType[evicted.roomType.ordinal()].remove(stayKey(evicted.checkInDay, evicted.checkOutDay));
+            evictions++;
+        }
+    }
+
+    /**
+     * Evicts the cached stays of the type that share a night with [checkInDay, checkOutDay).
+     */
+    synchronized void invalidate(RoomType roomType, int checkInDay, int checkOutDay) {
+        int type = roomType.ordinal();
+        invalidations.incrementAndGet(type);
+        long firstCheckIn = (long) checkInDay - longestStay[type] + 1;
+        if (firstCheckIn < Integer.MIN_VALUE) {
+            firstCheckIn = Integer.MIN_VALUE;
+        }
+        Iterator<Map.Entry<Long, Key>> stays = staysByType[type]
+                .subMap(firstCheckIn << 32, true, (long) checkOutDay << 32, false).entrySet().iterator();
+        while (stays.hasNext()) {
+            Key key = stays.next().getValue();
+            if (key.checkOutDay > checkInDay) {
+                stays.remove();
+                entries.remove(key);
+                invalidated++;
+            }
+        }
+    }
+
+    /**
+     * Evicts every cached stay of the type.
+     */
+    synchronized void invalidate(RoomType roomType) {
+        int type = roomType.ordinal();
+        invalidations.incrementAndGet(type);
+        for (Key key : staysByType[type].values()) {
+            entries.remove(key);
+            invalidated++;
+        }
+        staysByType[type].clear();
+        longestStay[type] = 0;
+    }
+
+    synchronized void clear() {
+        for (RoomType roomType : ROOM_TYPES) {
+            invalidate(roomType);
+        }
+    }
+
+    synchronized AvailabilityCacheStats stats() {
+        return new AvailabilityCacheStats(hits.sum(), misses.sum(), evictions, invalidated, entries.size(), capacity);
+    }
+
+    // Orders stays by check-in, then check-out.
+    private static long stayKey(int checkInDay, int checkOutDay) {
+        return (long) checkInDay << 32 | (checkOutDay & 0xFFFFFFFFL);
+    }
+}
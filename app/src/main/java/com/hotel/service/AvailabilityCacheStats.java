@@ -0,0 +1,68 @@
+package com.hotel.service;
+
+/**
+ * Counters of the availability cache of a {@link Service} since it was created.
+ */
+public final class AvailabilityCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final int size;
+    private final int capacity;
+
+    AvailabilityCacheStats(long hits, long misses, long evictions, long invalidations, int size, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Share of queries answered from the cache, or 0 before the first query.
+     */
+    public double getHitRate() {
+        long queries = hits + misses;
+        return queries == 0 ? 0 : (double) hits / queries;
+    }
+
+    /**
+     * Entries dropped to make room for newer ones.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Entries dropped because a booking, cancellation, hold or room change made them stale.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AvailabilityCacheStats{hits=%d, misses=%d, hitRate=%.3f, evictions=%d, "
+                + "invalidations=%d, size=%d, capacity=%d}", hits, misses, getHitRate(), evictions, invalidations,
+                size, capacity);
+    }
+}
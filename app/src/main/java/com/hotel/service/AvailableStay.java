@@ -0,0 +1,62 @@
+package com.hotel.service;
+
+import com.hotel.entities.Room;
+
+import java.time.LocalDate;
+
+/**
+ * A stay found free by {@link Service#findEarliestStays}: a room and the nights it is free for.
+ */
+public final class AvailableStay {
+
+    private final Room room;
+    private final int checkInDay;
+    private final int checkOutDay;
+
+    AvailableStay(Room room, int checkInDay, int checkOutDay) {
+        this.room = room;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public int getRoomNumber() {
+        return room.getRoomNumber();
+    }
+
+    public LocalDate getCheckIn() {
+        return LocalDate.ofEpochDay(checkInDay);
+    }
+
+    public LocalDate getCheckOut() {
+        return LocalDate.ofEpochDay(checkOutDay);
+    }
+
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    public int getNights() {
+        return checkOutDay - checkInDay;
+    }
+
+    /**
+     * Price of the stay at the room's current price.
+     */
+    public int getTotalPrice() {
+        return getNights() * room.getPricePerNight();
+    }
+
+    @Override
+    public String toString() {
+        return "AvailableStay{roomNumber=" + getRoomNumber() + ", checkIn=" + getCheckIn()
+                + ", checkOut=" + getCheckOut() + ", total=" + getTotalPrice() + "}";
+    }
+}
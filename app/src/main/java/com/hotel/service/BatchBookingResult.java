@@ -0,0 +1,105 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.exception.HotelReservationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of an all-or-nothing {@link Service#bookRooms(List)} call, with one item per request in request order.
+ * When the batch is rejected, the requests that caused it are FAILED and every other request is ABORTED.
+ */
+public class BatchBookingResult {
+
+    public enum Status {
+        BOOKED,
+        FAILED,
+        ABORTED
+    }
+
+    public static class Item {
+
+        private final BookingRequest request;
+        private final Status status;
+        private final Booking booking;
+        private final HotelReservationException error;
+
+        Item(BookingRequest request, Status status, Booking booking, HotelReservationException error) {
+            this.request = request;
+            this.status = status;
+            this.booking = booking;
+            this.error = error;
+        }
+
+        public BookingRequest getRequest() {
+            return request;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Booking getBooking() {
+            return booking;
+        }
+
+        public HotelReservationException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" +
+                    "status=" + status +
+                    ", request=" + request +
+                    (booking != null ? ", booking=" + booking : "") +
+                    (error != null ? ", error=" + error.getMessage() : "") +
+                    '}';
+        }
+    }
+
+    private final boolean committed;
+    private final List<Item> items;
+
+    private BatchBookingResult(boolean committed, List<Item> items) {
+        this.committed = committed;
+        this.items = Collections.unmodifiableList(items);
+    }
+
+    static BatchBookingResult committed(List<BookingRequest> requests, Booking[] bookings) {
+        List<Item> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            items.add(new Item(requests.get(i), Status.BOOKED, bookings[i], null));
+        }
+        return new BatchBookingResult(true, items);
+    }
+
+    static BatchBookingResult rejected(List<BookingRequest> requests, HotelReservationException[] errors) {
+        List<Item> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Status status = errors[i] != null ? Status.FAILED : Status.ABORTED;
+            items.add(new Item(requests.get(i), status, null, errors[i]));
+        }
+        return new BatchBookingResult(false, items);
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public List<Booking> getBookings() {
+        List<Booking> bookings = new ArrayList<>(items.size());
+        for (Item item : items) {
+            if (item.booking != null) {
+                bookings.add(item.booking);
+            }
+        }
+        return bookings;
+    }
+}
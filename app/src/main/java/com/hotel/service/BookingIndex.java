@@ -0,0 +1,138 @@
+package com.hotel.service;
+
+import com.hotel.util.IntIntMap;
+import com.hotel.util.IntLinkedMap;
+
+import java.util.Arrays;
+
+/**
+ * Indexes over booking store rows: by booking id, by user, by check-in day and by check-out day.
+ * Booking ids map to their row in a primitive hash map. Each other key maps to its rows in append order, and the
+ * days are kept sorted in a primitive array, so a day range is found by binary search and its rows are read
+ * without touching any other booking. Cancelled bookings leave the id map at once but stay in the other indexes
+ * until the store is compacted and the index rebuilt, so readers skip tombstoned rows.
+ * Not thread-safe; the service updates and reads it under the commit lock.
+ */
+class BookingIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private static class Rows {
+        private int[] rows = new int[4];
+        private int size;
+
+        private void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+
+    private static class DayIndex {
+        private int[] days = new int[16];
+        private Rows[] rowsByDay = new Rows[16];
+        private int dayCount;
+
+        private void add(int day, int row) {
+            int position = Arrays.binarySearch(days, 0, dayCount, day);
+            if (position < 0) {
+                position = -position - 1;
+                if (dayCount == days.length) {
+                    days = Arrays.copyOf(days, dayCount * 2);
+                    rowsByDay = Arrays.copyOf(rowsByDay, dayCount * 2);
+                }
+                // New days are usually the latest ones, so the shift is short.
+                System.arraycopy(days, position, days, position + 1, dayCount - position);
+                System.arraycopy(rowsByDay, position, rowsByDay, position + 1, dayCount - position);
+                days[position] = day;
+                rowsByDay[position] = new Rows();
+                dayCount++;
+            }
+            rowsByDay[position].add(row);
+        }
+
+        // Rows of the days in [fromDay, toDay), ordered by day and then by row.
+        private int[] rowsBetween(int fromDay, int toDay) {
+            int first = firstPositionFrom(fromDay);
+            int end = firstPositionFrom(toDay);
+            int count = 0;
+            for (int position = first; position < end; position++) {
+                count += rowsByDay[position].size;
+            }
+            if (count == 0) {
+                return NO_ROWS;
+            }
+
+            int[] rows = new int[count];
+            int next = 0;
+            for (int position = first; position < end; position++) {
+                Rows dayRows = rowsByDay[position];
+                System.arraycopy(dayRows.rows, 0, rows, next, dayRows.size);
+                next += dayRows.size;
+            }
+            return rows;
+        }
+
+        private int firstPositionFrom(int day) {
+            int position = Arrays.binarySearch(days, 0, dayCount, day);
+            return position < 0 ? -position - 1 : position;
+        }
+    }
+
+    private final IntIntMap rowsById;
+    private final IntLinkedMap<Rows> rowsByUser = new IntLinkedMap<>();
+    private final DayIndex checkIns = new DayIndex();
+    private final DayIndex checkOuts = new DayIndex();
+
+    BookingIndex() {
+        this(16);
+    }
+
+    /**
+     * Creates an index whose id map is sized for the given number of bookings up front.
+     */
+    BookingIndex(int expectedBookings) {
+        rowsById = new IntIntMap(expectedBookings);
+    }
+
+    void add(int row, int bookingId, int userId, int checkInDay, int checkOutDay) {
+        rowsById.put(bookingId, row);
+        Rows userRows = rowsByUser.get(userId);
+        if (userRows == null) {
+            userRows = new Rows();
+            rowsByUser.put(userId, userRows);
+        }
+        userRows.add(row);
+        checkIns.add(checkInDay, row);
+        checkOuts.add(checkOutDay, row);
+    }
+
+    /**
+     * Row of a booking that is not cancelled, or {@link IntIntMap#ABSENT}.
+     */
+    int rowOf(int bookingId) {
+        return rowsById.get(bookingId);
+    }
+
+    boolean containsBooking(int bookingId) {
+        return rowsById.containsKey(bookingId);
+    }
+
+    void cancelled(int bookingId) {
+        rowsById.remove(bookingId);
+    }
+
+    int[] rowsOfUser(int userId) {
+        Rows userRows = rowsByUser.get(userId);
+        return userRows == null ? NO_ROWS : Arrays.copyOf(userRows.rows, userRows.size);
+    }
+
+    int[] rowsCheckingInBetween(int fromDay, int toDay) {
+        return checkIns.rowsBetween(fromDay, toDay);
+    }
+
+    int[] rowsCheckingOutBetween(int fromDay, int toDay) {
+        return checkOuts.rowsBetween(fromDay, toDay);
+    }
+}
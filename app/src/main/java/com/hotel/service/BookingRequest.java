@@ -0,0 +1,55 @@
+package com.hotel.service;
+
+import com.hotel.util.EpochDays;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+public class BookingRequest {
+
+    private final int userId;
+    private final int roomNumber;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+
+    public BookingRequest(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    public BookingRequest(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        this(userId, roomNumber, toLocalDate(checkIn), toLocalDate(checkOut));
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : LocalDate.ofEpochDay(EpochDays.of(date));
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingRequest{" +
+                "userId=" + userId +
+                ", roomNumber=" + roomNumber +
+                ", checkIn=" + checkIn +
+                ", checkOut=" + checkOut +
+                '}';
+    }
+}
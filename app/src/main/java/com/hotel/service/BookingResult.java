@@ -0,0 +1,132 @@
+package com.hotel.service;
+
+import com.hotel.exception.HotelReservationException;
+import com.hotel.exception.InsufficientBalanceException;
+import com.hotel.exception.InvalidDateException;
+import com.hotel.exception.RoomNotAvailableException;
+import com.hotel.exception.RoomNotFoundException;
+import com.hotel.exception.UserNotFoundException;
+
+/**
+ * Outcome of {@link Service#tryBookRoom}: a status code plus the details of a failure, without an exception.
+ */
+public final class BookingResult {
+
+    public enum Status {
+        BOOKED,
+        INVALID_DATES,
+        USER_NOT_FOUND,
+        ROOM_NOT_FOUND,
+        ROOM_NOT_AVAILABLE,
+        INSUFFICIENT_BALANCE
+    }
+
+    static final String MISSING_DATES = "Check-in and check-out dates cannot be null";
+    static final String EMPTY_STAY = "Check-in date must be before check-out date";
+
+    private final Status status;
+    private final int userId;
+    private final int roomNumber;
+    private final int bookingId;
+    private final int required;
+    private final int available;
+    private final String invalidDates;
+
+    private BookingResult(Status status, int userId, int roomNumber, int bookingId, int required, int available,
+            String invalidDates) {
+        this.status = status;
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.bookingId = bookingId;
+        this.required = required;
+        this.available = available;
+        this.invalidDates = invalidDates;
+    }
+
+    static BookingResult booked(int userId, int roomNumber, int bookingId, int totalPrice) {
+        return new BookingResult(Status.BOOKED, userId, roomNumber, bookingId, totalPrice, 0, null);
+    }
+
+    static BookingResult invalidDates(int userId, int roomNumber, String reason) {
+        return new BookingResult(Status.INVALID_DATES, userId, roomNumber, 0, 0, 0, reason);
+    }
+
+    static BookingResult rejected(Status status, int userId, int roomNumber) {
+        return new BookingResult(status, userId, roomNumber, 0, 0, 0, null);
+    }
+
+    static BookingResult insufficientBalance(int userId, int roomNumber, int required, int available) {
+        return new BookingResult(Status.INSUFFICIENT_BALANCE, userId, roomNumber, 0, required, available, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isBooked() {
+        return status == Status.BOOKED;
+    }
+
+    /**
+     * Id of the created booking, or 0 if nothing was booked.
+     */
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Total price of the stay, for BOOKED and INSUFFICIENT_BALANCE.
+     */
+    public int getRequired() {
+        return required;
+    }
+
+    /**
+     * The user's balance when the booking was rejected, for INSUFFICIENT_BALANCE.
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * The exception the throwing API reports for this outcome, or null if the booking succeeded.
+     */
+    public HotelReservationException toException() {
+        switch (status) {
+            case BOOKED:
+                return null;
+            case INVALID_DATES:
+                return new InvalidDateException(invalidDates);
+            case USER_NOT_FOUND:
+                return new UserNotFoundException(userId);
+            case ROOM_NOT_FOUND:
+                return new RoomNotFoundException(roomNumber);
+            case ROOM_NOT_AVAILABLE:
+                return new RoomNotAvailableException(roomNumber);
+            case INSUFFICIENT_BALANCE:
+                return new InsufficientBalanceException(required, available);
+            default:
+                throw new AssertionError(status);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BookingResult{" +
+                "status=" + status +
+                ", userId=" + userId +
+                ", roomNumber=" + roomNumber +
+                (status == Status.BOOKED ? ", bookingId=" + bookingId + ", totalPrice=" + required : "") +
+                (status == Status.INSUFFICIENT_BALANCE ? ", required=" + required + ", available=" + available : "") +
+                (invalidDates != null ? ", reason=" + invalidDates : "") +
+                '}';
+    }
+}
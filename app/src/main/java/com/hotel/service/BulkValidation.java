@@ -0,0 +1,220 @@
+package com.hotel.service;
+
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+import com.hotel.util.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The validation pass of {@link Service#restoreAll}, which looks at the input only. Bookings are numbered across
+ * their stores in list order. Their stays are bucketed by room with a counting sort and each room's bucket is then
+ * sorted by check-in, rooms in parallel on the fork-join pool, so an overlap can only be between neighbours.
+ * Booking ids are checked for duplicates the same way, with one parallel sort.
+ */
+final class BulkValidation {
+
+    private static final int MAX_PROBLEMS = 20;
+
+    private final List<Room> rooms;
+    private final List<User> users;
+    private final List<BookingStore> stores;
+    // First booking number of each store.
+    private final int[] storeStarts;
+    private final int bookingCount;
+
+    private final List<String> problems = new ArrayList<>();
+    private int problemCount;
+
+    private final IntIntMap slotsByRoom = new IntIntMap();
+    private int[] roomNumbers = new int[16];
+    // Stays as check-in << 32 | booking number, grouped by room slot from offsets[slot] and sorted by check-in.
+    private long[] stays;
+    private int[] offsets;
+
+    BulkValidation(List<Room> rooms, List<User> users, List<BookingStore> stores) {
+        this.rooms = rooms;
+        this.users = users;
+        this.stores = stores;
+        this.storeStarts = new int[stores.size()];
+        long count = 0;
+        for (int i = 0; i < stores.size(); i++) {
+            if (stores.get(i) == null) {
+                throw new IllegalArgumentException("Booking stores cannot be null");
+            }
+            storeStarts[i] = (int) count;
+            count += stores.get(i).size();
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many bookings: " + count);
+        }
+        this.bookingCount = (int) count;
+    }
+
+    int bookingCount() {
+        return bookingCount;
+    }
+
+    /**
+     * @throws IllegalArgumentException listing the first problems if there are any
+     */
+    void run() {
+        validateRooms();
+        validateUsers();
+        validateBookingIds();
+        sortStays();
+        findOverlaps();
+        if (problemCount > 0) {
+            throw new IllegalArgumentException(problemCount + " problem(s) in bulk restore"
+                    + (problemCount > problems.size() ? ", first " + problems.size() : "") + ": "
+                    + String.join("; ", problems));
+        }
+    }
+
+    /**
+     * Calls the action with every booking number, ordered by room and then by check-in.
+     */
+    void forEachStay(IntConsumer action) {
+        for (long stay : stays) {
+            action.accept((int) stay);
+        }
+    }
+
+    private void validateRooms() {
+        long[] latestValidFrom = new long[16];
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            if (room == null || room.getRoomType() == null) {
+                problem("Room at position " + i + " is null or has no room type");
+                continue;
+            }
+            int slot = slotsByRoom.get(room.getRoomNumber());
+            if (slot == IntIntMap.ABSENT) {
+                slot = slotsByRoom.size();
+                slotsByRoom.put(room.getRoomNumber(), slot);
+                if (slot == roomNumbers.length) {
+                    roomNumbers = Arrays.copyOf(roomNumbers, slot * 2);
+                    latestValidFrom = Arrays.copyOf(latestValidFrom, slot * 2);
+                }
+                roomNumbers[slot] = room.getRoomNumber();
+            } else if (room.getValidFromTime() < latestValidFrom[slot]) {
+                problem("Room " + room.getRoomNumber() + " has a version taking effect before the previous one");
+                continue;
+            }
+            latestValidFrom[slot] = room.getValidFromTime();
+        }
+    }
+
+    private void validateUsers() {
+        IntIntMap seen = new IntIntMap(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (user == null) {
+                problem("User at position " + i + " is null");
+            } else if (seen.put(user.getUserId(), i) != IntIntMap.ABSENT) {
+                problem("Duplicate user id " + user.getUserId());
+            }
+        }
+    }
+
+    private void validateBookingIds() {
+        int[] ids = new int[bookingCount];
+        for (int i = 0; i < stores.size(); i++) {
+            BookingStore store = stores.get(i);
+            for (int row = 0; row < store.size(); row++) {
+                ids[storeStarts[i] + row] = store.getBookingId(row);
+            }
+        }
+        Arrays.parallelSort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1] && (i == 1 || ids[i - 2] != ids[i])) {
+                problem("Duplicate booking id " + ids[i]);
+            }
+        }
+    }
+
+    // Counting sort of the stays by room slot: count, turn counts into offsets, then scatter.
+    private void sortStays() {
+        int slotCount = slotsByRoom.size();
+        offsets = new int[slotCount + 1];
+        for (BookingStore store : stores) {
+            for (int row = 0; row < store.size(); row++) {
+                int slot = slotsByRoom.get(store.getRoomNumber(row));
+                if (slot == IntIntMap.ABSENT) {
+                    problem("Booking " + store.getBookingId(row) + " books unknown room " + store.getRoomNumber(row));
+                } else if (store.getCheckInDay(row) >= store.getCheckOutDay(row)) {
+                    problem("Booking " + store.getBookingId(row) + " has no nights");
+                } else {
+                    offsets[slot + 1]++;
+                }
+            }
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            offsets[slot + 1] += offsets[slot];
+        }
+
+        stays = new long[offsets[slotCount]];
+        int[] next = Arrays.copyOf(offsets, slotCount);
+        for (int i = 0; i < stores.size(); i++) {
+            BookingStore store = stores.get(i);
+            for (int row = 0; row < store.size(); row++) {
+                int slot = slotsByRoom.get(store.getRoomNumber(row));
+                if (slot != IntIntMap.ABSENT && store.getCheckInDay(row) < store.getCheckOutDay(row)) {
+                    stays[next[slot]++] = (long) store.getCheckInDay(row) << 32 | (storeStarts[i] + row);
+                }
+            }
+        }
+    }
+
+    private void findOverlaps() {
+        IntStream.range(0, slotsByRoom.size()).parallel().forEach(slot -> {
+            int from = offsets[slot];
+            int to = offsets[slot + 1];
+            Arrays.sort(stays, from, to);
+            for (int i = from + 1; i < to; i++) {
+                int previous = (int) stays[i - 1];
+                if (checkOutDay(previous) > (int) (stays[i] >> 32)) {
+                    problem("Bookings " + bookingId(previous) + " and " + bookingId((int) stays[i]) + " of room "
+                            + roomNumbers[slot] + " overlap");
+                }
+            }
+        });
+    }
+
+    private int checkOutDay(int booking) {
+        int store = storeOf(booking);
+        return stores.get(store).getCheckOutDay(booking - storeStarts[store]);
+    }
+
+    private int bookingId(int booking) {
+        int store = storeOf(booking);
+        return stores.get(store).getBookingId(booking - storeStarts[store]);
+    }
+
+    // Last store starting at or before the booking; empty stores share their start with the next one.
+    private int storeOf(int booking) {
+        int low = 0;
+        int high = storeStarts.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (storeStarts[middle] <= booking) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private synchronized void problem(String problem) {
+        if (problems.size() < MAX_PROBLEMS) {
+            problems.add(problem);
+        }
+        problemCount++;
+    }
+}
@@ -0,0 +1,91 @@
+package com.hotel.service;
+
+import com.hotel.util.TimerWheel;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * A tentative reservation made by {@link Service#holdRoom}: the room is unavailable for the stay until the hold is
+ * confirmed into a booking, released, or expires. The price is quoted when the hold is made and charged when it is
+ * confirmed.
+ */
+public final class Hold {
+
+    private final int holdId;
+    private final int userId;
+    private final int roomNumber;
+    private final int roomVersion;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final int totalPrice;
+    private final long expiresAt;
+    // Guarded by the service's hold lock.
+    TimerWheel.Timer<Hold> timer;
+
+    Hold(int holdId, int userId, int roomNumber, int roomVersion, int checkInDay, int checkOutDay, int totalPrice,
+            long expiresAt) {
+        this.holdId = holdId;
+        this.userId = userId;
+        this.roomNumber = roomNumber;
+        this.roomVersion = roomVersion;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+        this.totalPrice = totalPrice;
+        this.expiresAt = expiresAt;
+    }
+
+    public int getHoldId() {
+        return holdId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    // The room version quoted, which the booking is made at.
+    int getRoomVersion() {
+        return roomVersion;
+    }
+
+    public LocalDate getCheckIn() {
+        return LocalDate.ofEpochDay(checkInDay);
+    }
+
+    public LocalDate getCheckOut() {
+        return LocalDate.ofEpochDay(checkOutDay);
+    }
+
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    public int getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Time in epoch milliseconds from which the hold no longer blocks the room.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Date getExpiryDate() {
+        return new Date(expiresAt);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Hold{id=%d, userId=%d, roomNumber=%d, checkIn=%s, checkOut=%s, total=%d, expiresAt=%s}",
+                holdId, userId, roomNumber, getCheckIn(), getCheckOut(), totalPrice, getExpiryDate().toInstant());
+    }
+}
@@ -0,0 +1,307 @@
+package com.hotel.service;
+
+import com.hotel.entities.RoomType;
+import com.hotel.util.IntLinkedMap;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-night occupancy bitmaps over room slots.
+ * Every room gets a slot the first time it is registered, and each room type keeps a mask of its slots.
+ * A night is stored as a bitset of occupied slots, so the rooms of a type free for a stay are the type mask
+ * with the occupancy of every night of the stay cleared, computed a word at a time.
+ * <p>
+ * Registering rooms and pruning need exclusive access, which the service's registry write lock gives them.
+ * Occupying, releasing and searching take no lock and may run at the same time: each night's words are set and
+ * cleared by compare-and-set, and searches read them a word at a time, so a stay booked or cancelled meanwhile
+ * shows or does not, as if the search had run just before or after it.
+ * <p>
+ * A night goes as soon as its last room is released, and {@link #prune} drops the nights before a horizon.
+ * Stays that reach back before the horizon are checked room by room with the {@link StayCheck} instead.
+ */
+class OccupancyCalendar {
+
+    /**
+     * Tells whether a room is free for every night from firstNight (inclusive) to lastNight (exclusive).
+     */
+    interface StayCheck {
+        boolean isFree(int roomNumber, int firstNight, int lastNight);
+    }
+
+    private static class RoomSlot {
+        private final int slot;
+        private RoomType roomType;
+
+        private RoomSlot(int slot, RoomType roomType) {
+            this.slot = slot;
+            this.roomType = roomType;
+        }
+    }
+
+    private static class Night {
+        // Replaced by a longer copy only with exclusive access, when a room is registered in a new word.
+        private AtomicLongArray words;
+        // Slots occupied, counted before their bit is set and after it is cleared; -1 once the night is removed.
+        private final AtomicInteger occupants = new AtomicInteger();
+
+        private Night(int wordCount) {
+            this.words = new AtomicLongArray(wordCount);
+        }
+    }
+
+    private final StayCheck prunedNights;
+    private final IntLinkedMap<RoomSlot> slotsByRoom = new IntLinkedMap<>();
+    private final ConcurrentHashMap<Integer, Night> occupiedByNight = new ConcurrentHashMap<>();
+    private final long[][] slotsByType = new long[RoomType.values().length][1];
+    private int[] roomBySlot = new int[64];
+    private int slotCount;
+    private int wordCount = 1;
+    // Every night after this one is free in every room.
+    private final AtomicInteger lastOccupiedNight = new AtomicInteger(Integer.MIN_VALUE);
+    // Nights before this one have been pruned.
+    private volatile int horizon = Integer.MIN_VALUE;
+
+    /**
+     * @param prunedNights answers for the stays that reach back before the pruning horizon
+     */
+    OccupancyCalendar(StayCheck prunedNights) {
+        this.prunedNights = prunedNights;
+    }
+
+    void registerRoom(int roomNumber, RoomType roomType) {
+        RoomSlot roomSlot = slotsByRoom.get(roomNumber);
+        if (roomSlot == null) {
+            roomSlot = new RoomSlot(slotCount++, roomType);
+            slotsByRoom.put(roomNumber, roomSlot);
+            if (roomSlot.slot == roomBySlot.length) {
+                roomBySlot = Arrays.copyOf(roomBySlot, roomBySlot.length * 2);
+            }
+            roomBySlot[roomSlot.slot] = roomNumber;
+            if (roomSlot.slot >>> 6 >= wordCount) {
+                growNights(wordCount * 2);
+            }
+        } else {
+            clearBit(slotsByType[roomSlot.roomType.ordinal()], roomSlot.slot);
+            roomSlot.roomType = roomType;
+        }
+
+        int type = roomType.ordinal();
+        slotsByType[type] = ensureCapacity(slotsByType[type], roomSlot.slot);
+        setBit(slotsByType[type], roomSlot.slot);
+    }
+
+    /**
+     * Marks the room occupied for the nights from firstNight (inclusive) to lastNight (exclusive).
+     * Nights before the pruning horizon are not recorded.
+     */
+    void occupy(int roomNumber, int firstNight, int lastNight) {
+        int slot = slotsByRoom.get(roomNumber).slot;
+        lastOccupiedNight.accumulateAndGet(lastNight - 1, Math::max);
+        for (int night = Math.max(firstNight, horizon); night < lastNight; night++) {
+            occupyNight(night, slot);
+        }
+    }
+
+    /**
+     * Marks the room free again for the nights from firstNight (inclusive) to lastNight (exclusive).
+     */
+    void release(int roomNumber, int firstNight, int lastNight) {
+        int slot = slotsByRoom.get(roomNumber).slot;
+        for (int night = Math.max(firstNight, horizon); night < lastNight; night++) {
+            Night occupied = occupiedByNight.get(night);
+            if (occupied != null && updateBit(occupied.words, slot, false)
+                    && occupied.occupants.decrementAndGet() == 0 && occupied.occupants.compareAndSet(0, -1)) {
+                occupiedByNight.remove(night, occupied);
+            }
+        }
+    }
+
+    /**
+     * Drops the nights before the given one. Stays reaching back before it are from then on checked room by room.
+     * Needs exclusive access.
+     *
+     * @return the number of nights dropped
+     */
+    int prune(int beforeNight) {
+        if (beforeNight <= horizon) {
+            return 0;
+        }
+        horizon = beforeNight;
+        int before = occupiedByNight.size();
+        occupiedByNight.keySet().removeIf(night -> night < beforeNight);
+        return before - occupiedByNight.size();
+    }
+
+    /**
+     * The night before which nights have been pruned.
+     */
+    int getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * The number of nights with at least one room occupied.
+     */
+    int nightCount() {
+        return occupiedByNight.size();
+    }
+
+    /**
+     * Returns the numbers of the rooms of the given type free for every night from firstNight (inclusive)
+     * to lastNight (exclusive), in registration order.
+     */
+    int[] findFreeRooms(RoomType roomType, int firstNight, int lastNight) {
+        long[] free = slotsByType[roomType.ordinal()].clone();
+        if (firstNight < horizon) {
+            keepFree(free, firstNight, lastNight);
+        } else {
+            boolean any = true;
+            for (int night = firstNight; night < lastNight && any; night++) {
+                Night occupied = occupiedByNight.get(night);
+                if (occupied != null) {
+                    any = clearOccupied(free, occupied.words);
+                }
+            }
+        }
+
+        int count = 0;
+        for (long bits : free) {
+            count += Long.bitCount(bits);
+        }
+        int[] roomNumbers = new int[count];
+        int next = 0;
+        for (int word = 0; word < free.length; word++) {
+            for (long bits = free[word]; bits != 0; bits &= bits - 1) {
+                roomNumbers[next++] = roomBySlot[word * 64 + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return roomNumbers;
+    }
+
+    /**
+     * Finds the earliest run of {@code nights} free nights starting on or after firstNight in each room of the type,
+     * and returns the earliest of them for up to {@code limit} rooms, ordered by first night and then by registration.
+     * Each is encoded as {@code firstNight << 32 | roomNumber}.
+     * <p>
+     * Scans forward from firstNight over the type's free-room bitmaps: the rooms whose run starts on a night are
+     * those still without a run, with the occupancy of that night and the following ones cleared, a word at a time.
+     * The scan ends at the limit, or at the last occupied night, after which every room is free.
+     */
+    long[] findEarliestFreeRuns(RoomType roomType, int firstNight, int nights, int limit) {
+        long[] remaining = slotsByType[roomType.ordinal()].clone();
+        int rooms = 0;
+        for (long bits : remaining) {
+            rooms += Long.bitCount(bits);
+        }
+        long[] runs = new long[Math.min(limit, rooms)];
+        long[] free = new long[remaining.length];
+        int lastOccupied = lastOccupiedNight.get();
+        int found = 0;
+        for (long start = firstNight; found < runs.length; start++) {
+            System.arraycopy(remaining, 0, free, 0, free.length);
+            if (start < horizon) {
+                keepFree(free, (int) start, (int) start + nights);
+            } else {
+                boolean any = true;
+                for (long night = start; night < start + nights && night <= lastOccupied && any; night++) {
+                    Night occupied = occupiedByNight.get((int) night);
+                    if (occupied != null) {
+                        any = clearOccupied(free, occupied.words);
+                    }
+                }
+            }
+
+            for (int word = 0; word < free.length && found < runs.length; word++) {
+                for (long bits = free[word]; bits != 0 && found < runs.length; bits &= bits - 1) {
+                    int slot = word * 64 + Long.numberOfTrailingZeros(bits);
+                    runs[found++] = start << 32 | (roomBySlot[slot] & 0xFFFFFFFFL);
+                    clearBit(remaining, slot);
+                }
+            }
+        }
+        return runs;
+    }
+
+    private void occupyNight(int night, int slot) {
+        while (true) {
+            Night occupied = occupiedByNight.computeIfAbsent(night, key -> new Night(wordCount));
+            int occupants = occupied.occupants.get();
+            if (occupants < 0) {
+                // Being removed by the release that emptied it; make sure it is gone and start a new one.
+                occupiedByNight.remove(night, occupied);
+            } else if (occupied.occupants.compareAndSet(occupants, occupants + 1)) {
+                if (!updateBit(occupied.words, slot, true)) {
+                    occupied.occupants.decrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    // Clears the occupied slots from the free ones and tells whether any are left.
+    private static boolean clearOccupied(long[] free, AtomicLongArray occupied) {
+        boolean any = false;
+        int words = Math.min(free.length, occupied.length());
+        for (int word = 0; word < free.length; word++) {
+            if (word < words) {
+                free[word] &= ~occupied.get(word);
+            }
+            any |= free[word] != 0;
+        }
+        return any;
+    }
+
+    // Clears the slots whose rooms are not free for the stay, asking the stay check one room at a time.
+    private void keepFree(long[] free, int firstNight, int lastNight) {
+        for (int word = 0; word < free.length; word++) {
+            for (long bits = free[word]; bits != 0; bits &= bits - 1) {
+                int slot = word * 64 + Long.numberOfTrailingZeros(bits);
+                if (!prunedNights.isFree(roomBySlot[slot], firstNight, lastNight)) {
+                    free[word] &= ~(1L << slot);
+                }
+            }
+        }
+    }
+
+    private void growNights(int words) {
+        wordCount = words;
+        for (Night night : occupiedByNight.values()) {
+            AtomicLongArray grown = new AtomicLongArray(words);
+            for (int word = 0; word < night.words.length(); word++) {
+                grown.set(word, night.words.get(word));
+            }
+            night.words = grown;
+        }
+    }
+
+    // Sets or clears the slot's bit and tells whether that changed it.
+    private static boolean updateBit(AtomicLongArray words, int slot, boolean occupied) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        while (true) {
+            long bits = words.get(word);
+            if (((bits & bit) != 0) == occupied) {
+                return false;
+            }
+            if (words.compareAndSet(word, bits, bits ^ bit)) {
+                return true;
+            }
+        }
+    }
+
+    private static long[] ensureCapacity(long[] words, int slot) {
+        int required = (slot >>> 6) + 1;
+        return words.length >= required ? words : Arrays.copyOf(words, Math.max(required, words.length * 2));
+    }
+
+    private static void setBit(long[] words, int slot) {
+        words[slot >>> 6] |= 1L << slot;
+    }
+
+    private static void clearBit(long[] words, int slot) {
+        words[slot >>> 6] &= ~(1L << slot);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotel.service;
+
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomCatalog;
+
+/**
+ * The rooms of a catalog as of a room count and version count captured together, in registration order.
+ * Each room is its latest version below the version count, found by a binary search over its versions.
+ */
+final class RoomCatalogView extends SnapshotView.Indexed<Room> {
+
+    private final RoomCatalog catalog;
+    private final int rooms;
+    private final int versions;
+
+    RoomCatalogView(RoomCatalog catalog, int rooms, int versions) {
+        this.catalog = catalog;
+        this.rooms = rooms;
+        this.versions = versions;
+    }
+
+    @Override
+    public int size() {
+        return rooms;
+    }
+
+    @Override
+    Room get(int index) {
+        return catalog.getRoom(catalog.versionOf(index, versions));
+    }
+}
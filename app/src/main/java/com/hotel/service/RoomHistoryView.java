@@ -0,0 +1,84 @@
+package com.hotel.service;
+
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomCatalog;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Every version of the rooms of a catalog as of a room count and version count captured together: room by room
+ * in registration order, each room's versions oldest first.
+ */
+final class RoomHistoryView extends SnapshotView<Room> {
+
+    private final RoomCatalog catalog;
+    private final int rooms;
+    private final int versions;
+    private final int size;
+
+    RoomHistoryView(RoomCatalog catalog, int rooms, int versions) {
+        this.catalog = catalog;
+        this.rooms = rooms;
+        this.versions = versions;
+        int total = 0;
+        for (int slot = 0; slot < rooms; slot++) {
+            total += catalog.historySize(slot, versions);
+        }
+        this.size = total;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    Iterator<Room> iterator(boolean newestFirst, int offset) {
+        return new Iterator<Room>() {
+            private int slot = newestFirst ? rooms : -1;
+            private int index;
+            private int count;
+            private int remaining = Math.max(0, size - offset);
+
+            {
+                for (int skipped = 0; skipped < offset && skipped < size; skipped++) {
+                    advance();
+                }
+            }
+
+            // Moves to the next version in iteration order; must only be called while versions remain.
+            private void advance() {
+                if (newestFirst) {
+                    while (index == 0) {
+                        slot--;
+                        index = catalog.historySize(slot, versions);
+                    }
+                    index--;
+                } else {
+                    while (index == count) {
+                        slot++;
+                        index = 0;
+                        count = catalog.historySize(slot, versions);
+                    }
+                    index++;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Room next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                advance();
+                return catalog.getRoom(catalog.historyVersion(slot, newestFirst ? index : index - 1));
+            }
+        };
+    }
+}
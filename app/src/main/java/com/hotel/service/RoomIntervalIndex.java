@@ -0,0 +1,100 @@
+package com.hotel.service;
+
+import com.hotel.util.IntLinkedMap;
+
+import java.util.Arrays;
+
+/**
+ * Booked nights per room as [check-in day, check-out day) intervals, sorted by check-in and kept in primitive arrays.
+ * Intervals of the same room never overlap, so sorting by check-in also sorts by check-out
+ * and only the closest interval starting before a requested check-out can conflict with it.
+ * Rooms are registered under the service's registry write lock; each room's intervals are then
+ * read and written under that room's lock only.
+ */
+class RoomIntervalIndex {
+
+    private static class RoomIntervals {
+        private int[] checkIns = new int[8];
+        private int[] checkOuts = new int[8];
+        private int size;
+
+        // Index of the last interval starting strictly before the given day, or -1.
+        private int lastStartingBefore(int day) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (checkIns[middle] < day) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return high;
+        }
+
+        private void add(int checkIn, int checkOut) {
+            if (size == checkIns.length) {
+                checkIns = Arrays.copyOf(checkIns, size * 2);
+                checkOuts = Arrays.copyOf(checkOuts, size * 2);
+            }
+            // Bookings mostly arrive in check-in order, so the shift is usually empty.
+            int position = lastStartingBefore(checkIn) + 1;
+            System.arraycopy(checkIns, position, checkIns, position + 1, size - position);
+            System.arraycopy(checkOuts, position, checkOuts, position + 1, size - position);
+            checkIns[position] = checkIn;
+            checkOuts[position] = checkOut;
+            size++;
+        }
+
+        private boolean remove(int checkIn, int checkOut) {
+            int position = lastStartingBefore(checkIn + 1);
+            if (position < 0 || checkIns[position] != checkIn || checkOuts[position] != checkOut) {
+                return false;
+            }
+            System.arraycopy(checkIns, position + 1, checkIns, position, size - position - 1);
+            System.arraycopy(checkOuts, position + 1, checkOuts, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private final IntLinkedMap<RoomIntervals> intervalsByRoom = new IntLinkedMap<>();
+
+    void register(int roomNumber) {
+        if (!intervalsByRoom.containsKey(roomNumber)) {
+            intervalsByRoom.put(roomNumber, new RoomIntervals());
+        }
+    }
+
+    void add(int roomNumber, int checkIn, int checkOut) {
+        intervalsByRoom.get(roomNumber).add(checkIn, checkOut);
+    }
+
+    /**
+     * Frees a booked interval.
+     *
+     * @throws IllegalStateException if the room has no such interval
+     */
+    void remove(int roomNumber, int checkIn, int checkOut) {
+        RoomIntervals intervals = intervalsByRoom.get(roomNumber);
+        if (intervals == null || !intervals.remove(checkIn, checkOut)) {
+            throw new IllegalStateException("Room " + roomNumber + " has no interval ["
+                    + checkIn + ", " + checkOut + ")");
+        }
+    }
+
+    /**
+     * Whether the stay overlaps any interval booked for the room.
+     */
+    boolean overlaps(int roomNumber, int checkIn, int checkOut) {
+        RoomIntervals intervals = intervalsByRoom.get(roomNumber);
+        if (intervals == null) {
+            return false;
+        }
+
+        int closest = intervals.lastStartingBefore(checkOut);
+        return closest >= 0 && Service.datesOverlap(checkIn, checkOut,
+                intervals.checkIns[closest], intervals.checkOuts[closest]);
+    }
+}
@@ -0,0 +1,1721 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomCatalog;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.exception.*;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.export.ExportWriter;
+import com.hotel.metrics.MetricsRegistry;
+import com.hotel.metrics.SimpleMetricsRegistry;
+import com.hotel.util.EpochDays;
+import com.hotel.util.IntIntMap;
+import com.hotel.util.IntLinkedMap;
+import com.hotel.util.TimerWheel;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe hotel reservation service.
+ * Room and user registrations take the registry write lock; bookings take the read lock plus a lock striped
+ * by room number, so bookings of different rooms proceed in parallel while each room is booked serially.
+ * Every change is committed under one short commit lock, which also orders the logs behind {@link #snapshot()},
+ * so a snapshot is a consistent cut of rooms, users, balances and bookings that costs nothing to take.
+ * <p>
+ * Stays are whole nights between two calendar days and are handled internally as epoch days; the {@code Date}
+ * overloads convert each date to its day in the system time zone.
+ * <p>
+ * Cancelled bookings stay in the booking store as tombstones. Once they make up a quarter of it, a background
+ * thread copies the live bookings into a fresh store and swaps it in, see {@link #compactBookings()}.
+ * <p>
+ * Holds block a room like bookings do but charge nothing until they are confirmed; see {@link #holdRoom}. They live
+ * in memory only, so snapshots, journals and exports do not see them.
+ */
+public class Service {
+
+    private static final int ROOM_LOCK_STRIPES = 64;
+    private static final int LATENCY_SAMPLE_INTERVAL = 8;
+    private static final int COMPACTION_MIN_TOMBSTONES = 1024;
+    private static final long HOLD_TICK_MILLIS = 100;
+    private static final int AVAILABILITY_CACHE_SIZE = Integer.getInteger("hotel.availabilityCache.size", 10_000);
+    // Occupancy is kept for this many past nights; searches reaching further back check the booked intervals.
+    private static final int OCCUPANCY_RETAINED_DAYS = Integer.getInteger("hotel.occupancy.retainedDays", 365);
+    private static final long OCCUPANCY_PRUNE_INTERVAL_MILLIS = 3_600_000;
+
+    // Compactions of every service run one at a time on one daemon thread.
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "booking-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Expiry of the holds of every service runs on one daemon thread, which ticks a service only while it has holds.
+    private static final ScheduledExecutorService HOLD_EXPIRY = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IntLinkedMap<Room> rooms = new IntLinkedMap<>();
+    private final IntLinkedMap<User> users = new IntLinkedMap<>();
+    private final RoomCatalog catalog = new RoomCatalog();
+    private volatile BookingStore bookings = new BookingStore(catalog, 1024);
+    private final RoomIntervalIndex roomIntervals = new RoomIntervalIndex();
+    private final OccupancyCalendar occupancy = new OccupancyCalendar(this::isRoomFree);
+    private final AvailabilityCache availabilityCache = new AvailabilityCache(AVAILABILITY_CACHE_SIZE);
+    private BookingIndex bookingIndex = new BookingIndex();
+    private final UserLog userLog = new UserLog();
+    private final IntLinkedMap<Hold> holds = new IntLinkedMap<>();
+    private final TimerWheel<Hold> holdTimers = new TimerWheel<>(HOLD_TICK_MILLIS, System.currentTimeMillis());
+
+    private final ReentrantReadWriteLock registryLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] roomLocks = new ReentrantLock[ROOM_LOCK_STRIPES];
+    // Commit lock: guards bookings and their indexes, balance debits and refunds, the booking id counter, the
+    // room catalog, the snapshot logs and the version. Replacing the booking store also happens under it.
+    private final Object bookingsLock = new Object();
+    private final Object compactionLock = new Object();
+    // Hold lock: guards the holds, their timers, the hold id counter and the expiry task. Taken after a room lock,
+    // never together with the commit lock.
+    private final Object holdsLock = new Object();
+    private ScheduledFuture<?> holdExpiry;
+    private int holdIdCounter = 1;
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+    private final AtomicBoolean prunePending = new AtomicBoolean();
+    private volatile long nextPruneAt;
+    private final CopyOnWriteArrayList<ServiceListener> listeners = new CopyOnWriteArrayList<>();
+    // Set once changes can no longer be made durable; every change is refused from then on.
+    private volatile Throwable failure;
+
+    private final ServiceMetrics metrics;
+
+    private int bookingIdCounter = 1;
+    private long version;
+
+    public Service() {
+        this(new SimpleMetricsRegistry());
+    }
+
+    /**
+     * Creates a service that records its metrics in the given registry, or records none if it is null.
+     * One call in eight is timed for the latency histograms.
+     */
+    public Service(MetricsRegistry metricsRegistry) {
+        this(metricsRegistry, LATENCY_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Creates a service that times one call in {@code latencySampleInterval}, a power of two, for its latency
+     * histograms. Counters always see every call.
+     */
+    public Service(MetricsRegistry metricsRegistry, int latencySampleInterval) {
+        for (int i = 0; i < roomLocks.length; i++) {
+            roomLocks[i] = new ReentrantLock();
+        }
+        metrics = metricsRegistry == null ? null
+                : new ServiceMetrics(metricsRegistry, this, latencySampleInterval);
+    }
+
+    public void setRoom(int roomNumber, RoomType roomType, int roomPricePerNight) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        if (roomPricePerNight < 0) {
+            throw new IllegalArgumentException("Price per night cannot be negative");
+        }
+
+        requireNotFailed();
+        long start = metrics != null ? metrics.startTimer() : ServiceMetrics.NOT_TIMED;
+        boolean inserted;
+        registryLock.writeLock().lock();
+        try {
+            // An update keeps the room's creation date; versions never take effect before the previous one.
+            Room existing = findRoomByNumber(roomNumber);
+            inserted = existing == null;
+            Date now = new Date();
+            Room room = existing == null ? new Room(roomNumber, roomType, roomPricePerNight, now)
+                    : new Room(roomNumber, roomType, roomPricePerNight, existing.getCreationDate(),
+                            new Date(Math.max(now.getTime(), existing.getValidFromTime())));
+            putRoom(room);
+            for (ServiceListener listener : listeners) {
+                listener.roomSet(room);
+            }
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+        if (metrics != null) {
+            metrics.setRoomCompleted(inserted, start);
+        }
+    }
+
+    public void setUser(int userId, int balance) {
+        if (balance < 0) {
+            throw new IllegalArgumentException("Balance cannot be negative");
+        }
+
+        requireNotFailed();
+        long start = metrics != null ? metrics.startTimer() : ServiceMetrics.NOT_TIMED;
+        boolean inserted;
+        registryLock.writeLock().lock();
+        try {
+            User user = findUserById(userId);
+            inserted = user == null;
+
+            if (user != null) {
+                synchronized (bookingsLock) {
+                    user.setBalance(balance);
+                    userLog.balanceChanged(userId, balance);
+                    version++;
+                }
+            } else {
+                user = new User(userId, balance);
+                putUser(user);
+            }
+            if (!listeners.isEmpty()) {
+                // Listeners get a copy, so none can change a balance behind the user log and the other listeners.
+                User set = new User(userId, balance, user.getCreationDate());
+                for (ServiceListener listener : listeners) {
+                    listener.userSet(set);
+                }
+            }
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+        if (metrics != null) {
+            metrics.setUserCompleted(inserted, start);
+        }
+    }
+
+    // Updates keep the room's place in registration order.
+    private void putRoom(Room room) {
+        Room previous = rooms.put(room.getRoomNumber(), room);
+        roomIntervals.register(room.getRoomNumber());
+        occupancy.registerRoom(room.getRoomNumber(), room.getRoomType());
+        if (previous != null && previous.getRoomType() != room.getRoomType()) {
+            availabilityCache.invalidate(previous.getRoomType());
+        }
+        availabilityCache.invalidate(room.getRoomType());
+        synchronized (bookingsLock) {
+            catalog.put(room);
+            version++;
+        }
+    }
+
+    private void putUser(User user) {
+        users.put(user.getUserId(), user);
+        synchronized (bookingsLock) {
+            userLog.add(user);
+            version++;
+        }
+    }
+
+    /**
+     * Books a room for the nights from check-in to check-out. Each date is reduced to its day in the system time
+     * zone, so a check-in and check-out on the same day are rejected as an empty stay even if their times differ.
+     */
+    public void bookRoom(int userId, int roomNumber, Date checkIn, Date checkOut)
+            throws InvalidDateException, UserNotFoundException, RoomNotFoundException,
+            RoomNotAvailableException, InsufficientBalanceException {
+
+        throwIfRejected(tryBookRoom(userId, roomNumber, checkIn, checkOut));
+    }
+
+    public void bookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws InvalidDateException, UserNotFoundException, RoomNotFoundException,
+            RoomNotAvailableException, InsufficientBalanceException {
+
+        throwIfRejected(tryBookRoom(userId, roomNumber, checkIn, checkOut));
+    }
+
+    /**
+     * Books a room like {@link #bookRoom(int, int, Date, Date)}, but reports a rejection through the result
+     * instead of throwing, so high rates of rejected bookings cost no exceptions.
+     */
+    public BookingResult tryBookRoom(int userId, int roomNumber, Date checkIn, Date checkOut) {
+        long start = metrics != null ? metrics.startTimer() : ServiceMetrics.NOT_TIMED;
+        BookingResult result = checkIn == null || checkOut == null
+                ? BookingResult.invalidDates(userId, roomNumber, BookingResult.MISSING_DATES)
+                : bookNights(userId, roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut));
+        if (metrics != null) {
+            metrics.bookRoomCompleted(result, start);
+        }
+        return result;
+    }
+
+    public BookingResult tryBookRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        long start = metrics != null ? metrics.startTimer() : ServiceMetrics.NOT_TIMED;
+        BookingResult result = checkIn == null || checkOut == null
+                ? BookingResult.invalidDates(userId, roomNumber, BookingResult.MISSING_DATES)
+                : bookNights(userId, roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut));
+        if (metrics != null) {
+            metrics.bookRoomCompleted(result, start);
+        }
+        return result;
+    }
+
+    private BookingResult bookNights(int userId, int roomNumber, int checkInDay, int checkOutDay) {
+        requireNotFailed();
+        if (checkInDay >= checkOutDay) {
+            return BookingResult.invalidDates(userId, roomNumber, BookingResult.EMPTY_STAY);
+        }
+
+        registryLock.readLock().lock();
+        try {
+            User user = findUserById(userId);
+            Room room = findRoomByNumber(roomNumber);
+
+            if (user == null) {
+                return BookingResult.rejected(BookingResult.Status.USER_NOT_FOUND, userId, roomNumber);
+            }
+            if (room == null) {
+                return BookingResult.rejected(BookingResult.Status.ROOM_NOT_FOUND, userId, roomNumber);
+            }
+
+            ReentrantLock roomLock = roomLock(roomNumber);
+            roomLock.lock();
+            try {
+                if (!isRoomAvailable(roomNumber, checkInDay, checkOutDay)) {
+                    return BookingResult.rejected(BookingResult.Status.ROOM_NOT_AVAILABLE, userId, roomNumber);
+                }
+
+                int totalPrice = (checkOutDay - checkInDay) * room.getPricePerNight();
+
+                int bookingId;
+                synchronized (bookingsLock) {
+                    int balanceBeforeBooking = user.tryDebit(totalPrice);
+                    if (balanceBeforeBooking < 0) {
+                        return BookingResult.insufficientBalance(userId, roomNumber, totalPrice, user.getBalance());
+                    }
+                    bookingId = bookings.getBookingId(addBooking(userId, catalog.currentVersion(roomNumber),
+                            balanceBeforeBooking, checkInDay, checkOutDay));
+                    balanceChanged(userId, balanceBeforeBooking - totalPrice);
+                    version++;
+                }
+                indexBooking(roomNumber, checkInDay, checkOutDay);
+                return BookingResult.booked(userId, roomNumber, bookingId, totalPrice);
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    private static void throwIfRejected(BookingResult result)
+            throws InvalidDateException, UserNotFoundException, RoomNotFoundException,
+            RoomNotAvailableException, InsufficientBalanceException {
+
+        switch (result.getStatus()) {
+            case BOOKED:
+                return;
+            case INVALID_DATES:
+                throw (InvalidDateException) result.toException();
+            case USER_NOT_FOUND:
+                throw (UserNotFoundException) result.toException();
+            case ROOM_NOT_FOUND:
+                throw (RoomNotFoundException) result.toException();
+            case ROOM_NOT_AVAILABLE:
+                throw (RoomNotAvailableException) result.toException();
+            case INSUFFICIENT_BALANCE:
+                throw (InsufficientBalanceException) result.toException();
+            default:
+                throw new AssertionError(result.getStatus());
+        }
+    }
+
+    /**
+     * Books a group of rooms atomically: either every request is booked or none is.
+     * The batch is validated in one pass, requests are processed in room order, and each user is
+     * charged once for the sum of their requests.
+     */
+    public BatchBookingResult bookRooms(List<BookingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Booking requests cannot be empty");
+        }
+
+        long start = metrics != null ? metrics.startTimer() : ServiceMetrics.NOT_TIMED;
+        BatchBookingResult result = bookBatch(requests);
+        if (metrics != null) {
+            long revenue = 0;
+            if (result.isCommitted()) {
+                for (BatchBookingResult.Item item : result.getItems()) {
+                    revenue += item.getBooking().getTotalPrice();
+                }
+            }
+            metrics.bookRoomsCompleted(result, revenue, start);
+        }
+        return result;
+    }
+
+    private BatchBookingResult bookBatch(List<BookingRequest> requests) {
+        requireNotFailed();
+
+        int count = requests.size();
+        HotelReservationException[] errors = new HotelReservationException[count];
+        User[] requestUsers = new User[count];
+        Room[] requestRooms = new Room[count];
+
+        registryLock.readLock().lock();
+        try {
+            boolean valid = true;
+            for (int i = 0; i < count; i++) {
+                BookingRequest request = requests.get(i);
+                try {
+                    requireDates(request.getCheckIn(), request.getCheckOut());
+                    validateStay(EpochDays.of(request.getCheckIn()), EpochDays.of(request.getCheckOut()));
+                    requestUsers[i] = findUserById(request.getUserId());
+                    requestRooms[i] = findRoomByNumber(request.getRoomNumber());
+                    if (requestUsers[i] == null) {
+                        throw new UserNotFoundException(request.getUserId());
+                    }
+                    if (requestRooms[i] == null) {
+                        throw new RoomNotFoundException(request.getRoomNumber());
+                    }
+                } catch (HotelReservationException e) {
+                    errors[i] = e;
+                    valid = false;
+                }
+            }
+            if (!valid) {
+                return BatchBookingResult.rejected(requests, errors);
+            }
+
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator
+                    .comparingInt((Integer i) -> requests.get(i).getRoomNumber())
+                    .thenComparing(i -> requests.get(i).getCheckIn()));
+
+            ReentrantLock[] locks = lockRooms(requests, order);
+            try {
+                return bookSortedBatch(requests, order, requestUsers, requestRooms, errors);
+            } finally {
+                for (int i = locks.length - 1; i >= 0; i--) {
+                    locks[i].unlock();
+                }
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    private BatchBookingResult bookSortedBatch(List<BookingRequest> requests, Integer[] order,
+            User[] requestUsers, Room[] requestRooms, HotelReservationException[] errors) {
+        int count = requests.size();
+        boolean valid = true;
+        int[] checkInDays = new int[count];
+        int[] checkOutDays = new int[count];
+        LinkedHashMap<User, Integer> charges = new LinkedHashMap<>();
+
+        // Requests are sorted by check-in within a room, so a request conflicts with an earlier request
+        // of the same room exactly when it starts before the latest check-out seen so far.
+        int previousRoom = 0;
+        int latestCheckOut = Integer.MIN_VALUE;
+        for (int position = 0; position < count; position++) {
+            int i = order[position];
+            BookingRequest request = requests.get(i);
+            int checkIn = EpochDays.of(request.getCheckIn());
+            int checkOut = EpochDays.of(request.getCheckOut());
+            checkInDays[i] = checkIn;
+            checkOutDays[i] = checkOut;
+
+            if (position == 0 || request.getRoomNumber() != previousRoom) {
+                previousRoom = request.getRoomNumber();
+                latestCheckOut = Integer.MIN_VALUE;
+            }
+            boolean available = isRoomAvailable(request.getRoomNumber(), checkIn, checkOut)
+                    && checkIn >= latestCheckOut;
+            latestCheckOut = Math.max(latestCheckOut, checkOut);
+            if (!available) {
+                errors[i] = new RoomNotAvailableException(request.getRoomNumber());
+                valid = false;
+                continue;
+            }
+
+            charges.merge(requestUsers[i], (checkOut - checkIn) * requestRooms[i].getPricePerNight(), Integer::sum);
+        }
+        if (!valid) {
+            return BatchBookingResult.rejected(requests, errors);
+        }
+
+        Booking[] created = new Booking[count];
+        synchronized (bookingsLock) {
+            LinkedHashMap<User, Integer> balancesBeforeBatch = new LinkedHashMap<>();
+            for (Map.Entry<User, Integer> charge : charges.entrySet()) {
+                User user = charge.getKey();
+                int balanceBefore = user.tryDebit(charge.getValue());
+                if (balanceBefore < 0) {
+                    InsufficientBalanceException error =
+                            new InsufficientBalanceException(charge.getValue(), user.getBalance());
+                    for (Map.Entry<User, Integer> debited : balancesBeforeBatch.entrySet()) {
+                        debited.getKey().credit(charges.get(debited.getKey()));
+                    }
+                    for (int i = 0; i < count; i++) {
+                        if (requestUsers[i] == user) {
+                            errors[i] = error;
+                        }
+                    }
+                    return BatchBookingResult.rejected(requests, errors);
+                }
+                balancesBeforeBatch.put(user, balanceBefore);
+            }
+
+            for (int i = 0; i < count; i++) {
+                int row = addBooking(requestUsers[i].getUserId(),
+                        catalog.currentVersion(requestRooms[i].getRoomNumber()),
+                        balancesBeforeBatch.get(requestUsers[i]), checkInDays[i], checkOutDays[i]);
+                created[i] = bookings.get(row);
+            }
+            for (Map.Entry<User, Integer> charge : charges.entrySet()) {
+                balanceChanged(charge.getKey().getUserId(), charge.getKey().getBalance());
+            }
+            version++;
+        }
+        for (int i = 0; i < count; i++) {
+            indexBooking(requestRooms[i].getRoomNumber(), checkInDays[i], checkOutDays[i]);
+        }
+        return BatchBookingResult.committed(requests, created);
+    }
+
+    // Must be called while holding bookingsLock.
+    private int addBooking(int userId, int roomVersion, int balanceBeforeBooking, int checkInDay, int checkOutDay) {
+        int row = bookings.append(bookingIdCounter++, userId, roomVersion, balanceBeforeBooking, checkInDay,
+                checkOutDay, System.currentTimeMillis());
+        bookingIndex.add(row, bookings.getBookingId(row), userId, checkInDay, checkOutDay);
+        if (!listeners.isEmpty()) {
+            Booking booking = bookings.get(row);
+            for (ServiceListener listener : listeners) {
+                listener.bookingCreated(booking);
+            }
+        }
+        return row;
+    }
+
+    // Must be called while holding bookingsLock, after the change's own listener callbacks.
+    private void balanceChanged(int userId, int balance) {
+        userLog.balanceChanged(userId, balance);
+        for (ServiceListener listener : listeners) {
+            listener.balanceChanged(userId, balance);
+        }
+    }
+
+    // Must be called while holding the room's lock or the registry write lock, like unindexBooking.
+    private void indexBooking(int roomNumber, int checkInDay, int checkOutDay) {
+        roomIntervals.add(roomNumber, checkInDay, checkOutDay);
+        occupancy.occupy(roomNumber, checkInDay, checkOutDay);
+        availabilityCache.invalidate(findRoomByNumber(roomNumber).getRoomType(), checkInDay, checkOutDay);
+        scheduleOccupancyPruneIfNeeded();
+    }
+
+    private void unindexBooking(int roomNumber, int checkInDay, int checkOutDay) {
+        roomIntervals.remove(roomNumber, checkInDay, checkOutDay);
+        occupancy.release(roomNumber, checkInDay, checkOutDay);
+        availabilityCache.invalidate(findRoomByNumber(roomNumber).getRoomType(), checkInDay, checkOutDay);
+    }
+
+    /**
+     * Cancels a booking: refunds its total price to the user and frees the room for its nights.
+     * The booking is found by id in constant time. Its row stays in the store as a tombstone until compaction;
+     * snapshots taken before the cancellation still contain it.
+     *
+     * @return the cancelled booking
+     */
+    public Booking cancelBooking(int bookingId) throws BookingNotFoundException {
+        long start = metrics != null ? metrics.startTimer() : ServiceMetrics.NOT_TIMED;
+        Booking cancelled = cancel(bookingId);
+        if (metrics != null) {
+            metrics.cancelBookingCompleted(cancelled, start);
+        }
+        if (cancelled == null) {
+            throw new BookingNotFoundException(bookingId);
+        }
+        scheduleCompactionIfNeeded();
+        return cancelled;
+    }
+
+    private Booking cancel(int bookingId) {
+        requireNotFailed();
+        registryLock.readLock().lock();
+        try {
+            int roomNumber;
+            synchronized (bookingsLock) {
+                int row = bookingIndex.rowOf(bookingId);
+                if (row == IntIntMap.ABSENT) {
+                    return null;
+                }
+                roomNumber = bookings.getRoomNumber(row);
+            }
+
+            ReentrantLock roomLock = roomLock(roomNumber);
+            roomLock.lock();
+            try {
+                Booking booking;
+                synchronized (bookingsLock) {
+                    // Another cancellation may have won the race, and a compaction may have moved the row.
+                    int row = bookingIndex.rowOf(bookingId);
+                    if (row == IntIntMap.ABSENT) {
+                        return null;
+                    }
+                    bookings.cancel(row);
+                    bookingIndex.cancelled(bookingId);
+                    booking = bookings.get(row);
+                    // Restored bookings may belong to users that were never registered; there is no one to refund.
+                    User user = findUserById(booking.getUserId());
+                    if (user != null) {
+                        user.credit(booking.getTotalPrice());
+                    }
+                    version++;
+                    for (ServiceListener listener : listeners) {
+                        listener.bookingCancelled(booking);
+                    }
+                    if (user != null) {
+                        balanceChanged(user.getUserId(), user.getBalance());
+                    }
+                }
+                unindexBooking(roomNumber, booking.getCheckInDay(), booking.getCheckOutDay());
+                return booking;
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the booking with the given id, or null if there is none or it was cancelled. Constant time.
+     */
+    public Booking findBooking(int bookingId) {
+        synchronized (bookingsLock) {
+            int row = bookingIndex.rowOf(bookingId);
+            return row == IntIntMap.ABSENT ? null : bookings.get(row);
+        }
+    }
+
+    /**
+     * Holds a room for a stay without charging the user, e.g. while payment completes. The room is unavailable to
+     * bookings, batches, other holds and {@link #findAvailableRooms} until the hold is confirmed with
+     * {@link #confirmHold}, released with {@link #releaseHold}, or expires after the time to live. The price is
+     * quoted now and charged on confirmation.
+     * <p>
+     * Expiry runs on a hierarchical timer wheel with a tick of {@value #HOLD_TICK_MILLIS} ms, so each hold costs
+     * constant time to place, confirm, release and expire however many are outstanding. A hold cannot be confirmed
+     * from its expiry time on, and frees the room within a tick after it.
+     */
+    public Hold holdRoom(int userId, int roomNumber, LocalDate checkIn, LocalDate checkOut, Duration timeToLive)
+            throws InvalidDateException, UserNotFoundException, RoomNotFoundException, RoomNotAvailableException {
+        requireDates(checkIn, checkOut);
+        return hold(userId, roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut), timeToLive);
+    }
+
+    public Hold holdRoom(int userId, int roomNumber, Date checkIn, Date checkOut, Duration timeToLive)
+            throws InvalidDateException, UserNotFoundException, RoomNotFoundException, RoomNotAvailableException {
+        requireDates(checkIn, checkOut);
+        return hold(userId, roomNumber, EpochDays.of(checkIn), EpochDays.of(checkOut), timeToLive);
+    }
+
+    private Hold hold(int userId, int roomNumber, int checkInDay, int checkOutDay, Duration timeToLive)
+            throws InvalidDateException, UserNotFoundException, RoomNotFoundException, RoomNotAvailableException {
+        if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Hold time to live must be positive");
+        }
+        validateStay(checkInDay, checkOutDay);
+        requireNotFailed();
+        long expiresAt = System.currentTimeMillis() + timeToLive.toMillis();
+
+        Hold hold;
+        registryLock.readLock().lock();
+        try {
+            Room room = findRoomByNumber(roomNumber);
+            if (findUserById(userId) == null) {
+                throw new UserNotFoundException(userId);
+            }
+            if (room == null) {
+                throw new RoomNotFoundException(roomNumber);
+            }
+
+            ReentrantLock roomLock = roomLock(roomNumber);
+            roomLock.lock();
+            try {
+                if (!isRoomAvailable(roomNumber, checkInDay, checkOutDay)) {
+                    throw new RoomNotAvailableException(roomNumber);
+                }
+                synchronized (holdsLock) {
+                    hold = new Hold(holdIdCounter++, userId, roomNumber, catalog.currentVersion(roomNumber),
+                            checkInDay, checkOutDay, (checkOutDay - checkInDay) * room.getPricePerNight(), expiresAt);
+                    hold.timer = holdTimers.schedule(hold, expiresAt);
+                    holds.put(hold.getHoldId(), hold);
+                    if (holdExpiry == null) {
+                        holdExpiry = HOLD_EXPIRY.scheduleAtFixedRate(this::tickHolds, HOLD_TICK_MILLIS,
+                                HOLD_TICK_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                }
+                indexBooking(roomNumber, checkInDay, checkOutDay);
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+        if (metrics != null) {
+            metrics.held();
+        }
+        return hold;
+    }
+
+    /**
+     * Turns a hold into a booking at the quoted price, charging the user now. The booking takes over the hold's
+     * nights. If the balance falls short the hold stays in place until it expires, so payment can be retried.
+     *
+     * @throws HoldNotFoundException if the hold was already confirmed, released or has expired
+     */
+    public Booking confirmHold(int holdId) throws HoldNotFoundException, InsufficientBalanceException {
+        requireNotFailed();
+        Hold hold = findHold(holdId);
+        if (hold == null) {
+            throw new HoldNotFoundException(holdId);
+        }
+
+        Booking booking;
+        registryLock.readLock().lock();
+        try {
+            ReentrantLock roomLock = roomLock(hold.getRoomNumber());
+            roomLock.lock();
+            try {
+                synchronized (holdsLock) {
+                    if (holds.get(holdId) != hold) {
+                        throw new HoldNotFoundException(holdId);
+                    }
+                }
+                // Expired but not yet reached by the timer wheel.
+                if (System.currentTimeMillis() >= hold.getExpiresAt()) {
+                    if (releaseHeld(hold) && metrics != null) {
+                        metrics.holdsExpired(1);
+                    }
+                    throw new HoldNotFoundException(holdId);
+                }
+
+                User user = findUserById(hold.getUserId());
+                synchronized (bookingsLock) {
+                    int balanceBeforeBooking = user.tryDebit(hold.getTotalPrice());
+                    if (balanceBeforeBooking < 0) {
+                        throw new InsufficientBalanceException(hold.getTotalPrice(), user.getBalance());
+                    }
+                    booking = bookings.get(addBooking(user.getUserId(), hold.getRoomVersion(), balanceBeforeBooking,
+                            hold.getCheckInDay(), hold.getCheckOutDay()));
+                    balanceChanged(user.getUserId(), balanceBeforeBooking - hold.getTotalPrice());
+                    version++;
+                }
+                synchronized (holdsLock) {
+                    holds.remove(holdId);
+                    holdTimers.cancel(hold.timer);
+                }
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+        if (metrics != null) {
+            metrics.holdConfirmed(booking);
+        }
+        return booking;
+    }
+
+    /**
+     * Releases a hold before it expires, freeing the room for its nights.
+     *
+     * @return false if there was no such hold, or it was already confirmed, released or expired
+     */
+    public boolean releaseHold(int holdId) {
+        Hold hold = findHold(holdId);
+        if (hold == null) {
+            return false;
+        }
+        registryLock.readLock().lock();
+        try {
+            ReentrantLock roomLock = roomLock(hold.getRoomNumber());
+            roomLock.lock();
+            try {
+                return releaseHeld(hold);
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the outstanding hold with the given id, or null if there is none or it has expired.
+     */
+    public Hold findHold(int holdId) {
+        Hold hold;
+        synchronized (holdsLock) {
+            hold = holds.get(holdId);
+        }
+        return hold == null || System.currentTimeMillis() >= hold.getExpiresAt() ? null : hold;
+    }
+
+    /**
+     * Number of holds not yet confirmed, released or freed by expiry.
+     */
+    public int getHoldCount() {
+        synchronized (holdsLock) {
+            return holds.size();
+        }
+    }
+
+    /**
+     * Frees the rooms of every hold whose expiry time is up to {@code now}, in the wheel's tick resolution.
+     * Package-private so tests can drive expiry with their own clock.
+     *
+     * @return the number of holds freed
+     */
+    int expireHolds(long now) {
+        List<Hold> due = new ArrayList<>();
+        synchronized (holdsLock) {
+            holdTimers.advance(now, due::add);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        int expired = 0;
+        registryLock.readLock().lock();
+        try {
+            for (Hold hold : due) {
+                ReentrantLock roomLock = roomLock(hold.getRoomNumber());
+                roomLock.lock();
+                try {
+                    if (releaseHeld(hold)) {
+                        expired++;
+                    }
+                } finally {
+                    roomLock.unlock();
+                }
+            }
+        } finally {
+            registryLock.readLock().unlock();
+        }
+        if (metrics != null) {
+            metrics.holdsExpired(expired);
+        }
+        return expired;
+    }
+
+    // Runs on the expiry thread every tick while the service has holds.
+    private void tickHolds() {
+        expireHolds(System.currentTimeMillis());
+        synchronized (holdsLock) {
+            if (holds.isEmpty() && holdExpiry != null) {
+                holdExpiry.cancel(false);
+                holdExpiry = null;
+            }
+        }
+    }
+
+    // Must be called while holding the hold's room lock. A confirmation or release may have won the race.
+    private boolean releaseHeld(Hold hold) {
+        synchronized (holdsLock) {
+            if (holds.get(hold.getHoldId()) != hold) {
+                return false;
+            }
+            holds.remove(hold.getHoldId());
+            holdTimers.cancel(hold.timer);
+        }
+        unindexBooking(hold.getRoomNumber(), hold.getCheckInDay(), hold.getCheckOutDay());
+        return true;
+    }
+
+    // Drops past nights from the occupancy calendar at most once an hour, on the compaction thread. It needs the
+    // registry write lock, so it never runs inline: callers may hold the read lock.
+    private void scheduleOccupancyPruneIfNeeded() {
+        long now = System.currentTimeMillis();
+        if (now >= nextPruneAt && prunePending.compareAndSet(false, true)) {
+            nextPruneAt = now + OCCUPANCY_PRUNE_INTERVAL_MILLIS;
+            COMPACTOR.execute(() -> {
+                try {
+                    pruneOccupancy(EpochDays.of(System.currentTimeMillis()) - OCCUPANCY_RETAINED_DAYS);
+                } finally {
+                    prunePending.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops the occupancy of the nights before the given epoch day, which the availability searches then check
+     * against the booked intervals room by room. Runs in the background for nights more than
+     * {@code hotel.occupancy.retainedDays} in the past, 365 by default.
+     *
+     * @return the number of nights dropped
+     */
+    int pruneOccupancy(int beforeDay) {
+        registryLock.writeLock().lock();
+        try {
+            return occupancy.prune(beforeDay);
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+    }
+
+    // Answers the occupancy calendar for pruned nights. Callers hold the registry read lock and no room lock.
+    private boolean isRoomFree(int roomNumber, int checkInDay, int checkOutDay) {
+        ReentrantLock roomLock = roomLock(roomNumber);
+        roomLock.lock();
+        try {
+            return isRoomAvailable(roomNumber, checkInDay, checkOutDay);
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        BookingStore store = bookings;
+        int tombstones = store.cancelledCount();
+        if (tombstones >= COMPACTION_MIN_TOMBSTONES && tombstones * 4L >= store.size()
+                && compactionPending.compareAndSet(false, true)) {
+            COMPACTOR.execute(() -> {
+                try {
+                    compactBookings();
+                } finally {
+                    compactionPending.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reclaims the rows of cancelled bookings by copying the live bookings, in order, into a fresh store with
+     * fresh indexes. The copy runs without locks; bookings and cancellations committed meanwhile are carried over
+     * under the commit lock, where the new store replaces the old one. Snapshots taken before keep reading the old
+     * store, and booking export cursors stay valid. Runs in the background once tombstones reach a quarter of the
+     * store, so calling it directly is rarely needed.
+     *
+     * @return the number of tombstones reclaimed
+     */
+    public int compactBookings() {
+        synchronized (compactionLock) {
+            BookingStore source;
+            int end;
+            int seen;
+            synchronized (bookingsLock) {
+                source = bookings;
+                end = source.size();
+                seen = source.cancelledCount();
+            }
+            if (seen == 0) {
+                return 0;
+            }
+
+            BookingStore compacted = new BookingStore(catalog, Math.max(end - seen, 1024));
+            BookingIndex index = new BookingIndex();
+            int[] copies = new int[end];
+            for (int row = 0; row < end; row++) {
+                copies[row] = source.isLiveAfter(row, seen) ? copyBooking(source, row, compacted, index) : -1;
+            }
+
+            synchronized (bookingsLock) {
+                for (int cancellation = seen + 1; cancellation <= source.cancelledCount(); cancellation++) {
+                    int row = source.getCancelledRow(cancellation);
+                    if (row < end) {
+                        compacted.cancel(copies[row]);
+                        index.cancelled(source.getBookingId(row));
+                    }
+                }
+                for (int row = end; row < source.size(); row++) {
+                    if (!source.isCancelled(row)) {
+                        copyBooking(source, row, compacted, index);
+                    }
+                }
+                bookings = compacted;
+                bookingIndex = index;
+            }
+            if (metrics != null) {
+                metrics.compacted();
+            }
+            return source.cancelledCount() - compacted.cancelledCount();
+        }
+    }
+
+    private static int copyBooking(BookingStore source, int row, BookingStore target, BookingIndex index) {
+        int copy = target.appendCopy(source, row);
+        index.add(copy, target.getBookingId(copy), target.getUserId(copy), target.getCheckInDay(copy),
+                target.getCheckOutDay(copy));
+        return copy;
+    }
+
+    /**
+     * Returns the rooms of the given type that are free for every night of the stay, in registration order.
+     * Availability is resolved per night from the occupancy calendar rather than by probing each room, and the
+     * result is cached until a booking, cancellation or hold of an overlapping stay, or a change to a room of the
+     * type, invalidates it; see {@link #getAvailabilityCacheStats()}.
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, Date checkIn, Date checkOut) throws InvalidDateException {
+        requireDates(checkIn, checkOut);
+        return findAvailableRooms(roomType, EpochDays.of(checkIn), EpochDays.of(checkOut));
+    }
+
+    public List<Room> findAvailableRooms(RoomType roomType, LocalDate checkIn, LocalDate checkOut)
+            throws InvalidDateException {
+        requireDates(checkIn, checkOut);
+        return findAvailableRooms(roomType, EpochDays.of(checkIn), EpochDays.of(checkOut));
+    }
+
+    private List<Room> findAvailableRooms(RoomType roomType, int checkInDay, int checkOutDay)
+            throws InvalidDateException {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        validateStay(checkInDay, checkOutDay);
+
+        registryLock.readLock().lock();
+        try {
+            Room[] available = availabilityCache.get(roomType, checkInDay, checkOutDay);
+            if (available == null) {
+                long stamp = availabilityCache.stamp(roomType);
+                int[] roomNumbers = occupancy.findFreeRooms(roomType, checkInDay, checkOutDay);
+                available = new Room[roomNumbers.length];
+                for (int i = 0; i < roomNumbers.length; i++) {
+                    available[i] = rooms.get(roomNumbers[i]);
+                }
+                availabilityCache.put(roomType, checkInDay, checkOutDay, available, stamp);
+            }
+            return new ArrayList<>(Arrays.asList(available));
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds stays of the given number of nights in rooms of the type, checking in on or after {@code from}: the
+     * earliest free stay of each room, for the first {@code limit} rooms to have one, ordered by check-in and then
+     * by registration. Holds count as taken. Every room is free after its last booking, so each room has a stay.
+     * <p>
+     * The search scans the type's per-night occupancy bitmaps forward from {@code from}, a word of 64 rooms at a
+     * time, instead of probing rooms date by date; it stops at the limit or after the last booked night.
+     */
+    public List<AvailableStay> findEarliestStays(RoomType roomType, LocalDate from, int nights, int limit)
+            throws InvalidDateException {
+        requireDates(from, from);
+        return findEarliestStays(roomType, EpochDays.of(from), nights, limit);
+    }
+
+    public List<AvailableStay> findEarliestStays(RoomType roomType, Date from, int nights, int limit)
+            throws InvalidDateException {
+        requireDates(from, from);
+        return findEarliestStays(roomType, EpochDays.of(from), nights, limit);
+    }
+
+    /**
+     * The earliest stay of the given number of nights in any room of the type, or null if the type has no rooms.
+     */
+    public AvailableStay findEarliestStay(RoomType roomType, LocalDate from, int nights) throws InvalidDateException {
+        List<AvailableStay> stays = findEarliestStays(roomType, from, nights, 1);
+        return stays.isEmpty() ? null : stays.get(0);
+    }
+
+    private List<AvailableStay> findEarliestStays(RoomType roomType, int fromDay, int nights, int limit) {
+        if (roomType == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        if (nights <= 0 || limit <= 0) {
+            throw new IllegalArgumentException("Nights and limit must be positive");
+        }
+
+        registryLock.readLock().lock();
+        try {
+            long[] runs = occupancy.findEarliestFreeRuns(roomType, fromDay, nights, limit);
+            List<AvailableStay> stays = new ArrayList<>(runs.length);
+            for (long run : runs) {
+                int checkInDay = (int) (run >> 32);
+                stays.add(new AvailableStay(rooms.get((int) run), checkInDay, checkInDay + nights));
+            }
+            return stays;
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts of the cache behind {@link #findAvailableRooms}. The cache holds up to
+     * {@code hotel.availabilityCache.size} results, 10000 by default; 0 turns it off.
+     */
+    public AvailabilityCacheStats getAvailabilityCacheStats() {
+        return availabilityCache.stats();
+    }
+
+    /**
+     * Returns the bookings of the user, oldest first. Found through an index in time proportional to their number.
+     */
+    public List<Booking> findBookingsOfUser(int userId) {
+        synchronized (bookingsLock) {
+            return bookingsAt(bookings, bookingIndex.rowsOfUser(userId));
+        }
+    }
+
+    /**
+     * Returns the bookings checking in on a day in [from, to), ordered by check-in and then by booking.
+     * The days are found by binary search over an index, so the cost is logarithmic plus the number of results.
+     */
+    public List<Booking> findBookingsCheckingIn(Date from, Date to) throws InvalidDateException {
+        requireDates(from, to);
+        return findBookingsCheckingIn(EpochDays.of(from), EpochDays.of(to));
+    }
+
+    public List<Booking> findBookingsCheckingIn(LocalDate from, LocalDate to) throws InvalidDateException {
+        requireDates(from, to);
+        return findBookingsCheckingIn(EpochDays.of(from), EpochDays.of(to));
+    }
+
+    /**
+     * Returns the bookings checking out on a day in [from, to), ordered by check-out and then by booking.
+     */
+    public List<Booking> findBookingsCheckingOut(Date from, Date to) throws InvalidDateException {
+        requireDates(from, to);
+        return findBookingsCheckingOut(EpochDays.of(from), EpochDays.of(to));
+    }
+
+    public List<Booking> findBookingsCheckingOut(LocalDate from, LocalDate to) throws InvalidDateException {
+        requireDates(from, to);
+        return findBookingsCheckingOut(EpochDays.of(from), EpochDays.of(to));
+    }
+
+    private List<Booking> findBookingsCheckingIn(int fromDay, int toDay) {
+        synchronized (bookingsLock) {
+            return bookingsAt(bookings, bookingIndex.rowsCheckingInBetween(fromDay, toDay));
+        }
+    }
+
+    private List<Booking> findBookingsCheckingOut(int fromDay, int toDay) {
+        synchronized (bookingsLock) {
+            return bookingsAt(bookings, bookingIndex.rowsCheckingOutBetween(fromDay, toDay));
+        }
+    }
+
+    // Views of the rows that are not tombstones; the views are cheap, so building them under the lock is fine.
+    private static List<Booking> bookingsAt(BookingStore store, int[] rows) {
+        List<Booking> found = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            if (!store.isCancelled(row)) {
+                found.add(store.get(row));
+            }
+        }
+        return found;
+    }
+
+    // Locks every stripe touched by the batch once, in ascending stripe order so concurrent batches cannot deadlock.
+    private ReentrantLock[] lockRooms(List<BookingRequest> requests, Integer[] order) {
+        boolean[] stripes = new boolean[ROOM_LOCK_STRIPES];
+        int stripeCount = 0;
+        for (Integer i : order) {
+            int stripe = stripeOf(requests.get(i).getRoomNumber());
+            if (!stripes[stripe]) {
+                stripes[stripe] = true;
+                stripeCount++;
+            }
+        }
+
+        ReentrantLock[] locks = new ReentrantLock[stripeCount];
+        int locked = 0;
+        for (int stripe = 0; stripe < ROOM_LOCK_STRIPES; stripe++) {
+            if (stripes[stripe]) {
+                roomLocks[stripe].lock();
+                locks[locked++] = roomLocks[stripe];
+            }
+        }
+        return locks;
+    }
+
+    private ReentrantLock roomLock(int roomNumber) {
+        return roomLocks[stripeOf(roomNumber)];
+    }
+
+    private static int stripeOf(int roomNumber) {
+        return roomNumber & (ROOM_LOCK_STRIPES - 1);
+    }
+
+    private static void requireDates(Object checkIn, Object checkOut) throws InvalidDateException {
+        if (checkIn == null || checkOut == null) {
+            throw new InvalidDateException(BookingResult.MISSING_DATES);
+        }
+    }
+
+    // A stay must cover at least one night.
+    private static void validateStay(int checkInDay, int checkOutDay) throws InvalidDateException {
+        if (checkInDay >= checkOutDay) {
+            throw new InvalidDateException(BookingResult.EMPTY_STAY);
+        }
+    }
+
+    // Package-private so tests can check it against the occupancy bitmaps.
+    boolean isRoomAvailable(int roomNumber, int checkInDay, int checkOutDay) {
+        return !roomIntervals.overlaps(roomNumber, checkInDay, checkOutDay);
+    }
+
+    static boolean datesOverlap(int start1, int end1, int start2, int end2) {
+        return start1 < end2 && start2 < end1;
+    }
+
+    public void printAll() {
+        PrintStream out = System.out;
+        try {
+            export(ExportQuery.rooms(), ExportFormat.TEXT, out);
+            out.println();
+            export(ExportQuery.bookings(), ExportFormat.TEXT, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void printAllUsers() {
+        try {
+            export(ExportQuery.users(), ExportFormat.TEXT, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes one page of entities, newest first, to the stream as UTF-8; see {@link #export(ExportQuery,
+     * ExportFormat, Writer)}. The stream is flushed but not closed.
+     */
+    public long export(ExportQuery query, ExportFormat format, OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        return export(query, format, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes one page of entities, newest first, through a buffer; the writer is flushed but not closed.
+     * The first page starts with the format's header. Rooms and users are captured under the read lock and
+     * written after releasing it; bookings are streamed straight from the store without locking.
+     *
+     * @return the cursor for the next page, or {@link ExportQuery#END} if nothing is left
+     */
+    public long export(ExportQuery query, ExportFormat format, Writer out) throws IOException {
+        if (query == null || format == null || out == null) {
+            throw new IllegalArgumentException("Query, format and output cannot be null");
+        }
+
+        ExportWriter writer = new ExportWriter(out);
+        if (query.isFirstPage()) {
+            format.writeHeader(writer, query.getEntity());
+        }
+
+        long next;
+        switch (query.getEntity()) {
+            case ROOMS: {
+                List<Room> page = new ArrayList<>();
+                next = collectPage(rooms, query, query::matches, page);
+                for (Room room : page) {
+                    format.writeRoom(writer, room);
+                }
+                break;
+            }
+            case USERS: {
+                List<User> page = new ArrayList<>();
+                next = collectPage(users, query, query::matches, page);
+                for (User user : page) {
+                    format.writeUser(writer, user);
+                }
+                break;
+            }
+            default:
+                next = exportBookings(query, format, writer);
+        }
+        writer.flush();
+        return next;
+    }
+
+    // Cursors of rooms and users are insertion stamps of the registry maps.
+    private <V> long collectPage(IntLinkedMap<V> registry, ExportQuery query, Predicate<? super V> filter,
+            List<V> page) {
+        long[] last = {ExportQuery.END};
+        registryLock.readLock().lock();
+        try {
+            registry.forEachNewestFirst(query.getCursor(), (stamp, value) -> {
+                if (filter.test(value)) {
+                    page.add(value);
+                    last[0] = stamp;
+                }
+                return page.size() < query.getLimit();
+            });
+        } finally {
+            registryLock.readLock().unlock();
+        }
+        return page.size() == query.getLimit() ? last[0] : ExportQuery.END;
+    }
+
+    // Cursors of bookings are row sequences plus one, which survive compaction. A user's bookings are read from
+    // the index instead of a scan.
+    private long exportBookings(ExportQuery query, ExportFormat format, ExportWriter writer) throws IOException {
+        BookingStore store;
+        int[] userRows = null;
+        synchronized (bookingsLock) {
+            store = bookings;
+            if (query.isByUser()) {
+                userRows = bookingIndex.rowsOfUser(query.getUserId());
+            }
+        }
+        int start = query.isFirstPage() ? store.size() - 1
+                : store.lastRowBefore((int) Math.min(Integer.MAX_VALUE, query.getCursor() - 1), store.size());
+
+        int written = 0;
+        int next = userRows == null ? start : userRows.length - 1;
+        while (next >= 0) {
+            int row = userRows == null ? next : userRows[next];
+            next--;
+            if (row <= start && !store.isCancelled(row) && query.matches(store, row)) {
+                format.writeBooking(writer, store, row);
+                if (++written == query.getLimit()) {
+                    return store.getSequence(row) + 1L;
+                }
+            }
+        }
+        return ExportQuery.END;
+    }
+
+    private User findUserById(int userId) {
+        return users.get(userId);
+    }
+
+    private Room findRoomByNumber(int roomNumber) {
+        return rooms.get(roomNumber);
+    }
+
+    /**
+     * Registers a listener that sees every subsequent room, user and booking change.
+     */
+    public void addListener(ServiceListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(ServiceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Refuses every change from now on: setting rooms and users, bookings, cancellations and holds throw
+     * {@link IllegalStateException} with the first cause given. Persistence calls it when the journal fails, so
+     * no change is acknowledged that a restart would lose. Reads keep working.
+     */
+    public void failClosed(Throwable cause) {
+        if (cause == null) {
+            throw new IllegalArgumentException("Cause cannot be null");
+        }
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    /**
+     * The cause the service failed closed with, or null while it accepts changes.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    private void requireNotFailed() {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("Service refuses changes after a failure: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Runs the action while no other operation can change rooms, users, balances or bookings,
+     * e.g. to capture a consistent copy of the whole state.
+     */
+    public void runExclusively(Runnable action) {
+        registryLock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Restores a room exactly as given, with the same effect on ordering as {@link #setRoom}.
+     * Intended for recovery and import; listeners are not notified.
+     */
+    public void restoreRoom(Room room) {
+        if (room == null || room.getRoomType() == null) {
+            throw new IllegalArgumentException("Room and room type cannot be null");
+        }
+
+        registryLock.writeLock().lock();
+        try {
+            Room existing = findRoomByNumber(room.getRoomNumber());
+            if (existing != null && room.getValidFromTime() < existing.getValidFromTime()) {
+                room = new Room(room.getRoomNumber(), room.getRoomType(), room.getPricePerNight(),
+                        room.getCreationDate(), existing.getValidFrom());
+            }
+            putRoom(room);
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Restores a user, replacing the balance of an existing user with the same id. A new user is kept as given,
+     * so recovery can follow its balance. Intended for recovery and import; listeners are not notified.
+     */
+    public void restoreUser(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User cannot be null");
+        }
+
+        registryLock.writeLock().lock();
+        try {
+            User existingUser = findUserById(user.getUserId());
+            if (existingUser != null) {
+                synchronized (bookingsLock) {
+                    existingUser.setBalance(user.getBalance());
+                    userLog.balanceChanged(user.getUserId(), user.getBalance());
+                    version++;
+                }
+            } else {
+                putUser(user);
+            }
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Restores a booking without validating or charging it; the booked room must already exist.
+     * Later bookings get ids above every restored id. Intended for recovery and import; listeners are not notified.
+     */
+    public void restoreBooking(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+
+        registryLock.writeLock().lock();
+        try {
+            if (findRoomByNumber(booking.getRoomNumber()) == null) {
+                throw new IllegalArgumentException("Room not found: " + booking.getRoomNumber());
+            }
+            int checkIn = booking.getCheckInDay();
+            int checkOut = booking.getCheckOutDay();
+            synchronized (bookingsLock) {
+                if (bookingIndex.containsBooking(booking.getBookingId())) {
+                    throw new IllegalArgumentException("Booking already exists: " + booking.getBookingId());
+                }
+                int row = bookings.append(booking.getBookingId(), booking.getUserId(), roomVersionOf(booking),
+                        booking.getUserBalanceAtBooking(), checkIn, checkOut, booking.getBookingDate().getTime());
+                bookingIndex.add(row, booking.getBookingId(), booking.getUserId(), checkIn, checkOut);
+                bookingIdCounter = Math.max(bookingIdCounter, booking.getBookingId() + 1);
+                version++;
+            }
+            indexBooking(booking.getRoomNumber(), checkIn, checkOut);
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+    }
+
+    // The version of the booked room in effect when the booking was made, or a detached version if its terms
+    // differ, as they do for bookings restored without the room's full history.
+    private int roomVersionOf(Booking booking) {
+        return roomVersionOf(booking.getRoomNumber(), booking.getBookedRoomType(), booking.getBookedPricePerNight(),
+                booking.getBookingDate().getTime());
+    }
+
+    private int roomVersionOf(int roomNumber, RoomType roomType, int pricePerNight, long bookingDate) {
+        int version = catalog.versionAt(roomNumber, bookingDate);
+        if (version >= 0 && catalog.getRoomType(version) == roomType
+                && catalog.getPricePerNight(version) == pricePerNight) {
+            return version;
+        }
+        return catalog.putDetached(roomNumber, roomType, pricePerNight, bookingDate);
+    }
+
+    /**
+     * Cancels a booking without refunding anyone. Intended for recovery; listeners are not notified.
+     *
+     * @return the cancelled booking
+     * @throws IllegalArgumentException if there is no such booking
+     */
+    public Booking restoreCancellation(int bookingId) {
+        Booking booking;
+        registryLock.writeLock().lock();
+        try {
+            synchronized (bookingsLock) {
+                int row = bookingIndex.rowOf(bookingId);
+                if (row == IntIntMap.ABSENT) {
+                    throw new IllegalArgumentException("Booking not found: " + bookingId);
+                }
+                bookings.cancel(row);
+                bookingIndex.cancelled(bookingId);
+                booking = bookings.get(row);
+                version++;
+            }
+            unindexBooking(booking.getRoomNumber(), booking.getCheckInDay(), booking.getCheckOutDay());
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+        scheduleCompactionIfNeeded();
+        return booking;
+    }
+
+    /**
+     * Makes later bookings get ids of at least {@code nextBookingId}, so that restoring state without its
+     * cancelled bookings cannot hand out their ids again. Intended for recovery.
+     */
+    public void reserveBookingIds(int nextBookingId) {
+        synchronized (bookingsLock) {
+            bookingIdCounter = Math.max(bookingIdCounter, nextBookingId);
+        }
+    }
+
+    /**
+     * Loads rooms, users and bookings into an empty service in one shot, for migrations and disaster recovery.
+     * Everything is validated in a first pass that changes nothing: room versions must be in order, user and
+     * booking ids unique, booked rooms among the given ones and the stays of each room disjoint. The second pass
+     * sizes the booking store and id index for every booking up front and appends them in the given order;
+     * the validation pass already sorted each room's stays by check-in, so the interval index is built by appends
+     * alone. Like {@link #restoreBooking}, bookings are not charged, and listeners are not notified.
+     *
+     * @param rooms    rooms in registration order; a room number given again is a later version of that room
+     * @param bookings stores of bookings, read in list order
+     * @throws IllegalStateException    if the service already holds rooms, users or bookings
+     * @throws IllegalArgumentException if validation fails, listing the first problems found
+     */
+    public void restoreAll(List<Room> rooms, List<User> users, List<BookingStore> bookings) {
+        if (rooms == null || users == null || bookings == null) {
+            throw new IllegalArgumentException("Rooms, users and bookings cannot be null");
+        }
+
+        registryLock.writeLock().lock();
+        try {
+            if (!this.rooms.isEmpty() || !this.users.isEmpty() || this.bookings.size() > 0) {
+                throw new IllegalStateException("Service must be empty before a bulk restore");
+            }
+            BulkValidation validation = new BulkValidation(rooms, users, bookings);
+            validation.run();
+
+            for (Room room : rooms) {
+                putRoom(room);
+            }
+            for (User user : users) {
+                putUser(user);
+            }
+            synchronized (bookingsLock) {
+                int total = validation.bookingCount();
+                BookingStore store = new BookingStore(catalog, Math.max(total, 1024));
+                BookingIndex index = new BookingIndex(total);
+                int maxBookingId = 0;
+                for (BookingStore source : bookings) {
+                    for (int row = 0; row < source.size(); row++) {
+                        int bookingId = source.getBookingId(row);
+                        int copy = store.append(bookingId, source.getUserId(row),
+                                roomVersionOf(source.getRoomNumber(row), source.getRoomType(row),
+                                        source.getPricePerNight(row), source.getBookingDate(row)),
+                                source.getBalanceAtBooking(row), source.getCheckInDay(row),
+                                source.getCheckOutDay(row), source.getBookingDate(row));
+                        index.add(copy, bookingId, source.getUserId(row), source.getCheckInDay(row),
+                                source.getCheckOutDay(row));
+                        maxBookingId = Math.max(maxBookingId, bookingId);
+                    }
+                }
+                this.bookings = store;
+                bookingIndex = index;
+                bookingIdCounter = Math.max(bookingIdCounter, maxBookingId + 1);
+                version++;
+            }
+            // Rows of the new store are numbered like the validation's bookings, sorted by room and check-in.
+            BookingStore store = this.bookings;
+            validation.forEachStay(row -> {
+                int roomNumber = store.getRoomNumber(row);
+                roomIntervals.add(roomNumber, store.getCheckInDay(row), store.getCheckOutDay(row));
+                occupancy.occupy(roomNumber, store.getCheckInDay(row), store.getCheckOutDay(row));
+            });
+            availabilityCache.clear();
+        } finally {
+            registryLock.writeLock().unlock();
+        }
+    }
+
+    public int getRoomCount() {
+        registryLock.readLock().lock();
+        try {
+            return rooms.size();
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    public int getUserCount() {
+        registryLock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of bookings that are not cancelled.
+     */
+    public int getBookingCount() {
+        return bookings.liveCount();
+    }
+
+    /**
+     * The service's metrics, or null if it was created without a metrics registry.
+     */
+    public ServiceMetricsMXBean getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Registers the metrics on the platform MBean server as {@code com.hotel:type=Service,name=<name>}.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        if (metrics == null) {
+            throw new IllegalStateException("Service was created without metrics");
+        }
+        ObjectName objectName = ObjectName.getInstance("com.hotel:type=Service,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        return objectName;
+    }
+
+    /**
+     * Returns a consistent view of every room, user and booking as of now. Taking it only captures a few sizes
+     * under the commit lock; changes continue meanwhile without affecting it, and it may be read from any thread.
+     */
+    public ServiceSnapshot snapshot() {
+        synchronized (bookingsLock) {
+            return new ServiceSnapshot(version, catalog, userLog.view(), bookings, bookingIdCounter);
+        }
+    }
+
+    /**
+     * Copies the current rooms; {@link #snapshot()} gives the same rooms without copying.
+     */
+    public ArrayList<Room> getRooms() {
+        registryLock.readLock().lock();
+        try {
+            return rooms.values();
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the room as it is now, or null if it is not registered. A direct lookup by number.
+     */
+    public Room findRoom(int roomNumber) {
+        registryLock.readLock().lock();
+        try {
+            return findRoomByNumber(roomNumber);
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the room's type and price as they were at the given time, or null if the room was not registered
+     * yet. A binary search over the room's versions.
+     */
+    public Room findRoomAt(int roomNumber, Date time) {
+        if (time == null) {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+        registryLock.readLock().lock();
+        try {
+            int roomVersion = catalog.versionAt(roomNumber, time.getTime());
+            return roomVersion < 0 ? null : catalog.getRoom(roomVersion);
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every version of the room, oldest first; empty if the room is not registered.
+     */
+    public List<Room> getRoomHistory(int roomNumber) {
+        registryLock.readLock().lock();
+        try {
+            return catalog.history(roomNumber);
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the current users with their balances as of the call. Changing a copy changes nothing here: balances
+     * change only through {@link #setUser}, bookings, cancellations and holds, which listeners see. {@link #snapshot()}
+     * gives users with fixed balances without copying.
+     */
+    public ArrayList<User> getUsers() {
+        registryLock.readLock().lock();
+        try {
+            ArrayList<User> copies = users.values();
+            for (int i = 0; i < copies.size(); i++) {
+                User user = copies.get(i);
+                copies.set(i, new User(user.getUserId(), user.getBalance(), user.getCreationDate()));
+            }
+            return copies;
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the current bookings, cancelled ones left out, without holding any lock; {@link #snapshot()} gives
+     * them without copying.
+     */
+    public ArrayList<Booking> getBookings() {
+        BookingStore store = bookings;
+        int size = store.size();
+        ArrayList<Booking> copy = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            if (!store.isCancelled(row)) {
+                copy.add(store.get(row));
+            }
+        }
+        return copy;
+    }
+}
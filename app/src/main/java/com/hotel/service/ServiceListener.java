@@ -0,0 +1,37 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.User;
+
+/**
+ * Observes every state change applied by {@link Service}, in the order the changes take effect.
+ * Callbacks run on the calling thread while the service holds its locks, so they must be fast and must not
+ * call back into the service. They run in the middle of a commit and must not throw.
+ */
+public interface ServiceListener {
+
+    void roomSet(Room room);
+
+    /**
+     * Called with a copy of the user as set; changing it changes nothing in the service.
+     */
+    void userSet(User user);
+
+    /**
+     * Called once a booking is recorded; the booked user has already been charged its total price.
+     */
+    void bookingCreated(Booking booking);
+
+    /**
+     * Called once a booking is cancelled; the user has already been refunded its total price.
+     */
+    void bookingCancelled(Booking booking);
+
+    /**
+     * Called when a booking, cancellation or confirmed hold charges or refunds a user, after the callback for the
+     * booking itself; balances set through {@code setUser} are reported by {@link #userSet}.
+     */
+    default void balanceChanged(int userId, int balance) {
+    }
+}
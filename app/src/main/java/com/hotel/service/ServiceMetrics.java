@@ -0,0 +1,299 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.metrics.Counter;
+import com.hotel.metrics.LatencyHistogram;
+import com.hotel.metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The metrics of one {@link Service}, resolved from the registry once so that recording is a few
+ * array lookups and lock-free adds that allocate nothing.
+ * Counters are exact. Latencies are sampled: a call is timed with probability 1/sampleInterval, since reading
+ * the clock twice can cost more than the rest of the instrumentation.
+ */
+final class ServiceMetrics implements ServiceMetricsMXBean {
+
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final BookingResult.Status[] STATUSES = BookingResult.Status.values();
+
+    private final Service service;
+    private final int sampleMask;
+    private final LatencyHistogram[] bookRoomLatencies = new LatencyHistogram[STATUSES.length];
+    private final Counter[] rejections = new Counter[STATUSES.length];
+    private final LatencyHistogram batchCommittedLatency;
+    private final LatencyHistogram batchRejectedLatency;
+    private final LatencyHistogram setRoomInsertedLatency;
+    private final LatencyHistogram setRoomUpdatedLatency;
+    private final LatencyHistogram setUserInsertedLatency;
+    private final LatencyHistogram setUserUpdatedLatency;
+    private final LatencyHistogram cancelBookingLatency;
+    private final Counter bookings;
+    private final Counter revenue;
+    private final Counter rejectedBatches;
+    private final Counter cancellations;
+    private final Counter refunds;
+    private final Counter compactions;
+    private final Counter holds;
+    private final Counter confirmedHolds;
+    private final Counter expiredHolds;
+    private final Counter roomsInserted;
+    private final Counter roomsUpdated;
+    private final Counter usersInserted;
+    private final Counter usersUpdated;
+
+    ServiceMetrics(MetricsRegistry registry, Service service, int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("Latency sample interval must be a positive power of two");
+        }
+        this.service = service;
+        this.sampleMask = sampleInterval - 1;
+        for (BookingResult.Status status : STATUSES) {
+            bookRoomLatencies[status.ordinal()] = registry.histogram("bookRoom.latency." + status);
+            if (status != BookingResult.Status.BOOKED) {
+                rejections[status.ordinal()] = registry.counter("bookRoom.rejections." + status);
+            }
+        }
+        batchCommittedLatency = registry.histogram("bookRooms.latency.COMMITTED");
+        batchRejectedLatency = registry.histogram("bookRooms.latency.REJECTED");
+        setRoomInsertedLatency = registry.histogram("setRoom.latency.INSERTED");
+        setRoomUpdatedLatency = registry.histogram("setRoom.latency.UPDATED");
+        setUserInsertedLatency = registry.histogram("setUser.latency.INSERTED");
+        setUserUpdatedLatency = registry.histogram("setUser.latency.UPDATED");
+        cancelBookingLatency = registry.histogram("cancelBooking.latency");
+        bookings = registry.counter("bookings");
+        revenue = registry.counter("revenue");
+        rejectedBatches = registry.counter("bookRooms.rejections");
+        cancellations = registry.counter("cancellations");
+        refunds = registry.counter("refunds");
+        compactions = registry.counter("compactions");
+        holds = registry.counter("holds");
+        confirmedHolds = registry.counter("holds.confirmed");
+        expiredHolds = registry.counter("holds.expired");
+        roomsInserted = registry.counter("setRoom.INSERTED");
+        roomsUpdated = registry.counter("setRoom.UPDATED");
+        usersInserted = registry.counter("setUser.INSERTED");
+        usersUpdated = registry.counter("setUser.UPDATED");
+
+        registry.gauge("rooms", service::getRoomCount);
+        registry.gauge("users", service::getUserCount);
+        registry.gauge("bookings.stored", service::getBookingCount);
+        registry.gauge("holds.outstanding", service::getHoldCount);
+        registry.gauge("availabilityCache.hits", () -> service.getAvailabilityCacheStats().getHits());
+        registry.gauge("availabilityCache.misses", () -> service.getAvailabilityCacheStats().getMisses());
+    }
+
+    /**
+     * Returns the start time if this call is sampled, otherwise {@link #NOT_TIMED}.
+     */
+    long startTimer() {
+        return (ThreadLocalRandom.current().nextInt() & sampleMask) == 0 ? System.nanoTime() : NOT_TIMED;
+    }
+
+    private static void recordSince(LatencyHistogram histogram, long start) {
+        if (start != NOT_TIMED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    void bookRoomCompleted(BookingResult result, long start) {
+        int status = result.getStatus().ordinal();
+        recordSince(bookRoomLatencies[status], start);
+        if (result.isBooked()) {
+            bookings.increment();
+            revenue.add(result.getRequired());
+        } else {
+            rejections[status].increment();
+        }
+    }
+
+    void bookRoomsCompleted(BatchBookingResult result, long revenueOfBatch, long start) {
+        if (result.isCommitted()) {
+            recordSince(batchCommittedLatency, start);
+            bookings.add(result.getItems().size());
+            revenue.add(revenueOfBatch);
+        } else {
+            recordSince(batchRejectedLatency, start);
+            rejectedBatches.increment();
+        }
+    }
+
+    void cancelBookingCompleted(Booking cancelled, long start) {
+        recordSince(cancelBookingLatency, start);
+        if (cancelled != null) {
+            cancellations.increment();
+            refunds.add(cancelled.getTotalPrice());
+        }
+    }
+
+    void held() {
+        holds.increment();
+    }
+
+    // A confirmed hold is a booking as well.
+    void holdConfirmed(Booking booking) {
+        confirmedHolds.increment();
+        bookings.increment();
+        revenue.add(booking.getTotalPrice());
+    }
+
+    void holdsExpired(int count) {
+        expiredHolds.add(count);
+    }
+
+    void compacted() {
+        compactions.increment();
+    }
+
+    // Inserting also registers the room with the indexes, so inserts and updates are timed apart.
+    void setRoomCompleted(boolean inserted, long start) {
+        if (inserted) {
+            recordSince(setRoomInsertedLatency, start);
+            roomsInserted.increment();
+        } else {
+            recordSince(setRoomUpdatedLatency, start);
+            roomsUpdated.increment();
+        }
+    }
+
+    void setUserCompleted(boolean inserted, long start) {
+        if (inserted) {
+            recordSince(setUserInsertedLatency, start);
+            usersInserted.increment();
+        } else {
+            recordSince(setUserUpdatedLatency, start);
+            usersUpdated.increment();
+        }
+    }
+
+    @Override
+    public long getBookingCount() {
+        return bookings.get();
+    }
+
+    @Override
+    public long getRevenue() {
+        return revenue.get();
+    }
+
+    @Override
+    public long getCancellationCount() {
+        return cancellations.get();
+    }
+
+    @Override
+    public long getRefunds() {
+        return refunds.get();
+    }
+
+    @Override
+    public long getCompactionCount() {
+        return compactions.get();
+    }
+
+    @Override
+    public long getHoldCount() {
+        return holds.get();
+    }
+
+    @Override
+    public long getConfirmedHoldCount() {
+        return confirmedHolds.get();
+    }
+
+    @Override
+    public long getExpiredHoldCount() {
+        return expiredHolds.get();
+    }
+
+    @Override
+    public long getOutstandingHoldCount() {
+        return service.getHoldCount();
+    }
+
+    @Override
+    public long getAvailabilityCacheHitCount() {
+        return service.getAvailabilityCacheStats().getHits();
+    }
+
+    @Override
+    public long getAvailabilityCacheMissCount() {
+        return service.getAvailabilityCacheStats().getMisses();
+    }
+
+    @Override
+    public Map<String, Long> getRejectionCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (BookingResult.Status status : STATUSES) {
+            if (rejections[status.ordinal()] != null) {
+                counts.put(status.name(), rejections[status.ordinal()].get());
+            }
+        }
+        counts.put("BATCH", rejectedBatches.get());
+        return counts;
+    }
+
+    @Override
+    public long getRoomInsertCount() {
+        return roomsInserted.get();
+    }
+
+    @Override
+    public long getRoomUpdateCount() {
+        return roomsUpdated.get();
+    }
+
+    @Override
+    public long getUserInsertCount() {
+        return usersInserted.get();
+    }
+
+    @Override
+    public long getUserUpdateCount() {
+        return usersUpdated.get();
+    }
+
+    @Override
+    public long getRoomCount() {
+        return service.getRoomCount();
+    }
+
+    @Override
+    public long getUserCount() {
+        return service.getUserCount();
+    }
+
+    @Override
+    public long getStoredBookingCount() {
+        return service.getBookingCount();
+    }
+
+    @Override
+    public Map<String, Long> getLatencies() {
+        Map<String, Long> latencies = new LinkedHashMap<>();
+        for (BookingResult.Status status : STATUSES) {
+            summarize(latencies, "bookRoom." + status, bookRoomLatencies[status.ordinal()]);
+        }
+        summarize(latencies, "bookRooms.COMMITTED", batchCommittedLatency);
+        summarize(latencies, "bookRooms.REJECTED", batchRejectedLatency);
+        summarize(latencies, "setRoom.INSERTED", setRoomInsertedLatency);
+        summarize(latencies, "setRoom.UPDATED", setRoomUpdatedLatency);
+        summarize(latencies, "setUser.INSERTED", setUserInsertedLatency);
+        summarize(latencies, "setUser.UPDATED", setUserUpdatedLatency);
+        summarize(latencies, "cancelBooking", cancelBookingLatency);
+        return latencies;
+    }
+
+    private static void summarize(Map<String, Long> latencies, String name, LatencyHistogram histogram) {
+        latencies.put(name + ".samples", histogram.getCount());
+        latencies.put(name + ".mean", Math.round(histogram.getMean()));
+        latencies.put(name + ".p50", histogram.getValueAtPercentile(50));
+        latencies.put(name + ".p99", histogram.getValueAtPercentile(99));
+        latencies.put(name + ".p999", histogram.getValueAtPercentile(99.9));
+        latencies.put(name + ".max", histogram.getMax());
+    }
+}
@@ -0,0 +1,73 @@
+package com.hotel.service;
+
+import java.util.Map;
+
+/**
+ * JMX view of a {@link Service}'s metrics. Latencies are in nanoseconds.
+ */
+public interface ServiceMetricsMXBean {
+
+    long getBookingCount();
+
+    long getRevenue();
+
+    long getCancellationCount();
+
+    /**
+     * Total price refunded by cancellations.
+     */
+    long getRefunds();
+
+    /**
+     * Times the booking store was compacted to reclaim cancelled bookings.
+     */
+    long getCompactionCount();
+
+    long getHoldCount();
+
+    /**
+     * Holds turned into bookings; these count as bookings too.
+     */
+    long getConfirmedHoldCount();
+
+    long getExpiredHoldCount();
+
+    long getOutstandingHoldCount();
+
+    /**
+     * Availability queries answered from the cache.
+     */
+    long getAvailabilityCacheHitCount();
+
+    long getAvailabilityCacheMissCount();
+
+    /**
+     * Rejected single bookings by reason, plus rejected batches under {@code BATCH}.
+     */
+    Map<String, Long> getRejectionCounts();
+
+    /**
+     * setRoom calls that registered a new room; the rest updated one.
+     */
+    long getRoomInsertCount();
+
+    long getRoomUpdateCount();
+
+    /**
+     * setUser calls that registered a new user; the rest updated a balance.
+     */
+    long getUserInsertCount();
+
+    long getUserUpdateCount();
+
+    long getRoomCount();
+
+    long getUserCount();
+
+    long getStoredBookingCount();
+
+    /**
+     * Samples, mean, p50, p99, p999 and max per operation and outcome, keyed like {@code bookRoom.BOOKED.p99}.
+     */
+    Map<String, Long> getLatencies();
+}
@@ -0,0 +1,167 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomCatalog;
+import com.hotel.entities.User;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A consistent, immutable view of a {@link Service}'s rooms, users and bookings at one point in time,
+ * obtained in constant time from {@link Service#snapshot()}. Every booking in the snapshot is charged to the
+ * user balances in it, and nothing committed later is visible. Users are copies carrying their balance as of
+ * the snapshot; rooms and bookings are immutable already.
+ */
+public final class ServiceSnapshot {
+
+    private final long version;
+    private final RoomCatalog catalog;
+    private final int roomVersions;
+    private final RoomCatalogView rooms;
+    private final SnapshotView<User> users;
+    private final Bookings bookings;
+    private final int nextBookingId;
+
+    ServiceSnapshot(long version, RoomCatalog catalog, SnapshotView<User> users, BookingStore bookings,
+            int nextBookingId) {
+        this.version = version;
+        this.catalog = catalog;
+        this.roomVersions = catalog.versionCount();
+        this.rooms = new RoomCatalogView(catalog, catalog.roomCount(), roomVersions);
+        this.users = users;
+        this.bookings = new Bookings(bookings, bookings.size(), bookings.cancelledCount());
+        this.nextBookingId = nextBookingId;
+    }
+
+    /**
+     * Number of changes committed to the service before the snapshot; later snapshots never have a lower one.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The rooms as of the snapshot, each at its version then, in registration order.
+     */
+    public SnapshotView<Room> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Every version of every room as of the snapshot, room by room in registration order and oldest first within
+     * a room. Creating the view costs a binary search per room.
+     */
+    public SnapshotView<Room> getRoomVersions() {
+        return new RoomHistoryView(catalog, rooms.size(), roomVersions);
+    }
+
+    public SnapshotView<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * The bookings that were not cancelled as of the snapshot.
+     */
+    public SnapshotView<Booking> getBookings() {
+        return bookings;
+    }
+
+    /**
+     * The id the service would have given its next booking; ids of cancelled bookings are never reused.
+     */
+    public int getNextBookingId() {
+        return nextBookingId;
+    }
+
+    /**
+     * The store holding the bookings, for scans over its columns. The snapshot's bookings are the rows below
+     * {@link #getBookingRowCount()} for which {@link #containsBookingRow(int)} holds; those bookings never change,
+     * while rows beyond them may be appended at any time.
+     */
+    public BookingStore getBookingStore() {
+        return bookings.store;
+    }
+
+    public int getBookingRowCount() {
+        return bookings.rows;
+    }
+
+    /**
+     * Number of cancellations the snapshot has seen; rows cancelled within them are not in the snapshot,
+     * see {@link BookingStore#isLiveAfter(int, int)}.
+     */
+    public int getBookingCancellations() {
+        return bookings.cancellations;
+    }
+
+    /**
+     * Whether a row below {@link #getBookingRowCount()} is a booking of the snapshot rather than a booking
+     * cancelled before it.
+     */
+    public boolean containsBookingRow(int row) {
+        return bookings.store.isLiveAfter(row, bookings.cancellations);
+    }
+
+    // Rows below the captured size never change, and those cancelled later carry a higher cancellation number
+    // than the snapshot has seen, so the rows and cancellation count captured together are the snapshot.
+    private static final class Bookings extends SnapshotView<Booking> {
+        private final BookingStore store;
+        private final int rows;
+        private final int cancellations;
+
+        private Bookings(BookingStore store, int rows, int cancellations) {
+            this.store = store;
+            this.rows = rows;
+            this.cancellations = cancellations;
+        }
+
+        @Override
+        public int size() {
+            return rows - cancellations;
+        }
+
+        @Override
+        Iterator<Booking> iterator(boolean newestFirst, int offset) {
+            return new Iterator<Booking>() {
+                private int row = newestFirst ? rows : -1;
+
+                {
+                    // Without tombstones the offset is a row distance; otherwise tombstones have to be skipped.
+                    if (cancellations == 0) {
+                        row += newestFirst ? -offset : offset;
+                        advance();
+                    } else {
+                        advance();
+                        for (int skipped = 0; skipped < offset && hasNext(); skipped++) {
+                            advance();
+                        }
+                    }
+                }
+
+                private void advance() {
+                    do {
+                        row += newestFirst ? -1 : 1;
+                    } while (row >= 0 && row < rows && !store.isLiveAfter(row, cancellations));
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return row >= 0 && row < rows;
+                }
+
+                @Override
+                public Booking next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Booking booking = store.get(row);
+                    advance();
+                    return booking;
+                }
+            };
+        }
+    }
+}
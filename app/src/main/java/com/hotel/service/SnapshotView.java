@@ -0,0 +1,101 @@
+package com.hotel.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable, lazily iterated sequence of rooms, users or bookings as of one {@link ServiceSnapshot}.
+ * Iteration runs oldest first, in the order of the matching {@link Service} getter; {@link #newestFirst()}
+ * reverses it. Elements are produced on demand, so paging through a large view allocates only the page.
+ */
+public abstract class SnapshotView<T> implements Iterable<T> {
+
+    SnapshotView() {
+    }
+
+    public abstract int size();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Iterates in the given direction after skipping the first offset elements.
+    abstract Iterator<T> iterator(boolean newestFirst, int offset);
+
+    @Override
+    public Iterator<T> iterator() {
+        return iterator(false, 0);
+    }
+
+    /**
+     * The same elements in reverse order.
+     */
+    public SnapshotView<T> newestFirst() {
+        SnapshotView<T> source = this;
+        return new SnapshotView<T>() {
+            @Override
+            public int size() {
+                return source.size();
+            }
+
+            @Override
+            Iterator<T> iterator(boolean newestFirst, int offset) {
+                return source.iterator(!newestFirst, offset);
+            }
+
+            @Override
+            public SnapshotView<T> newestFirst() {
+                return source;
+            }
+        };
+    }
+
+    /**
+     * Returns up to {@code limit} elements starting at {@code offset}. The view never changes, so consecutive
+     * offsets page through it without gaps or repeats however the service changes in between.
+     */
+    public List<T> page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+
+        List<T> page = new ArrayList<>(Math.min(limit, Math.max(0, size() - offset)));
+        Iterator<T> iterator = iterator(false, offset);
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    /**
+     * A view whose elements can be produced by position, so skipping costs nothing.
+     */
+    abstract static class Indexed<T> extends SnapshotView<T> {
+
+        abstract T get(int index);
+
+        @Override
+        Iterator<T> iterator(boolean newestFirst, int offset) {
+            int size = size();
+            return new Iterator<T>() {
+                private int position = offset;
+
+                @Override
+                public boolean hasNext() {
+                    return position < size;
+                }
+
+                @Override
+                public T next() {
+                    if (position >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = position++;
+                    return get(newestFirst ? size - 1 - index : index);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hotel.service;
+
+import com.hotel.entities.User;
+import com.hotel.util.IntLinkedMap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Users in registration order plus an append-only log of their balance changes, from which snapshots are cut
+ * in constant time. Each change links to the user's previous change, so the balance as of a log size is found
+ * by walking back from the user's latest change to the first one before that size.
+ * When the change arrays fill up they are copied, keeping only each user's latest balance once most entries
+ * are history; snapshots keep reading the old arrays.
+ * <p>
+ * Writes must be serialized by the caller. Views may be read concurrently with writes.
+ */
+final class UserLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private static final class Columns {
+        private final User[] users;
+        // Written with release semantics after the change it points to, so readers always find a complete chain.
+        private final AtomicIntegerArray latestChanges;
+        private final int[] balances;
+        private final int[] previousChanges;
+
+        private Columns(User[] users, AtomicIntegerArray latestChanges, int changeCapacity) {
+            this.users = users;
+            this.latestChanges = latestChanges;
+            this.balances = new int[changeCapacity];
+            this.previousChanges = new int[changeCapacity];
+        }
+
+        private Columns(Columns source, int userCapacity, int changeCapacity) {
+            users = Arrays.copyOf(source.users, userCapacity);
+            latestChanges = new AtomicIntegerArray(userCapacity);
+            for (int i = 0; i < source.latestChanges.length(); i++) {
+                latestChanges.set(i, source.latestChanges.get(i));
+            }
+            balances = Arrays.copyOf(source.balances, changeCapacity);
+            previousChanges = Arrays.copyOf(source.previousChanges, changeCapacity);
+        }
+
+        private int balanceAt(int user, int changeCount) {
+            int change = latestChanges.get(user);
+            while (change >= changeCount) {
+                change = previousChanges[change];
+            }
+            return balances[change];
+        }
+    }
+
+    // Registration index of each user, in a holder so lookups allocate nothing.
+    private final IntLinkedMap<int[]> indexes = new IntLinkedMap<>();
+    private Columns columns = new Columns(new User[INITIAL_CAPACITY],
+            new AtomicIntegerArray(INITIAL_CAPACITY), INITIAL_CAPACITY);
+    private int userCount;
+    private int changeCount;
+
+    void add(User user) {
+        if (indexes.containsKey(user.getUserId())) {
+            balanceChanged(user.getUserId(), user.getBalance());
+            return;
+        }
+
+        if (userCount == columns.users.length) {
+            columns = new Columns(columns, userCount * 2, columns.balances.length);
+        }
+        indexes.put(user.getUserId(), new int[] {userCount});
+        columns.users[userCount] = user;
+        columns.latestChanges.set(userCount, NONE);
+        userCount++;
+        balanceChanged(user.getUserId(), user.getBalance());
+    }
+
+    void balanceChanged(int userId, int balance) {
+        if (changeCount == columns.balances.length) {
+            compact();
+        }
+
+        int user = indexes.get(userId)[0];
+        int change = changeCount++;
+        columns.balances[change] = balance;
+        columns.previousChanges[change] = columns.latestChanges.get(user);
+        columns.latestChanges.lazySet(user, change);
+    }
+
+    SnapshotView<User> view() {
+        return new View(columns, userCount, changeCount);
+    }
+
+    // Drops the history if it outnumbers the users, otherwise doubles the change arrays.
+    private void compact() {
+        if (userCount * 2 > changeCount) {
+            columns = new Columns(columns, columns.users.length, changeCount * 2);
+            return;
+        }
+
+        Columns compacted = new Columns(columns.users, new AtomicIntegerArray(columns.users.length),
+                Math.max(INITIAL_CAPACITY, changeCount));
+        for (int user = 0; user < userCount; user++) {
+            compacted.balances[user] = columns.balanceAt(user, changeCount);
+            compacted.previousChanges[user] = NONE;
+            compacted.latestChanges.set(user, user);
+        }
+        columns = compacted;
+        changeCount = userCount;
+    }
+
+    private static final class View extends SnapshotView.Indexed<User> {
+        private final Columns columns;
+        private final int userCount;
+        private final int changeCount;
+
+        private View(Columns columns, int userCount, int changeCount) {
+            this.columns = columns;
+            this.userCount = userCount;
+            this.changeCount = changeCount;
+        }
+
+        @Override
+        public int size() {
+            return userCount;
+        }
+
+        @Override
+        User get(int index) {
+            User user = columns.users[index];
+            return new User(user.getUserId(), columns.balanceAt(index, changeCount), user.getCreationDate());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.hotel.simulation;
+
+import com.hotel.entities.RoomType;
+import com.hotel.exception.InvalidDateException;
+import com.hotel.metrics.LatencyHistogram;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import com.hotel.util.VirtualThreads;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link Service} with the workload of a {@link SimulationConfig}: populates the hotel, runs the warmup
+ * requests, then measures the configured number of requests.
+ * <p>
+ * Clients are closed-loop: each sends its next request once the previous one is answered, paced to the target
+ * rate if there is one. Request k of a run is due at start + k / rate and goes to client k % clients.
+ */
+public final class Simulation {
+
+    private static final long WARMUP_SEED_SALT = 0x5DEECE66DL;
+    private static final long CLIENT_SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final Service service;
+    private final SimulationConfig config;
+    private final ZipfDistribution roomPopularity;
+    private final ZipfDistribution leadTimes;
+    private final int[] roomByRank;
+    private final RoomType[] roomTypes;
+
+    // Outcomes of the current run.
+    private final LongAdder[] outcomes = new LongAdder[BookingResult.Status.values().length];
+    private final LongAdder searches = new LongAdder();
+    private LatencyHistogram latency;
+    private LatencyHistogram bookingLatency;
+    private LatencyHistogram searchLatency;
+    private boolean virtualThreads;
+
+    private Simulation(Service service, SimulationConfig config) {
+        this.service = service;
+        this.config = config;
+        this.roomPopularity = new ZipfDistribution(config.getRooms(), config.getRoomSkew());
+        this.leadTimes = new ZipfDistribution(config.getHorizonDays(), config.getLeadTimeSkew());
+        this.roomByRank = new int[config.getRooms()];
+        this.roomTypes = new RoomType[config.getRooms() + 1];
+    }
+
+    /**
+     * Runs the simulation against a new service.
+     */
+    public static SimulationReport run(SimulationConfig config) throws InterruptedException {
+        return run(new Service(), config);
+    }
+
+    /**
+     * Sets rooms 1 to rooms and users 1 to users of the service as configured, then runs the simulation
+     * against it. Bookings made during warmup stay in the service.
+     */
+    public static SimulationReport run(Service service, SimulationConfig config) throws InterruptedException {
+        if (service == null || config == null) {
+            throw new IllegalArgumentException("Service and configuration cannot be null");
+        }
+        Simulation simulation = new Simulation(service, config);
+        simulation.populate();
+        if (config.getWarmupRequests() > 0) {
+            simulation.drive(config.getWarmupRequests(), config.getSeed() ^ WARMUP_SEED_SALT);
+        }
+        return simulation.measure();
+    }
+
+    // Room prices vary around a per-type base; popularity ranks are a shuffle so hot rooms are of every type.
+    private void populate() {
+        Random random = new Random(config.getSeed());
+        for (int room = 1; room <= config.getRooms(); room++) {
+            RoomType roomType = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+            roomTypes[room] = roomType;
+            service.setRoom(room, roomType, 1000 * (roomType.ordinal() + 1) + 50 * random.nextInt(11));
+            roomByRank[room - 1] = room;
+        }
+        for (int i = roomByRank.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swapped = roomByRank[i];
+            roomByRank[i] = roomByRank[j];
+            roomByRank[j] = swapped;
+        }
+        for (int user = 1; user <= config.getUsers(); user++) {
+            service.setUser(user, config.getBalance());
+        }
+    }
+
+    private SimulationReport measure() throws InterruptedException {
+        long elapsed = drive(config.getRequests(), config.getSeed());
+        long[] counts = new long[outcomes.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = outcomes[i].sum();
+        }
+        return new SimulationReport(config, virtualThreads, elapsed, counts, searches.sum(), latency,
+                bookingLatency, searchLatency);
+    }
+
+    // Sends the requests from all clients and returns the elapsed nanoseconds.
+    private long drive(int requests, long seed) throws InterruptedException {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+        searches.reset();
+        latency = new LatencyHistogram();
+        bookingLatency = new LatencyHistogram();
+        searchLatency = new LatencyHistogram();
+
+        int clients = Math.min(config.getClients(), requests);
+        long interval = config.getRate() > 0 ? (long) (1e9 / config.getRate()) : 0;
+        ExecutorService executor = newExecutor(clients);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> running = new ArrayList<>(clients);
+            for (int client = 0; client < clients; client++) {
+                int first = client;
+                SplittableRandom random = new SplittableRandom(seed + client * CLIENT_SEED_STEP);
+                running.add(executor.submit(() -> {
+                    for (long k = first; k < requests; k += clients) {
+                        long due = start + k * interval;
+                        if (interval > 0) {
+                            long wait = due - System.nanoTime();
+                            if (wait > 0) {
+                                LockSupport.parkNanos(wait);
+                            }
+                        }
+                        send(random, interval > 0 ? due : System.nanoTime());
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                try {
+                    client.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Simulated client failed", e.getCause());
+                }
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void send(SplittableRandom random, long start) {
+        int roomNumber = roomByRank[roomPopularity.sample(random.nextDouble())];
+        int checkIn = config.getStartEpochDay() + leadTimes.sample(random.nextDouble());
+        int checkOut = checkIn + 1 + random.nextInt(config.getMaxNights());
+
+        if (random.nextDouble() < config.getSearchRatio()) {
+            try {
+                service.findAvailableRooms(roomTypes[roomNumber], LocalDate.ofEpochDay(checkIn),
+                        LocalDate.ofEpochDay(checkOut));
+            } catch (InvalidDateException e) {
+                throw new IllegalStateException("Searched an empty stay", e);
+            }
+            searches.increment();
+            record(searchLatency, System.nanoTime() - start);
+            return;
+        }
+
+        if (random.nextDouble() < config.getInvalidDateRatio()) {
+            int swapped = checkIn;
+            checkIn = checkOut;
+            checkOut = swapped;
+        }
+        int userId = 1 + random.nextInt(config.getUsers());
+        BookingResult result = service.tryBookRoom(userId, roomNumber, LocalDate.ofEpochDay(checkIn),
+                LocalDate.ofEpochDay(checkOut));
+        outcomes[result.getStatus().ordinal()].increment();
+        record(bookingLatency, System.nanoTime() - start);
+    }
+
+    private void record(LatencyHistogram histogram, long nanos) {
+        histogram.record(nanos);
+        latency.record(nanos);
+    }
+
+    private ExecutorService newExecutor(int clients) {
+        if (config.isVirtualThreads()) {
+            ExecutorService executor = VirtualThreads.newPerTaskExecutorOrNull();
+            if (executor != null) {
+                virtualThreads = true;
+                return executor;
+            }
+        }
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(clients, task -> {
+            Thread thread = new Thread(task, "hotel-simulation-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
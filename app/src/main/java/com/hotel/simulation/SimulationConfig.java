@@ -0,0 +1,358 @@
+package com.hotel.simulation;
+
+import com.hotel.util.EpochDays;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Shape of a simulated workload: the hotel to populate, how many clients drive it and how fast, and how requests
+ * pick rooms and dates. Configurations are immutable; each refinement returns a new configuration.
+ * <p>
+ * Each request books a room or, with probability {@link #searchRatio(double)}, searches for available rooms.
+ * Rooms are drawn from a Zipf distribution over a shuffled popularity order, check-in days from a Zipf
+ * distribution over the lead time from {@link #startDay(LocalDate)}, and stays last 1 to maxNights nights.
+ * A fraction of bookings is sent with check-out before check-in to exercise the rejection path.
+ */
+public final class SimulationConfig {
+
+    private int rooms = 1000;
+    private int users = 10_000;
+    private int balance = 50_000;
+    private int clients = 8;
+    private boolean virtualThreads;
+    private double rate;
+    private int requests = 100_000;
+    private int warmupRequests = 20_000;
+    private double roomSkew = 1.0;
+    private double leadTimeSkew = 0.5;
+    private int horizonDays = 365;
+    private int maxNights = 7;
+    private double searchRatio = 0.2;
+    private double invalidDateRatio = 0.01;
+    private int startDay = EpochDays.of(LocalDate.of(2026, 1, 1));
+    private long seed = 42;
+
+    private SimulationConfig() {
+    }
+
+    public static SimulationConfig defaults() {
+        return new SimulationConfig();
+    }
+
+    /**
+     * Parses {@code name=value} arguments, with an optional leading {@code --}, over the defaults; names are
+     * those of the refinement methods, e.g. {@code rooms=500 clients=64 virtualThreads=true roomSkew=1.2}.
+     *
+     * @throws IllegalArgumentException for unknown names and invalid values
+     */
+    public static SimulationConfig parse(String... arguments) {
+        SimulationConfig config = defaults();
+        for (String argument : arguments) {
+            String option = argument.startsWith("--") ? argument.substring(2) : argument;
+            int equals = option.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected name=value but got " + argument);
+            }
+            config = config.with(option.substring(0, equals), option.substring(equals + 1));
+        }
+        return config;
+    }
+
+    private SimulationConfig with(String name, String value) {
+        try {
+            switch (name) {
+                case "rooms":
+                    return rooms(Integer.parseInt(value));
+                case "users":
+                    return users(Integer.parseInt(value));
+                case "balance":
+                    return balance(Integer.parseInt(value));
+                case "clients":
+                    return clients(Integer.parseInt(value));
+                case "virtualThreads":
+                    return virtualThreads(Boolean.parseBoolean(value));
+                case "rate":
+                    return rate(Double.parseDouble(value));
+                case "requests":
+                    return requests(Integer.parseInt(value));
+                case "warmupRequests":
+                    return warmupRequests(Integer.parseInt(value));
+                case "roomSkew":
+                    return roomSkew(Double.parseDouble(value));
+                case "leadTimeSkew":
+                    return leadTimeSkew(Double.parseDouble(value));
+                case "horizonDays":
+                    return horizonDays(Integer.parseInt(value));
+                case "maxNights":
+                    return maxNights(Integer.parseInt(value));
+                case "searchRatio":
+                    return searchRatio(Double.parseDouble(value));
+                case "invalidDateRatio":
+                    return invalidDateRatio(Double.parseDouble(value));
+                case "startDay":
+                    return startDay(LocalDate.parse(value));
+                case "seed":
+                    return seed(Long.parseLong(value));
+                default:
+                    throw new IllegalArgumentException("Unknown simulation option " + name);
+            }
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+    }
+
+    private SimulationConfig copy() {
+        SimulationConfig copy = new SimulationConfig();
+        copy.rooms = rooms;
+        copy.users = users;
+        copy.balance = balance;
+        copy.clients = clients;
+        copy.virtualThreads = virtualThreads;
+        copy.rate = rate;
+        copy.requests = requests;
+        copy.warmupRequests = warmupRequests;
+        copy.roomSkew = roomSkew;
+        copy.leadTimeSkew = leadTimeSkew;
+        copy.horizonDays = horizonDays;
+        copy.maxNights = maxNights;
+        copy.searchRatio = searchRatio;
+        copy.invalidDateRatio = invalidDateRatio;
+        copy.startDay = startDay;
+        copy.seed = seed;
+        return copy;
+    }
+
+    public SimulationConfig rooms(int rooms) {
+        requirePositive(rooms, "Room count");
+        SimulationConfig copy = copy();
+        copy.rooms = rooms;
+        return copy;
+    }
+
+    public SimulationConfig users(int users) {
+        requirePositive(users, "User count");
+        SimulationConfig copy = copy();
+        copy.users = users;
+        return copy;
+    }
+
+    /**
+     * Starting balance of every user.
+     */
+    public SimulationConfig balance(int balance) {
+        if (balance < 0) {
+            throw new IllegalArgumentException("Balance cannot be negative");
+        }
+        SimulationConfig copy = copy();
+        copy.balance = balance;
+        return copy;
+    }
+
+    /**
+     * Number of clients sending requests concurrently, each waiting for its previous response.
+     */
+    public SimulationConfig clients(int clients) {
+        requirePositive(clients, "Client count");
+        SimulationConfig copy = copy();
+        copy.clients = clients;
+        return copy;
+    }
+
+    /**
+     * Runs each client on a virtual thread instead of a platform thread, where the JDK has them.
+     */
+    public SimulationConfig virtualThreads(boolean virtualThreads) {
+        SimulationConfig copy = copy();
+        copy.virtualThreads = virtualThreads;
+        return copy;
+    }
+
+    /**
+     * Target requests per second across all clients, or 0 to send as fast as the service answers.
+     * With a target rate, latency is measured from when a request was due, so a stalled service is charged
+     * for the requests queued behind it.
+     */
+    public SimulationConfig rate(double rate) {
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Rate must be a non-negative number");
+        }
+        SimulationConfig copy = copy();
+        copy.rate = rate;
+        return copy;
+    }
+
+    public SimulationConfig requests(int requests) {
+        requirePositive(requests, "Request count");
+        SimulationConfig copy = copy();
+        copy.requests = requests;
+        return copy;
+    }
+
+    /**
+     * Requests sent before measuring, to warm up the JIT and fill the calendars.
+     */
+    public SimulationConfig warmupRequests(int warmupRequests) {
+        if (warmupRequests < 0) {
+            throw new IllegalArgumentException("Warmup request count cannot be negative");
+        }
+        SimulationConfig copy = copy();
+        copy.warmupRequests = warmupRequests;
+        return copy;
+    }
+
+    /**
+     * Zipf exponent of room popularity; 0 spreads requests evenly.
+     */
+    public SimulationConfig roomSkew(double roomSkew) {
+        requireExponent(roomSkew);
+        SimulationConfig copy = copy();
+        copy.roomSkew = roomSkew;
+        return copy;
+    }
+
+    /**
+     * Zipf exponent of the lead time; 0 spreads check-ins evenly over the horizon.
+     */
+    public SimulationConfig leadTimeSkew(double leadTimeSkew) {
+        requireExponent(leadTimeSkew);
+        SimulationConfig copy = copy();
+        copy.leadTimeSkew = leadTimeSkew;
+        return copy;
+    }
+
+    /**
+     * Check-ins fall within this many days of the start day.
+     */
+    public SimulationConfig horizonDays(int horizonDays) {
+        requirePositive(horizonDays, "Horizon");
+        SimulationConfig copy = copy();
+        copy.horizonDays = horizonDays;
+        return copy;
+    }
+
+    public SimulationConfig maxNights(int maxNights) {
+        requirePositive(maxNights, "Maximum stay");
+        SimulationConfig copy = copy();
+        copy.maxNights = maxNights;
+        return copy;
+    }
+
+    public SimulationConfig searchRatio(double searchRatio) {
+        requireRatio(searchRatio);
+        SimulationConfig copy = copy();
+        copy.searchRatio = searchRatio;
+        return copy;
+    }
+
+    public SimulationConfig invalidDateRatio(double invalidDateRatio) {
+        requireRatio(invalidDateRatio);
+        SimulationConfig copy = copy();
+        copy.invalidDateRatio = invalidDateRatio;
+        return copy;
+    }
+
+    public SimulationConfig startDay(LocalDate startDay) {
+        if (startDay == null) {
+            throw new IllegalArgumentException("Start day cannot be null");
+        }
+        SimulationConfig copy = copy();
+        copy.startDay = EpochDays.of(startDay);
+        return copy;
+    }
+
+    /**
+     * Seed of the hotel and of every client's request sequence; outcomes still depend on how clients interleave.
+     */
+    public SimulationConfig seed(long seed) {
+        SimulationConfig copy = copy();
+        copy.seed = seed;
+        return copy;
+    }
+
+    private static void requirePositive(int value, String what) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(what + " must be positive");
+        }
+    }
+
+    private static void requireExponent(double exponent) {
+        if (!(exponent >= 0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException("Skew must be a non-negative number");
+        }
+    }
+
+    private static void requireRatio(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1");
+        }
+    }
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getBalance() {
+        return balance;
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getWarmupRequests() {
+        return warmupRequests;
+    }
+
+    public double getRoomSkew() {
+        return roomSkew;
+    }
+
+    public double getLeadTimeSkew() {
+        return leadTimeSkew;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    public int getMaxNights() {
+        return maxNights;
+    }
+
+    public double getSearchRatio() {
+        return searchRatio;
+    }
+
+    public double getInvalidDateRatio() {
+        return invalidDateRatio;
+    }
+
+    public LocalDate getStartDay() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    int getStartEpochDay() {
+        return startDay;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,211 @@
+package com.hotel.simulation;
+
+import com.hotel.metrics.LatencyHistogram;
+import com.hotel.service.BookingResult;
+
+import java.util.Locale;
+
+/**
+ * Results of a measured simulation run: throughput, latency percentiles and the outcome of every booking attempt.
+ * {@link #toJson()} renders the run, configuration included, as one JSON line with a fixed key order and number
+ * format, so runs can be appended to a file and compared over time.
+ */
+public final class SimulationReport {
+
+    /**
+     * Latency summary in nanoseconds.
+     */
+    public static final class Latency {
+        private final double mean;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Latency(LatencyHistogram histogram) {
+            this.mean = histogram.getMean();
+            this.p50 = histogram.getValueAtPercentile(50);
+            this.p99 = histogram.getValueAtPercentile(99);
+            this.p999 = histogram.getValueAtPercentile(99.9);
+            this.max = histogram.getMax();
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        private void appendJson(StringBuilder json) {
+            json.append("{\"mean\":").append(micros(mean))
+                    .append(",\"p50\":").append(micros(p50))
+                    .append(",\"p99\":").append(micros(p99))
+                    .append(",\"p999\":").append(micros(p999))
+                    .append(",\"max\":").append(micros(max))
+                    .append('}');
+        }
+    }
+
+    private static final BookingResult.Status[] STATUSES = BookingResult.Status.values();
+
+    private final SimulationConfig config;
+    private final boolean virtualThreads;
+    private final long elapsedNanos;
+    private final long[] outcomes;
+    private final long searches;
+    private final Latency latency;
+    private final Latency bookingLatency;
+    private final Latency searchLatency;
+
+    SimulationReport(SimulationConfig config, boolean virtualThreads, long elapsedNanos, long[] outcomes,
+            long searches, LatencyHistogram latency, LatencyHistogram bookingLatency,
+            LatencyHistogram searchLatency) {
+        this.config = config;
+        this.virtualThreads = virtualThreads;
+        this.elapsedNanos = elapsedNanos;
+        this.outcomes = outcomes.clone();
+        this.searches = searches;
+        this.latency = new Latency(latency);
+        this.bookingLatency = new Latency(bookingLatency);
+        this.searchLatency = new Latency(searchLatency);
+    }
+
+    public SimulationConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Whether clients ran on virtual threads, which may be false although requested on a JDK without them.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getRequests() {
+        return getBookingAttempts() + searches;
+    }
+
+    /**
+     * Requests per second.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getRequests() * 1e9 / elapsedNanos;
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    public long getBookingAttempts() {
+        long attempts = 0;
+        for (long count : outcomes) {
+            attempts += count;
+        }
+        return attempts;
+    }
+
+    public long getCount(BookingResult.Status status) {
+        return outcomes[status.ordinal()];
+    }
+
+    /**
+     * Share of booking attempts that ended with the status, between 0 and 1.
+     */
+    public double getRatio(BookingResult.Status status) {
+        long attempts = getBookingAttempts();
+        return attempts == 0 ? 0 : (double) getCount(status) / attempts;
+    }
+
+    /**
+     * Latency of all requests.
+     */
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public Latency getBookingLatency() {
+        return bookingLatency;
+    }
+
+    public Latency getSearchLatency() {
+        return searchLatency;
+    }
+
+    /**
+     * One line of JSON; latencies in microseconds, ratios over booking attempts.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"config\":{\"rooms\":").append(config.getRooms())
+                .append(",\"users\":").append(config.getUsers())
+                .append(",\"balance\":").append(config.getBalance())
+                .append(",\"clients\":").append(config.getClients())
+                .append(",\"virtualThreads\":").append(config.isVirtualThreads())
+                .append(",\"rate\":").append(decimal(config.getRate(), 1))
+                .append(",\"requests\":").append(config.getRequests())
+                .append(",\"warmupRequests\":").append(config.getWarmupRequests())
+                .append(",\"roomSkew\":").append(decimal(config.getRoomSkew(), 3))
+                .append(",\"leadTimeSkew\":").append(decimal(config.getLeadTimeSkew(), 3))
+                .append(",\"horizonDays\":").append(config.getHorizonDays())
+                .append(",\"maxNights\":").append(config.getMaxNights())
+                .append(",\"searchRatio\":").append(decimal(config.getSearchRatio(), 3))
+                .append(",\"invalidDateRatio\":").append(decimal(config.getInvalidDateRatio(), 3))
+                .append(",\"startDay\":\"").append(config.getStartDay()).append('"')
+                .append(",\"seed\":").append(config.getSeed())
+                .append("},\"threads\":\"").append(virtualThreads ? "virtual" : "platform").append('"')
+                .append(",\"cpus\":").append(Runtime.getRuntime().availableProcessors())
+                .append(",\"java\":\"").append(System.getProperty("java.version")).append('"')
+                .append(",\"elapsedMs\":").append(decimal(elapsedNanos / 1e6, 1))
+                .append(",\"throughput\":").append(decimal(getThroughput(), 1))
+                .append(",\"latencyMicros\":{\"all\":");
+        latency.appendJson(json);
+        json.append(",\"booking\":");
+        bookingLatency.appendJson(json);
+        json.append(",\"search\":");
+        searchLatency.appendJson(json);
+        json.append("},\"searches\":").append(searches)
+                .append(",\"bookingAttempts\":").append(getBookingAttempts())
+                .append(",\"outcomes\":{");
+        for (BookingResult.Status status : STATUSES) {
+            json.append(status.ordinal() == 0 ? "" : ",").append('"').append(status).append("\":")
+                    .append(getCount(status));
+        }
+        json.append("},\"ratios\":{");
+        for (BookingResult.Status status : STATUSES) {
+            json.append(status.ordinal() == 0 ? "" : ",").append('"').append(status).append("\":")
+                    .append(decimal(getRatio(status), 5));
+        }
+        return json.append("}}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    private static String micros(double nanos) {
+        return decimal(nanos / 1e3, 1);
+    }
+
+    private static String decimal(double value, int places) {
+        return String.format(Locale.ROOT, "%." + places + "f", value);
+    }
+}
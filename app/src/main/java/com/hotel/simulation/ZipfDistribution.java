@@ -0,0 +1,61 @@
+package com.hotel.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Zipf distribution over the ranks 0 to n - 1: rank k is drawn with probability proportional to
+ * 1 / (k + 1)^exponent, so rank 0 is the hottest. Exponent 0 is uniform; around 1 a few ranks take most draws.
+ * Sampling is a binary search in the precomputed cumulative distribution.
+ */
+public final class ZipfDistribution {
+
+    private final double exponent;
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        if (exponent < 0 || Double.isNaN(exponent) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException("Zipf exponent must be a non-negative number");
+        }
+        this.exponent = exponent;
+        this.cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += Math.pow(k + 1, -exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+        cumulative[n - 1] = 1.0;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public double getExponent() {
+        return exponent;
+    }
+
+    /**
+     * Probability of drawing the rank.
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+
+    /**
+     * The rank for a uniform random number in [0, 1).
+     */
+    public int sample(double uniform) {
+        if (uniform < 0 || uniform >= 1) {
+            throw new IllegalArgumentException("Uniform sample must be in [0, 1)");
+        }
+        int index = Arrays.binarySearch(cumulative, uniform);
+        // An exact hit on a boundary belongs to the next rank, since each rank owns [previous, cumulative).
+        return index >= 0 ? Math.min(index + 1, cumulative.length - 1) : -index - 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotel.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Conversions between dates and epoch days (days since 1970-01-01) in the system time zone.
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    public static int of(Date date) {
+        return of(date.getTime());
+    }
+
+    public static int of(long epochMillis) {
+        return (int) Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    public static int of(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    public static Date toDate(int epochDay) {
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,137 @@
+package com.hotel.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive ints to non-negative ints, with no boxing and no per-entry objects.
+ * Keys and values sit side by side in flat arrays; a value slot holds value + 1, so 0 marks an empty slot.
+ * Not thread-safe.
+ */
+public class IntIntMap {
+
+    public static final int ABSENT = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        int tableSize = tableSizeFor(Math.max(4, expectedSize));
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return values[slotOf(key)] != 0;
+    }
+
+    /**
+     * @return the value of the key, or {@link #ABSENT}
+     */
+    public int get(int key) {
+        return values[slotOf(key)] - 1;
+    }
+
+    /**
+     * @return the previous value, or {@link #ABSENT}
+     */
+    public int put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values cannot be negative");
+        }
+
+        int slot = slotOf(key);
+        int previous = values[slot] - 1;
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (previous == ABSENT && ++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return previous;
+    }
+
+    /**
+     * @return the removed value, or {@link #ABSENT}
+     */
+    public int remove(int key) {
+        int slot = slotOf(key);
+        int previous = values[slot] - 1;
+        if (previous != ABSENT) {
+            deleteSlot(slot);
+            size--;
+        }
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    // Returns the slot holding the key, or the empty slot where it would be inserted.
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Backward-shift deletion keeps linear probe chains intact without tombstones.
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = 0;
+    }
+
+    private void rehash(int tableSize) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        mask = tableSize - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        return Math.max(8, tableSize);
+    }
+}
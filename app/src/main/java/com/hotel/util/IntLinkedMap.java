@@ -0,0 +1,269 @@
+package com.hotel.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map keyed by primitive ints that remembers insertion order.
+ * Replacing the value of an existing key keeps its position; removing and re-adding a key moves it to the end.
+ * Every insertion gets a stamp that increases with insertion order, which lets iteration resume from a position.
+ * Not thread-safe.
+ */
+public class IntLinkedMap<V> {
+
+    public interface EntryVisitor<V> {
+        /**
+         * @return false to stop the iteration
+         */
+        boolean visit(long stamp, V value);
+    }
+
+    private static final int NONE = -1;
+
+    // Hash slots hold entry index + 1, so 0 marks an empty slot.
+    private int[] slots;
+    private int mask;
+
+    private int[] keys;
+    private Object[] values;
+    private int[] before;
+    private int[] after;
+    private long[] stamps;
+
+    private int head = NONE;
+    private int tail = NONE;
+    private int freeList = NONE;
+    private int used;
+    private int size;
+    private long nextStamp = 1;
+
+    public IntLinkedMap() {
+        this(16);
+    }
+
+    public IntLinkedMap(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        slots = new int[tableSizeFor(capacity)];
+        mask = slots.length - 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        before = new int[capacity];
+        after = new int[capacity];
+        stamps = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) != NONE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+        return index == NONE ? null : (V) values[index];
+    }
+
+    /**
+     * Stores the value, keeping the key's position if it is already present.
+     *
+     * @return the previous value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int slot = slotOf(key);
+        int index = slots[slot] - 1;
+        if (index != NONE) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        index = allocateEntry();
+        keys[index] = key;
+        values[index] = value;
+        linkLast(index);
+        slots[slot] = index + 1;
+        size++;
+
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = slotOf(key);
+        int index = slots[slot] - 1;
+        if (index == NONE) {
+            return null;
+        }
+
+        V previous = (V) values[index];
+        deleteSlot(slot);
+        unlink(index);
+        values[index] = null;
+        after[index] = freeList;
+        freeList = index;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        Arrays.fill(values, null);
+        head = NONE;
+        tail = NONE;
+        freeList = NONE;
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Visits values from the oldest to the newest insertion.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        for (int index = head; index != NONE; index = after[index]) {
+            action.accept((V) values[index]);
+        }
+    }
+
+    /**
+     * Visits values from the newest to the oldest insertion.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachNewestFirst(Consumer<? super V> action) {
+        for (int index = tail; index != NONE; index = before[index]) {
+            action.accept((V) values[index]);
+        }
+    }
+
+    /**
+     * Visits values from the newest to the oldest insertion, starting with the newest one stamped before
+     * {@code beforeStamp}, until the visitor returns false.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachNewestFirst(long beforeStamp, EntryVisitor<? super V> visitor) {
+        int index = tail;
+        while (index != NONE && stamps[index] >= beforeStamp) {
+            index = before[index];
+        }
+        for (; index != NONE; index = before[index]) {
+            if (!visitor.visit(stamps[index], (V) values[index])) {
+                return;
+            }
+        }
+    }
+
+    public ArrayList<V> values() {
+        ArrayList<V> result = new ArrayList<>(size);
+        forEach(result::add);
+        return result;
+    }
+
+    private int indexOf(int key) {
+        return slots[slotOf(key)] - 1;
+    }
+
+    // Returns the slot holding the key, or the empty slot where it would be inserted.
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0 || keys[entry - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Backward-shift deletion keeps linear probe chains intact without tombstones.
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (slots[next] != 0) {
+            int home = hash(keys[slots[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[gap] = 0;
+    }
+
+    private int allocateEntry() {
+        if (freeList != NONE) {
+            int index = freeList;
+            freeList = after[index];
+            return index;
+        }
+        if (used == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            before = Arrays.copyOf(before, capacity);
+            after = Arrays.copyOf(after, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+        }
+        return used++;
+    }
+
+    private void linkLast(int index) {
+        stamps[index] = nextStamp++;
+        before[index] = tail;
+        after[index] = NONE;
+        if (tail == NONE) {
+            head = index;
+        } else {
+            after[tail] = index;
+        }
+        tail = index;
+    }
+
+    private void unlink(int index) {
+        int previous = before[index];
+        int next = after[index];
+        if (previous == NONE) {
+            head = next;
+        } else {
+            after[previous] = next;
+        }
+        if (next == NONE) {
+            tail = previous;
+        } else {
+            before[next] = previous;
+        }
+    }
+
+    private void rehash(int tableSize) {
+        slots = new int[tableSize];
+        mask = tableSize - 1;
+        for (int index = head; index != NONE; index = after[index]) {
+            int slot = hash(keys[index]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        return Math.max(8, tableSize);
+    }
+}
@@ -0,0 +1,124 @@
+package com.hotel.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue over a power-of-two array, for one producer and one consumer at a time. The producer may
+ * also evict the oldest element to make room, racing the consumer for it: both claim elements by moving the head
+ * with a compare-and-set, and the consumer only keeps what it read if its claim wins, since a slot the producer
+ * evicts is written again straight away.
+ * <p>
+ * Producers on different threads, and consumers on different threads, must hand over through a lock or another
+ * happens-before edge. Drained slots are not cleared, so up to a capacity's worth of old elements stay reachable.
+ */
+public final class RingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    // Index of the oldest element; only ever increases.
+    private final AtomicLong head = new AtomicLong();
+    // Index the next element goes to; written by the producer alone.
+    private final AtomicLong tail = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * The capacity, the requested one rounded up to a power of two.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        // Read head first, so a drain between the reads can only make the size look larger, never negative.
+        long oldest = head.get();
+        return (int) Math.min(tail.get() - oldest, capacity());
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Appends the element unless the buffer is full. Producer only.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        long next = tail.get();
+        if (next - head.get() > mask) {
+            return false;
+        }
+        slots.lazySet((int) next & mask, element);
+        // A volatile write, so a consumer that reads tail after deciding to sleep sees the element.
+        tail.set(next + 1);
+        return true;
+    }
+
+    /**
+     * Appends the element, evicting the oldest one if the buffer is full. Producer only.
+     *
+     * @return the evicted element, or null if there was room
+     */
+    public E offerEvicting(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        long next = tail.get();
+        E evicted = null;
+        while (true) {
+            long oldest = head.get();
+            if (next - oldest <= mask) {
+                break;
+            }
+            E candidate = slots.get((int) oldest & mask);
+            if (head.compareAndSet(oldest, oldest + 1)) {
+                evicted = candidate;
+                break;
+            }
+        }
+        slots.lazySet((int) next & mask, element);
+        tail.set(next + 1);
+        return evicted;
+    }
+
+    /**
+     * Moves up to {@code max} of the oldest elements, in order, to the end of the list. Consumer only.
+     *
+     * @return the number of elements moved
+     */
+    public int drainTo(List<? super E> target, int max) {
+        if (max <= 0) {
+            throw new IllegalArgumentException("Max must be positive");
+        }
+        while (true) {
+            long oldest = head.get();
+            int count = (int) Math.min(tail.get() - oldest, max);
+            if (count <= 0) {
+                return 0;
+            }
+            int before = target.size();
+            for (int i = 0; i < count; i++) {
+                target.add(slots.get((int) (oldest + i) & mask));
+            }
+            if (head.compareAndSet(oldest, oldest + count)) {
+                return count;
+            }
+            // The producer evicted some of them meanwhile; read again from the new head.
+            target.subList(before, target.size()).clear();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.hotel.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: scheduling and cancelling a timer are constant time, however many are pending, and
+ * advancing the clock visits only the slots that come due. Time is cut into ticks; four levels of 64 slots cover
+ * 64 ticks, 64^2 ticks and so on. A timer sits on the lowest level whose slot it shares all higher digits with, and
+ * is moved down a level, again in constant time, when the clock reaches its slot. Deadlines beyond the top level
+ * go around it until they are in range. Timers never fire before their deadline and at most one tick after it, as
+ * seen by {@link #advance}. Not thread-safe.
+ */
+public final class TimerWheel<T> {
+
+    /**
+     * A scheduled timer; a node of its slot's list.
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timer<T> previous;
+        private Timer<T> next;
+        private int slot = NONE;
+
+        private Timer(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isPending() {
+            return slot != NONE;
+        }
+    }
+
+    private static final int NONE = -1;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Timer<T>[] slots;
+    private final int[] levelSizes = new int[LEVELS];
+    // Every tick up to and including this one has been processed.
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = (Timer<T>[]) new Timer[LEVELS * SLOTS];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Schedules the value to come due at the deadline; a deadline already passed comes due on the next tick.
+     */
+    public Timer<T> schedule(T value, long deadlineMillis) {
+        long deadlineTick = -Math.floorDiv(-deadlineMillis, tickMillis);
+        Timer<T> timer = new Timer<>(value, Math.max(deadlineTick, currentTick + 1));
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * @return false if the timer already came due or was cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.slot == NONE) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to the given time, handing every value that comes due to the consumer in deadline
+     * order, tick by tick. Stretches of ticks with nothing on the lower levels are skipped.
+     *
+     * @return the number of values that came due
+     */
+    public int advance(long nowMillis, Consumer<? super T> due) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        int count = 0;
+        while (currentTick < nowTick) {
+            if (size == 0) {
+                currentTick = nowTick;
+                break;
+            }
+            // With levels below l empty, nothing happens until the next tick that is a multiple of 64^l.
+            long quiet = currentTick;
+            for (int level = 0; level < LEVELS && levelSizes[level] == 0; level++) {
+                quiet = currentTick | ((1L << (SLOT_BITS * (level + 1))) - 1);
+            }
+            if (quiet > currentTick) {
+                currentTick = Math.min(quiet, nowTick);
+                continue;
+            }
+
+            long tick = ++currentTick;
+            int levels = 1;
+            while (levels < LEVELS && (tick & ((1L << (SLOT_BITS * levels)) - 1)) == 0) {
+                levels++;
+            }
+            // Higher levels first, since their timers may land in the lower slots cascaded next.
+            for (int level = levels - 1; level > 0; level--) {
+                for (Timer<T> timer = detach(level, digit(tick, level)); timer != null; ) {
+                    Timer<T> next = timer.next;
+                    insert(timer);
+                    timer = next;
+                }
+            }
+            for (Timer<T> timer = detach(0, digit(tick, 0)); timer != null; ) {
+                Timer<T> next = timer.next;
+                timer.next = null;
+                size--;
+                count++;
+                due.accept(timer.value);
+                timer = next;
+            }
+        }
+        return count;
+    }
+
+    private void insert(Timer<T> timer) {
+        int level = 0;
+        while (level < LEVELS - 1 && timer.deadlineTick >>> (SLOT_BITS * (level + 1))
+                != currentTick >>> (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = level * SLOTS + digit(timer.deadlineTick, level);
+        Timer<T> head = slots[slot];
+        timer.previous = null;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        slots[slot] = timer;
+        timer.slot = slot;
+        levelSizes[level]++;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        levelSizes[timer.slot / SLOTS]--;
+        timer.previous = null;
+        timer.next = null;
+        timer.slot = NONE;
+    }
+
+    // Empties the slot and returns its timers as a list linked through next, no longer pending.
+    private Timer<T> detach(int level, int digit) {
+        int slot = level * SLOTS + digit;
+        Timer<T> head = slots[slot];
+        slots[slot] = null;
+        for (Timer<T> timer = head; timer != null; timer = timer.next) {
+            timer.slot = NONE;
+            timer.previous = null;
+            levelSizes[level]--;
+        }
+        return head;
+    }
+
+    private static int digit(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+    }
+}
@@ -0,0 +1,122 @@
+package com.hotel.analytics;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+public class OccupancyAnalyticsTest extends TestCase {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 7, 1);
+
+    public void testRatesPerTypeAndNight() throws Exception {
+        Service service = new Service();
+        service.setRoom(1, RoomType.JUNIOR_SUITE, 1000);
+        service.setRoom(2, RoomType.JUNIOR_SUITE, 3000);
+        service.setRoom(3, RoomType.MASTER_SUITE, 5000);
+        service.setUser(1, 1_000_000);
+
+        try (OccupancyAnalytics analytics = OccupancyAnalytics.attach(service)) {
+            service.bookRoom(1, 1, DAY, DAY.plusDays(2));
+            service.bookRoom(1, 2, DAY.plusDays(1), DAY.plusDays(3));
+
+            OccupancyStats first = analytics.getDay(RoomType.JUNIOR_SUITE, DAY);
+            assertEquals(0.5, first.getOccupancyRate());
+            assertEquals(1000.0, first.getAverageDailyRate());
+
+            OccupancyStats second = analytics.getDay(RoomType.JUNIOR_SUITE, DAY.plusDays(1));
+            assertEquals(1.0, second.getOccupancyRate());
+            assertEquals(2000.0, second.getAverageDailyRate());
+            assertEquals(4000, second.getRevenue());
+
+            OccupancyReport report = analytics.report(DAY, DAY.plusDays(4));
+            OccupancyStats total = report.getTotal(RoomType.JUNIOR_SUITE);
+            assertEquals(8, total.getRoomNightsAvailable());
+            assertEquals(4, total.getRoomNightsSold());
+            assertEquals(8000, total.getRevenue());
+            assertEquals(1000.0, total.getRevenuePerAvailableRoom());
+            assertEquals(0, report.getTotal(RoomType.MASTER_SUITE).getRoomNightsSold());
+            assertEquals(4, report.getDays(RoomType.JUNIOR_SUITE).size());
+
+            service.setRoom(3, RoomType.JUNIOR_SUITE, 5000);
+            assertEquals(3, analytics.report(DAY, DAY.plusDays(1)).getRoomCount(RoomType.JUNIOR_SUITE));
+            assertEquals(analytics.report(DAY, DAY.plusDays(4)),
+                    OccupancyAnalytics.compute(service.snapshot(), DAY, DAY.plusDays(4)));
+        }
+    }
+
+    public void testRollupsMatchParallelRecompute() throws Exception {
+        int rooms = 100;
+        Random random = new Random(7);
+        Service service = new Service();
+        for (int room = 1; room <= rooms; room++) {
+            service.setRoom(room, RoomType.values()[room % RoomType.values().length], 100 + room);
+        }
+        for (int user = 1; user <= 20; user++) {
+            service.setUser(user, Integer.MAX_VALUE / 2);
+        }
+
+        // Restored bookings predate the analytics and must come from the seeding scan.
+        int firstDay = (int) DAY.toEpochDay();
+        int bookingId = 1;
+        for (Room booked : service.getRooms()) {
+            for (int day = firstDay - 400; day < firstDay; day += 1 + random.nextInt(3)) {
+                service.restoreBooking(new Booking(bookingId++, 1, booked.getRoomNumber(), booked.getRoomType(),
+                        booked.getPricePerNight(), 0, day, day + 1, 0L));
+            }
+        }
+        assertTrue(service.getBookingCount() > RollupTask.SEQUENTIAL_ROWS);
+
+        try (OccupancyAnalytics analytics = OccupancyAnalytics.attach(service)) {
+            for (int i = 0; i < 5000; i++) {
+                if (i % 500 == 0) {
+                    int room = 1 + random.nextInt(rooms);
+                    service.setRoom(room, RoomType.values()[random.nextInt(3)], 50 + random.nextInt(500));
+                }
+                LocalDate checkIn = DAY.plusDays(random.nextInt(200) - 30);
+                BookingResult result = service.tryBookRoom(1 + random.nextInt(20), 1 + random.nextInt(rooms),
+                        checkIn, checkIn.plusDays(1 + random.nextInt(5)));
+                // Cancel some new bookings and some restored ones; restored ones were in the seeding scan.
+                if (result.isBooked() && random.nextInt(4) == 0) {
+                    service.cancelBooking(result.getBookingId());
+                }
+                int restored = 1 + random.nextInt(bookingId - 1);
+                if (i % 10 == 0 && service.findBooking(restored) != null) {
+                    service.cancelBooking(restored);
+                }
+            }
+
+            LocalDate from = DAY.minusDays(450);
+            LocalDate to = DAY.plusDays(200);
+            OccupancyReport rollups = analytics.report(from, to);
+            OccupancyReport recomputed = OccupancyAnalytics.compute(service.snapshot(), from, to);
+            assertEquals(recomputed, rollups);
+
+            LocalDate middle = DAY.plusDays(3);
+            for (RoomType roomType : RoomType.values()) {
+                assertEquals(recomputed.getDay(roomType, middle), analytics.getDay(roomType, middle));
+                List<OccupancyStats> days = rollups.getDays(roomType);
+                long sold = 0;
+                for (OccupancyStats day : days) {
+                    sold += day.getRoomNightsSold();
+                }
+                assertEquals(recomputed.getTotal(roomType).getRoomNightsSold(), sold);
+            }
+        }
+    }
+
+    public void testEmptyRangeIsRejected() {
+        Service service = new Service();
+        try {
+            OccupancyAnalytics.compute(service.snapshot(), DAY, DAY);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
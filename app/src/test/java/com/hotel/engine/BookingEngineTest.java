@@ -0,0 +1,169 @@
+package com.hotel.engine;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.RoomType;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.exception.UserNotFoundException;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class BookingEngineTest extends TestCase {
+
+    public void testFailedCommandCompletesFutureExceptionally() throws Exception {
+        BookingEngine engine = new BookingEngine(new Service());
+        engine.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+
+        CompletableFuture<Void> booking = engine.bookRoom(7, 1, date(2026, 7, 1), date(2026, 7, 2));
+        try {
+            booking.get(10, TimeUnit.SECONDS);
+            fail("Expected UserNotFoundException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof UserNotFoundException);
+        }
+        engine.close();
+    }
+
+    public void testThrowingCommandLogFailsOnlyThatCommand() throws Exception {
+        Service service = new Service();
+        BookingEngine engine = new BookingEngine(service, 4, (sequence, command) -> {
+            if (sequence == 1) {
+                throw new IllegalStateException("log full");
+            }
+            if (sequence == 2) {
+                throw new AssertionError("log broken");
+            }
+        });
+
+        engine.setRoom(1, RoomType.STANDARD_SUITE, 1000).get(10, TimeUnit.SECONDS);
+        List<CompletableFuture<Void>> failed = new ArrayList<>();
+        failed.add(engine.setUser(1, 500));
+        failed.add(engine.setUser(2, 500));
+        for (CompletableFuture<Void> future : failed) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail("Expected ExecutionException");
+            } catch (ExecutionException expected) {
+            }
+        }
+        // More commands than the buffer holds still go through, so the writer survived both.
+        for (int user = 3; user <= 10; user++) {
+            engine.setUser(user, 500).get(10, TimeUnit.SECONDS);
+        }
+        engine.close();
+
+        assertEquals(11, engine.getAppliedCount());
+        assertEquals(8, service.getUserCount());
+    }
+
+    public void testConcurrentProducersAreAppliedInSequenceAndReplayable() throws Exception {
+        Service service = new Service();
+        List<Long> sequences = new ArrayList<>();
+        List<Command> log = new ArrayList<>();
+        // A small buffer forces producers to wrap around and wait for the writer.
+        BookingEngine engine = new BookingEngine(service, 64, (sequence, command) -> {
+            sequences.add(sequence);
+            log.add(command);
+        });
+        for (int room = 1; room <= 10; room++) {
+            engine.setRoom(room, RoomType.JUNIOR_SUITE, 100 * room);
+        }
+        for (int user = 1; user <= 5; user++) {
+            engine.setUser(user, 50000);
+        }
+
+        List<Thread> producers = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    int day = 1 + random.nextInt(60);
+                    CompletableFuture<Void> future = engine.bookRoom(1 + random.nextInt(5), 1 + random.nextInt(10),
+                            date(2026, 1, day), date(2026, 1, day + 1 + random.nextInt(3)));
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        engine.close();
+
+        assertEquals(8015, engine.getAppliedCount());
+        assertEquals(8015, log.size());
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(i, sequences.get(i).longValue());
+        }
+        for (CompletableFuture<Void> future : futures) {
+            assertTrue(future.isDone());
+        }
+
+        // Rebuild each command from its contents alone, as a replay from a persisted log would.
+        Service replayed = new Service();
+        for (Command command : log) {
+            try {
+                rebuild(command).applyTo(replayed);
+            } catch (HotelReservationException expected) {
+            }
+        }
+        assertSameBookings(service.getBookings(), replayed.getBookings());
+    }
+
+    public void testCommandExposesItsContents() {
+        Date checkIn = date(2026, 3, 1);
+        Command booking = Command.bookRoom(7, 3, checkIn, date(2026, 3, 4));
+        checkIn.setTime(0);
+        booking.getCheckOut().setTime(0);
+
+        assertEquals(Command.Type.BOOK_ROOM, booking.getType());
+        assertEquals(7, booking.getUserId());
+        assertEquals(3, booking.getRoomNumber());
+        assertEquals(date(2026, 3, 1), booking.getCheckIn());
+        assertEquals(date(2026, 3, 4), booking.getCheckOut());
+
+        Command room = Command.setRoom(3, RoomType.MASTER_SUITE, 2500);
+        assertEquals(RoomType.MASTER_SUITE, room.getRoomType());
+        assertEquals(2500, room.getAmount());
+        assertEquals(900, Command.setUser(7, 900).getAmount());
+    }
+
+    private static Command rebuild(Command command) {
+        switch (command.getType()) {
+            case SET_ROOM:
+                return Command.setRoom(command.getRoomNumber(), command.getRoomType(), command.getAmount());
+            case SET_USER:
+                return Command.setUser(command.getUserId(), command.getAmount());
+            default:
+                return Command.bookRoom(command.getUserId(), command.getRoomNumber(), command.getCheckIn(),
+                        command.getCheckOut());
+        }
+    }
+
+    private void assertSameBookings(List<Booking> expected, List<Booking> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            assertEquals(expected.get(i).getCheckInDate(), actual.get(i).getCheckInDate());
+        }
+    }
+
+    private static Date date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(year, month - 1, day, 0, 0, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,112 @@
+package com.hotel.entities;
+
+import junit.framework.TestCase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.Date;
+
+public class BookingStoreTest extends TestCase {
+
+    private static final int BOOKINGS = 100_000;
+    private static final int HEAP_BOOKINGS = 1_000_000;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    public void testViewReadsBackAppendedRow() {
+        BookingStore store = new BookingStore(1);
+        store.append(1, 2, 3, RoomType.MASTER_SUITE, 3000, 9000, 10, 12, 5 * DAY);
+        store.append(2, 4, 5, RoomType.JUNIOR_SUITE, 2000, 7000, 20, 21, 6 * DAY);
+
+        Booking booking = store.get(1);
+        assertEquals(2, booking.getBookingId());
+        assertEquals(4, booking.getUserId());
+        assertEquals(5, booking.getRoomNumber());
+        assertEquals(RoomType.JUNIOR_SUITE, booking.getBookedRoomType());
+        assertEquals(2000, booking.getTotalPrice());
+        assertEquals(7000, booking.getUserBalanceAtBooking());
+        assertEquals(LocalDate.ofEpochDay(20), booking.getCheckIn());
+        assertEquals(1, booking.getNumberOfNights());
+        assertEquals(new Date(6 * DAY), booking.getBookingDate());
+        assertEquals(store.get(1), booking);
+    }
+
+    public void testTombstonesAndCopiesKeepSequences() {
+        BookingStore store = new BookingStore(2);
+        for (int i = 0; i < 5; i++) {
+            store.append(i + 1, 1, 1, RoomType.STANDARD_SUITE, 100, 1000, 10 * i, 10 * i + 1, DAY);
+        }
+        assertEquals(1, store.cancel(1));
+        assertEquals(2, store.cancel(3));
+        assertEquals(3, store.liveCount());
+        assertTrue(store.isCancelled(3));
+        assertTrue(store.isLiveAfter(3, 1));
+        assertFalse(store.isLiveAfter(3, 2));
+        try {
+            store.cancel(3);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        BookingStore compacted = new BookingStore(store.getCatalog(), 1);
+        for (int row = 0; row < store.size(); row++) {
+            if (!store.isCancelled(row)) {
+                compacted.appendCopy(store, row);
+            }
+        }
+        int appended = compacted.append(6, 1, 1, RoomType.STANDARD_SUITE, 100, 1000, 60, 61, DAY);
+        assertEquals(4, compacted.size());
+        assertEquals(0, compacted.cancelledCount());
+        assertEquals(5, compacted.getBookingId(2));
+        assertEquals(4, compacted.getSequence(2));
+        assertEquals(5, compacted.getSequence(appended));
+        assertEquals(1, compacted.lastRowBefore(4, compacted.size()));
+        assertEquals(2, compacted.lastRowBefore(5, compacted.size()));
+        assertEquals(-1, compacted.lastRowBefore(0, compacted.size()));
+        try {
+            compacted.appendCopy(store, 0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new BookingStore(1).appendCopy(store, 4);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testColumnFootprintPerBooking() {
+        BookingStore store = new BookingStore();
+        for (int i = 0; i < BOOKINGS; i++) {
+            int checkIn = i % 365;
+            store.append(i + 1, i % 10_000, i % 1_000, RoomType.STANDARD_SUITE, 1000, 50_000,
+                    checkIn, checkIn + 2, checkIn * DAY);
+        }
+
+        assertEquals(BOOKINGS, store.size());
+        // 44 bytes per row plus up to 2x slack from doubling growth, versus 150+ bytes for a Booking object graph.
+        // BookingStoreFootprintBenchmark measures the retained heap at 5M bookings with the GC profiler.
+        assertTrue("Column bytes per booking: " + store.footprintBytes() / BOOKINGS,
+                store.footprintBytes() / BOOKINGS <= 88);
+        assertEquals(BOOKINGS, store.getBookingId(BOOKINGS - 1));
+    }
+
+    public void testHeapFootprintAtAMillionBookings() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        BookingStore store = new BookingStore();
+        for (int i = 0; i < HEAP_BOOKINGS; i++) {
+            int checkIn = i % 365;
+            store.append(i + 1, i % 100_000, i % 10_000, RoomType.STANDARD_SUITE, 1000, 50_000,
+                    checkIn, checkIn + 2, checkIn * DAY);
+        }
+
+        memory.gc();
+        long bytesPerBooking = (memory.getHeapMemoryUsage().getUsed() - before) / HEAP_BOOKINGS;
+        // A loose bound, well clear of GC noise, that a Booking object graph of 150+ bytes could not meet.
+        assertTrue("Heap bytes per booking: " + bytesPerBooking, bytesPerBooking <= 120);
+        assertEquals(HEAP_BOOKINGS, store.getBookingId(HEAP_BOOKINGS - 1));
+    }
+}
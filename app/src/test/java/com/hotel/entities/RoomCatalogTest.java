@@ -0,0 +1,67 @@
+package com.hotel.entities;
+
+import junit.framework.TestCase;
+
+import java.util.Date;
+import java.util.List;
+
+public class RoomCatalogTest extends TestCase {
+
+    public void testVersionsAnswerLookupsAtAnyTime() {
+        RoomCatalog catalog = new RoomCatalog(1);
+        Date created = new Date(1000);
+        catalog.put(new Room(7, RoomType.STANDARD_SUITE, 100, created));
+        catalog.put(new Room(8, RoomType.MASTER_SUITE, 900, new Date(1500)));
+        for (int price = 101; price <= 200; price++) {
+            catalog.put(new Room(7, RoomType.STANDARD_SUITE, price, created, new Date(price * 1000L)));
+        }
+        catalog.put(new Room(7, RoomType.JUNIOR_SUITE, 500, created, new Date(300_000)));
+
+        assertEquals(2, catalog.roomCount());
+        assertEquals(-1, catalog.versionAt(7, 999));
+        assertEquals(100, catalog.getPricePerNight(catalog.versionAt(7, 1000)));
+        assertEquals(100, catalog.getPricePerNight(catalog.versionAt(7, 100_999)));
+        assertEquals(150, catalog.getPricePerNight(catalog.versionAt(7, 150_500)));
+        assertEquals(200, catalog.getPricePerNight(catalog.versionAt(7, 299_999)));
+        assertEquals(RoomType.JUNIOR_SUITE, catalog.getRoomType(catalog.versionAt(7, Long.MAX_VALUE)));
+        assertEquals(catalog.currentVersion(7), catalog.versionAt(7, Long.MAX_VALUE));
+        assertEquals(-1, catalog.versionAt(9, 5000));
+
+        Room current = catalog.getRoom(catalog.currentVersion(7));
+        assertEquals(created, current.getCreationDate());
+        assertEquals(new Date(300_000), current.getValidFrom());
+
+        List<Room> history = catalog.history(7);
+        assertEquals(102, history.size());
+        assertEquals(100, history.get(0).getPricePerNight());
+        assertEquals(500, history.get(101).getPricePerNight());
+
+        // Slots keep registration order; the version of a slot is found as of any version count.
+        assertEquals(0, catalog.versionOf(0, 1));
+        assertEquals(-1, catalog.versionOf(1, 1));
+        assertEquals(1, catalog.versionOf(1, catalog.versionCount()));
+        assertEquals(2, catalog.versionOf(0, 3));
+    }
+
+    public void testDetachedVersionsStayOutOfHistory() {
+        RoomCatalog catalog = new RoomCatalog();
+        int version = catalog.put(new Room(1, RoomType.STANDARD_SUITE, 100, new Date(0)));
+        int detached = catalog.putDetached(1, RoomType.STANDARD_SUITE, 80, 500);
+        assertEquals(detached, catalog.putDetached(1, RoomType.STANDARD_SUITE, 80, 600));
+        assertTrue(detached != catalog.putDetached(1, RoomType.STANDARD_SUITE, 90, 700));
+
+        assertEquals(1, catalog.history(1).size());
+        assertEquals(version, catalog.versionAt(1, 1000));
+        assertEquals(80, catalog.getPricePerNight(detached));
+    }
+
+    public void testVersionsCannotGoBackInTime() {
+        RoomCatalog catalog = new RoomCatalog();
+        catalog.put(new Room(1, RoomType.STANDARD_SUITE, 100, new Date(0), new Date(5000)));
+        try {
+            catalog.put(new Room(1, RoomType.STANDARD_SUITE, 100, new Date(0), new Date(4999)));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
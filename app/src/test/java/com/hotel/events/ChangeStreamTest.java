@@ -0,0 +1,195 @@
+package com.hotel.events;
+
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Hold;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ChangeStreamTest extends TestCase {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+
+    public void testReportsEveryKindOfChange() throws Exception {
+        Service service = new Service();
+        List<ChangeEvent> events = new ArrayList<>();
+        ChangeStream stream = new ChangeStream(service, events::addAll);
+
+        service.setRoom(1, RoomType.JUNIOR_SUITE, 1000);
+        service.setUser(7, 5000);
+        int bookingId = service.tryBookRoom(7, 1, JULY_1, JULY_1.plusDays(2)).getBookingId();
+        service.cancelBooking(bookingId);
+        Hold hold = service.holdRoom(7, 1, JULY_1, JULY_1.plusDays(1), Duration.ofMinutes(5));
+        service.confirmHold(hold.getHoldId());
+        stream.close();
+
+        assertEquals("[ROOM_SET, USER_SET, BOOKING_CREATED, BALANCE_CHANGED, BOOKING_CANCELLED, BALANCE_CHANGED, "
+                + "BOOKING_CREATED, BALANCE_CHANGED]", types(events).toString());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1, events.get(i).getSequence());
+        }
+        assertEquals(1000, events.get(0).getRoom().getPricePerNight());
+        assertEquals(5000, events.get(1).getBalance());
+        assertEquals(bookingId, events.get(2).getBooking().getBookingId());
+        assertEquals(3000, events.get(3).getBalance());
+        assertEquals(5000, events.get(5).getBalance());
+        assertEquals(4000, events.get(7).getBalance());
+        assertEquals(8, stream.getDeliveredCount());
+        assertEquals(0, stream.getDroppedCount());
+
+        // Closed streams capture nothing more.
+        service.setUser(7, 1);
+        assertEquals(8, events.size());
+    }
+
+    public void testUsersHandedOutCannotChangeBalancesBehindTheStream() throws Exception {
+        Service service = new Service();
+        service.setUser(7, 5000);
+        List<ChangeEvent> events = new ArrayList<>();
+        ChangeStream stream = new ChangeStream(service, events::addAll);
+
+        service.getUsers().get(0).setBalance(1);
+        service.getUsers().get(0).credit(100);
+        assertEquals(5000, service.getUsers().get(0).getBalance());
+        service.setUser(7, 4000);
+        stream.close();
+
+        assertEquals("[USER_SET]", types(events).toString());
+        assertEquals(4000, events.get(0).getBalance());
+    }
+
+    public void testConcurrentChangesArriveGapFreeInCommitOrder() throws Exception {
+        Service service = new Service();
+        for (int room = 1; room <= 20; room++) {
+            service.setRoom(room, RoomType.STANDARD_SUITE, 100);
+        }
+        for (int user = 1; user <= 8; user++) {
+            service.setUser(user, 10_000_000);
+        }
+
+        List<ChangeEvent> events = new ArrayList<>();
+        // The consumer takes small batches and yields, so it falls behind; the buffer holds every event meanwhile.
+        ChangeStream stream = new ChangeStream(service, batch -> {
+            events.addAll(batch);
+            Thread.yield();
+        }, 1 << 16, 8, ChangeStream.Backpressure.DROP_NEWEST);
+
+        List<Thread> bookers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            bookers.add(new Thread(() -> {
+                for (int i = 0; i < 1500; i++) {
+                    int user = 1 + random.nextInt(8);
+                    LocalDate checkIn = JULY_1.plusDays(random.nextInt(90));
+                    BookingResult result = service.tryBookRoom(user, 1 + random.nextInt(20), checkIn,
+                            checkIn.plusDays(1 + random.nextInt(4)));
+                    try {
+                        if (result.isBooked() && random.nextBoolean()) {
+                            service.cancelBooking(result.getBookingId());
+                        }
+                    } catch (HotelReservationException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }));
+        }
+        for (Thread booker : bookers) {
+            booker.start();
+        }
+        for (Thread booker : bookers) {
+            booker.join();
+        }
+        stream.close();
+
+        assertEquals(stream.getLastSequence(), events.size());
+        assertEquals(0, stream.getDroppedCount());
+        Map<Integer, Integer> balances = new HashMap<>();
+        Set<Integer> open = new HashSet<>();
+        for (int i = 0; i < events.size(); i++) {
+            ChangeEvent event = events.get(i);
+            assertEquals(i + 1, event.getSequence());
+            switch (event.getType()) {
+                case BOOKING_CREATED:
+                    assertTrue(open.add(event.getBooking().getBookingId()));
+                    break;
+                case BOOKING_CANCELLED:
+                    // A cancellation always follows its booking.
+                    assertTrue(open.remove(event.getBooking().getBookingId()));
+                    break;
+                case BALANCE_CHANGED:
+                    // Its booking or cancellation came right before it.
+                    assertEquals(event.getUserId(), events.get(i - 1).getUserId());
+                    balances.put(event.getUserId(), event.getBalance());
+                    break;
+                default:
+                    fail("Unexpected " + event);
+            }
+        }
+        assertEquals(service.getBookingCount(), open.size());
+        for (User user : service.getUsers()) {
+            if (balances.containsKey(user.getUserId())) {
+                assertEquals(user.getBalance(), balances.get(user.getUserId()).intValue());
+            }
+        }
+    }
+
+    public void testDropPoliciesLeaveGapsInTheSequence() throws Exception {
+        assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9]",
+                sequencesWithStalledConsumer(ChangeStream.Backpressure.DROP_NEWEST));
+        assertEquals("[1, 6, 7, 8, 9, 10, 11, 12, 13]",
+                sequencesWithStalledConsumer(ChangeStream.Backpressure.DROP_OLDEST));
+    }
+
+    // Publishes one event, stalls the consumer on it, then publishes twelve more into a buffer of eight.
+    private static String sequencesWithStalledConsumer(ChangeStream.Backpressure backpressure) throws Exception {
+        Service service = new Service();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        List<Long> sequences = new ArrayList<>();
+        ChangeStream stream = new ChangeStream(service, batch -> {
+            for (ChangeEvent event : batch) {
+                sequences.add(event.getSequence());
+            }
+            stalled.countDown();
+            try {
+                resume.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 8, 100, backpressure);
+
+        service.setUser(1, 0);
+        assertTrue(stalled.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 12; i++) {
+            service.setUser(1, i);
+        }
+        assertEquals(4, stream.getDroppedCount());
+        assertEquals(8, stream.getBacklog());
+        resume.countDown();
+        stream.close();
+        assertEquals(13, stream.getLastSequence());
+        return sequences.toString();
+    }
+
+    private static List<ChangeEvent.Type> types(List<ChangeEvent> events) {
+        List<ChangeEvent.Type> types = new ArrayList<>();
+        for (ChangeEvent event : events) {
+            types.add(event.getType());
+        }
+        return types;
+    }
+}
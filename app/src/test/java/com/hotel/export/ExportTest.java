@@ -0,0 +1,132 @@
+package com.hotel.export;
+
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Date;
+
+public class ExportTest extends TestCase {
+
+    private static final Date CREATED = new Date(1_767_225_600_123L); // 2026-01-01T00:00:00.123Z
+
+    private Service service;
+
+    @Override
+    protected void setUp() throws HotelReservationException {
+        service = new Service();
+        service.restoreRoom(new Room(1, RoomType.STANDARD_SUITE, 1000, CREATED));
+        service.restoreRoom(new Room(2, RoomType.JUNIOR_SUITE, 2000, CREATED));
+        service.restoreRoom(new Room(3, RoomType.JUNIOR_SUITE, 2500, CREATED));
+        service.restoreUser(new User(1, 100000, CREATED));
+        service.restoreUser(new User(2, 50000, CREATED));
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 3));
+        service.bookRoom(2, 2, LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 4));
+        service.bookRoom(1, 3, LocalDate.of(2026, 8, 1), LocalDate.of(2026, 8, 2));
+    }
+
+    public void testCsvListsNewestFirstWithHeader() throws IOException {
+        assertEquals("room_number,room_type,price_per_night,created_at\n"
+                        + "3,JUNIOR_SUITE,2500,2026-01-01T00:00:00.123Z\n"
+                        + "2,JUNIOR_SUITE,2000,2026-01-01T00:00:00.123Z\n"
+                        + "1,STANDARD_SUITE,1000,2026-01-01T00:00:00.123Z\n",
+                export(ExportQuery.rooms(), ExportFormat.CSV));
+
+        String bookings = export(ExportQuery.bookings(), ExportFormat.CSV);
+        String[] lines = bookings.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[1], lines[1].startsWith("3,1,3,JUNIOR_SUITE,2500,2026-08-01,2026-08-02,1,2500,98000,"));
+        assertTrue(lines[3], lines[3].startsWith("1,1,1,STANDARD_SUITE,1000,2026-07-01,2026-07-03,2,2000,100000,"));
+    }
+
+    public void testJsonLinesWithFilters() throws IOException {
+        assertEquals("{\"userId\":2,\"balance\":46000,\"createdAt\":\"2026-01-01T00:00:00.123Z\"}\n",
+                export(ExportQuery.users().userId(2), ExportFormat.JSON_LINES));
+
+        String bookings = export(ExportQuery.bookings().userId(1)
+                .staying(LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 10)), ExportFormat.JSON_LINES);
+        assertTrue(bookings, bookings.startsWith("{\"bookingId\":1,\"userId\":1,\"roomNumber\":1,"
+                + "\"roomType\":\"STANDARD_SUITE\",\"pricePerNight\":1000,\"checkIn\":\"2026-07-01\","
+                + "\"checkOut\":\"2026-07-03\",\"nights\":2,\"totalPrice\":2000,\"balanceAtBooking\":100000,"));
+        assertEquals(1, bookings.split("\n").length);
+
+        assertEquals("", export(ExportQuery.rooms().roomType(RoomType.MASTER_SUITE), ExportFormat.JSON_LINES));
+    }
+
+    public void testCursorPagingSkipsEntitiesAddedMeanwhile() throws IOException, HotelReservationException {
+        StringWriter first = new StringWriter();
+        long cursor = service.export(ExportQuery.bookings().limit(2), ExportFormat.JSON_LINES, first);
+        assertEquals(2, first.toString().split("\n").length);
+        assertTrue(first.toString().startsWith("{\"bookingId\":3,"));
+
+        service.bookRoom(2, 1, LocalDate.of(2026, 9, 1), LocalDate.of(2026, 9, 2));
+        service.setRoom(4, RoomType.MASTER_SUITE, 5000);
+
+        StringWriter second = new StringWriter();
+        assertEquals(ExportQuery.END, service.export(ExportQuery.bookings().after(cursor).limit(2),
+                ExportFormat.JSON_LINES, second));
+        assertTrue(second.toString().startsWith("{\"bookingId\":1,"));
+        assertEquals(1, second.toString().split("\n").length);
+
+        StringWriter rooms = new StringWriter();
+        cursor = service.export(ExportQuery.rooms().limit(2), ExportFormat.CSV, rooms);
+        service.setRoom(5, RoomType.MASTER_SUITE, 5000);
+        rooms = new StringWriter();
+        service.export(ExportQuery.rooms().after(cursor), ExportFormat.CSV, rooms);
+        assertEquals("2,JUNIOR_SUITE,2000,2026-01-01T00:00:00.123Z\n"
+                + "1,STANDARD_SUITE,1000,2026-01-01T00:00:00.123Z\n", rooms.toString());
+    }
+
+    public void testPrintAllKeepsItsConsoleLayout() {
+        PrintStream console = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            service.printAll();
+            service.printAllUsers();
+        } finally {
+            System.setOut(console);
+        }
+
+        String n = System.lineSeparator();
+        assertEquals("========== ROOMS (newest to oldest) ==========\n"
+                + "Room{number=3, type=junior suite, price=2500}\n"
+                + "Room{number=2, type=junior suite, price=2000}\n"
+                + "Room{number=1, type=standard suite, price=1000}\n"
+                + n
+                + "========== BOOKINGS (newest to oldest) ==========\n"
+                + service.getBookings().get(2) + "\n"
+                + service.getBookings().get(1) + "\n"
+                + service.getBookings().get(0) + "\n"
+                + "========== USERS (newest to oldest) ==========\n"
+                + "User{id=2, balance=46000}\n"
+                + "User{id=1, balance=95500}\n", captured.toString());
+    }
+
+    public void testDatesAreFormattedWithoutAllocationHelpers() throws IOException {
+        StringWriter out = new StringWriter();
+        ExportWriter writer = new ExportWriter(out);
+        writer.writeDate(LocalDate.of(2024, 2, 29).toEpochDay()).write(' ')
+                .writeDate(LocalDate.of(1969, 12, 31).toEpochDay()).write(' ')
+                .writeDate(LocalDate.of(600, 3, 1).toEpochDay()).write(' ')
+                .writeTimestamp(-1).write(' ')
+                .write(Long.MIN_VALUE).write(' ').write(-42);
+        writer.flush();
+        assertEquals("2024-02-29 1969-12-31 0600-03-01 1969-12-31T23:59:59.999Z -9223372036854775808 -42",
+                out.toString());
+    }
+
+    private String export(ExportQuery query, ExportFormat format) throws IOException {
+        StringWriter out = new StringWriter();
+        service.export(query, format, out);
+        return out.toString();
+    }
+}
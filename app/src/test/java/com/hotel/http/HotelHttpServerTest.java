@@ -0,0 +1,331 @@
+package com.hotel.http;
+
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.service.Service;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class HotelHttpServerTest extends TestCase {
+
+    private Service service;
+    private HotelHttpServer server;
+
+    @Override
+    protected void setUp() throws IOException {
+        service = new Service();
+        server = HotelHttpServer.start(service, new InetSocketAddress("127.0.0.1", 0));
+    }
+
+    @Override
+    protected void tearDown() {
+        server.close();
+    }
+
+    public void testRegistersBooksAndQueries() throws IOException {
+        assertEquals(204, request("PUT", "/rooms/1", "{\"roomType\":\"JUNIOR_SUITE\",\"pricePerNight\":2000}").status);
+        assertEquals(204, request("PUT", "/rooms/2", "{\"roomType\":\"MASTER_SUITE\",\"pricePerNight\":3000}").status);
+        assertEquals(204, request("PUT", "/users/7", "{\"balance\": 10000}").status);
+
+        Response booked = request("POST", "/bookings",
+                "{\"userId\":7,\"roomNumber\":1,\"checkIn\":\"2026-06-30\",\"checkOut\":\"2026-07-02\"}");
+        assertEquals(201, booked.status);
+        assertEquals("{\"bookingId\":1,\"totalPrice\":4000}", booked.body);
+
+        assertTrue(request("GET", "/users/7", null).body.contains("\"balance\":6000"));
+        assertTrue(request("GET", "/rooms/2", null).body.startsWith("{\"roomNumber\":2,\"roomType\":\"MASTER_SUITE\""));
+        assertTrue(request("GET", "/users/7/bookings", null).body.contains("\"checkIn\":\"2026-06-30\""));
+        assertEquals(2, lines(request("GET", "/rooms", null).body));
+        assertEquals(0, lines(request("GET",
+                "/rooms/available?roomType=JUNIOR_SUITE&checkIn=2026-07-01&checkOut=2026-07-03", null).body));
+        assertEquals(1, lines(request("GET",
+                "/rooms/available?roomType=JUNIOR_SUITE&checkIn=2026-07-02&checkOut=2026-07-03", null).body));
+        assertEquals("{\"roomNumber\":1,\"checkIn\":\"2026-07-02\",\"checkOut\":\"2026-07-05\",\"totalPrice\":6000}\n",
+                request("GET", "/rooms/earliest?roomType=JUNIOR_SUITE&from=2026-07-01&nights=3", null).body);
+
+        Response page = request("GET", "/rooms?limit=1", null);
+        assertEquals(1, lines(page.body));
+        assertTrue(page.body.contains("\"roomNumber\":2"));
+        Response next = request("GET", "/rooms?limit=1&after=" + page.nextCursor, null);
+        assertTrue(next.body.contains("\"roomNumber\":1"));
+    }
+
+    public void testUnexpectedFailuresAnswer500() throws IOException {
+        server.close();
+        service = new Service() {
+            @Override
+            public List<Room> findAvailableRooms(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+                throw new IllegalStateException("broken");
+            }
+        };
+        server = HotelHttpServer.start(service, new InetSocketAddress("127.0.0.1", 0));
+
+        Response response = request("GET",
+                "/rooms/available?roomType=JUNIOR_SUITE&checkIn=2026-07-01&checkOut=2026-07-03", null);
+        assertEquals(500, response.status);
+        assertEquals("{\"error\":\"InternalError\",\"message\":\"IllegalStateException\"}", response.body);
+        assertEquals(204, request("PUT", "/users/7", "{\"balance\": 10000}").status);
+    }
+
+    public void testFailureAfterTheStatusLineOnlyClosesTheExchange() throws IOException {
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        BrokenBodyExchange exchange = new BrokenBodyExchange("GET", "/rooms/1");
+
+        server.handle(exchange);
+
+        assertEquals(1, exchange.responsesSent);
+        assertEquals(200, exchange.getResponseCode());
+        assertTrue(exchange.closed);
+    }
+
+    public void testMapsRejectionsToStatusCodes() throws IOException {
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        service.setUser(1, 1500);
+
+        assertEquals(404, book(2, 1, "2026-07-01", "2026-07-02").status);
+        assertEquals(404, book(1, 9, "2026-07-01", "2026-07-02").status);
+        assertEquals(400, book(1, 1, "2026-07-02", "2026-07-02").status);
+        assertEquals(402, book(1, 1, "2026-07-01", "2026-07-03").status);
+        assertEquals(201, book(1, 1, "2026-07-01", "2026-07-02").status);
+
+        Response conflict = book(1, 1, "2026-07-01", "2026-07-02");
+        assertEquals(409, conflict.status);
+        assertTrue(conflict.body.startsWith("{\"error\":\"RoomNotAvailableException\""));
+
+        assertEquals(400, request("POST", "/bookings", "{\"userId\":1").status);
+        assertEquals(400, request("PUT", "/rooms/3", "{\"roomType\":\"PENTHOUSE\",\"pricePerNight\":1}").status);
+        assertEquals(404, request("GET", "/users/42", null).status);
+        assertEquals(404, request("GET", "/rooms/42", null).status);
+        assertEquals(404, request("GET", "/nowhere", null).status);
+        assertEquals(405, request("DELETE", "/bookings", null).status);
+
+        Response cancelled = request("DELETE", "/bookings/1", null);
+        assertEquals(200, cancelled.status);
+        assertEquals("{\"bookingId\":1,\"refund\":1000}", cancelled.body);
+        assertEquals(404, request("DELETE", "/bookings/1", null).status);
+        assertEquals(201, book(1, 1, "2026-07-01", "2026-07-02").status);
+    }
+
+    public void testHoldsAreConfirmedOrReleased() throws IOException {
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        service.setUser(1, 5000);
+        String hold = "{\"userId\":1,\"roomNumber\":1,\"checkIn\":\"2026-07-01\",\"checkOut\":\"2026-07-03\","
+                + "\"ttlSeconds\":300}";
+
+        Response held = request("POST", "/holds", hold);
+        assertEquals(201, held.status);
+        assertTrue(held.body, held.body.startsWith("{\"holdId\":1,\"totalPrice\":2000,\"expiresAt\":\""));
+        assertEquals(409, request("POST", "/holds", hold).status);
+        assertEquals(409, book(1, 1, "2026-07-02", "2026-07-04").status);
+
+        Response confirmed = request("POST", "/holds/1/confirm", null);
+        assertEquals(201, confirmed.status);
+        assertEquals("{\"bookingId\":1,\"totalPrice\":2000}", confirmed.body);
+        assertEquals(404, request("POST", "/holds/1/confirm", null).status);
+
+        assertEquals(201, request("POST", "/holds", hold.replace("07-0", "08-0")).status);
+        assertEquals(204, request("DELETE", "/holds/2", null).status);
+        assertEquals(404, request("DELETE", "/holds/2", null).status);
+        assertEquals(201, book(1, 1, "2026-08-01", "2026-08-03").status);
+    }
+
+    public void testConcurrentClientsNeverDoubleBook() throws Exception {
+        int rooms = 20;
+        int clients = 200;
+        for (int room = 1; room <= rooms; room++) {
+            service.setRoom(room, RoomType.STANDARD_SUITE, 100);
+        }
+        service.setUser(1, 1_000_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int client = 0; client < clients; client++) {
+            int room = 1 + client % rooms;
+            statuses.add(executor.submit(() -> {
+                start.await();
+                return book(1, room, "2026-08-01", "2026-08-03").status;
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        for (Future<Integer> status : statuses) {
+            int code = status.get();
+            assertTrue("Unexpected status " + code, code == 201 || code == 409);
+            if (code == 201) {
+                booked++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(rooms, booked);
+        assertEquals(rooms, service.getBookingCount());
+    }
+
+    private Response book(int userId, int roomNumber, String checkIn, String checkOut) throws IOException {
+        return request("POST", "/bookings", "{\"userId\":" + userId + ",\"roomNumber\":" + roomNumber
+                + ",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkOut + "\"}");
+    }
+
+    private Response request(String method, String path, String body) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Response response = new Response();
+        response.status = connection.getResponseCode();
+        response.nextCursor = connection.getHeaderField("X-Next-Cursor");
+        InputStream in = response.status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = stream.read(buffer)) > 0) {
+                    content.write(buffer, 0, read);
+                }
+            }
+        }
+        response.body = new String(content.toByteArray(), StandardCharsets.UTF_8);
+        return response;
+    }
+
+    private static int lines(String body) {
+        return body.isEmpty() ? 0 : body.split("\n").length;
+    }
+
+    // Accepts the status line once, like the JDK's exchange, then fails when the body is written.
+    private static class BrokenBodyExchange extends HttpExchange {
+        private final String method;
+        private final URI uri;
+        private final Headers responseHeaders = new Headers();
+        private int responseCode = -1;
+        private int responsesSent;
+        private boolean closed;
+
+        private BrokenBodyExchange(String method, String path) {
+            this.method = method;
+            this.uri = URI.create(path);
+        }
+
+        @Override
+        public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+            if (responseCode != -1) {
+                throw new IOException("headers already sent");
+            }
+            responseCode = rCode;
+            responsesSent++;
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            throw new IllegalStateException("connection reset");
+        }
+
+        @Override
+        public int getResponseCode() {
+            return responseCode;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Headers getRequestHeaders() {
+            return new Headers();
+        }
+
+        @Override
+        public Headers getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        @Override
+        public URI getRequestURI() {
+            return uri;
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return method;
+        }
+
+        @Override
+        public HttpContext getHttpContext() {
+            return null;
+        }
+
+        @Override
+        public InputStream getRequestBody() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public String getProtocol() {
+            return "HTTP/1.1";
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return null;
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+        }
+
+        @Override
+        public void setStreams(InputStream i, OutputStream o) {
+        }
+
+        @Override
+        public HttpPrincipal getPrincipal() {
+            return null;
+        }
+    }
+
+    private static class Response {
+        private int status;
+        private String body;
+        private String nextCursor;
+    }
+}
@@ -0,0 +1,222 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BulkImportTest extends TestCase {
+
+    private static final String BOOKINGS_HEADER = "booking_id,user_id,room_number,room_type,price_per_night,"
+            + "check_in,check_out,nights,total_price,balance_at_booking,booked_at\n";
+
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("hotel-import");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    public void testCsvExportImportsBackInSmallChunks() throws Exception {
+        Service service = populated();
+        Path rooms = export(service, ExportQuery.rooms(), "rooms.csv");
+        Path users = export(service, ExportQuery.users(), "users.csv");
+        Path bookings = export(service, ExportQuery.bookings(), "bookings.csv");
+
+        Service imported = new Service();
+        // Chunks of a few bytes start and end mid-line, and most hold no line start at all.
+        ImportReport report = BulkImport.csv(rooms, users, bookings).threads(4).chunkBytes(7).into(imported);
+
+        assertEquals(40, report.getRooms());
+        assertEquals(30, report.getUsers());
+        assertEquals(service.getBookingCount(), report.getBookings());
+        assertEquals(report.getRooms() + report.getUsers() + report.getBookings(), report.getRecords());
+        assertTrue(report.getRecordsPerSecond() > 0);
+        assertTrue(report.toJson().startsWith("{\"rooms\":40,\"users\":30,"));
+
+        // Exports run newest first; the import registers everything oldest first again.
+        assertEquals(describeRooms(service.getRooms()), describeRooms(imported.getRooms()));
+        assertEquals(describeUsers(service.getUsers()), describeUsers(imported.getUsers()));
+        assertEquals(describeBookings(service.getBookings()), describeBookings(imported.getBookings()));
+
+        // Imported bookings block their nights and are indexed.
+        Booking first = service.getBookings().get(0);
+        assertFalse(imported.tryBookRoom(1, first.getRoomNumber(), first.getCheckInDate(), first.getCheckOutDate())
+                .isBooked());
+        assertEquals(describeBookings(service.findBookingsOfUser(first.getUserId())),
+                describeBookings(imported.findBookingsOfUser(first.getUserId())));
+        assertEquals(first.getTotalPrice(), imported.cancelBooking(first.getBookingId()).getTotalPrice());
+    }
+
+    public void testSnapshotImportsWithRoomHistory() throws Exception {
+        Service service = new Service();
+        Path state = directory.resolve("state");
+        try (Persistence persistence = Persistence.open(state, service)) {
+            populate(service);
+            persistence.snapshot();
+        }
+        Path snapshot;
+        try (Stream<Path> files = Files.list(state)) {
+            snapshot = files.filter(path -> path.getFileName().toString().startsWith("snapshot-"))
+                    .findFirst().get();
+        }
+
+        Service imported = new Service();
+        ImportReport report = BulkImport.snapshot(snapshot).threads(3).chunkBytes(100).into(imported);
+
+        assertEquals(41, report.getRooms());
+        assertEquals(describeRooms(service.getRooms()), describeRooms(imported.getRooms()));
+        assertEquals(describeUsers(service.getUsers()), describeUsers(imported.getUsers()));
+        assertEquals(describeBookings(service.getBookings()), describeBookings(imported.getBookings()));
+        assertEquals(service.getRoomHistory(1).size(), imported.getRoomHistory(1).size());
+        assertTrue(imported.tryBookRoom(1, 40, LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 2)).getBookingId()
+                > service.getBookings().size());
+    }
+
+    public void testOverlappingStaysAreRejectedWithoutLoadingAnything() throws Exception {
+        Path rooms = write("rooms.csv", "room_number,room_type,price_per_night,created_at\n"
+                + "1,STANDARD_SUITE,100,2026-01-01T00:00:00.000Z\n"
+                + "2,MASTER_SUITE,300,2026-01-01T00:00:00.000Z\n");
+        Path bookings = write("bookings.csv", BOOKINGS_HEADER
+                + "1,1,1,STANDARD_SUITE,100,2026-07-01,2026-07-04,3,300,1000,2026-06-01T10:00:00.000Z\n"
+                + "2,1,2,MASTER_SUITE,300,2026-07-01,2026-07-04,3,900,700,2026-06-01T10:00:00.000Z\n"
+                + "3,1,1,STANDARD_SUITE,100,2026-07-04,2026-07-05,1,100,0,2026-06-02T10:00:00.000Z\n"
+                + "4,1,1,STANDARD_SUITE,100,2026-07-03,2026-07-04,1,100,0,2026-06-03T10:00:00.000Z\n"
+                + "4,1,9,STANDARD_SUITE,100,2026-08-01,2026-08-02,1,100,0,2026-06-04T10:00:00.000Z\n");
+
+        Service service = new Service();
+        try {
+            BulkImport.csv(rooms, null, bookings).chunkBytes(64).into(service);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            String message = expected.getMessage();
+            assertTrue(message, message.startsWith("3 problem(s)"));
+            assertTrue(message, message.contains("Duplicate booking id 4"));
+            assertTrue(message, message.contains("books unknown room 9"));
+            assertTrue(message, message.contains("Bookings 1 and 4 of room 1 overlap"));
+        }
+        assertEquals(0, service.getRoomCount());
+        assertEquals(0, service.getBookingCount());
+    }
+
+    public void testMalformedLinesReportTheirOffset() throws Exception {
+        String valid = "1,1,1,STANDARD_SUITE,100,2026-07-01,2026-07-04,3,300,1000,2026-06-01T10:00:00.000Z\n";
+        String[] lines = {
+                "2,1,1,STANDARD_SUITE,100,2026-07-05,2026-07-06,2,200,1000,2026-06-01T10:00:00.000Z\n",
+                "2,1,1,PENTHOUSE,100,2026-07-05,2026-07-06,1,100,1000,2026-06-01T10:00:00.000Z\n",
+                "2,1,1,STANDARD_SUITE,100,2026-02-30,2026-03-01,1,100,1000,2026-06-01T10:00:00.000Z\n",
+                "2,1,1,STANDARD_SUITE,100,2026-07-05,2026-07-06,1,100,1000\n",
+                "2,1,x,STANDARD_SUITE,100,2026-07-05,2026-07-06,1,100,1000,2026-06-01T10:00:00.000Z\n",
+        };
+        for (String line : lines) {
+            Path bookings = write("bookings.csv", BOOKINGS_HEADER + valid + line);
+            try {
+                BulkImport.csv(null, null, bookings).into(new Service());
+                fail("Expected IOException for " + line);
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage()
+                        .contains("at byte " + (BOOKINGS_HEADER.length() + valid.length()) + ": "));
+            }
+        }
+
+        try {
+            BulkImport.csv(null, write("users.csv", "id,balance\n1,100\n"), null).into(new Service());
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("expected the header"));
+        }
+    }
+
+    public void testImportRequiresAnEmptyService() throws Exception {
+        Service service = new Service();
+        service.setUser(1, 100);
+        try {
+            BulkImport.csv(null, write("users.csv", "user_id,balance,created_at\n2,5,2026-01-01T00:00:00.000Z"),
+                    null).into(service);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(1, service.getUserCount());
+    }
+
+    private Service populated() throws Exception {
+        Service service = new Service();
+        populate(service);
+        return service;
+    }
+
+    // Forty rooms, thirty users and a booking per user and room pair of a few, spread over distinct nights.
+    private static void populate(Service service) throws Exception {
+        for (int room = 1; room <= 40; room++) {
+            service.setRoom(room, RoomType.values()[room % 3], 100 * room);
+        }
+        for (int user = 1; user <= 30; user++) {
+            service.setUser(user, 1_000_000);
+        }
+        LocalDate start = LocalDate.of(2026, 7, 1);
+        for (int i = 0; i < 90; i++) {
+            LocalDate checkIn = start.plusDays(i / 40 * 3);
+            service.bookRoom(1 + i % 30, 1 + i % 40, checkIn, checkIn.plusDays(1 + i % 3));
+        }
+        service.setRoom(1, RoomType.MASTER_SUITE, 9000);
+    }
+
+    private Path export(Service service, ExportQuery query, String name) throws IOException {
+        Path file = directory.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            service.export(query.limit(1000), ExportFormat.CSV, out);
+        }
+        return file;
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> describeRooms(List<Room> rooms) {
+        List<String> result = new ArrayList<>();
+        for (Room room : rooms) {
+            result.add(room + "@" + room.getCreationDate().getTime());
+        }
+        return result;
+    }
+
+    private static List<String> describeUsers(List<User> users) {
+        List<String> result = new ArrayList<>();
+        for (User user : users) {
+            result.add(user + "@" + user.getCreationDate().getTime());
+        }
+        return result;
+    }
+
+    private static List<String> describeBookings(List<Booking> bookings) {
+        List<String> result = new ArrayList<>();
+        for (Booking booking : bookings) {
+            result.add(booking + "@" + booking.getCheckInDay() + "-" + booking.getCheckOutDay()
+                    + "@" + booking.getBookingDate().getTime());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,258 @@
+package com.hotel.persistence;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class PersistenceTest extends TestCase {
+
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("hotel-persistence");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    public void testJournalReplayRestoresState() throws Exception {
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        populate(service, 0);
+        persistence.close();
+
+        assertSameState(service, reopen());
+    }
+
+    public void testSnapshotPlusJournalTailRestoresState() throws Exception {
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        populate(service, 0);
+        persistence.snapshot();
+        populate(service, 100);
+        service.setUser(1, 77777);
+        persistence.close();
+
+        assertEquals(1, countFiles("snapshot-"));
+        assertEquals(1, countFiles("journal-"));
+        assertSameState(service, reopen());
+    }
+
+    public void testTornTailIsTruncated() throws Exception {
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        populate(service, 0);
+        persistence.close();
+
+        Path segment = Persistence.segmentPath(directory, 0);
+        Files.write(segment, new byte[] {0, 0, 0, 30, 3, 1, 2}, StandardOpenOption.APPEND);
+
+        Service recovered = new Service();
+        Persistence reopened = Persistence.open(directory, recovered);
+        recovered.setUser(50, 10);
+        reopened.close();
+
+        Service again = reopen();
+        assertEquals(recovered.getUsers().size(), again.getUsers().size());
+        assertSameState(recovered, again);
+    }
+
+    public void testCancellationsAndRefundsSurviveRecovery() throws Exception {
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        populate(service, 0);
+        service.cancelBooking(3);
+        persistence.snapshot();
+        service.cancelBooking(1);
+        persistence.close();
+
+        Service recovered = reopen();
+        assertSameState(service, recovered);
+        List<User> snapshotUsers = new ArrayList<>();
+        recovered.snapshot().getUsers().forEach(snapshotUsers::add);
+        assertEquals(describeUsers(service.getUsers()), describeUsers(snapshotUsers));
+
+        // The id of the cancelled newest booking is not handed out again.
+        recovered.bookRoom(1, 1, date(2026, 8, 1), date(2026, 8, 2));
+        assertNotNull(recovered.findBooking(4));
+    }
+
+    public void testRoomHistorySurvivesRecovery() throws Exception {
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        populate(service, 0);
+        persistence.snapshot();
+        service.setRoom(1, RoomType.STANDARD_SUITE, 4000);
+        persistence.close();
+
+        Service recovered = reopen();
+        assertSameState(service, recovered);
+        assertEquals(describeRooms(service.getRoomHistory(1)), describeRooms(recovered.getRoomHistory(1)));
+        assertEquals(3, recovered.getRoomHistory(1).size());
+        assertEquals(1, recovered.getRoomHistory(2).size());
+        assertEquals(service.getRooms().get(0).getValidFrom(), recovered.getRooms().get(0).getValidFrom());
+    }
+
+    public void testFailedJournalWriteRefusesLaterChanges() throws Exception {
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        service.setRoom(1, RoomType.STANDARD_SUITE, 100);
+        service.setUser(1, 1000);
+        service.setUser(2, 1000);
+        persistence.sync();
+        // Closing the segment underneath the writer makes its next write fail.
+        Field journal = Persistence.class.getDeclaredField("journal");
+        journal.setAccessible(true);
+        Field channel = JournalWriter.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        ((FileChannel) channel.get(journal.get(persistence))).close();
+
+        // Buffered until the next flush, like any change of the last flush interval.
+        assertTrue(service.tryBookRoom(1, 1, date(2026, 7, 1), date(2026, 7, 3)).isBooked());
+        try {
+            persistence.sync();
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+        assertNotNull(service.getFailure());
+
+        try {
+            service.tryBookRoom(2, 1, date(2026, 7, 5), date(2026, 7, 6));
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            service.setUser(3, 1000);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            service.cancelBooking(1);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        // The booking before the failure committed whole, and nothing was accepted after it.
+        assertEquals(1, service.getBookingCount());
+        assertEquals(2, service.getUserCount());
+        assertEquals(800, service.getUsers().get(0).getBalance());
+        assertEquals(1000, service.getUsers().get(1).getBalance());
+        try {
+            persistence.close();
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    public void testJournalWriteFailingInsideACommitRefusesTheNextOne() throws Exception {
+        Service service = new Service();
+        // No background flush, so the failure surfaces when the appends fill the write buffer.
+        Persistence persistence = Persistence.open(directory, service, TimeUnit.HOURS.toMillis(1),
+                Persistence.DEFAULT_SNAPSHOT_EVERY_RECORDS);
+        Field journal = Persistence.class.getDeclaredField("journal");
+        journal.setAccessible(true);
+        Field channel = JournalWriter.class.getDeclaredField("channel");
+        channel.setAccessible(true);
+        ((FileChannel) channel.get(journal.get(persistence))).close();
+
+        int user = 0;
+        try {
+            while (user < 100_000) {
+                service.setUser(++user, 1000);
+            }
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+        // Only the change whose append failed, and those buffered before it, committed.
+        assertEquals(user - 1, service.getUserCount());
+        try {
+            persistence.close();
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    private void populate(Service service, int offset) throws HotelReservationException {
+        for (int room = 1; room <= 5; room++) {
+            service.setRoom(offset + room, RoomType.values()[room % 3], 1000 * room);
+        }
+        service.setUser(offset + 1, 100000);
+        service.setUser(offset + 2, 50000);
+        service.bookRoom(offset + 1, offset + 1, date(2026, 7, 1), date(2026, 7, 4));
+        service.bookRoom(offset + 2, offset + 3, date(2026, 7, 2), date(2026, 7, 5));
+        service.setRoom(offset + 1, RoomType.MASTER_SUITE, 9000);
+        service.bookRoom(offset + 1, offset + 1, date(2026, 7, 4), date(2026, 7, 6));
+    }
+
+    private Service reopen() throws IOException {
+        Service recovered = new Service();
+        Persistence.open(directory, recovered).close();
+        return recovered;
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private void assertSameState(Service expected, Service actual) {
+        assertEquals(describeRooms(expected.getRooms()), describeRooms(actual.getRooms()));
+        assertEquals(describeUsers(expected.getUsers()), describeUsers(actual.getUsers()));
+        assertEquals(describeBookings(expected.getBookings()), describeBookings(actual.getBookings()));
+    }
+
+    private static List<String> describeRooms(List<Room> rooms) {
+        List<String> result = new ArrayList<>();
+        for (Room room : rooms) {
+            result.add(room + "@" + room.getCreationDate().getTime() + "/" + room.getValidFromTime());
+        }
+        return result;
+    }
+
+    private static List<String> describeUsers(List<User> users) {
+        List<String> result = new ArrayList<>();
+        for (User user : users) {
+            result.add(user + "@" + user.getCreationDate().getTime());
+        }
+        return result;
+    }
+
+    private static List<String> describeBookings(List<Booking> bookings) {
+        List<String> result = new ArrayList<>();
+        for (Booking booking : bookings) {
+            result.add(booking + "@" + booking.getCheckInDate().getTime() + "-" + booking.getCheckOutDate().getTime()
+                    + "@" + booking.getBookingDate().getTime());
+        }
+        return result;
+    }
+
+    private static Date date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(year, month - 1, day, 0, 0, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+}
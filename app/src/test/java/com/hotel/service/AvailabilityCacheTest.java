@@ -0,0 +1,253 @@
+package com.hotel.service;
+
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.exception.HotelReservationException;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AvailabilityCacheTest extends TestCase {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+
+    private Service service;
+
+    @Override
+    protected void setUp() {
+        service = new Service();
+        for (int room = 1; room <= 4; room++) {
+            service.setRoom(room, room <= 2 ? RoomType.STANDARD_SUITE : RoomType.JUNIOR_SUITE, 100);
+        }
+        service.setUser(1, 1_000_000);
+    }
+
+    public void testRepeatedQueriesHitTheCache() throws HotelReservationException {
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 0, 3));
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 0, 3));
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 0, 3));
+
+        AvailabilityCacheStats stats = service.getAvailabilityCacheStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+        // Callers own the returned list.
+        service.findAvailableRooms(RoomType.STANDARD_SUITE, JULY_1, JULY_1.plusDays(3)).clear();
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 0, 3));
+    }
+
+    public void testBookingEvictsOnlyOverlappingStaysOfItsType() throws HotelReservationException {
+        free(RoomType.STANDARD_SUITE, 0, 3);
+        free(RoomType.STANDARD_SUITE, 2, 5);
+        free(RoomType.STANDARD_SUITE, 3, 4);
+        free(RoomType.STANDARD_SUITE, 10, 12);
+        free(RoomType.JUNIOR_SUITE, 0, 3);
+
+        service.bookRoom(1, 1, JULY_1.plusDays(1), JULY_1.plusDays(3));
+
+        assertEquals(2, service.getAvailabilityCacheStats().getInvalidations());
+        assertEquals("[2]", free(RoomType.STANDARD_SUITE, 0, 3));
+        assertEquals("[2]", free(RoomType.STANDARD_SUITE, 2, 5));
+        long misses = service.getAvailabilityCacheStats().getMisses();
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 3, 4));
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 10, 12));
+        assertEquals("[3, 4]", free(RoomType.JUNIOR_SUITE, 0, 3));
+        assertEquals(misses, service.getAvailabilityCacheStats().getMisses());
+    }
+
+    public void testCancellationsAndHoldsInvalidate() throws HotelReservationException {
+        service.bookRoom(1, 1, JULY_1, JULY_1.plusDays(2));
+        assertEquals("[2]", free(RoomType.STANDARD_SUITE, 0, 2));
+
+        service.cancelBooking(1);
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 0, 2));
+
+        Hold hold = service.holdRoom(1, 2, JULY_1, JULY_1.plusDays(1), Duration.ofMinutes(10));
+        assertEquals("[1]", free(RoomType.STANDARD_SUITE, 0, 2));
+        assertEquals(1, service.expireHolds(hold.getExpiresAt() + 1000));
+        assertEquals("[1, 2]", free(RoomType.STANDARD_SUITE, 0, 2));
+    }
+
+    public void testRoomChangesInvalidateTheOldAndNewType() throws HotelReservationException {
+        free(RoomType.STANDARD_SUITE, 0, 2);
+        free(RoomType.JUNIOR_SUITE, 0, 2);
+        free(RoomType.MASTER_SUITE, 0, 2);
+
+        service.setRoom(2, RoomType.JUNIOR_SUITE, 300);
+
+        assertEquals(2, service.getAvailabilityCacheStats().getInvalidations());
+        assertEquals("[1]", free(RoomType.STANDARD_SUITE, 0, 2));
+        assertEquals("[2, 3, 4]", free(RoomType.JUNIOR_SUITE, 0, 2));
+        assertEquals(300, service.findAvailableRooms(RoomType.JUNIOR_SUITE, JULY_1, JULY_1.plusDays(2))
+                .get(0).getPricePerNight());
+        assertEquals(2, service.getAvailabilityCacheStats().getInvalidations());
+    }
+
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        AvailabilityCache cache = new AvailabilityCache(2);
+        Room[] none = new Room[0];
+        cache.put(RoomType.STANDARD_SUITE, 0, 1, none, cache.stamp(RoomType.STANDARD_SUITE));
+        cache.put(RoomType.STANDARD_SUITE, 1, 2, none, cache.stamp(RoomType.STANDARD_SUITE));
+        assertNotNull(cache.get(RoomType.STANDARD_SUITE, 0, 1));
+        cache.put(RoomType.STANDARD_SUITE, 2, 3, none, cache.stamp(RoomType.STANDARD_SUITE));
+
+        assertNull(cache.get(RoomType.STANDARD_SUITE, 1, 2));
+        assertNotNull(cache.get(RoomType.STANDARD_SUITE, 0, 1));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(2, cache.stats().getSize());
+
+        // Evicted stays leave the type's index too, so invalidating them counts nothing.
+        cache.invalidate(RoomType.STANDARD_SUITE, 1, 2);
+        assertEquals(0, cache.stats().getInvalidations());
+    }
+
+    public void testFullCacheEvictsItsLeastRecentlyUsedSixteenth() {
+        AvailabilityCache cache = new AvailabilityCache(32);
+        Room[] none = new Room[0];
+        for (int day = 0; day < 32; day++) {
+            cache.put(RoomType.STANDARD_SUITE, day, day + 1, none, cache.stamp(RoomType.STANDARD_SUITE));
+        }
+        assertNotNull(cache.get(RoomType.STANDARD_SUITE, 0, 1));
+        cache.put(RoomType.STANDARD_SUITE, 32, 33, none, cache.stamp(RoomType.STANDARD_SUITE));
+
+        assertEquals(3, cache.stats().getEvictions());
+        assertEquals(30, cache.stats().getSize());
+        assertNotNull(cache.get(RoomType.STANDARD_SUITE, 0, 1));
+        for (int day = 1; day <= 3; day++) {
+            assertNull(cache.get(RoomType.STANDARD_SUITE, day, day + 1));
+        }
+        assertNotNull(cache.get(RoomType.STANDARD_SUITE, 4, 5));
+    }
+
+    public void testHitsDoNotWaitForTheCacheMonitor() throws Exception {
+        AvailabilityCache cache = new AvailabilityCache(10);
+        cache.put(RoomType.STANDARD_SUITE, 0, 1, new Room[0], cache.stamp(RoomType.STANDARD_SUITE));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Puts and invalidations hold the monitor; a hit must still be answered meanwhile.
+            synchronized (cache) {
+                Future<Room[]> hit = executor.submit(() -> cache.get(RoomType.STANDARD_SUITE, 0, 1));
+                assertNotNull(hit.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    public void testResultsComputedAcrossAnInvalidationAreNotCached() {
+        AvailabilityCache cache = new AvailabilityCache(10);
+        long stamp = cache.stamp(RoomType.STANDARD_SUITE);
+        cache.invalidate(RoomType.STANDARD_SUITE, 100, 101);
+        cache.put(RoomType.STANDARD_SUITE, 0, 1, new Room[0], stamp);
+        assertNull(cache.get(RoomType.STANDARD_SUITE, 0, 1));
+
+        // Invalidations of other types do not matter.
+        stamp = cache.stamp(RoomType.STANDARD_SUITE);
+        cache.invalidate(RoomType.JUNIOR_SUITE, 0, 1);
+        cache.put(RoomType.STANDARD_SUITE, 0, 1, new Room[0], stamp);
+        assertNotNull(cache.get(RoomType.STANDARD_SUITE, 0, 1));
+    }
+
+    // Readers keep the cache full of answers for a few stays while bookers take rooms for them. As soon as a
+    // booking returns, no query of its stay may list its room, from the cache or not.
+    public void testNeverServesAStaleAvailableAnswer() throws Exception {
+        int rooms = 64;
+        service = new Service();
+        for (int room = 1; room <= rooms; room++) {
+            service.setRoom(room, RoomType.STANDARD_SUITE, 1);
+        }
+        service.setUser(1, Integer.MAX_VALUE);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<Integer>> bookers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            if (thread % 2 == 0) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        int from = ThreadLocalRandom.current().nextInt(8);
+                        service.findAvailableRooms(RoomType.STANDARD_SUITE, JULY_1.plusDays(from),
+                                JULY_1.plusDays(from + 1 + ThreadLocalRandom.current().nextInt(3)));
+                    }
+                    return null;
+                }));
+            } else {
+                bookers.add(executor.submit(() -> {
+                    start.await();
+                    int booked = 0;
+                    List<Integer> bookingIds = new ArrayList<>();
+                    for (int i = 0; i < 2000; i++) {
+                        int room = 1 + ThreadLocalRandom.current().nextInt(rooms);
+                        int from = ThreadLocalRandom.current().nextInt(8);
+                        LocalDate checkIn = JULY_1.plusDays(from);
+                        LocalDate checkOut = checkIn.plusDays(1 + ThreadLocalRandom.current().nextInt(3));
+                        BookingResult result = service.tryBookRoom(1, room, checkIn, checkOut);
+                        if (!result.isBooked()) {
+                            continue;
+                        }
+                        booked++;
+                        bookingIds.add(result.getBookingId());
+                        for (Room free : service.findAvailableRooms(RoomType.STANDARD_SUITE, checkIn, checkOut)) {
+                            assertTrue("Room " + room + " served as available after it was booked",
+                                    free.getRoomNumber() != room);
+                        }
+                        // Cancelling half of them keeps rooms turning over.
+                        if (booked % 2 == 0) {
+                            service.cancelBooking(bookingIds.remove(0));
+                        }
+                    }
+                    return booked;
+                }));
+            }
+        }
+        start.countDown();
+        int booked = 0;
+        for (Future<Integer> booker : bookers) {
+            booked += booker.get();
+        }
+        done.set(true);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+
+        assertTrue(booked > 0);
+        assertTrue(service.getAvailabilityCacheStats().getHits() > 0);
+        // Whatever is left cached agrees with the bookings.
+        for (int from = 0; from < 8; from++) {
+            for (int nights = 1; nights <= 3; nights++) {
+                LocalDate checkIn = JULY_1.plusDays(from);
+                LocalDate checkOut = checkIn.plusDays(nights);
+                for (Room free : service.findAvailableRooms(RoomType.STANDARD_SUITE, checkIn, checkOut)) {
+                    assertTrue(service.isRoomAvailable(free.getRoomNumber(), (int) checkIn.toEpochDay(),
+                            (int) checkOut.toEpochDay()));
+                }
+            }
+        }
+    }
+
+    private String free(RoomType roomType, int fromDay, int toDay) throws HotelReservationException {
+        List<Integer> numbers = new ArrayList<>();
+        for (Room room : service.findAvailableRooms(roomType, JULY_1.plusDays(fromDay), JULY_1.plusDays(toDay))) {
+            numbers.add(room.getRoomNumber());
+        }
+        return numbers.toString();
+    }
+}
@@ -0,0 +1,300 @@
+package com.hotel.service;
+
+import com.hotel.entities.RoomType;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class OccupancyCalendarTest extends TestCase {
+
+    private static final OccupancyCalendar.StayCheck NOTHING_PRUNED = (room, first, last) -> {
+        throw new AssertionError("Nothing was pruned");
+    };
+
+    public void testMatchesBruteForceAcrossManyWords() {
+        OccupancyCalendar calendar = new OccupancyCalendar(NOTHING_PRUNED);
+        Random random = new Random(7);
+        int rooms = 300;
+        RoomType[] types = new RoomType[rooms + 1];
+        boolean[][] occupied = new boolean[rooms + 1][120];
+
+        for (int room = 1; room <= rooms; room++) {
+            types[room] = RoomType.values()[random.nextInt(3)];
+            calendar.registerRoom(room, types[room]);
+        }
+        for (int i = 0; i < 2000; i++) {
+            int room = 1 + random.nextInt(rooms);
+            int first = random.nextInt(100);
+            int last = first + 1 + random.nextInt(10);
+            calendar.occupy(room, first, last);
+            for (int night = first; night < last; night++) {
+                occupied[room][night] = true;
+            }
+            if (i % 100 == 0) {
+                types[room] = RoomType.values()[random.nextInt(3)];
+                calendar.registerRoom(room, types[room]);
+            }
+        }
+
+        for (int query = 0; query < 500; query++) {
+            RoomType type = RoomType.values()[random.nextInt(3)];
+            int first = random.nextInt(110);
+            int last = first + 1 + random.nextInt(5);
+            List<Integer> expected = new ArrayList<>();
+            for (int room = 1; room <= rooms; room++) {
+                boolean free = types[room] == type;
+                for (int night = first; night < last && free; night++) {
+                    free = !occupied[room][night];
+                }
+                if (free) {
+                    expected.add(room);
+                }
+            }
+
+            List<Integer> actual = new ArrayList<>();
+            for (int room : calendar.findFreeRooms(type, first, last)) {
+                actual.add(room);
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    public void testEarliestFreeRunsMatchBruteForce() {
+        OccupancyCalendar calendar = new OccupancyCalendar(NOTHING_PRUNED);
+        Random random = new Random(11);
+        int rooms = 200;
+        RoomType[] types = new RoomType[rooms + 1];
+        boolean[][] occupied = new boolean[rooms + 1][200];
+
+        for (int room = 1; room <= rooms; room++) {
+            types[room] = RoomType.values()[random.nextInt(3)];
+            calendar.registerRoom(room, types[room]);
+        }
+        // Dense bookings, so many rooms have their first long run only after a while.
+        for (int i = 0; i < 6000; i++) {
+            int room = 1 + random.nextInt(rooms);
+            int first = random.nextInt(150);
+            int last = first + 1 + random.nextInt(4);
+            calendar.occupy(room, first, last);
+            for (int night = first; night < last; night++) {
+                occupied[room][night] = true;
+            }
+        }
+
+        for (int query = 0; query < 300; query++) {
+            RoomType type = RoomType.values()[random.nextInt(3)];
+            int from = random.nextInt(160);
+            int nights = 1 + random.nextInt(6);
+            int limit = 1 + random.nextInt(80);
+
+            // The earliest run of every room of the type, sorted by first night and then by room.
+            List<Long> expected = new ArrayList<>();
+            for (int room = 1; room <= rooms; room++) {
+                if (types[room] != type) {
+                    continue;
+                }
+                int start = from;
+                int free = 0;
+                while (free < nights) {
+                    free = occupied[room][start + free] ? 0 : free + 1;
+                    if (free == 0) {
+                        start = start + 1;
+                        while (occupied[room][start]) {
+                            start++;
+                        }
+                    }
+                }
+                expected.add((long) start << 32 | room);
+            }
+            expected.sort(null);
+
+            long[] actual = calendar.findEarliestFreeRuns(type, from, nights, limit);
+            assertEquals(Math.min(limit, expected.size()), actual.length);
+            for (int i = 0; i < actual.length; i++) {
+                assertEquals(expected.get(i).longValue(), actual[i]);
+            }
+        }
+    }
+
+    public void testEarliestFreeRunsOfAnEmptyTypeAreNone() {
+        OccupancyCalendar calendar = new OccupancyCalendar(NOTHING_PRUNED);
+        calendar.registerRoom(1, RoomType.STANDARD_SUITE);
+        assertEquals(0, calendar.findEarliestFreeRuns(RoomType.MASTER_SUITE, 0, 3, 10).length);
+        assertEquals(1, calendar.findEarliestFreeRuns(RoomType.STANDARD_SUITE, 0, 3, 10).length);
+    }
+
+    public void testReleasingTheLastRoomOfANightDropsIt() {
+        OccupancyCalendar calendar = new OccupancyCalendar(NOTHING_PRUNED);
+        calendar.registerRoom(1, RoomType.STANDARD_SUITE);
+        calendar.registerRoom(2, RoomType.STANDARD_SUITE);
+        calendar.occupy(1, 10, 14);
+        calendar.occupy(2, 12, 16);
+        assertEquals(6, calendar.nightCount());
+
+        calendar.release(1, 10, 14);
+        assertEquals(4, calendar.nightCount());
+        assertEquals(1, calendar.findFreeRooms(RoomType.STANDARD_SUITE, 12, 13)[0]);
+        calendar.release(2, 12, 16);
+        assertEquals(0, calendar.nightCount());
+        assertEquals(2, calendar.findFreeRooms(RoomType.STANDARD_SUITE, 10, 16).length);
+    }
+
+    public void testPrunedNightsAreCheckedRoomByRoom() {
+        Random random = new Random(13);
+        int rooms = 150;
+        RoomType[] types = new RoomType[rooms + 1];
+        boolean[][] occupied = new boolean[rooms + 1][200];
+        OccupancyCalendar calendar = new OccupancyCalendar((room, first, last) -> {
+            for (int night = first; night < last; night++) {
+                if (occupied[room][night]) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        for (int room = 1; room <= rooms; room++) {
+            types[room] = RoomType.values()[random.nextInt(3)];
+            calendar.registerRoom(room, types[room]);
+        }
+        for (int i = 0; i < 3000; i++) {
+            int room = 1 + random.nextInt(rooms);
+            int first = random.nextInt(100);
+            int last = first + 1 + random.nextInt(4);
+            boolean free = true;
+            for (int night = first; night < last; night++) {
+                free &= !occupied[room][night];
+            }
+            if (free) {
+                calendar.occupy(room, first, last);
+                for (int night = first; night < last; night++) {
+                    occupied[room][night] = true;
+                }
+            }
+        }
+
+        assertEquals(50, calendar.prune(50));
+        assertEquals(0, calendar.prune(40));
+        assertEquals(50, calendar.getHorizon());
+        assertEquals(53, calendar.nightCount());
+        // Past stays still book and cancel; only their nights from the horizon on are recorded.
+        calendar.release(1, 0, 200);
+        calendar.occupy(1, 45, 55);
+        for (int night = 0; night < 200; night++) {
+            occupied[1][night] = night >= 45 && night < 55;
+        }
+
+        for (int query = 0; query < 300; query++) {
+            RoomType type = RoomType.values()[random.nextInt(3)];
+            int first = random.nextInt(110);
+            int nights = 1 + random.nextInt(5);
+
+            List<Integer> expectedRooms = new ArrayList<>();
+            List<Long> expectedRuns = new ArrayList<>();
+            for (int room = 1; room <= rooms; room++) {
+                if (types[room] != type) {
+                    continue;
+                }
+                for (int start = first; ; start++) {
+                    boolean free = true;
+                    for (int night = start; night < start + nights; night++) {
+                        free &= !occupied[room][night];
+                    }
+                    if (free && start == first) {
+                        expectedRooms.add(room);
+                    }
+                    if (free) {
+                        expectedRuns.add((long) start << 32 | room);
+                        break;
+                    }
+                }
+            }
+            expectedRuns.sort(null);
+
+            List<Integer> actualRooms = new ArrayList<>();
+            for (int room : calendar.findFreeRooms(type, first, first + nights)) {
+                actualRooms.add(room);
+            }
+            assertEquals(expectedRooms, actualRooms);
+            long[] actualRuns = calendar.findEarliestFreeRuns(type, first, nights, rooms);
+            assertEquals(expectedRuns.size(), actualRuns.length);
+            for (int i = 0; i < actualRuns.length; i++) {
+                assertEquals(expectedRuns.get(i).longValue(), actualRuns[i]);
+            }
+        }
+    }
+
+    public void testConcurrentOccupyAndReleaseOfRoomsSharingWords() throws InterruptedException {
+        OccupancyCalendar calendar = new OccupancyCalendar(NOTHING_PRUNED);
+        int rooms = 256;
+        int threads = 4;
+        boolean[][] occupied = new boolean[rooms][60];
+        for (int room = 0; room < rooms; room++) {
+            calendar.registerRoom(room, RoomType.STANDARD_SUITE);
+        }
+
+        // Each writer owns every fourth room, so all of them set and clear bits in the same words.
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int owner = t;
+            Random random = new Random(t);
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int room = owner + threads * random.nextInt(rooms / threads);
+                    int first = random.nextInt(50);
+                    int last = first + 1 + random.nextInt(10);
+                    boolean free = true;
+                    for (int night = first; night < last; night++) {
+                        free &= !occupied[room][night];
+                    }
+                    if (free) {
+                        calendar.occupy(room, first, last);
+                    } else {
+                        calendar.release(room, first, last);
+                    }
+                    for (int night = first; night < last; night++) {
+                        occupied[room][night] = free;
+                    }
+                }
+            }));
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                calendar.findFreeRooms(RoomType.STANDARD_SUITE, 20, 25);
+                calendar.findEarliestFreeRuns(RoomType.STANDARD_SUITE, 0, 3, 10);
+            }
+        });
+        reader.start();
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writing.set(false);
+        reader.join();
+
+        for (int night = 0; night < 60; night++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int room = 0; room < rooms; room++) {
+                if (!occupied[room][night]) {
+                    expected.add(room);
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            for (int room : calendar.findFreeRooms(RoomType.STANDARD_SUITE, night, night + 1)) {
+                actual.add(room);
+            }
+            assertEquals(expected, actual);
+        }
+
+        for (int room = 0; room < rooms; room++) {
+            calendar.release(room, 0, 60);
+        }
+        assertEquals(0, calendar.nightCount());
+    }
+}
@@ -0,0 +1,102 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.exception.HotelReservationException;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ServiceConcurrencyTest extends TestCase {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 5000;
+    private static final int ROOMS = 24;
+    private static final int USERS = 12;
+    private static final int INITIAL_BALANCE = 60000;
+
+    public void testConcurrentBookingsNeverDoubleBookOrOverdraw() throws Exception {
+        Service service = new Service();
+        for (int room = 1; room <= ROOMS; room++) {
+            service.setRoom(room, RoomType.values()[room % RoomType.values().length], 100 * room);
+        }
+        for (int user = 1; user <= USERS; user++) {
+            service.setUser(user, INITIAL_BALANCE);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            results.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                int rejected = 0;
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int firstDay = 1 + random.nextInt(90);
+                    try {
+                        service.bookRoom(1 + random.nextInt(USERS), 1 + random.nextInt(ROOMS),
+                                ServiceTest.date(2026, 1, firstDay),
+                                ServiceTest.date(2026, 1, firstDay + 1 + random.nextInt(4)));
+                    } catch (HotelReservationException e) {
+                        rejected++;
+                    }
+                }
+                return rejected;
+            }));
+        }
+        start.countDown();
+        int rejected = 0;
+        for (Future<Integer> result : results) {
+            rejected += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        List<Booking> bookings = service.getBookings();
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD, bookings.size() + rejected);
+        assertNoDoubleBooking(bookings);
+        assertBalancesMatchCharges(service.getUsers(), bookings);
+    }
+
+    private void assertNoDoubleBooking(List<Booking> bookings) {
+        HashMap<Integer, List<Booking>> byRoom = new HashMap<>();
+        HashSet<Integer> ids = new HashSet<>();
+        for (Booking booking : bookings) {
+            assertTrue("Duplicate booking id " + booking.getBookingId(), ids.add(booking.getBookingId()));
+            byRoom.computeIfAbsent(booking.getRoomNumber(), room -> new ArrayList<>()).add(booking);
+        }
+        for (List<Booking> roomBookings : byRoom.values()) {
+            roomBookings.sort(Comparator.comparing(Booking::getCheckInDate));
+            for (int i = 1; i < roomBookings.size(); i++) {
+                Booking previous = roomBookings.get(i - 1);
+                Booking next = roomBookings.get(i);
+                assertFalse("Room " + next.getRoomNumber() + " double-booked",
+                        next.getCheckInDate().before(previous.getCheckOutDate()));
+            }
+        }
+    }
+
+    private void assertBalancesMatchCharges(List<User> users, List<Booking> bookings) {
+        HashMap<Integer, Integer> charged = new HashMap<>();
+        for (Booking booking : bookings) {
+            charged.merge(booking.getUserId(), booking.getTotalPrice(), Integer::sum);
+        }
+        for (User user : users) {
+            assertTrue("User " + user.getUserId() + " overdrawn", user.getBalance() >= 0);
+            assertEquals(INITIAL_BALANCE - charged.getOrDefault(user.getUserId(), 0), user.getBalance());
+        }
+    }
+}
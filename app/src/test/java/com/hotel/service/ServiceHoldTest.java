@@ -0,0 +1,137 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.RoomType;
+import com.hotel.exception.HoldNotFoundException;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.exception.InsufficientBalanceException;
+import com.hotel.exception.RoomNotAvailableException;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ServiceHoldTest extends TestCase {
+
+    private static final LocalDate JULY_1 = LocalDate.of(2026, 7, 1);
+    private static final LocalDate JULY_4 = LocalDate.of(2026, 7, 4);
+    private static final Duration TEN_MINUTES = Duration.ofMinutes(10);
+
+    private Service service;
+
+    @Override
+    protected void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        service.setRoom(2, RoomType.STANDARD_SUITE, 1000);
+        service.setUser(1, 5000);
+    }
+
+    public void testHoldBlocksTheRoomWithoutCharging() throws HotelReservationException {
+        Hold hold = service.holdRoom(1, 1, JULY_1, JULY_4, TEN_MINUTES);
+
+        assertEquals(3000, hold.getTotalPrice());
+        assertEquals(5000, service.getUsers().get(0).getBalance());
+        assertEquals(1, service.getHoldCount());
+        assertFalse(service.tryBookRoom(1, 1, JULY_1.plusDays(2), JULY_4.plusDays(2)).isBooked());
+        assertEquals(1, service.findAvailableRooms(RoomType.STANDARD_SUITE, JULY_1, JULY_4).size());
+        try {
+            service.holdRoom(1, 1, JULY_1, JULY_1.plusDays(1), TEN_MINUTES);
+            fail("Expected RoomNotAvailableException");
+        } catch (RoomNotAvailableException expected) {
+        }
+        assertEquals(0, service.getBookingCount());
+    }
+
+    public void testConfirmedHoldBecomesABookingAtTheQuotedPrice() throws HotelReservationException {
+        Hold hold = service.holdRoom(1, 1, JULY_1, JULY_4, TEN_MINUTES);
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1500);
+
+        Booking booking = service.confirmHold(hold.getHoldId());
+
+        assertEquals(3000, booking.getTotalPrice());
+        assertEquals(1000, booking.getBookedPricePerNight());
+        assertEquals(2000, service.getUsers().get(0).getBalance());
+        assertEquals(booking, service.findBooking(booking.getBookingId()));
+        assertEquals(0, service.getHoldCount());
+        assertNull(service.findHold(hold.getHoldId()));
+        assertFalse(service.releaseHold(hold.getHoldId()));
+        // The booking keeps the nights after the hold is gone, and cancelling frees them.
+        assertFalse(service.tryBookRoom(1, 1, JULY_1, JULY_4).isBooked());
+        service.cancelBooking(booking.getBookingId());
+        assertTrue(service.tryBookRoom(1, 1, JULY_1, JULY_4).isBooked());
+        try {
+            service.confirmHold(hold.getHoldId());
+            fail("Expected HoldNotFoundException");
+        } catch (HoldNotFoundException expected) {
+        }
+    }
+
+    public void testShortBalanceKeepsTheHold() throws HotelReservationException {
+        Hold hold = service.holdRoom(1, 1, JULY_1, JULY_1.plusDays(6), TEN_MINUTES);
+        try {
+            service.confirmHold(hold.getHoldId());
+            fail("Expected InsufficientBalanceException");
+        } catch (InsufficientBalanceException expected) {
+            assertEquals(6000, expected.getRequired());
+        }
+        assertEquals(1, service.getHoldCount());
+
+        service.setUser(1, 6000);
+        assertEquals(0, service.confirmHold(hold.getHoldId()).getUserBalanceAtBooking() - 6000);
+        assertEquals(0, service.getUsers().get(0).getBalance());
+    }
+
+    public void testReleasedHoldFreesTheRoom() throws HotelReservationException {
+        Hold hold = service.holdRoom(1, 1, JULY_1, JULY_4, TEN_MINUTES);
+
+        assertTrue(service.releaseHold(hold.getHoldId()));
+        assertFalse(service.releaseHold(hold.getHoldId()));
+        assertEquals(0, service.getHoldCount());
+        assertTrue(service.tryBookRoom(1, 1, JULY_1, JULY_4).isBooked());
+    }
+
+    public void testExpiredHoldsFreeTheirRooms() throws HotelReservationException {
+        service.setUser(1, 100000);
+        List<Hold> holds = new ArrayList<>();
+        for (int day = 0; day < 100; day++) {
+            Duration timeToLive = day % 2 == 0 ? TEN_MINUTES : Duration.ofHours(1);
+            holds.add(service.holdRoom(1, 1 + day % 2, JULY_1.plusDays(day), JULY_1.plusDays(day + 1), timeToLive));
+        }
+        long start = holds.get(0).getExpiresAt();
+
+        assertEquals(0, service.expireHolds(start - 1));
+        assertEquals(50, service.expireHolds(start + 1000));
+        assertEquals(50, service.getHoldCount());
+        assertTrue(service.tryBookRoom(1, 1, JULY_1, JULY_4).isBooked());
+        assertFalse(service.tryBookRoom(1, 2, JULY_1, JULY_4).isBooked());
+
+        assertEquals(50, service.expireHolds(start + Duration.ofHours(1).toMillis()));
+        assertEquals(0, service.getHoldCount());
+        assertTrue(service.tryBookRoom(1, 2, JULY_1, JULY_4).isBooked());
+        assertEquals(0, service.expireHolds(start + Duration.ofDays(1).toMillis()));
+    }
+
+    public void testExpiryThreadFreesRoomsOnItsOwn() throws Exception {
+        Hold hold = service.holdRoom(1, 1, JULY_1, JULY_4, Duration.ofMillis(50));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.getHoldCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, service.getHoldCount());
+        assertNull(service.findHold(hold.getHoldId()));
+        assertTrue(service.tryBookRoom(1, 1, JULY_1, JULY_4).isBooked());
+        assertEquals(1, service.getMetrics().getExpiredHoldCount());
+    }
+
+    public void testRejectsNonPositiveTimeToLive() throws HotelReservationException {
+        try {
+            service.holdRoom(1, 1, JULY_1, JULY_4, Duration.ZERO);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hotel.service;
+
+import com.hotel.entities.RoomType;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.exception.InsufficientBalanceException;
+import com.hotel.metrics.SimpleMetricsRegistry;
+import junit.framework.TestCase;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+public class ServiceMetricsTest extends TestCase {
+
+    private SimpleMetricsRegistry registry;
+    private Service service;
+
+    @Override
+    protected void setUp() {
+        registry = new SimpleMetricsRegistry();
+        service = new Service(registry, 1);
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        service.setRoom(2, RoomType.JUNIOR_SUITE, 2000);
+        service.setUser(1, 5000);
+    }
+
+    public void testCountsOutcomesRevenueAndLatencies() throws HotelReservationException {
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 3));
+        service.tryBookRoom(1, 1, LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 3));
+        service.tryBookRoom(1, 2, LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 5));
+        try {
+            service.bookRoom(1, 2, LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 5));
+            fail("Expected InsufficientBalanceException");
+        } catch (InsufficientBalanceException expected) {
+        }
+        service.bookRooms(Arrays.asList(new BookingRequest(1, 2, LocalDate.of(2026, 8, 1), LocalDate.of(2026, 8, 2))));
+
+        ServiceMetricsMXBean metrics = service.getMetrics();
+        assertEquals(2, metrics.getBookingCount());
+        assertEquals(4000, metrics.getRevenue());
+        assertEquals(Long.valueOf(1), metrics.getRejectionCounts().get("ROOM_NOT_AVAILABLE"));
+        assertEquals(Long.valueOf(2), metrics.getRejectionCounts().get("INSUFFICIENT_BALANCE"));
+        assertEquals(Long.valueOf(0), metrics.getRejectionCounts().get("BATCH"));
+        assertEquals(2, metrics.getRoomCount());
+        assertEquals(1, metrics.getUserCount());
+        assertEquals(2, metrics.getStoredBookingCount());
+
+        Map<String, Long> latencies = metrics.getLatencies();
+        assertEquals(Long.valueOf(1), latencies.get("bookRoom.BOOKED.samples"));
+        assertEquals(Long.valueOf(2), latencies.get("bookRoom.INSUFFICIENT_BALANCE.samples"));
+        assertEquals(Long.valueOf(2), latencies.get("setRoom.INSERTED.samples"));
+        assertTrue(latencies.get("bookRoom.BOOKED.p99") > 0);
+
+        assertEquals(2, registry.getHistograms().get("bookRoom.latency.INSUFFICIENT_BALANCE").getCount());
+        assertEquals(Long.valueOf(2), registry.readGauges().get("bookings.stored"));
+    }
+
+    public void testCountsInsertsAndUpdatesApart() {
+        service.setRoom(1, RoomType.MASTER_SUITE, 3000);
+        service.setUser(1, 9000);
+        service.setUser(2, 100);
+        service.setUser(2, 200);
+
+        ServiceMetricsMXBean metrics = service.getMetrics();
+        assertEquals(2, metrics.getRoomInsertCount());
+        assertEquals(1, metrics.getRoomUpdateCount());
+        assertEquals(2, metrics.getUserInsertCount());
+        assertEquals(2, metrics.getUserUpdateCount());
+
+        Map<String, Long> latencies = metrics.getLatencies();
+        assertEquals(Long.valueOf(1), latencies.get("setRoom.UPDATED.samples"));
+        assertEquals(Long.valueOf(2), latencies.get("setUser.UPDATED.samples"));
+        assertEquals(1, registry.getHistograms().get("setRoom.latency.UPDATED").getCount());
+    }
+
+    public void testMetricsAreExposedOverJmx() throws Exception {
+        service.tryBookRoom(1, 1, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 2));
+        ObjectName name = service.registerMBean("metrics-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "BookingCount"));
+            assertEquals(1000L, server.getAttribute(name, "Revenue"));
+            assertEquals(2L, server.getAttribute(name, "RoomCount"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    public void testServiceWithoutRegistryRecordsNothing() throws HotelReservationException {
+        Service unmetered = new Service(null);
+        unmetered.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        unmetered.setUser(1, 5000);
+        unmetered.bookRoom(1, 1, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 2));
+
+        assertNull(unmetered.getMetrics());
+        assertEquals(1, unmetered.getBookingCount());
+    }
+}
@@ -0,0 +1,168 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import junit.framework.TestCase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ServiceSnapshotTest extends TestCase {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 7, 1);
+
+    public void testSnapshotIsUnaffectedByLaterChanges() throws Exception {
+        Service service = new Service();
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        service.setRoom(2, RoomType.JUNIOR_SUITE, 3000);
+        service.setUser(1, 10000);
+        service.bookRoom(1, 1, DAY, DAY.plusDays(2));
+
+        ServiceSnapshot before = service.snapshot();
+
+        service.setRoom(1, RoomType.MASTER_SUITE, 5000);
+        service.setRoom(3, RoomType.STANDARD_SUITE, 800);
+        service.setUser(2, 500);
+        service.bookRoom(1, 2, DAY, DAY.plusDays(1));
+        service.setUser(1, 9999);
+
+        assertEquals(2, before.getRooms().size());
+        assertEquals(RoomType.STANDARD_SUITE, before.getRooms().page(0, 1).get(0).getRoomType());
+        assertEquals(1, before.getUsers().size());
+        assertEquals(8000, before.getUsers().iterator().next().getBalance());
+        assertEquals(1, before.getBookings().size());
+
+        ServiceSnapshot after = service.snapshot();
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(roomNumbers(service.getRooms()), roomNumbers(after.getRooms()));
+        assertEquals(RoomType.MASTER_SUITE, after.getRooms().newestFirst().page(2, 1).get(0).getRoomType());
+        assertEquals(2, after.getUsers().size());
+        assertEquals(9999, after.getUsers().iterator().next().getBalance());
+        assertEquals(2, after.getBookings().size());
+    }
+
+    public void testViewsPageInBothDirections() throws Exception {
+        Service service = new Service();
+        for (int room = 1; room <= 10; room++) {
+            service.setRoom(room, RoomType.STANDARD_SUITE, 100);
+        }
+        service.setRoom(4, RoomType.JUNIOR_SUITE, 400);
+        service.setUser(1, 100000);
+        for (int room = 1; room <= 10; room++) {
+            service.bookRoom(1, room, DAY, DAY.plusDays(1));
+        }
+
+        ServiceSnapshot snapshot = service.snapshot();
+        assertEquals(listOf(4, 5, 6), roomNumbers(snapshot.getRooms().page(3, 3)));
+        assertEquals(RoomType.JUNIOR_SUITE, snapshot.getRooms().page(3, 1).get(0).getRoomType());
+        assertEquals(listOf(10, 9, 8), roomNumbers(snapshot.getRooms().newestFirst().page(0, 3)));
+        assertEquals(listOf(2, 1), roomNumbers(snapshot.getRooms().newestFirst().page(8, 5)));
+        assertTrue(snapshot.getRooms().page(10, 5).isEmpty());
+
+        List<Booking> newest = snapshot.getBookings().newestFirst().page(0, 2);
+        assertEquals(10, newest.get(0).getRoomNumber());
+        assertEquals(9, newest.get(1).getRoomNumber());
+        assertEquals(3, snapshot.getBookings().page(2, 1).get(0).getRoomNumber());
+        assertSame(snapshot.getBookings(), snapshot.getBookings().newestFirst().newestFirst());
+    }
+
+    public void testSnapshotsSeeTheRoomVersionsOfTheirTime() {
+        Service service = new Service();
+        service.setUser(1, 0);
+        service.setRoom(1, RoomType.STANDARD_SUITE, 0);
+        List<ServiceSnapshot> snapshots = new ArrayList<>();
+        for (int change = 1; change <= 200; change++) {
+            service.setRoom(1 + change % 3, RoomType.STANDARD_SUITE, change);
+            service.setUser(1, change);
+            snapshots.add(service.snapshot());
+        }
+
+        for (int change = 1; change <= 200; change++) {
+            ServiceSnapshot snapshot = snapshots.get(change - 1);
+            assertEquals(change, snapshot.getUsers().iterator().next().getBalance());
+            // Rooms keep registration order: 1, then 2 and 3 as the first two changes register them.
+            Room changed = snapshot.getRooms().page(change % 3, 1).get(0);
+            assertEquals(1 + change % 3, changed.getRoomNumber());
+            assertEquals(change, changed.getPricePerNight());
+            assertEquals(Math.min(3, change + 1), snapshot.getRooms().size());
+            assertEquals(change + 1, snapshot.getRoomVersions().size());
+        }
+    }
+
+    public void testConcurrentSnapshotsChargeEveryBookingTheyContain() throws Exception {
+        int rooms = 16;
+        int users = 8;
+        int balance = 1_000_000;
+        Service service = new Service();
+        for (int room = 1; room <= rooms; room++) {
+            service.setRoom(room, RoomType.STANDARD_SUITE, 10 * room);
+        }
+        for (int user = 1; user <= users; user++) {
+            service.setUser(user, balance);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            long seed = t;
+            writers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                while (running.get()) {
+                    int firstDay = random.nextInt(2000);
+                    service.tryBookRoom(1 + random.nextInt(users), 1 + random.nextInt(rooms),
+                            DAY.plusDays(firstDay), DAY.plusDays(firstDay + 1 + random.nextInt(3)));
+                }
+                return null;
+            }));
+        }
+
+        int checked = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        while (System.nanoTime() < deadline) {
+            ServiceSnapshot snapshot = service.snapshot();
+            Map<Integer, Integer> spent = new HashMap<>();
+            for (Booking booking : snapshot.getBookings()) {
+                spent.merge(booking.getUserId(), booking.getTotalPrice(), Integer::sum);
+            }
+            for (User user : snapshot.getUsers()) {
+                assertEquals(balance, user.getBalance() + spent.getOrDefault(user.getUserId(), 0));
+            }
+            checked++;
+        }
+        running.set(false);
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        assertTrue(checked > 0);
+        assertTrue(service.getBookingCount() > 0);
+    }
+
+    private static List<Integer> roomNumbers(Iterable<Room> rooms) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Room room : rooms) {
+            numbers.add(room.getRoomNumber());
+        }
+        return numbers;
+    }
+
+    private static List<Integer> listOf(Integer... numbers) {
+        List<Integer> list = new ArrayList<>();
+        for (Integer number : numbers) {
+            list.add(number);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,471 @@
+package com.hotel.service;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.exception.BookingNotFoundException;
+import com.hotel.exception.HotelReservationException;
+import com.hotel.exception.InsufficientBalanceException;
+import com.hotel.exception.InvalidDateException;
+import com.hotel.exception.RoomNotAvailableException;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+public class ServiceTest extends TestCase {
+
+    private Service service;
+
+    @Override
+    protected void setUp() {
+        service = new Service();
+        service.setRoom(1, RoomType.STANDARD_SUITE, 1000);
+        service.setRoom(2, RoomType.JUNIOR_SUITE, 2000);
+        service.setUser(1, 100000);
+    }
+
+    public void testBackToBackBookingsDoNotOverlap() throws HotelReservationException {
+        service.bookRoom(1, 1, date(2026, 7, 7), date(2026, 7, 9));
+        service.bookRoom(1, 1, date(2026, 7, 9), date(2026, 7, 10));
+        service.bookRoom(1, 1, date(2026, 7, 5), date(2026, 7, 7));
+
+        assertEquals(3, service.getBookings().size());
+    }
+
+    public void testOverlappingBookingIsRejected() throws HotelReservationException {
+        service.bookRoom(1, 1, date(2026, 7, 7), date(2026, 7, 9));
+        service.bookRoom(1, 1, date(2026, 7, 12), date(2026, 7, 15));
+
+        assertNotAvailable(1, date(2026, 7, 8), date(2026, 7, 10));
+        assertNotAvailable(1, date(2026, 7, 1), date(2026, 7, 20));
+        assertNotAvailable(1, date(2026, 7, 13), date(2026, 7, 14));
+        assertNotAvailable(1, date(2026, 7, 10), date(2026, 7, 13));
+    }
+
+    public void testBookingsOfOtherRoomsDoNotBlock() throws HotelReservationException {
+        service.bookRoom(1, 1, date(2026, 7, 7), date(2026, 7, 9));
+        service.bookRoom(1, 2, date(2026, 7, 7), date(2026, 7, 9));
+
+        assertEquals(2, service.getBookings().size());
+    }
+
+    public void testSetRoomKeepsPlaceAndHistory() throws Exception {
+        Room original = service.getRooms().get(0);
+        service.bookRoom(1, 1, date(2026, 7, 1), date(2026, 7, 3));
+        service.setRoom(3, RoomType.MASTER_SUITE, 3000);
+        Thread.sleep(2);
+        service.setRoom(1, RoomType.MASTER_SUITE, 10000);
+
+        Room updated = service.getRooms().get(0);
+        assertEquals(1, updated.getRoomNumber());
+        assertEquals(10000, updated.getPricePerNight());
+        assertEquals(original.getCreationDate(), updated.getCreationDate());
+        assertEquals(3, service.getRooms().get(2).getRoomNumber());
+
+        List<Room> history = service.getRoomHistory(1);
+        assertEquals(2, history.size());
+        assertEquals(1000, history.get(0).getPricePerNight());
+        assertEquals(1000, service.findRoomAt(1, new Date(updated.getValidFromTime() - 1)).getPricePerNight());
+        assertEquals(10000, service.findRoomAt(1, updated.getValidFrom()).getPricePerNight());
+        assertNull(service.findRoomAt(1, new Date(original.getCreationTime() - 1)));
+        assertTrue(service.getRoomHistory(9).isEmpty());
+
+        // The booking refers to the version it was made at.
+        Booking booking = service.getBookings().get(0);
+        assertEquals(RoomType.STANDARD_SUITE, booking.getBookedRoomType());
+        assertEquals(1000, booking.getBookedRoom().getPricePerNight());
+        assertEquals(2000, booking.getTotalPrice());
+    }
+
+    public void testSetUserUpdatesBalanceInPlace() {
+        service.setUser(2, 500);
+        service.setUser(1, 700);
+
+        assertEquals(1, service.getUsers().get(0).getUserId());
+        assertEquals(700, service.getUsers().get(0).getBalance());
+    }
+
+    public void testBatchBooksEverythingAndChargesOnce() {
+        BatchBookingResult result = service.bookRooms(Arrays.asList(
+                new BookingRequest(1, 2, date(2026, 7, 1), date(2026, 7, 3)),
+                new BookingRequest(1, 1, date(2026, 7, 1), date(2026, 7, 3)),
+                new BookingRequest(1, 1, date(2026, 7, 3), date(2026, 7, 4))));
+
+        assertTrue(result.isCommitted());
+        assertEquals(3, result.getBookings().size());
+        assertEquals(2, result.getItems().get(0).getBooking().getRoomNumber());
+        assertEquals(100000 - 4000 - 2000 - 1000, service.getUsers().get(0).getBalance());
+        assertEquals(100000, result.getItems().get(2).getBooking().getUserBalanceAtBooking());
+    }
+
+    public void testBatchIsRejectedAsAWholeOnConflict() throws HotelReservationException {
+        service.bookRoom(1, 2, date(2026, 7, 10), date(2026, 7, 12));
+        int balance = service.getUsers().get(0).getBalance();
+
+        BatchBookingResult result = service.bookRooms(Arrays.asList(
+                new BookingRequest(1, 1, date(2026, 7, 1), date(2026, 7, 10)),
+                new BookingRequest(1, 2, date(2026, 7, 11), date(2026, 7, 13)),
+                new BookingRequest(1, 1, date(2026, 7, 2), date(2026, 7, 3))));
+
+        assertFalse(result.isCommitted());
+        assertEquals(BatchBookingResult.Status.ABORTED, result.getItems().get(0).getStatus());
+        assertTrue(result.getItems().get(1).getError() instanceof RoomNotAvailableException);
+        assertTrue(result.getItems().get(2).getError() instanceof RoomNotAvailableException);
+        assertEquals(1, service.getBookings().size());
+        assertEquals(balance, service.getUsers().get(0).getBalance());
+    }
+
+    public void testBatchIsRejectedWhenAnyUserCannotPayTheTotal() {
+        service.setUser(2, 1500);
+
+        BatchBookingResult result = service.bookRooms(Arrays.asList(
+                new BookingRequest(1, 2, date(2026, 7, 1), date(2026, 7, 2)),
+                new BookingRequest(2, 1, date(2026, 7, 1), date(2026, 7, 2)),
+                new BookingRequest(2, 1, date(2026, 7, 2), date(2026, 7, 3))));
+
+        assertFalse(result.isCommitted());
+        assertEquals(BatchBookingResult.Status.ABORTED, result.getItems().get(0).getStatus());
+        assertTrue(result.getItems().get(2).getError() instanceof InsufficientBalanceException);
+        assertEquals(100000, service.getUsers().get(0).getBalance());
+        assertEquals(1500, service.getUsers().get(1).getBalance());
+        assertTrue(service.getBookings().isEmpty());
+    }
+
+    public void testFindAvailableRoomsByTypeAndDates() throws HotelReservationException {
+        service.setRoom(3, RoomType.JUNIOR_SUITE, 2500);
+        service.setRoom(4, RoomType.JUNIOR_SUITE, 2500);
+        service.bookRoom(1, 2, date(2026, 7, 1), date(2026, 7, 5));
+        service.bookRoom(1, 4, date(2026, 7, 4), date(2026, 7, 6));
+
+        assertEquals("[3]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE,
+                date(2026, 7, 3), date(2026, 7, 5))));
+        assertEquals("[2, 3, 4]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE,
+                date(2026, 7, 6), date(2026, 7, 8))));
+        assertEquals("[2, 3]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE,
+                date(2026, 7, 5), date(2026, 7, 6))));
+
+        service.setRoom(3, RoomType.MASTER_SUITE, 5000);
+        assertEquals("[2]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE,
+                date(2026, 7, 5), date(2026, 7, 6))));
+        assertEquals("[3]", roomNumbers(service.findAvailableRooms(RoomType.MASTER_SUITE,
+                date(2026, 7, 5), date(2026, 7, 6))));
+    }
+
+    public void testFindEarliestStaysOfAType() throws HotelReservationException {
+        service.setRoom(3, RoomType.JUNIOR_SUITE, 2500);
+        service.setRoom(4, RoomType.JUNIOR_SUITE, 2500);
+        LocalDate july1 = LocalDate.of(2026, 7, 1);
+        // Room 2 is free from July 5, room 3 has a two-night gap on July 3, room 4 is held until July 4.
+        service.bookRoom(1, 2, july1, july1.plusDays(4));
+        service.bookRoom(1, 3, july1, july1.plusDays(2));
+        service.bookRoom(1, 3, july1.plusDays(4), july1.plusDays(5));
+        service.holdRoom(1, 4, july1, july1.plusDays(3), java.time.Duration.ofMinutes(10));
+
+        AvailableStay earliest = service.findEarliestStay(RoomType.JUNIOR_SUITE, july1, 3);
+        assertEquals(4, earliest.getRoomNumber());
+        assertEquals(july1.plusDays(3), earliest.getCheckIn());
+        assertEquals(july1.plusDays(6), earliest.getCheckOut());
+        assertEquals(7500, earliest.getTotalPrice());
+
+        List<AvailableStay> stays = service.findEarliestStays(RoomType.JUNIOR_SUITE, july1, 2, 10);
+        assertEquals(3, stays.size());
+        assertEquals(3, stays.get(0).getRoomNumber());
+        assertEquals(july1.plusDays(2), stays.get(0).getCheckIn());
+        assertEquals(4, stays.get(1).getRoomNumber());
+        assertEquals(2, stays.get(2).getRoomNumber());
+        assertEquals(july1.plusDays(4), stays.get(2).getCheckIn());
+        assertEquals(1, service.findEarliestStays(RoomType.JUNIOR_SUITE, july1, 2, 1).size());
+
+        service.bookRoom(1, stays.get(0).getRoomNumber(), stays.get(0).getCheckIn(), stays.get(0).getCheckOut());
+        assertNull(service.findEarliestStay(RoomType.MASTER_SUITE, july1, 3));
+    }
+
+    public void testListenersGetCopiesOfUsersSet() {
+        List<Integer> balances = new ArrayList<>();
+        service.addListener(new ServiceListener() {
+            @Override
+            public void roomSet(Room room) {
+            }
+
+            @Override
+            public void userSet(User user) {
+                balances.add(user.getBalance());
+                user.setBalance(1);
+            }
+
+            @Override
+            public void bookingCreated(Booking booking) {
+            }
+
+            @Override
+            public void bookingCancelled(Booking booking) {
+            }
+        });
+
+        service.setUser(1, 5000);
+        service.setUser(9, 700);
+        assertEquals("[5000, 700]", balances.toString());
+        assertEquals(5000, service.getUsers().get(0).getBalance());
+        assertEquals(700, service.getUsers().get(1).getBalance());
+    }
+
+    public void testSearchesReachingBeforePrunedNightsCheckBookedStays() throws HotelReservationException {
+        service.setRoom(3, RoomType.JUNIOR_SUITE, 2500);
+        LocalDate july1 = LocalDate.of(2026, 7, 1);
+        service.bookRoom(1, 2, july1, july1.plusDays(4));
+        service.bookRoom(1, 3, july1.plusDays(2), july1.plusDays(3));
+        assertTrue(service.pruneOccupancy((int) july1.plusDays(3).toEpochDay()) > 0);
+
+        assertEquals("[]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE, july1.plusDays(2),
+                july1.plusDays(4))));
+        assertEquals("[3]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE, july1, july1.plusDays(2))));
+        assertEquals("[3]", roomNumbers(service.findAvailableRooms(RoomType.JUNIOR_SUITE, july1.plusDays(3),
+                july1.plusDays(4))));
+        List<AvailableStay> stays = service.findEarliestStays(RoomType.JUNIOR_SUITE, july1.plusDays(1), 2, 10);
+        assertEquals(3, stays.get(0).getRoomNumber());
+        assertEquals(july1.plusDays(3), stays.get(0).getCheckIn());
+        assertEquals(2, stays.get(1).getRoomNumber());
+        assertEquals(july1.plusDays(4), stays.get(1).getCheckIn());
+    }
+
+    public void testFindBookingsOfUserAndByDayRange() throws HotelReservationException {
+        service.setUser(2, 100000);
+        service.bookRoom(1, 1, date(2026, 7, 10), date(2026, 7, 12));
+        service.bookRoom(2, 2, date(2026, 7, 3), date(2026, 7, 10));
+        service.bookRooms(Arrays.asList(
+                new BookingRequest(1, 1, date(2026, 7, 1), date(2026, 7, 3)),
+                new BookingRequest(2, 1, date(2026, 7, 3), date(2026, 7, 5))));
+
+        assertEquals("[1, 3]", bookingIds(service.findBookingsOfUser(1)));
+        assertEquals("[2, 4]", bookingIds(service.findBookingsOfUser(2)));
+        assertEquals("[]", bookingIds(service.findBookingsOfUser(3)));
+
+        assertEquals("[2, 4, 1]", bookingIds(service.findBookingsCheckingIn(
+                LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 11))));
+        assertEquals("[3]", bookingIds(service.findBookingsCheckingIn(date(2026, 6, 1), date(2026, 7, 3))));
+        assertEquals("[]", bookingIds(service.findBookingsCheckingIn(date(2026, 7, 11), date(2026, 7, 11))));
+        assertEquals("[2, 1]", bookingIds(service.findBookingsCheckingOut(
+                LocalDate.of(2026, 7, 10), LocalDate.of(2026, 8, 1))));
+    }
+
+    public void testStayAcrossDaylightSavingChangeCountsCalendarNights() throws HotelReservationException {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+        try {
+            // Clocks go forward on 2026-03-29, so these two nights last only 47 hours.
+            service.bookRoom(1, 1, date(2026, 3, 28), date(2026, 3, 30));
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+
+        assertEquals(2, service.getBookings().get(0).getNumberOfNights());
+        assertEquals(98000, service.getUsers().get(0).getBalance());
+    }
+
+    public void testSameDayStayWithDifferentTimesIsRejected() throws HotelReservationException {
+        Date morning = date(2026, 7, 1);
+        Date evening = new Date(morning.getTime() + 10 * 60 * 60 * 1000L);
+        try {
+            service.bookRoom(1, 1, morning, evening);
+            fail("Expected InvalidDateException");
+        } catch (InvalidDateException expected) {
+        }
+
+        assertEquals(BookingResult.Status.INVALID_DATES, service.tryBookRoom(1, 1, morning, evening).getStatus());
+        assertEquals(0, service.getBookings().size());
+        assertEquals(100000, service.getUsers().get(0).getBalance());
+    }
+
+    public void testLocalDateBookingSharesCalendarWithDateBooking() throws HotelReservationException {
+        service.bookRoom(1, 1, LocalDate.of(2026, 7, 7), LocalDate.of(2026, 7, 9));
+
+        assertEquals(LocalDate.of(2026, 7, 7), service.getBookings().get(0).getCheckIn());
+        assertNotAvailable(1, date(2026, 7, 8), date(2026, 7, 10));
+        assertEquals("[]", roomNumbers(service.findAvailableRooms(RoomType.STANDARD_SUITE,
+                LocalDate.of(2026, 7, 8), LocalDate.of(2026, 7, 9))));
+        try {
+            service.bookRoom(1, 1, LocalDate.of(2026, 7, 20), LocalDate.of(2026, 7, 20));
+            fail("Expected InvalidDateException");
+        } catch (InvalidDateException expected) {
+        }
+    }
+
+    public void testTryBookRoomReportsRejectionsWithoutThrowing() {
+        BookingResult booked = service.tryBookRoom(1, 2, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 3));
+        assertTrue(booked.isBooked());
+        assertEquals(1, booked.getBookingId());
+
+        BookingResult taken = service.tryBookRoom(1, 2, LocalDate.of(2026, 7, 2), LocalDate.of(2026, 7, 4));
+        assertEquals(BookingResult.Status.ROOM_NOT_AVAILABLE, taken.getStatus());
+        assertEquals(2, taken.getRoomNumber());
+
+        service.setUser(2, 1500);
+        BookingResult broke = service.tryBookRoom(2, 1, LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 3));
+        assertEquals(BookingResult.Status.INSUFFICIENT_BALANCE, broke.getStatus());
+        assertEquals(2000, broke.getRequired());
+        assertEquals(1500, broke.getAvailable());
+        assertTrue(broke.toException() instanceof InsufficientBalanceException);
+
+        assertEquals(BookingResult.Status.USER_NOT_FOUND,
+                service.tryBookRoom(9, 1, date(2026, 7, 1), date(2026, 7, 2)).getStatus());
+        assertEquals(BookingResult.Status.INVALID_DATES,
+                service.tryBookRoom(1, 1, (Date) null, null).getStatus());
+        assertEquals(1, service.getBookings().size());
+        assertEquals(96000, service.getUsers().get(0).getBalance());
+    }
+
+    public void testStacklessExceptionsCaptureNoStackTrace() throws HotelReservationException {
+        assertTrue(new RoomNotAvailableException(1).getStackTrace().length > 0);
+        service.bookRoom(1, 2, date(2026, 7, 1), date(2026, 7, 2));
+
+        HotelReservationException.setStackless(true);
+        try {
+            service.bookRoom(1, 2, date(2026, 7, 1), date(2026, 7, 2));
+            fail("Expected RoomNotAvailableException");
+        } catch (RoomNotAvailableException expected) {
+            assertEquals(0, expected.getStackTrace().length);
+        } finally {
+            HotelReservationException.setStackless(false);
+        }
+    }
+
+    public void testCancelRefundsAndFreesTheRoom() throws HotelReservationException {
+        service.bookRoom(1, 2, date(2026, 7, 1), date(2026, 7, 4));
+        service.bookRoom(1, 1, date(2026, 7, 1), date(2026, 7, 2));
+        assertEquals(100000 - 6000 - 1000, service.getUsers().get(0).getBalance());
+        ServiceSnapshot before = service.snapshot();
+
+        Booking cancelled = service.cancelBooking(1);
+        assertEquals(6000, cancelled.getTotalPrice());
+        assertEquals(100000 - 1000, service.getUsers().get(0).getBalance());
+        assertEquals(1, service.getBookingCount());
+        assertEquals("[2]", bookingIds(service.getBookings()));
+        assertEquals("[2]", bookingIds(service.findBookingsOfUser(1)));
+        assertNull(service.findBooking(1));
+        assertEquals(2, service.findBooking(2).getBookingId());
+
+        // The snapshot taken before still holds the booking and the balance before the refund.
+        assertEquals(2, before.getBookings().size());
+        assertEquals(100000 - 7000, before.getUsers().iterator().next().getBalance());
+        assertEquals(1, service.snapshot().getBookings().size());
+
+        service.bookRoom(1, 2, date(2026, 7, 2), date(2026, 7, 3));
+        assertEquals(3, service.findBooking(3).getBookingId());
+        try {
+            service.cancelBooking(1);
+            fail("Expected BookingNotFoundException");
+        } catch (BookingNotFoundException expected) {
+        }
+    }
+
+    public void testCompactionKeepsFindersCursorsAndIds() throws HotelReservationException, IOException {
+        for (int day = 1; day <= 20; day++) {
+            service.bookRoom(1, 1, date(2026, 8, day), date(2026, 8, day + 1));
+        }
+        for (int bookingId = 2; bookingId <= 20; bookingId += 2) {
+            service.cancelBooking(bookingId);
+        }
+        StringWriter firstPage = new StringWriter();
+        long cursor = service.export(ExportQuery.bookings().limit(3), ExportFormat.CSV, firstPage);
+        ServiceSnapshot before = service.snapshot();
+
+        assertEquals(10, service.compactBookings());
+        assertEquals(0, service.compactBookings());
+        assertEquals(10, service.getBookingCount());
+        assertEquals("[1, 3, 5, 7, 9, 11, 13, 15, 17, 19]", bookingIds(service.getBookings()));
+        assertEquals("[1, 3, 5, 7, 9, 11, 13, 15, 17, 19]", bookingIds(service.findBookingsOfUser(1)));
+        assertEquals("[5, 7]", bookingIds(service.findBookingsCheckingIn(
+                LocalDate.of(2026, 8, 4), LocalDate.of(2026, 8, 8))));
+        assertEquals(10, before.getBookings().size());
+
+        // A cursor handed out before compaction continues where it left off.
+        StringWriter nextPage = new StringWriter();
+        service.export(ExportQuery.bookings().after(cursor).limit(2), ExportFormat.CSV, nextPage);
+        assertTrue(firstPage.toString().contains("\n15,"));
+        assertTrue(nextPage.toString().startsWith("13,"));
+        assertTrue(nextPage.toString().contains("\n11,"));
+        assertEquals(2, nextPage.toString().split("\n").length);
+
+        service.cancelBooking(19);
+        service.bookRoom(1, 1, date(2026, 8, 20), date(2026, 8, 21));
+        assertEquals(21, service.findBooking(21).getBookingId());
+        assertEquals(1, service.compactBookings());
+        assertEquals("[1, 3, 5, 7, 9, 11, 13, 15, 17, 21]", bookingIds(service.getBookings()));
+    }
+
+    public void testConcurrentCancellationsAndBookingsStayConsistent() throws Exception {
+        service.setUser(1, 1000000);
+        service.setUser(2, 1000000);
+        LocalDate start = LocalDate.of(2027, 1, 1);
+        for (int night = 0; night < 400; night++) {
+            service.bookRoom(2, 2, start.plusDays(night), start.plusDays(night + 1));
+        }
+        Thread canceller = new Thread(() -> {
+            try {
+                for (int bookingId = 1; bookingId <= 400; bookingId++) {
+                    service.cancelBooking(bookingId);
+                    if (bookingId % 100 == 0) {
+                        service.compactBookings();
+                    }
+                }
+            } catch (BookingNotFoundException e) {
+                throw new AssertionError(e);
+            }
+        });
+        canceller.start();
+        for (int night = 0; night < 400; night++) {
+            service.tryBookRoom(1, 1, start.plusDays(night), start.plusDays(night + 1));
+        }
+        canceller.join();
+
+        assertEquals(400, service.getBookingCount());
+        assertEquals(1000000 - 400 * 1000, service.getUsers().get(0).getBalance());
+        assertEquals(1000000, service.getUsers().get(1).getBalance());
+        assertEquals(1, service.findAvailableRooms(RoomType.JUNIOR_SUITE, start, start.plusDays(400)).size());
+        service.compactBookings();
+        assertEquals(400, service.findBookingsOfUser(1).size());
+        assertEquals(0, service.findBookingsOfUser(2).size());
+    }
+
+    private static String roomNumbers(List<Room> rooms) {
+        List<Integer> numbers = new ArrayList<>();
+        for (Room room : rooms) {
+            numbers.add(room.getRoomNumber());
+        }
+        return numbers.toString();
+    }
+
+    private void assertNotAvailable(int roomNumber, Date checkIn, Date checkOut) throws HotelReservationException {
+        try {
+            service.bookRoom(1, roomNumber, checkIn, checkOut);
+            fail("Expected RoomNotAvailableException");
+        } catch (RoomNotAvailableException expected) {
+        }
+    }
+
+    private static String bookingIds(List<Booking> bookings) {
+        List<Integer> ids = new ArrayList<>();
+        for (Booking booking : bookings) {
+            ids.add(booking.getBookingId());
+        }
+        return ids.toString();
+    }
+
+    static Date date(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(year, month - 1, day, 0, 0, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotel.simulation;
+
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class SimulationTest extends TestCase {
+
+    public void testZipfFavoursLowRanks() {
+        ZipfDistribution uniform = new ZipfDistribution(10, 0);
+        assertEquals(0.1, uniform.probability(0), 1e-12);
+        assertEquals(0.1, uniform.probability(9), 1e-12);
+
+        ZipfDistribution skewed = new ZipfDistribution(1000, 1.0);
+        assertEquals(2.0, skewed.probability(0) / skewed.probability(1), 1e-9);
+        assertEquals(0, skewed.sample(0.0));
+        assertEquals(999, skewed.sample(Math.nextDown(1.0)));
+
+        Random random = new Random(1);
+        int[] draws = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            draws[skewed.sample(random.nextDouble())]++;
+        }
+        assertEquals(skewed.probability(0), draws[0] / 100_000.0, 0.01);
+        assertTrue(draws[0] > 10 * draws[99]);
+    }
+
+    public void testRunAccountsForEveryRequest() throws InterruptedException {
+        Service service = new Service();
+        SimulationConfig config = SimulationConfig.parse("rooms=50", "users=200", "clients=4", "requests=5000",
+                "--warmupRequests=1000", "balance=20000", "roomSkew=1.2", "horizonDays=60", "invalidDateRatio=0.05");
+        SimulationReport report = Simulation.run(service, config);
+
+        assertEquals(5000, report.getRequests());
+        assertEquals(5000, report.getBookingAttempts() + report.getSearches());
+        assertTrue(report.getSearches() > 0);
+        assertTrue(report.getCount(BookingResult.Status.BOOKED) > 0);
+        assertTrue(report.getCount(BookingResult.Status.ROOM_NOT_AVAILABLE) > 0);
+        assertTrue(report.getCount(BookingResult.Status.INVALID_DATES) > 0);
+        assertEquals(0, report.getCount(BookingResult.Status.USER_NOT_FOUND));
+        assertEquals(50, service.getRoomCount());
+
+        // Every booking of the measured run is in the service, after those of the warmup.
+        int warmupBookings = service.getBookingCount() - (int) report.getCount(BookingResult.Status.BOOKED);
+        assertTrue(warmupBookings > 0);
+
+        double ratios = 0;
+        for (BookingResult.Status status : BookingResult.Status.values()) {
+            ratios += report.getRatio(status);
+        }
+        assertEquals(1.0, ratios, 1e-9);
+        assertTrue(report.getLatency().getP50() <= report.getLatency().getP99());
+        assertTrue(report.getLatency().getP99() <= report.getLatency().getP999());
+
+        String json = report.toJson();
+        assertTrue(json.startsWith("{\"config\":{\"rooms\":50,\"users\":200,"));
+        assertTrue(json.contains("\"roomSkew\":1.200"));
+        assertTrue(json.contains("\"outcomes\":{\"BOOKED\":" + report.getCount(BookingResult.Status.BOOKED) + ","));
+        assertTrue(json.contains("\"latencyMicros\":{\"all\":{\"mean\":"));
+        assertFalse(json.contains("\n"));
+    }
+
+    public void testPacedRunTakesAsLongAsTheRateAllows() throws InterruptedException {
+        SimulationReport report = Simulation.run(SimulationConfig.defaults().rooms(10).users(10).clients(2)
+                .requests(200).warmupRequests(0).rate(1000));
+        assertTrue("Took " + report.getElapsedNanos(), report.getElapsedNanos() >= 190_000_000L);
+        assertTrue(report.getThroughput() <= 1100);
+    }
+
+    public void testRejectsUnknownAndInvalidOptions() {
+        for (String option : new String[]{"bogus=1", "rooms=0", "rooms=ten", "searchRatio=1.5", "rooms"}) {
+            try {
+                SimulationConfig.parse(option);
+                fail("Expected IllegalArgumentException for " + option);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotel.util;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIntMapTest extends TestCase {
+
+    public void testMatchesHashMapUnderRandomOperations() {
+        IntIntMap map = new IntIntMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(valueOrAbsent(expected.remove(key)), map.remove(key));
+            } else {
+                assertEquals(valueOrAbsent(expected.put(key, i)), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertTrue(map.containsKey(entry.getKey()));
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(IntIntMap.ABSENT, map.get(0));
+    }
+
+    public void testRejectsNegativeValues() {
+        try {
+            new IntIntMap().put(1, -1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static int valueOrAbsent(Integer value) {
+        return value == null ? IntIntMap.ABSENT : value;
+    }
+}
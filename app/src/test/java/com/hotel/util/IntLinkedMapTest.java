@@ -0,0 +1,46 @@
+package com.hotel.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+public class IntLinkedMapTest extends TestCase {
+
+    public void testMatchesLinkedHashMapUnderRandomOperations() {
+        IntLinkedMap<Integer> map = new IntLinkedMap<>();
+        LinkedHashMap<Integer, Integer> expected = new LinkedHashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Integer key : expected.keySet()) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(new ArrayList<>(expected.values()), map.values());
+    }
+
+    public void testNewestFirstIterationAndReinsertion() {
+        IntLinkedMap<String> map = new IntLinkedMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "c");
+        map.put(2, "b2");
+        map.remove(1);
+        map.put(1, "a2");
+
+        ArrayList<String> newestFirst = new ArrayList<>();
+        map.forEachNewestFirst(newestFirst::add);
+
+        assertEquals("[a2, c, b2]", newestFirst.toString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.hotel.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RingBufferTest extends TestCase {
+
+    public void testOffersUntilFullAndDrainsInOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(8));
+        assertEquals(8, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertTrue(buffer.offer(8));
+        assertEquals(6, buffer.drainTo(drained, 100));
+        assertEquals(0, buffer.drainTo(drained, 100));
+        assertTrue(buffer.isEmpty());
+        for (int i = 0; i <= 8; i++) {
+            assertEquals(i, drained.get(i).intValue());
+        }
+    }
+
+    public void testEvictsTheOldestWhenFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertNull(buffer.offerEvicting(i));
+        }
+        assertEquals(0, buffer.offerEvicting(4).intValue());
+        assertEquals(1, buffer.offerEvicting(5).intValue());
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+        assertEquals("[2, 3, 4, 5]", drained.toString());
+    }
+
+    public void testConsumerRacingEvictionsSeesAnIncreasingSuffixOfEachDrain() throws InterruptedException {
+        RingBuffer<Long> buffer = new RingBuffer<>(64);
+        long total = 2_000_000;
+        long[] evicted = new long[1];
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < total; i++) {
+                if (buffer.offerEvicting(i) != null) {
+                    evicted[0]++;
+                }
+            }
+        });
+        producer.start();
+
+        long received = 0;
+        long last = -1;
+        List<Long> batch = new ArrayList<>();
+        while (producer.isAlive() || !buffer.isEmpty()) {
+            batch.clear();
+            received += buffer.drainTo(batch, 16);
+            for (long value : batch) {
+                assertTrue(value > last);
+                last = value;
+            }
+        }
+        producer.join();
+        // Every element is either evicted or drained, never both and never twice.
+        assertEquals(total, received + evicted[0]);
+        assertEquals(total - 1, last);
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotel.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TimerWheelTest extends TestCase {
+
+    private static final long TICK = 10;
+
+    public void testFiresEachTimerWithinATickOfItsDeadline() {
+        long start = 1_000_000;
+        TimerWheel<Long> wheel = new TimerWheel<>(TICK, start);
+        Map<Long, TimerWheel.Timer<Long>> pending = new HashMap<>();
+        Random random = new Random(42);
+
+        // Deadlines up to a hundred million ticks out, past the four levels' 64^4, with a quarter cancelled.
+        for (long id = 0; id < 20_000; id++) {
+            long span = random.nextInt(4) == 0 ? 1_000_000_000L : 20_000;
+            long deadline = start + (long) (random.nextDouble() * span);
+            pending.put(id * 10_000_000_000L + deadline, wheel.schedule(id * 10_000_000_000L + deadline, deadline));
+        }
+        for (Map.Entry<Long, TimerWheel.Timer<Long>> entry : new ArrayList<>(pending.entrySet())) {
+            if (random.nextInt(4) == 0) {
+                assertTrue(wheel.cancel(entry.getValue()));
+                assertFalse(wheel.cancel(entry.getValue()));
+                pending.remove(entry.getKey());
+            }
+        }
+        assertEquals(pending.size(), wheel.size());
+
+        long now = start;
+        while (!pending.isEmpty()) {
+            now += random.nextInt(3) == 0 ? random.nextInt(5_000_000) : random.nextInt(50);
+            long time = now;
+            List<Long> due = new ArrayList<>();
+            int count = wheel.advance(time, due::add);
+            assertEquals(due.size(), count);
+            for (long value : due) {
+                long deadline = value % 10_000_000_000L;
+                assertTrue("Fired early", deadline <= time);
+                TimerWheel.Timer<Long> timer = pending.remove(value);
+                assertNotNull(timer);
+                assertFalse(timer.isPending());
+            }
+            for (Long value : pending.keySet()) {
+                assertTrue("Fired late", value % 10_000_000_000L > time - TICK);
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    public void testPastDeadlinesFireOnTheNextTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 500);
+        TimerWheel.Timer<String> timer = wheel.schedule("late", 100);
+        List<String> due = new ArrayList<>();
+
+        assertEquals(0, wheel.advance(509, due::add));
+        assertTrue(timer.isPending());
+        assertEquals(1, wheel.advance(510, due::add));
+        assertEquals("late", due.get(0));
+        assertFalse(wheel.cancel(timer));
+    }
+
+    public void testRejectsNonPositiveTicks() {
+        try {
+            new TimerWheel<String>(0, 0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hotel.benchmark;
+
+import com.hotel.analytics.OccupancyAnalytics;
+import com.hotel.analytics.OccupancyReport;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 30-night occupancy report read from the incremental rollups versus recomputed by a parallel scan of the store.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 10_000;
+
+    @Param({"100000", "1000000"})
+    private int existingBookings;
+
+    private Service service;
+    private OccupancyAnalytics analytics;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.service(ROOMS, USERS, existingBookings);
+        analytics = OccupancyAnalytics.attach(service);
+        from = LocalDate.ofEpochDay(Fixtures.FIRST_DAY);
+        to = from.plusDays(30);
+    }
+
+    @TearDown
+    public void tearDown() {
+        analytics.close();
+    }
+
+    @Benchmark
+    public OccupancyReport reportFromRollups() {
+        return analytics.report(from, to);
+    }
+
+    @Benchmark
+    public OccupancyReport recomputeInParallel() {
+        return OccupancyAnalytics.compute(service.snapshot(), from, to);
+    }
+}
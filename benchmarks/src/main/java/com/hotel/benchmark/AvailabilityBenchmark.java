@@ -0,0 +1,67 @@
+package com.hotel.benchmark;
+
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-room availability check behind every booking, against a growing number of existing bookings. The
+ * bookings are tried by a user with no balance: the check runs before the charge, so each call ends as
+ * ROOM_NOT_AVAILABLE or INSUFFICIENT_BALANCE and the state never changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 10_000;
+    private static final int BROKE_USER = USERS + 1;
+    private static final int QUERIES = 1 << 12;
+
+    @Param({"1000", "100000", "1000000"})
+    private int existingBookings;
+
+    private Service service;
+    private final int[] rooms = new int[QUERIES];
+    private final LocalDate[] checkIns = new LocalDate[QUERIES];
+    private final LocalDate[] checkOuts = new LocalDate[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.service(ROOMS, USERS, existingBookings);
+        service.setUser(BROKE_USER, 0);
+        // Queries land anywhere in the booked range, so about half of them hit a booked night.
+        int span = Fixtures.firstFreeDay(ROOMS, existingBookings) - Fixtures.FIRST_DAY;
+        Random random = new Random(42);
+        for (int i = 0; i < QUERIES; i++) {
+            rooms[i] = 1 + random.nextInt(ROOMS);
+            checkIns[i] = LocalDate.ofEpochDay(Fixtures.FIRST_DAY + random.nextInt(span));
+            checkOuts[i] = checkIns[i].plusDays(1);
+        }
+    }
+
+    @Benchmark
+    public BookingResult tryBookRoom() {
+        int i = next++ & (QUERIES - 1);
+        return service.tryBookRoom(BROKE_USER, rooms[i], checkIns[i], checkOuts[i]);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hotel.benchmark;
+
+import com.hotel.exception.HotelReservationException;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Service#bookRoom} and {@link Service#tryBookRoom} on the success path and on each failure path.
+ * The service is rebuilt before every iteration so successful bookings do not accumulate across iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookRoomBenchmark {
+
+    public enum Outcome {
+        BOOKED, USER_NOT_FOUND, ROOM_NOT_FOUND, ROOM_NOT_AVAILABLE, INSUFFICIENT_BALANCE, INVALID_DATES
+    }
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 10_000;
+
+    @Param({"BOOKED", "USER_NOT_FOUND", "ROOM_NOT_FOUND", "ROOM_NOT_AVAILABLE", "INSUFFICIENT_BALANCE",
+            "INVALID_DATES"})
+    private Outcome outcome;
+
+    @Param({"1000", "100000"})
+    private int existingBookings;
+
+    private Service service;
+    private int brokeUser;
+    private int firstFreeDay;
+    private LocalDate bookedNight;
+    private LocalDate bookedNightEnd;
+    private LocalDate freeNight;
+    private LocalDate freeNightEnd;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        service = Fixtures.service(ROOMS, USERS, existingBookings);
+        brokeUser = USERS + 1;
+        service.setUser(brokeUser, 0);
+        firstFreeDay = Fixtures.firstFreeDay(ROOMS, existingBookings);
+        bookedNight = LocalDate.ofEpochDay(Fixtures.FIRST_DAY);
+        bookedNightEnd = bookedNight.plusDays(1);
+        freeNight = LocalDate.ofEpochDay(firstFreeDay);
+        freeNightEnd = freeNight.plusDays(1);
+        next = 0;
+    }
+
+    @Benchmark
+    public Object bookRoom() {
+        int n = next++;
+        int user = 1 + n % USERS;
+        int room = 1 + n % ROOMS;
+        try {
+            switch (outcome) {
+                case BOOKED:
+                    LocalDate checkIn = LocalDate.ofEpochDay(firstFreeDay + n / ROOMS);
+                    service.bookRoom(user, room, checkIn, checkIn.plusDays(1));
+                    return null;
+                case USER_NOT_FOUND:
+                    service.bookRoom(-user, room, freeNight, freeNightEnd);
+                    break;
+                case ROOM_NOT_FOUND:
+                    service.bookRoom(user, -room, freeNight, freeNightEnd);
+                    break;
+                case ROOM_NOT_AVAILABLE:
+                    service.bookRoom(user, room, bookedNight, bookedNightEnd);
+                    break;
+                case INSUFFICIENT_BALANCE:
+                    service.bookRoom(brokeUser, room, freeNight, freeNightEnd);
+                    break;
+                case INVALID_DATES:
+                    service.bookRoom(user, room, freeNight, freeNight);
+                    break;
+                default:
+                    throw new AssertionError(outcome);
+            }
+        } catch (HotelReservationException e) {
+            return e;
+        }
+        throw new IllegalStateException("Expected " + outcome + " but the booking succeeded");
+    }
+
+    @Benchmark
+    public BookingResult tryBookRoom() {
+        int n = next++;
+        int user = 1 + n % USERS;
+        int room = 1 + n % ROOMS;
+        switch (outcome) {
+            case BOOKED:
+                LocalDate checkIn = LocalDate.ofEpochDay(firstFreeDay + n / ROOMS);
+                return service.tryBookRoom(user, room, checkIn, checkIn.plusDays(1));
+            case USER_NOT_FOUND:
+                return service.tryBookRoom(-user, room, freeNight, freeNightEnd);
+            case ROOM_NOT_FOUND:
+                return service.tryBookRoom(user, -room, freeNight, freeNightEnd);
+            case ROOM_NOT_AVAILABLE:
+                return service.tryBookRoom(user, room, bookedNight, bookedNightEnd);
+            case INSUFFICIENT_BALANCE:
+                return service.tryBookRoom(brokeUser, room, freeNight, freeNightEnd);
+            case INVALID_DATES:
+                return service.tryBookRoom(user, room, freeNight, freeNight);
+            default:
+                throw new AssertionError(outcome);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotel.benchmark;
+
+import com.hotel.entities.BookingStore;
+import com.hotel.entities.RoomType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap per booking: fills a fresh booking store with millions of rows. The GC profiler's gc.alloc.rate.norm over
+ * the row count is what appending allocates per booking, growth copies included. The heap the filled store
+ * retains after a full GC is printed per booking after each iteration, which fails if it exceeds 100 bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookingStoreFootprintBenchmark {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    // 44 bytes per row plus up to 2x slack from doubling growth, versus 150+ bytes for a Booking object graph.
+    private static final long MAX_RETAINED_BYTES_PER_BOOKING = 100;
+
+    @Param({"5000000"})
+    private int bookings;
+
+    private long heapBefore;
+    private BookingStore store;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        store = null;
+        heapBefore = usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public BookingStore fill() {
+        BookingStore filled = new BookingStore();
+        for (int i = 0; i < bookings; i++) {
+            int checkIn = i % 365;
+            filled.append(i + 1, i % 100_000, i % 10_000, RoomType.STANDARD_SUITE, 1000, 50_000,
+                    checkIn, checkIn + 2, checkIn * DAY);
+        }
+        store = filled;
+        return filled;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        long retainedPerBooking = (usedHeapAfterGc() - heapBefore) / bookings;
+        System.out.println("Retained heap bytes per booking: " + retainedPerBooking + " (columns "
+                + store.footprintBytes() / bookings + ")");
+        if (retainedPerBooking > MAX_RETAINED_BYTES_PER_BOOKING) {
+            throw new IllegalStateException("Retained heap bytes per booking: " + retainedPerBooking);
+        }
+        store = null;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,94 @@
+package com.hotel.benchmark;
+
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.persistence.BulkImport;
+import com.hotel.persistence.ImportReport;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Migration time: imports CSV exports of rooms, users and bookings into an empty service with
+ * {@link BulkImport}, against restoring the same records one at a time. The import prints its records per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BulkImportBenchmark {
+
+    private static final int ROOMS = 10_000;
+    private static final int USERS = 200_000;
+
+    @Param({"1000000"})
+    private int bookings;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    private Path directory;
+    private Path roomsFile;
+    private Path usersFile;
+    private Path bookingsFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("hotel-import-benchmark");
+        Service service = Fixtures.service(ROOMS, USERS, bookings);
+        roomsFile = export(service, ExportQuery.rooms(), "rooms.csv");
+        usersFile = export(service, ExportQuery.users(), "users.csv");
+        bookingsFile = export(service, ExportQuery.bookings(), "bookings.csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Service bulkImport() throws IOException {
+        Service service = new Service(null);
+        ImportReport report = BulkImport.csv(roomsFile, usersFile, bookingsFile).threads(threads).into(service);
+        System.out.println(report.toJson());
+        return service;
+    }
+
+    @Benchmark
+    public Service restoreOneByOne() {
+        Service service = new Service(null);
+        Fixtures.populate(service, ROOMS, USERS, bookings);
+        return service;
+    }
+
+    private Path export(Service service, ExportQuery query, String name) throws IOException {
+        Path file = directory.resolve(name);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            service.export(query.limit(Integer.MAX_VALUE), ExportFormat.CSV, out);
+        }
+        return file;
+    }
+}
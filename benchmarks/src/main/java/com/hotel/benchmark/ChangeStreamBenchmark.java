@@ -0,0 +1,76 @@
+package com.hotel.benchmark;
+
+import com.hotel.events.ChangeStream;
+import com.hotel.exception.BookingNotFoundException;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cost of change data capture on the booking path: booking and cancelling a stay publishes four events. The
+ * consumer sleeps a millisecond per batch, so it falls behind and the stream drops events; publishing never waits
+ * for it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeStreamBenchmark {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 1000;
+
+    @Param({"NONE", "DROP_OLDEST", "DROP_NEWEST"})
+    private String backpressure;
+
+    private Service service;
+    private ChangeStream stream;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.service(ROOMS, USERS, 0);
+        checkIn = LocalDate.ofEpochDay(Fixtures.FIRST_DAY);
+        checkOut = checkIn.plusDays(1);
+        if (!backpressure.equals("NONE")) {
+            stream = new ChangeStream(service, batch -> LockSupport.parkNanos(1_000_000),
+                    ChangeStream.DEFAULT_CAPACITY, ChangeStream.DEFAULT_MAX_BATCH_SIZE,
+                    ChangeStream.Backpressure.valueOf(backpressure));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (stream != null) {
+            System.out.println("dropped " + stream.getDroppedCount() + " of " + stream.getLastSequence());
+            stream.close();
+        }
+    }
+
+    @Benchmark
+    public BookingResult bookAndCancel() throws BookingNotFoundException {
+        int n = next++;
+        BookingResult result = service.tryBookRoom(1 + n % USERS, 1 + n % ROOMS, checkIn, checkOut);
+        service.cancelBooking(result.getBookingId());
+        return result;
+    }
+}
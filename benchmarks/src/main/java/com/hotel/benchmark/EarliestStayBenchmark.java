@@ -0,0 +1,58 @@
+package com.hotel.benchmark;
+
+import com.hotel.entities.RoomType;
+import com.hotel.exception.InvalidDateException;
+import com.hotel.service.AvailableStay;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Earliest stays of a few nights over a year of bookings in 10,000 rooms. The fixture books every other night, so
+ * no stay of two or more nights is free before the last booking and each search scans the whole year.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EarliestStayBenchmark {
+
+    private static final int ROOMS = 10_000;
+    private static final int BOOKINGS = 1_800_000;
+
+    @Param({"1", "3", "7"})
+    private int nights;
+
+    @Param({"1", "100"})
+    private int limit;
+
+    private Service service;
+    private LocalDate from;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = Fixtures.service(ROOMS, ROOMS, BOOKINGS);
+        from = LocalDate.ofEpochDay(Fixtures.FIRST_DAY);
+    }
+
+    @Benchmark
+    public List<AvailableStay> findEarliestStays() throws InvalidDateException {
+        return service.findEarliestStays(RoomType.JUNIOR_SUITE, from, nights, limit);
+    }
+}
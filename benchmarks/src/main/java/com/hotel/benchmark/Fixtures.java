@@ -0,0 +1,71 @@
+package com.hotel.benchmark;
+
+import com.hotel.entities.Booking;
+import com.hotel.entities.Room;
+import com.hotel.entities.RoomType;
+import com.hotel.entities.User;
+import com.hotel.service.Service;
+import com.hotel.util.EpochDays;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+
+/**
+ * Builds services pre-loaded with a deterministic data set.
+ * Room r holds one-night bookings on every other day starting at {@link #FIRST_DAY}, so the booked nights of a
+ * room are FIRST_DAY, FIRST_DAY + 2, ... and the nights in between are free.
+ */
+public final class Fixtures {
+
+    public static final int FIRST_DAY = EpochDays.of(LocalDate.of(2026, 1, 1));
+    public static final int RICH_BALANCE = Integer.MAX_VALUE / 2;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private Fixtures() {
+    }
+
+    public static Service service(int rooms, int users, int bookings) {
+        Service service = new Service();
+        populate(service, rooms, users, bookings);
+        return service;
+    }
+
+    public static void populate(Service service, int rooms, int users, int bookings) {
+        for (int room = 1; room <= rooms; room++) {
+            service.restoreRoom(new Room(room, roomType(room), 1000));
+        }
+        for (int user = 1; user <= users; user++) {
+            service.restoreUser(new User(user, RICH_BALANCE));
+        }
+        long bookingDate = System.currentTimeMillis();
+        for (int i = 0; i < bookings; i++) {
+            int room = 1 + i % rooms;
+            int checkIn = FIRST_DAY + (i / rooms) * 2;
+            service.restoreBooking(new Booking(i + 1, 1 + i % users, room, roomType(room), 1000, 0,
+                    checkIn, checkIn + 1, bookingDate));
+        }
+    }
+
+    public static RoomType roomType(int roomNumber) {
+        return ROOM_TYPES[roomNumber % ROOM_TYPES.length];
+    }
+
+    // First day after the last booked night of every room.
+    public static int firstFreeDay(int rooms, int bookings) {
+        return FIRST_DAY + ((bookings + rooms - 1) / rooms) * 2;
+    }
+
+    public static PrintStream nullSink() {
+        return new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.hotel.benchmark;
+
+import com.hotel.exception.HotelReservationException;
+import com.hotel.service.Hold;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placing and releasing a hold with none or a million other holds outstanding. The timer wheel keeps the expiry
+ * bookkeeping constant; what grows is the availability check, as each room then has a thousand held stays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HoldBenchmark {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 10_000;
+    private static final Duration TIME_TO_LIVE = Duration.ofHours(1);
+
+    @Param({"0", "1000000"})
+    private int outstandingHolds;
+
+    private Service service;
+    private int firstFreeDay;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws HotelReservationException {
+        service = Fixtures.service(ROOMS, USERS, 0);
+        // Outstanding holds take the first nights of every room; the benchmark holds the night after them.
+        int day = Fixtures.firstFreeDay(ROOMS, 0);
+        for (int i = 0; i < outstandingHolds; i++) {
+            LocalDate checkIn = LocalDate.ofEpochDay(day + i / ROOMS);
+            service.holdRoom(1 + i % USERS, 1 + i % ROOMS, checkIn, checkIn.plusDays(1), TIME_TO_LIVE);
+        }
+        firstFreeDay = day + outstandingHolds / ROOMS + 1;
+    }
+
+    @Benchmark
+    public boolean holdAndRelease() throws HotelReservationException {
+        int n = next++;
+        LocalDate checkIn = LocalDate.ofEpochDay(firstFreeDay);
+        Hold hold = service.holdRoom(1 + n % USERS, 1 + n % ROOMS, checkIn, checkIn.plusDays(1), TIME_TO_LIVE);
+        return service.releaseHold(hold.getHoldId());
+    }
+}
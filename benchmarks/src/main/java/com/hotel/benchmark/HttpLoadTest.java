@@ -0,0 +1,114 @@
+package com.hotel.benchmark;
+
+import com.hotel.http.HotelHttpServer;
+import com.hotel.metrics.LatencyHistogram;
+import com.hotel.service.Service;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the HTTP API against localhost: keeps a fixed number of requests in flight, each on its own
+ * connection, against an in-process server with a populated service, and reports throughput, latency
+ * percentiles and status codes. Half the requests book a random room and night, the rest read a user or
+ * search for available rooms.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.hotel.benchmark.HttpLoadTest [concurrency] [requests]}
+ */
+public class HttpLoadTest {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 10_000;
+    private static final int BOOKINGS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        Service service = Fixtures.service(ROOMS, USERS, BOOKINGS);
+        LocalDate firstFreeDay = LocalDate.ofEpochDay(Fixtures.firstFreeDay(ROOMS, BOOKINGS));
+        try (HotelHttpServer server = HotelHttpServer.start(service, new InetSocketAddress("127.0.0.1", 0))) {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            System.out.println("Server on " + base + (server.isUsingVirtualThreads()
+                    ? " with virtual threads" : " with a thread pool") + "; " + concurrency
+                    + " concurrent requests, " + requests + " in total");
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            run(client, base, firstFreeDay, concurrency, Math.min(requests, concurrency * 5), null);
+
+            LatencyHistogram latencies = new LatencyHistogram();
+            Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+            long start = System.nanoTime();
+            run(client, base, firstFreeDay, concurrency, requests, (status, nanos) -> {
+                latencies.record(nanos);
+                statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+            });
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%.0f requests/s over %.1f s%n", requests / seconds, seconds);
+            System.out.printf("latency ms: mean %.2f, p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    latencies.getMean() / 1e6, latencies.getValueAtPercentile(50) / 1e6,
+                    latencies.getValueAtPercentile(99) / 1e6, latencies.getValueAtPercentile(99.9) / 1e6,
+                    latencies.getMax() / 1e6);
+            // -1 counts transport failures, mostly pooled keep-alive connections the server closed under load.
+            System.out.println("statuses: " + new TreeMap<>(statuses));
+        }
+    }
+
+    private interface Recorder {
+        void record(int status, long nanos);
+    }
+
+    private static void run(HttpClient client, String base, LocalDate firstFreeDay, int concurrency, int requests,
+            Recorder recorder) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(request(base, firstFreeDay), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        if (recorder != null) {
+                            recorder.record(failure == null ? response.statusCode() : -1, System.nanoTime() - start);
+                        }
+                        inFlight.release();
+                    });
+        }
+        if (!inFlight.tryAcquire(concurrency, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Requests did not complete within a minute");
+        }
+    }
+
+    private static HttpRequest request(String base, LocalDate firstFreeDay) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (random.nextInt(4)) {
+            case 0:
+            case 1: {
+                LocalDate checkIn = firstFreeDay.plusDays(random.nextInt(365));
+                String body = "{\"userId\":" + (1 + random.nextInt(USERS)) + ",\"roomNumber\":"
+                        + (1 + random.nextInt(ROOMS)) + ",\"checkIn\":\"" + checkIn + "\",\"checkOut\":\""
+                        + checkIn.plusDays(1 + random.nextInt(3)) + "\"}";
+                return HttpRequest.newBuilder(URI.create(base + "/bookings"))
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            }
+            case 2:
+                return HttpRequest.newBuilder(URI.create(base + "/users/" + (1 + random.nextInt(USERS)))).build();
+            default: {
+                LocalDate checkIn = firstFreeDay.plusDays(random.nextInt(365));
+                return HttpRequest.newBuilder(URI.create(base + "/rooms/available?roomType="
+                        + Fixtures.roomType(1 + random.nextInt(ROOMS)).name() + "&checkIn=" + checkIn
+                        + "&checkOut=" + checkIn.plusDays(1))).build();
+            }
+        }
+    }
+}
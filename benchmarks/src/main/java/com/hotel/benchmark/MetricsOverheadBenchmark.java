@@ -0,0 +1,68 @@
+package com.hotel.benchmark;
+
+import com.hotel.metrics.LatencyHistogram;
+import com.hotel.metrics.SimpleMetricsRegistry;
+import com.hotel.service.BookingResult;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the built-in metrics: the same calls against a service with and without a metrics registry.
+ * The difference between the two settings of {@code metrics} is the per-call recording overhead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 1000;
+
+    @Param({"true", "false"})
+    private boolean metrics;
+
+    private Service service;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private LocalDate bookedNight;
+    private LocalDate bookedNightEnd;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = new Service(metrics ? new SimpleMetricsRegistry() : null);
+        Fixtures.populate(service, ROOMS, USERS, ROOMS);
+        bookedNight = LocalDate.ofEpochDay(Fixtures.FIRST_DAY);
+        bookedNightEnd = bookedNight.plusDays(1);
+    }
+
+    @Benchmark
+    public BookingResult rejectedBooking() {
+        return service.tryBookRoom(1 + next % USERS, 1 + next++ % ROOMS, bookedNight, bookedNightEnd);
+    }
+
+    @Benchmark
+    public void setUser() {
+        service.setUser(1 + next++ % USERS, Fixtures.RICH_BALANCE);
+    }
+
+    @Benchmark
+    public void recordLatency() {
+        histogram.record(next++ & 0xFFFF);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hotel.benchmark;
+
+import com.hotel.exception.HotelReservationException;
+import com.hotel.persistence.Persistence;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup time: recovers a service from a snapshot plus a journal tail of live bookings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RecoveryBenchmark {
+
+    private static final int ROOMS = 10_000;
+    private static final int USERS = 100_000;
+
+    @Param({"100000", "1000000"})
+    private int snapshotBookings;
+
+    @Param({"100000"})
+    private int journalBookings;
+
+    private Path directory;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException, HotelReservationException {
+        directory = Files.createTempDirectory("hotel-recovery-benchmark");
+        Service service = new Service();
+        Persistence persistence = Persistence.open(directory, service);
+        Fixtures.populate(service, ROOMS, USERS, snapshotBookings);
+        persistence.snapshot();
+
+        int firstFreeDay = Fixtures.firstFreeDay(ROOMS, snapshotBookings);
+        for (int i = 0; i < journalBookings; i++) {
+            LocalDate checkIn = LocalDate.ofEpochDay(firstFreeDay + (i / ROOMS) * 2);
+            service.bookRoom(1 + i % USERS, 1 + i % ROOMS, checkIn, checkIn.plusDays(1));
+        }
+        persistence.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Service recover() throws IOException {
+        Service recovered = new Service();
+        Persistence.open(directory, recovered).close();
+        if (recovered.getBookings().size() != snapshotBookings + journalBookings) {
+            throw new IllegalStateException("Recovered " + recovered.getBookings().size() + " bookings");
+        }
+        return recovered;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hotel.benchmark;
+
+import com.hotel.entities.Room;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Service#setRoom} and {@link Service#setUser} upserts of already registered rooms and users, and
+ * {@link Service#findRoomAt} lookups into rooms with {@value #VERSIONS} versions each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryBenchmark {
+
+    static final int VERSIONS = 64;
+
+    @Param({"1000", "100000"})
+    private int registered;
+
+    private Service service;
+    private Date midway;
+    private int next;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        service = Fixtures.service(registered, registered, 0);
+        for (int version = 1; version < VERSIONS; version++) {
+            if (version == VERSIONS / 2) {
+                Thread.sleep(2);
+                midway = new Date();
+                Thread.sleep(2);
+            }
+            for (int room = 1; room <= registered; room++) {
+                service.setRoom(room, Fixtures.roomType(room), 1000 + version);
+            }
+        }
+    }
+
+    @Benchmark
+    public void setRoom() {
+        int room = 1 + next++ % registered;
+        service.setRoom(room, Fixtures.roomType(room), 1000 + (next & 1));
+    }
+
+    @Benchmark
+    public Room findRoomAt() {
+        return service.findRoomAt(1 + next++ % registered, midway);
+    }
+
+    @Benchmark
+    public void setUser() {
+        service.setUser(1 + next++ % registered, Fixtures.RICH_BALANCE - (next & 1));
+    }
+}
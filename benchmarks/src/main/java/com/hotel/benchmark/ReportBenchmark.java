@@ -0,0 +1,94 @@
+package com.hotel.benchmark;
+
+import com.hotel.entities.Booking;
+import com.hotel.exception.InvalidDateException;
+import com.hotel.export.ExportFormat;
+import com.hotel.export.ExportQuery;
+import com.hotel.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reporting paths: copying all bookings, paging a snapshot, indexed booking queries, and printing or exporting everything to sinks that discard their output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final int ROOMS = 1000;
+    private static final int USERS = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int existingBookings;
+
+    private Service service;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.service(ROOMS, USERS, existingBookings);
+        originalOut = System.out;
+        System.setOut(Fixtures.nullSink());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public List<Booking> getBookings() {
+        return service.getBookings();
+    }
+
+    @Benchmark
+    public List<Booking> snapshotNewestBookings() {
+        return service.snapshot().getBookings().newestFirst().page(0, 50);
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsOfUser() {
+        return service.findBookingsOfUser(USERS / 2);
+    }
+
+    @Benchmark
+    public List<Booking> findBookingsCheckingInOnOneDay() throws InvalidDateException {
+        LocalDate day = LocalDate.ofEpochDay(Fixtures.FIRST_DAY + 2);
+        return service.findBookingsCheckingIn(day, day.plusDays(1));
+    }
+
+    @Benchmark
+    public void printAll() {
+        service.printAll();
+    }
+
+    @Benchmark
+    public long exportBookingsCsv() throws IOException {
+        return service.export(ExportQuery.bookings(), ExportFormat.CSV, Fixtures.nullSink());
+    }
+
+    @Benchmark
+    public long exportBookingsJsonLines() throws IOException {
+        return service.export(ExportQuery.bookings(), ExportFormat.JSON_LINES, Fixtures.nullSink());
+    }
+}
@@ -1,7 +0,0 @@
-package com.hotel.exception;
-
-public abstract class HotelReservationException extends Exception {
-    public HotelReservationException(String message) {
-        super(message);
-    }
-}